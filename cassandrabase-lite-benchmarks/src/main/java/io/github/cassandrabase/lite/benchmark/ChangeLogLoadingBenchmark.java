@@ -0,0 +1,56 @@
+package io.github.cassandrabase.lite.benchmark;
+
+import io.github.cassandrabase.lite.loader.ChangeLogLoader;
+import io.github.cassandrabase.lite.model.CassandraConfigs;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import org.openjdk.jmh.annotations.*;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Loading the changelogs from the classpath, which is what the {@code Cassandrabase} constructor does without a
+ * precompiled snapshot: XSD validation, JAXB unmarshalling, statement normalization and the duplicate checks. A
+ * streamed changeLog is only opened by {@code load}, so {@link #loadAndStream} reads it once as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChangeLogLoadingBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int changeSets;
+
+    @Param({"false", "true"})
+    private boolean streaming;
+
+    private SyntheticChangeLogs syntheticChangeLogs;
+
+    @Setup
+    public void setUp() {
+        syntheticChangeLogs = SyntheticChangeLogs.write(changeSets, streaming);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        syntheticChangeLogs.close();
+    }
+
+    @Benchmark
+    public CassandraConfigs load() throws SAXException {
+        return ChangeLogLoader.load(syntheticChangeLogs.getClassLoader());
+    }
+
+    @Benchmark
+    public long loadAndStream() throws SAXException {
+        final CassandraConfigs cassandraConfigs = ChangeLogLoader.load(syntheticChangeLogs.getClassLoader());
+        try (Stream<ChangeSet> changeSets = cassandraConfigs.getChangeLog().streamChangeSets()) {
+            return changeSets.count();
+        }
+    }
+}
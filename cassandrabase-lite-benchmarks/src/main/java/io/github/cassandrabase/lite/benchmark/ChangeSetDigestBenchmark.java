@@ -0,0 +1,85 @@
+package io.github.cassandrabase.lite.benchmark;
+
+import io.github.cassandrabase.lite.digest.MerkleTree;
+import io.github.cassandrabase.lite.util.HashGen;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement normalization and changeSet digests. {@link #normalize} is the cost of building the changeSets, which
+ * {@link #digest} includes, so the difference of the two is the hashing itself; {@link #cachedMd5} is what every
+ * later {@code getMd5Sum()} costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChangeSetDigestBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int changeSets;
+
+    @Param({"MD5", "SHA256", "MURMUR3_128"})
+    private HashGen.ALGType algType;
+
+    private List<String> statements;
+    private List<ChangeSet> hashed;
+
+    @Setup
+    public void setUp() {
+        statements = new ArrayList<>(changeSets);
+        hashed = new ArrayList<>(changeSets);
+        for (int order = 1; order <= changeSets; order++) {
+            final String statement = """
+                    INSERT INTO table_%d (id, bucket, name)
+                                VALUES (%d, %d, 'name %d')""".formatted(order / 10, order, order % 7, order);
+            statements.add(statement);
+            final ChangeSet changeSet = changeSet(order, statement);
+            changeSet.getMd5Sum();
+            changeSet.getDigest(algType);
+            hashed.add(changeSet);
+        }
+    }
+
+    @Benchmark
+    public void normalize(Blackhole blackhole) {
+        for (int i = 0; i < statements.size(); i++) {
+            blackhole.consume(changeSet(i + 1, statements.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void digest(Blackhole blackhole) {
+        for (int i = 0; i < statements.size(); i++) {
+            blackhole.consume(changeSet(i + 1, statements.get(i)).getDigest(algType));
+        }
+    }
+
+    @Benchmark
+    public void cachedMd5(Blackhole blackhole) {
+        for (ChangeSet changeSet : hashed) {
+            blackhole.consume(changeSet.getMd5Sum());
+        }
+    }
+
+    @Benchmark
+    public String merkleRoot() {
+        return MerkleTree.of(hashed.stream(), algType).getRootHash();
+    }
+
+    private static ChangeSet changeSet(int order, String statement) {
+        final ChangeSet changeSet = new ChangeSet();
+        changeSet.setId("change-" + order);
+        changeSet.setAuthor("benchmark");
+        changeSet.setOrder(order);
+        changeSet.setStatement(statement);
+        return changeSet;
+    }
+}
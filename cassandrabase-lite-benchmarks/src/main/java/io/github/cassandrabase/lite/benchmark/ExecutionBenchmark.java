@@ -0,0 +1,71 @@
+package io.github.cassandrabase.lite.benchmark;
+
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.exception.CassandrabaseException;
+import io.github.cassandrabase.lite.model.ExecutionOptions;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full {@code validate} against a {@link StubCqlSession} that answers after {@code latencyMicros}: lock, history
+ * lookups, the changeSets and their history writes. Each invocation runs on a new {@code Cassandrabase} (created
+ * outside the measurement) and an empty history, so every changeSet is applied.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int changeSets;
+
+    @Param({"0", "500"})
+    private long latencyMicros;
+
+    @Param({"SERIAL", "PARALLEL", "SCHEMA_AGREEMENT_PIPELINED"})
+    private ExecutionMode executionMode;
+
+    @Param({"false", "true"})
+    private boolean batching;
+
+    private SyntheticChangeLogs syntheticChangeLogs;
+    private StubCqlSession stubCqlSession;
+    private Cassandrabase cassandrabase;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        syntheticChangeLogs = SyntheticChangeLogs.write(changeSets, false);
+        stubCqlSession = new StubCqlSession(latencyMicros);
+    }
+
+    @Setup(Level.Invocation)
+    public void newCassandrabase() throws CassandrabaseException {
+        cassandrabase = new Cassandrabase(stubCqlSession.create("benchmark"), "benchmark", syntheticChangeLogs.getClassObject(), SyntheticChangeLogs.properties());
+        final ExecutionOptions executionOptions = new ExecutionOptions();
+        executionOptions.setBatching(batching);
+        executionOptions.setSchemaAgreementInterval(Duration.ofMillis(1));
+        cassandrabase.setExecutionOptions(executionOptions);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeCassandrabase() {
+        cassandrabase.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        syntheticChangeLogs.close();
+    }
+
+    @Benchmark
+    public void validate() {
+        cassandrabase.validate(executionMode);
+    }
+}
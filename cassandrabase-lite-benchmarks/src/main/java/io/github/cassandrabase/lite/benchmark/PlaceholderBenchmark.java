@@ -0,0 +1,57 @@
+package io.github.cassandrabase.lite.benchmark;
+
+import io.github.cassandrabase.lite.loader.ChangeLogLoader;
+import io.github.cassandrabase.lite.model.CassandraConfigs;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import org.openjdk.jmh.annotations.*;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Placeholder substitution of {@link ChangeLogLoader#setProperties(CassandraConfigs, Properties)}. Substitution
+ * replaces the statements, so every invocation first puts the statements with placeholders back;
+ * {@link #restore} measures that part alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaceholderBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int changeSets;
+
+    private CassandraConfigs cassandraConfigs;
+    private List<String> statements;
+    private Properties properties;
+
+    @Setup
+    public void setUp() throws SAXException, IOException {
+        try (SyntheticChangeLogs syntheticChangeLogs = SyntheticChangeLogs.write(changeSets, false)) {
+            cassandraConfigs = ChangeLogLoader.load(syntheticChangeLogs.getClassLoader());
+        }
+        statements = cassandraConfigs.getChangeLog().getChangeSets().stream().map(ChangeSet::getStatement).toList();
+        properties = SyntheticChangeLogs.properties();
+    }
+
+    @Benchmark
+    public CassandraConfigs restore() {
+        final List<ChangeSet> changeSets = cassandraConfigs.getChangeLog().getChangeSets();
+        for (int i = 0; i < changeSets.size(); i++) {
+            changeSets.get(i).setStatement(statements.get(i));
+        }
+        return cassandraConfigs;
+    }
+
+    @Benchmark
+    public CassandraConfigs setProperties() {
+        ChangeLogLoader.setProperties(this.restore(), properties);
+        return cassandraConfigs;
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.cassandrabase.lite.benchmark;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link CqlSession} that answers every statement after a fixed latency without a cluster: writes and lightweight
+ * transactions are applied, reads find nothing and the schema is always in agreement. Synchronous calls park the
+ * calling thread for the latency, asynchronous calls complete on a delayed executor, so the serial and parallel
+ * execution paths pay for the round trips the way they would against a real cluster.
+ */
+final class StubCqlSession {
+    private final long latencyNanos;
+    private final Executor delayedExecutor;
+    private final AtomicLong statements = new AtomicLong();
+
+    StubCqlSession(long latencyMicros) {
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+        this.delayedExecutor = CompletableFuture.delayedExecutor(latencyMicros, TimeUnit.MICROSECONDS);
+    }
+
+    CqlSession create(String keyspace) {
+        return proxy(CqlSession.class, (proxy, method, args) -> switch (method.getName()) {
+            case "execute" -> {
+                this.statements.incrementAndGet();
+                if (this.latencyNanos > 0) {
+                    LockSupport.parkNanos(this.latencyNanos);
+                }
+                yield proxy(ResultSet.class, StubCqlSession::emptyResult);
+            }
+            case "executeAsync" -> {
+                this.statements.incrementAndGet();
+                yield this.later(proxy(AsyncResultSet.class, StubCqlSession::emptyResult));
+            }
+            case "checkSchemaAgreementAsync" -> this.later(true);
+            case "checkSchemaAgreement" -> true;
+            case "getKeyspace" -> Optional.of(CqlIdentifier.fromInternal(keyspace));
+            case "getName" -> "stub";
+            case "isClosed" -> false;
+            case "close", "closeAsync", "forceCloseAsync" -> CompletableFuture.completedFuture(null);
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "StubCqlSession";
+            default -> throw new UnsupportedOperationException("Not supported by the benchmark session : " + method.getName());
+        });
+    }
+
+    long getStatements() {
+        return statements.get();
+    }
+
+    private <T> CompletionStage<T> later(T value) {
+        if (this.latencyNanos == 0) {
+            return CompletableFuture.completedFuture(value);
+        }
+        return CompletableFuture.supplyAsync(() -> value, this.delayedExecutor);
+    }
+
+    // wasApplied() is true, one() is null, iteration finds no rows
+    private static Object emptyResult(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "wasApplied", "isFullyFetched" -> true;
+            case "hasMorePages" -> false;
+            case "getAvailableWithoutFetching", "remaining" -> 0;
+            case "iterator" -> Collections.emptyIterator();
+            case "currentPage", "all", "getExecutionInfos" -> List.of();
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "StubResultSet";
+            default -> null;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StubCqlSession.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
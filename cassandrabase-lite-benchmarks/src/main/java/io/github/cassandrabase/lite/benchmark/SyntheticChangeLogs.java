@@ -0,0 +1,114 @@
+package io.github.cassandrabase.lite.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Writes a {@code db/} directory with a changelog of the given size and exposes it as a class loader, the way the
+ * changelogs of an application are found on its classpath. Every tenth changeSet creates a table and the others
+ * insert into one of the tables created so far, so the dependency graph has both chains and independent branches.
+ * Statements are spread over several lines and carry placeholders, like hand-written changelogs do.
+ */
+final class SyntheticChangeLogs implements AutoCloseable {
+    static final String PLACEHOLDER = "comment";
+    private static final int TABLE_EVERY = 10;
+    private final Path directory;
+    private final URLClassLoader classLoader;
+
+    private SyntheticChangeLogs(Path directory) throws IOException {
+        this.directory = directory;
+        this.classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, SyntheticChangeLogs.class.getClassLoader());
+    }
+
+    static SyntheticChangeLogs write(int size, boolean streaming) {
+        try {
+            final Path directory = Files.createTempDirectory("cassandrabase-benchmark");
+            final Path db = Files.createDirectories(directory.resolve("db"));
+            Files.writeString(db.resolve("changeset-config.xml"), """
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <cassandraBaseConfig>
+                        <majorVersion>1</majorVersion>
+                        <preChangeLog path="pre-changelog.xml"/>
+                        <changeLog path="changelog.xml" streaming="%s"/>
+                    </cassandraBaseConfig>
+                    """.formatted(streaming), StandardCharsets.UTF_8);
+            Files.writeString(db.resolve("pre-changelog.xml"), """
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <changeLog>
+                        <changeSet id="lock" author="benchmark" order="1" consistencyLevel="ALL">
+                            <statement>CREATE TABLE IF NOT EXISTS changelog_lock (id text, major_version int, locked boolean,
+                                lock_time timestamp, locked_by text, PRIMARY KEY (id, major_version))</statement>
+                        </changeSet>
+                    </changeLog>
+                    """, StandardCharsets.UTF_8);
+            try (Writer writer = Files.newBufferedWriter(db.resolve("changelog.xml"), StandardCharsets.UTF_8)) {
+                writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<changeLog>\n");
+                for (int order = 1; order <= size; order++) {
+                    writer.write(changeSet(order));
+                }
+                writer.write("</changeLog>\n");
+            }
+            return new SyntheticChangeLogs(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String changeSet(int order) {
+        final int table = (order - 1) / TABLE_EVERY;
+        final String statement = (order - 1) % TABLE_EVERY == 0
+                ? """
+                CREATE TABLE IF NOT EXISTS table_%d (
+                            id int,
+                            bucket int,
+                            name text,
+                            PRIMARY KEY ((id), bucket)
+                        ) WITH comment = '${%s}'""".formatted(table, PLACEHOLDER)
+                : """
+                INSERT INTO table_%d (id, bucket, name)
+                            VALUES (%d, %d, '${%s} %d')""".formatted(table, order, order % 7, PLACEHOLDER, order);
+        return """
+                    <changeSet id="change-%d" author="benchmark" order="%d" consistencyLevel="LOCAL_QUORUM">
+                        <statement>%s</statement>
+                    </changeSet>
+                """.formatted(order, order, statement);
+    }
+
+    static Properties properties() {
+        final Properties properties = new Properties();
+        properties.setProperty(PLACEHOLDER, "generated by the benchmark");
+        return properties;
+    }
+
+    ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * An object of a class defined by {@link #getClassLoader()}, which is how {@code Cassandrabase} is told where the
+     * changelogs are.
+     */
+    Object getClassObject() {
+        return Proxy.newProxyInstance(classLoader, new Class<?>[]{Runnable.class}, (proxy, method, args) -> null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        classLoader.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.cassandrabase.lite.benchmark;
+
+import io.github.cassandrabase.lite.loader.ChangeLogLoader;
+import io.github.cassandrabase.lite.model.CassandraConfigs;
+import org.openjdk.jmh.annotations.*;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The duplicate order and id checks of {@link ChangeLogLoader#validate(CassandraConfigs)} on an already loaded
+ * changelog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int changeSets;
+
+    private CassandraConfigs cassandraConfigs;
+
+    @Setup
+    public void setUp() throws SAXException, IOException {
+        try (SyntheticChangeLogs syntheticChangeLogs = SyntheticChangeLogs.write(changeSets, false)) {
+            cassandraConfigs = ChangeLogLoader.load(syntheticChangeLogs.getClassLoader());
+        }
+    }
+
+    @Benchmark
+    public CassandraConfigs validate() {
+        ChangeLogLoader.validate(cassandraConfigs);
+        return cassandraConfigs;
+    }
+}
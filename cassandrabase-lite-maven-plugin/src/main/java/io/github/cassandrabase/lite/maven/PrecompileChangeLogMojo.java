@@ -0,0 +1,85 @@
+package io.github.cassandrabase.lite.maven;
+
+import io.github.cassandrabase.lite.loader.ChangeLogLoader;
+import io.github.cassandrabase.lite.loader.StreamingChangeLog;
+import io.github.cassandrabase.lite.model.CassandraConfigs;
+import io.github.cassandrabase.lite.snapshot.ChangeLogSnapshot;
+import io.github.cassandrabase.lite.xml.ChangeLog;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Validates the changelogs of the project with the build-time properties and writes
+ * {@code db/changeset-config.snapshot} next to the XML, so the library can start without JAXB.
+ */
+@Mojo(name = "precompile", defaultPhase = LifecyclePhase.PROCESS_CLASSES, threadSafe = true)
+public class PrecompileChangeLogMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File outputDirectory;
+
+    /**
+     * Placeholder values known at build time, stored in the snapshot and applied at runtime together with the runtime
+     * properties; a build-time value wins.
+     */
+    @Parameter
+    private Map<String, String> properties = new HashMap<>();
+
+    @Parameter(property = "cassandrabase.precompile.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (this.skip) {
+            getLog().info("Skipping changelog precompilation.");
+            return;
+        }
+        final Path configFile = this.outputDirectory.toPath().resolve(ChangeLogLoader.CONFIG_FILE);
+        if (!Files.exists(configFile)) {
+            getLog().info("No db/changeset-config.xml found in " + this.outputDirectory + ". Nothing to precompile.");
+            return;
+        }
+        final ClassLoader pluginClassLoader = getClass().getClassLoader();
+        try (URLClassLoader resourceClassLoader = new URLClassLoader(new URL[]{this.outputDirectory.toURI().toURL()}, pluginClassLoader)) {
+            final CassandraConfigs cassandraConfigs = ChangeLogLoader.load(resourceClassLoader);
+            final Properties buildProperties = new Properties();
+            buildProperties.putAll(this.properties);
+            cassandraConfigs.setBuildProperties(buildProperties);
+            // the snapshot keeps the statements unrendered, a rendered copy checks that the templates expand
+            ChangeLogLoader.setProperties(ChangeLogLoader.load(resourceClassLoader), buildProperties);
+
+            final Path snapshotFile = this.outputDirectory.toPath().resolve(ChangeLogSnapshot.RESOURCE);
+            try (OutputStream outputStream = Files.newOutputStream(snapshotFile)) {
+                ChangeLogSnapshot.write(cassandraConfigs, outputStream);
+            }
+            getLog().info("Changelog snapshot written to " + snapshotFile + " [" + describe(cassandraConfigs.getPreChangeLog(), "pre changeSets")
+                    + ", " + describe(cassandraConfigs.getChangeLog(), "changeSets") + "]");
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to write the changelog snapshot.", e);
+        } catch (Exception e) {
+            throw new MojoExecutionException("Invalid changelog : " + e.getMessage(), e);
+        }
+    }
+
+    // a streamed changeLog only has its resource in the snapshot, counting it would read the whole file again
+    private static String describe(ChangeLog changeLog, String name) {
+        if (changeLog instanceof StreamingChangeLog streamingChangeLog) {
+            return name + " streamed from " + streamingChangeLog.getResource();
+        }
+        return changeLog.getChangeSets().size() + " " + name;
+    }
+}
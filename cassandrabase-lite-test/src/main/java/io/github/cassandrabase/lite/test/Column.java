@@ -0,0 +1,41 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.detach.AttachmentPoint;
+import com.datastax.oss.driver.api.core.type.DataType;
+
+/**
+ * A column of a result or a bind marker of a prepared statement.
+ */
+record Column(String keyspace, String table, String name, DataType type) implements ColumnDefinition {
+
+    @Override
+    public CqlIdentifier getKeyspace() {
+        return CqlIdentifier.fromInternal(this.keyspace);
+    }
+
+    @Override
+    public CqlIdentifier getTable() {
+        return CqlIdentifier.fromInternal(this.table);
+    }
+
+    @Override
+    public CqlIdentifier getName() {
+        return CqlIdentifier.fromInternal(this.name);
+    }
+
+    @Override
+    public DataType getType() {
+        return this.type;
+    }
+
+    @Override
+    public boolean isDetached() {
+        return false;
+    }
+
+    @Override
+    public void attach(AttachmentPoint attachmentPoint) {
+    }
+}
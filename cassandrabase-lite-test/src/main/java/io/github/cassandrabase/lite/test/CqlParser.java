@@ -0,0 +1,415 @@
+package io.github.cassandrabase.lite.test;
+
+import io.github.cassandrabase.lite.cql.CqlDdlParser;
+import io.github.cassandrabase.lite.test.CqlStatement.Assignment;
+import io.github.cassandrabase.lite.test.CqlStatement.Call;
+import io.github.cassandrabase.lite.test.CqlStatement.Condition;
+import io.github.cassandrabase.lite.test.CqlStatement.Delete;
+import io.github.cassandrabase.lite.test.CqlStatement.Ignored;
+import io.github.cassandrabase.lite.test.CqlStatement.Insert;
+import io.github.cassandrabase.lite.test.CqlStatement.Literal;
+import io.github.cassandrabase.lite.test.CqlStatement.Marker;
+import io.github.cassandrabase.lite.test.CqlStatement.Parsed;
+import io.github.cassandrabase.lite.test.CqlStatement.Schema;
+import io.github.cassandrabase.lite.test.CqlStatement.Select;
+import io.github.cassandrabase.lite.test.CqlStatement.Term;
+import io.github.cassandrabase.lite.test.CqlStatement.Truncate;
+import io.github.cassandrabase.lite.test.CqlStatement.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Parses the DML the library and most changelogs use: {@code INSERT ... VALUES}, {@code UPDATE ... SET},
+ * {@code DELETE}, {@code SELECT} with equality, range, {@code IN} and {@code token(...)} restrictions,
+ * {@code TRUNCATE}, lightweight transaction conditions, {@code USING TTL} and positional or named bind markers. Schema statements are parsed by {@link CqlDdlParser}. Anything else
+ * is {@link Ignored}.
+ */
+final class CqlParser {
+    private static final Set<String> OPERATORS = Set.of("=", "<", ">", "<=", ">=", "!=");
+    private final List<String> tokens;
+    private final List<String> markers = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private int position;
+
+    private CqlParser(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    static Parsed parse(String query) {
+        final List<String> tokens = tokenize(query);
+        while (!tokens.isEmpty() && tokens.get(tokens.size() - 1).equals(";")) {
+            tokens.remove(tokens.size() - 1);
+        }
+        if (tokens.isEmpty()) {
+            return new Parsed(new Ignored("empty statement"), List.of());
+        }
+        final String keyword = tokens.get(0).toUpperCase(Locale.ROOT);
+        if (keyword.equals("CREATE") || keyword.equals("ALTER") || keyword.equals("DROP")) {
+            return new Parsed(new Schema(CqlDdlParser.parse(query).orElse(null)), List.of());
+        }
+        final CqlParser parser = new CqlParser(tokens);
+        parser.position = 1;
+        try {
+            final CqlStatement statement = switch (keyword) {
+                case "INSERT" -> parser.insert();
+                case "UPDATE" -> parser.update();
+                case "DELETE" -> parser.delete();
+                case "SELECT" -> parser.select();
+                case "TRUNCATE" -> parser.truncate();
+                default -> throw new UnsupportedSyntax(keyword + " statements");
+            };
+            if (parser.position < tokens.size()) {
+                throw new UnsupportedSyntax("'" + tokens.get(parser.position) + "'");
+            }
+            return new Parsed(statement, List.copyOf(parser.markers), List.copyOf(parser.names));
+        } catch (UnsupportedSyntax e) {
+            return new Parsed(new Ignored(e.getMessage()), List.of());
+        }
+    }
+
+    private Insert insert() {
+        this.expect("INTO");
+        final String[] name = this.name();
+        final List<String> columns = new ArrayList<>();
+        this.expect("(");
+        do {
+            columns.add(this.identifier());
+        } while (this.accept(","));
+        this.expect(")");
+        this.expect("VALUES");
+        this.expect("(");
+        final List<Term> values = new ArrayList<>();
+        do {
+            values.add(this.term(columns.size() > values.size() ? columns.get(values.size()) : null));
+        } while (this.accept(","));
+        this.expect(")");
+        if (columns.size() != values.size()) {
+            throw new UnsupportedSyntax("INSERT with " + columns.size() + " columns and " + values.size() + " values");
+        }
+        boolean ifNotExists = false;
+        Term ttl = null;
+        while (this.position < this.tokens.size()) {
+            if (this.accept("IF")) {
+                this.expect("NOT");
+                this.expect("EXISTS");
+                ifNotExists = true;
+            } else {
+                ttl = this.using();
+            }
+        }
+        return new Insert(name[0], name[1], columns, values, ifNotExists, ttl);
+    }
+
+    private Update update() {
+        final String[] name = this.name();
+        Term ttl = null;
+        if (this.is("USING")) {
+            ttl = this.using();
+        }
+        this.expect("SET");
+        final List<Assignment> assignments = new ArrayList<>();
+        do {
+            final String column = this.identifier();
+            this.expect("=");
+            if (this.is(this.peekIdentifier(column)) && (this.isAt(1, "+") || this.isAt(1, "-"))) {
+                this.position++;
+                final String increment = this.next();
+                assignments.add(new Assignment(column, this.term(column), increment));
+            } else {
+                assignments.add(new Assignment(column, this.term(column), null));
+            }
+        } while (this.accept(","));
+        final List<Condition> where = this.where();
+        final List<Condition> conditions = new ArrayList<>();
+        final boolean ifExists = this.conditions(conditions);
+        return new Update(name[0], name[1], assignments, where, conditions, ifExists, ttl);
+    }
+
+    private Delete delete() {
+        final List<String> columns = new ArrayList<>();
+        if (!this.is("FROM")) {
+            do {
+                columns.add(this.identifier());
+            } while (this.accept(","));
+        }
+        this.expect("FROM");
+        final String[] name = this.name();
+        if (this.is("USING")) {
+            this.using();
+        }
+        final List<Condition> where = this.where();
+        final List<Condition> conditions = new ArrayList<>();
+        final boolean ifExists = this.conditions(conditions);
+        return new Delete(name[0], name[1], columns, where, conditions, ifExists);
+    }
+
+    private Select select() {
+        this.accept("DISTINCT");
+        final List<String> columns = new ArrayList<>();
+        boolean count = false;
+        if (this.accept("*")) {
+            // every column
+        } else if (this.is("COUNT") && this.isAt(1, "(")) {
+            this.position += 2;
+            if (!this.accept("*")) {
+                this.expect("1");
+            }
+            this.expect(")");
+            count = true;
+        } else {
+            do {
+                columns.add(this.identifier());
+            } while (this.accept(","));
+        }
+        this.expect("FROM");
+        final String[] name = this.name();
+        final List<Condition> where = this.is("WHERE") ? this.where() : List.of();
+        Term limit = null;
+        if (this.accept("LIMIT")) {
+            limit = this.term(Parsed.LIMIT);
+        }
+        if (this.accept("ALLOW")) {
+            this.expect("FILTERING");
+        }
+        return new Select(name[0], name[1], columns, count, where, limit);
+    }
+
+    private Truncate truncate() {
+        this.accept("TABLE");
+        final String[] name = this.name();
+        return new Truncate(name[0], name[1]);
+    }
+
+    // USING TTL and TIMESTAMP, the timestamp is not used
+    private Term using() {
+        this.expect("USING");
+        Term ttl = null;
+        do {
+            if (this.accept("TTL")) {
+                ttl = this.term(Parsed.TTL);
+            } else {
+                this.expect("TIMESTAMP");
+                this.term(Parsed.TIMESTAMP);
+            }
+        } while (this.accept("AND"));
+        return ttl;
+    }
+
+    private List<Condition> where() {
+        this.expect("WHERE");
+        final List<Condition> where = new ArrayList<>();
+        do {
+            where.add(this.condition());
+        } while (this.accept("AND"));
+        return where;
+    }
+
+    /**
+     * @return whether the conditions are {@code IF EXISTS}
+     */
+    private boolean conditions(List<Condition> conditions) {
+        if (!this.accept("IF")) {
+            return false;
+        }
+        if (this.accept("EXISTS")) {
+            return true;
+        }
+        do {
+            conditions.add(this.condition());
+        } while (this.accept("AND"));
+        return false;
+    }
+
+    private Condition condition() {
+        if (this.tokens.get(this.position).equalsIgnoreCase("token") && this.position + 1 < this.tokens.size()
+                && this.tokens.get(this.position + 1).equals("(")) {
+            // the columns are the partition key, as Cassandra requires
+            this.position += 2;
+            do {
+                this.identifier();
+            } while (this.accept(","));
+            this.expect(")");
+            final String operator = this.next();
+            if (!OPERATORS.contains(operator) || operator.equals("!=")) {
+                throw new UnsupportedSyntax("token operator " + operator);
+            }
+            return new Condition(Parsed.TOKEN, operator, List.of(this.term(Parsed.TOKEN)));
+        }
+        final String column = this.identifier();
+        if (this.accept("IN")) {
+            this.expect("(");
+            final List<Term> values = new ArrayList<>();
+            do {
+                values.add(this.term(column));
+            } while (this.accept(","));
+            this.expect(")");
+            return new Condition(column, "IN", values);
+        }
+        final String operator = this.next();
+        if (!OPERATORS.contains(operator)) {
+            throw new UnsupportedSyntax("operator " + operator);
+        }
+        return new Condition(column, operator, List.of(this.term(column)));
+    }
+
+    /**
+     * @param marker what a bind marker at this position stands for
+     */
+    private Term term(String marker) {
+        final String token = this.next();
+        if (token.equals("?") || token.equals(":")) {
+            this.names.add(token.equals(":") ? this.identifier() : marker);
+            this.markers.add(marker);
+            return new Marker(this.markers.size() - 1);
+        }
+        if (token.equals("{") || token.equals("[") || token.equals("(")) {
+            // collection and tuple literals are parsed by the codec of the column
+            final StringBuilder literal = new StringBuilder(token);
+            int depth = 1;
+            while (depth > 0) {
+                final String inner = this.next();
+                depth += inner.equals("{") || inner.equals("[") || inner.equals("(") ? 1 : 0;
+                depth -= inner.equals("}") || inner.equals("]") || inner.equals(")") ? 1 : 0;
+                literal.append(' ').append(inner);
+            }
+            return new Literal(literal.toString());
+        }
+        if (this.is("(") && isWord(token)) {
+            final StringBuilder function = new StringBuilder(token.toLowerCase(Locale.ROOT));
+            int depth = 0;
+            do {
+                final String inner = this.next();
+                depth += inner.equals("(") ? 1 : inner.equals(")") ? -1 : 0;
+                function.append(inner.toLowerCase(Locale.ROOT));
+            } while (depth > 0);
+            return new Call(function.toString());
+        }
+        return new Literal(token);
+    }
+
+    private String[] name() {
+        final String first = this.identifier();
+        if (this.accept(".")) {
+            return new String[]{first, this.identifier()};
+        }
+        return new String[]{null, first};
+    }
+
+    private String identifier() {
+        final String token = this.next();
+        if (token.startsWith("\"")) {
+            return token.substring(1, token.length() - 1).replace("\"\"", "\"");
+        }
+        if (!isWord(token) || Character.isDigit(token.charAt(0))) {
+            throw new UnsupportedSyntax("'" + token + "' where a name is expected");
+        }
+        return token.toLowerCase(Locale.ROOT);
+    }
+
+    // the identifier as the tokens spell it, to recognize column = column + value
+    private String peekIdentifier(String column) {
+        if (this.position >= this.tokens.size()) {
+            return null;
+        }
+        final String token = this.tokens.get(this.position);
+        final String name = token.startsWith("\"") ? token.substring(1, token.length() - 1) : token.toLowerCase(Locale.ROOT);
+        return name.equals(column) ? token : null;
+    }
+
+    private String next() {
+        if (this.position >= this.tokens.size()) {
+            throw new UnsupportedSyntax("end of statement");
+        }
+        return this.tokens.get(this.position++);
+    }
+
+    private boolean is(String token) {
+        return this.isAt(0, token);
+    }
+
+    private boolean isAt(int offset, String token) {
+        return Objects.nonNull(token) && this.position + offset < this.tokens.size() && this.tokens.get(this.position + offset).equalsIgnoreCase(token);
+    }
+
+    private boolean accept(String token) {
+        if (this.is(token)) {
+            this.position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) {
+        if (!this.accept(token)) {
+            throw new UnsupportedSyntax("'" + (this.position < this.tokens.size() ? this.tokens.get(this.position) : "end of statement") + "' where " + token + " is expected");
+        }
+    }
+
+    private static boolean isWord(String token) {
+        return !token.isEmpty() && (Character.isLetterOrDigit(token.charAt(0)) || token.charAt(0) == '_' || token.charAt(0) == '-');
+    }
+
+    /**
+     * Words, numbers, quoted strings and identifiers, and punctuation with {@code <=}, {@code >=} and {@code !=}
+     * as one token. A dot belongs to a number but separates a keyspace from a table.
+     */
+    static List<String> tokenize(String query) {
+        final List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < query.length()) {
+            final char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'' || c == '"') {
+                int end = i + 1;
+                while (end < query.length()) {
+                    if (query.charAt(end) == c) {
+                        if (end + 1 < query.length() && query.charAt(end + 1) == c) {
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    end++;
+                }
+                end = Math.min(end + 1, query.length());
+                tokens.add(query.substring(i, end));
+                i = end;
+            } else if (Character.isLetterOrDigit(c) || c == '_' || (c == '-' && i + 1 < query.length() && Character.isLetterOrDigit(query.charAt(i + 1)))) {
+                final boolean number = Character.isDigit(c) || c == '-';
+                int end = i + 1;
+                while (end < query.length()) {
+                    final char next = query.charAt(end);
+                    if (Character.isLetterOrDigit(next) || next == '_' || next == '-' || (number && next == '.')
+                            || (number && next == '+' && Character.toLowerCase(query.charAt(end - 1)) == 'e')) {
+                        end++;
+                    } else {
+                        break;
+                    }
+                }
+                tokens.add(query.substring(i, end));
+                i = end;
+            } else if ((c == '<' || c == '>' || c == '!') && i + 1 < query.length() && query.charAt(i + 1) == '=') {
+                tokens.add(query.substring(i, i + 2));
+                i += 2;
+            } else {
+                tokens.add(String.valueOf(c));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Syntax the in-memory session does not interpret; the statement is ignored rather than failed.
+     */
+    private static final class UnsupportedSyntax extends RuntimeException {
+        private UnsupportedSyntax(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.cassandrabase.lite.test;
+
+import io.github.cassandrabase.lite.cql.DdlStatement;
+
+import java.util.List;
+
+/**
+ * The statements the in-memory session interprets, parsed once per query text. Names keep their case when quoted
+ * and are lower-cased otherwise; a {@code null} keyspace means the session keyspace.
+ */
+sealed interface CqlStatement {
+
+    /**
+     * A value: a CQL literal, a bind marker or a function call like {@code now()}.
+     */
+    sealed interface Term {
+    }
+
+    record Literal(String text) implements Term {
+    }
+
+    record Marker(int index) implements Term {
+    }
+
+    record Call(String function) implements Term {
+    }
+
+    /**
+     * {@code column operator value}; {@code IN} has several values.
+     */
+    record Condition(String column, String operator, List<Term> values) {
+    }
+
+    /**
+     * {@code column = value}, or {@code column = column + value} when {@code increment} is set.
+     */
+    record Assignment(String column, Term value, String increment) {
+    }
+
+    record Insert(String keyspace, String table, List<String> columns, List<Term> values, boolean ifNotExists, Term ttl) implements CqlStatement {
+    }
+
+    record Update(String keyspace, String table, List<Assignment> assignments, List<Condition> where,
+                  List<Condition> conditions, boolean ifExists, Term ttl) implements CqlStatement {
+    }
+
+    record Delete(String keyspace, String table, List<String> columns, List<Condition> where,
+                  List<Condition> conditions, boolean ifExists) implements CqlStatement {
+    }
+
+    /**
+     * No columns select all of them.
+     */
+    record Select(String keyspace, String table, List<String> columns, boolean count, List<Condition> where, Term limit) implements CqlStatement {
+    }
+
+    record Truncate(String keyspace, String table) implements CqlStatement {
+    }
+
+    /**
+     * A schema change; {@code ddl} is {@code null} for one the catalog does not track, e.g. a function.
+     */
+    record Schema(DdlStatement ddl) implements CqlStatement {
+    }
+
+    /**
+     * Accepted without effect, see {@link InMemoryCassandra#getIgnoredStatements()}.
+     */
+    record Ignored(String reason) implements CqlStatement {
+    }
+
+    /**
+     * A parsed statement with what its bind markers stand for: a column name, or {@link #TTL}, {@link #LIMIT},
+     * {@link #TIMESTAMP} and {@link #TOKEN}, and the names of the markers, which differ for named markers.
+     */
+    record Parsed(CqlStatement statement, List<String> markers, List<String> names) {
+        static final String TTL = "[ttl]";
+        static final String LIMIT = "[limit]";
+        static final String TIMESTAMP = "[timestamp]";
+        /**
+         * The token of the partition key, as the column of a {@code token(...)} restriction.
+         */
+        static final String TOKEN = "partition key token";
+
+        Parsed(CqlStatement statement, List<String> markers) {
+            this(statement, markers, markers);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Data types from their CQL names as {@code system_schema.columns} spells them, e.g. {@code map<text,int>}. User
+ * defined types have no definition here, so their values are kept as CQL literals.
+ */
+final class CqlTypes {
+    private static final Map<String, DataType> PRIMITIVES = Map.ofEntries(
+            Map.entry("ascii", DataTypes.ASCII), Map.entry("bigint", DataTypes.BIGINT), Map.entry("blob", DataTypes.BLOB),
+            Map.entry("boolean", DataTypes.BOOLEAN), Map.entry("counter", DataTypes.COUNTER), Map.entry("date", DataTypes.DATE),
+            Map.entry("decimal", DataTypes.DECIMAL), Map.entry("double", DataTypes.DOUBLE), Map.entry("duration", DataTypes.DURATION),
+            Map.entry("float", DataTypes.FLOAT), Map.entry("inet", DataTypes.INET), Map.entry("int", DataTypes.INT),
+            Map.entry("smallint", DataTypes.SMALLINT), Map.entry("text", DataTypes.TEXT), Map.entry("varchar", DataTypes.TEXT),
+            Map.entry("time", DataTypes.TIME), Map.entry("timestamp", DataTypes.TIMESTAMP), Map.entry("timeuuid", DataTypes.TIMEUUID),
+            Map.entry("tinyint", DataTypes.TINYINT), Map.entry("uuid", DataTypes.UUID), Map.entry("varint", DataTypes.VARINT));
+
+    private CqlTypes() {
+    }
+
+    static DataType dataType(String type) {
+        return dataType(type.replace(" ", "").toLowerCase(), false);
+    }
+
+    static TypeCodec<Object> codec(DataType dataType) {
+        return CodecRegistry.DEFAULT.codecFor(dataType);
+    }
+
+    private static DataType dataType(String type, boolean frozen) {
+        final DataType primitive = PRIMITIVES.get(type);
+        if (Objects.nonNull(primitive)) {
+            return primitive;
+        }
+        final int open = type.indexOf('<');
+        if (open < 0 || !type.endsWith(">")) {
+            // a user defined type, its literal is stored as text
+            return DataTypes.TEXT;
+        }
+        final String name = type.substring(0, open);
+        final List<String> arguments = arguments(type.substring(open + 1, type.length() - 1));
+        return switch (name) {
+            case "frozen" -> dataType(arguments.get(0), true);
+            case "list" -> DataTypes.listOf(dataType(arguments.get(0), false), frozen);
+            case "set" -> DataTypes.setOf(dataType(arguments.get(0), false), frozen);
+            case "map" -> DataTypes.mapOf(dataType(arguments.get(0), false), dataType(arguments.get(1), false), frozen);
+            case "tuple" -> DataTypes.tupleOf(arguments.stream().map(argument -> dataType(argument, true)).toArray(DataType[]::new));
+            default -> DataTypes.TEXT;
+        };
+    }
+
+    // top level type arguments, nested ones stay together
+    private static List<String> arguments(String arguments) {
+        final List<String> split = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < arguments.length(); i++) {
+            final char c = arguments.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                split.add(arguments.substring(start, i));
+                start = i + 1;
+            }
+        }
+        split.add(arguments.substring(start));
+        return split;
+    }
+}
@@ -0,0 +1,354 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.WriteType;
+import io.github.cassandrabase.lite.test.CqlStatement.Parsed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A single-node Cassandra in memory, to run and tune migrations without a cluster. Its sessions understand the
+ * statements the library issues (lightweight transactions with TTL, the history reads and writes, {@code system_schema}
+ * lookups) and the usual changelog statements: {@code CREATE}, {@code ALTER} and {@code DROP} of keyspaces, tables,
+ * indexes, types and views, and {@code INSERT}, {@code UPDATE}, {@code DELETE}, {@code SELECT} and {@code TRUNCATE}
+ * with literals or bind markers. Other statements are accepted without effect and listed in
+ * {@link #getIgnoredStatements()}.
+ * <p>
+ * Every request waits for the configured latency: synchronous calls park the calling thread, asynchronous calls
+ * complete on a scheduler. Failures, timeouts, overload and schema disagreement can be injected, and the clock of the
+ * TTLs can be moved forward to expire lock leases.
+ *
+ * <pre>{@code
+ * InMemoryCassandra cassandra = new InMemoryCassandra();
+ * cassandra.setLatency(Duration.ofMillis(1));
+ * cassandra.overload(query -> query.contains("changelog_history"), 2);
+ * CqlSession session = cassandra.connect("app");
+ * new Cassandrabase(session, "node-1", this).validate(ExecutionMode.PARALLEL);
+ * }</pre>
+ */
+public final class InMemoryCassandra {
+    private static final Logger log = LoggerFactory.getLogger(InMemoryCassandra.class);
+    private final InMemoryStore store = new InMemoryStore();
+    private final Map<String, Parsed> parsedStatements = new ConcurrentHashMap<>();
+    private final List<Fault> faults = new ArrayList<>();
+    private final List<String> statements = new ArrayList<>();
+    private final List<String> ignoredStatements = new ArrayList<>();
+    private final AtomicLong statementCount = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicLong schemaAgreementChecks = new AtomicLong();
+    private final AtomicInteger schemaDisagreements = new AtomicInteger();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicLong clockOffset = new AtomicLong();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "in-memory-cassandra");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Random random = new Random();
+    private volatile long minLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile long schemaPropagationMillis;
+
+    /**
+     * A session without keyspace; statements name their keyspace.
+     */
+    public CqlSession connect() {
+        return new InMemorySession(this, null, "in-memory-" + this.sessions.incrementAndGet()).create();
+    }
+
+    /**
+     * A session logged into the keyspace, which is created if it does not exist.
+     */
+    public CqlSession connect(String keyspace) {
+        this.createKeyspace(keyspace);
+        return new InMemorySession(this, keyspace, "in-memory-" + this.sessions.incrementAndGet()).create();
+    }
+
+    public void createKeyspace(String keyspace) {
+        this.store.createKeyspace(Objects.requireNonNull(keyspace));
+    }
+
+    /**
+     * Latency of every request and page, including schema agreement checks.
+     */
+    public void setLatency(Duration latency) {
+        this.setLatency(latency, latency);
+    }
+
+    /**
+     * Latency drawn uniformly between the bounds for every request; see {@link #setSeed(long)} for repeatable runs.
+     */
+    public void setLatency(Duration min, Duration max) {
+        if (min.isNegative() || max.compareTo(min) < 0) {
+            throw new IllegalArgumentException("Invalid latency range : " + min + " to " + max);
+        }
+        this.minLatencyNanos = min.toNanos();
+        this.maxLatencyNanos = max.toNanos();
+    }
+
+    public synchronized void setSeed(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Time after a schema change during which schema agreement checks fail, like a change still propagating to the
+     * other nodes.
+     */
+    public void setSchemaPropagationDelay(Duration schemaPropagationDelay) {
+        this.schemaPropagationMillis = schemaPropagationDelay.toMillis();
+    }
+
+    /**
+     * Makes the next schema agreement checks fail regardless of the propagation delay.
+     */
+    public void disagreeOnSchema(int checks) {
+        this.schemaDisagreements.set(checks);
+    }
+
+    /**
+     * Fails the next statements whose query matches with the given exception, before they are applied.
+     *
+     * @param times how many matching statements fail
+     */
+    public void fail(Predicate<String> query, int times, Supplier<? extends RuntimeException> error) {
+        this.addFault(new Fault(query, times, write -> error.get(), false));
+    }
+
+    /**
+     * Times the next matching statements out with a {@link ReadTimeoutException} or a {@link WriteTimeoutException}.
+     *
+     * @param applied whether the write is applied nonetheless, like a timeout after the replicas acknowledged it
+     */
+    public void timeout(Predicate<String> query, int times, boolean applied) {
+        this.addFault(new Fault(query, times, write -> Objects.nonNull(write)
+                ? new WriteTimeoutException(InMemoryStore.NODE, DefaultConsistencyLevel.LOCAL_QUORUM, 0, 2, write)
+                : new ReadTimeoutException(InMemoryStore.NODE, DefaultConsistencyLevel.LOCAL_QUORUM, 0, 2, false), applied));
+    }
+
+    /**
+     * Rejects the next matching statements with an {@link OverloadedException}, before they are applied.
+     */
+    public void overload(Predicate<String> query, int times) {
+        this.addFault(new Fault(query, times, write -> new OverloadedException(InMemoryStore.NODE), false));
+    }
+
+    public synchronized void clearFaults() {
+        this.faults.clear();
+    }
+
+    private synchronized void addFault(Fault fault) {
+        if (fault.remaining <= 0) {
+            throw new IllegalArgumentException("A fault must apply at least once : " + fault.remaining);
+        }
+        this.faults.add(fault);
+    }
+
+    /**
+     * Moves the clock of TTLs and schema propagation forward, e.g. past the lease of a lock.
+     */
+    public void advanceTime(Duration duration) {
+        this.clockOffset.addAndGet(duration.toMillis());
+    }
+
+    public boolean hasTable(String keyspace, String table) {
+        return this.store.hasTable(keyspace, table);
+    }
+
+    /**
+     * The live rows of a table, column name to value, in partition and clustering order.
+     */
+    public List<Map<String, Object>> getRows(String keyspace, String table) {
+        return this.store.rows(keyspace, table, this.now());
+    }
+
+    /**
+     * Statements received, a batch counting once; prepares included.
+     */
+    public long getStatementCount() {
+        return statementCount.get();
+    }
+
+    /**
+     * The most requests that were waiting for their response at the same time.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    public long getSchemaAgreementChecks() {
+        return schemaAgreementChecks.get();
+    }
+
+    /**
+     * The queries received, in order.
+     */
+    public synchronized List<String> getStatements() {
+        return List.copyOf(statements);
+    }
+
+    /**
+     * The queries accepted without effect, e.g. {@code CREATE FUNCTION}, each with the reason.
+     */
+    public synchronized List<String> getIgnoredStatements() {
+        return List.copyOf(ignoredStatements);
+    }
+
+    public synchronized void resetStatistics() {
+        this.statements.clear();
+        this.ignoredStatements.clear();
+        this.statementCount.set(0);
+        this.maxInFlight.set(this.inFlight.get());
+        this.schemaAgreementChecks.set(0);
+    }
+
+    InMemoryStore store() {
+        return store;
+    }
+
+    long now() {
+        return System.currentTimeMillis() + this.clockOffset.get();
+    }
+
+    Parsed parse(String query) {
+        return this.parsedStatements.computeIfAbsent(query, CqlParser::parse);
+    }
+
+    synchronized void ignore(String query, String reason) {
+        log.debug("Statement ignored by the in-memory session. [Reason : {}, Query : {}]", reason, query);
+        this.ignoredStatements.add(query + " [" + reason + "]");
+    }
+
+    /**
+     * Counts the statement and runs it, unless an injected fault fails it first.
+     *
+     * @param write whether a timeout is a write timeout
+     */
+    <T> T intercept(String query, boolean write, Supplier<T> work) {
+        this.statementCount.incrementAndGet();
+        final Fault fault;
+        synchronized (this) {
+            this.statements.add(query);
+            fault = this.faults.stream().filter(candidate -> candidate.query.test(query)).findFirst().orElse(null);
+            if (Objects.nonNull(fault) && --fault.remaining == 0) {
+                this.faults.remove(fault);
+            }
+        }
+        if (Objects.isNull(fault)) {
+            return work.get();
+        }
+        final WriteType writeType = !write ? null : query.toUpperCase(Locale.ROOT).contains(" IF ") ? WriteType.CAS
+                : query.startsWith("BEGIN BATCH") ? WriteType.UNLOGGED_BATCH : WriteType.SIMPLE;
+        if (fault.afterApplying) {
+            work.get();
+        }
+        throw fault.error.apply(writeType);
+    }
+
+    boolean isSchemaInAgreement() {
+        return this.schemaDisagreements.get() == 0 && this.now() >= this.store.getLastSchemaChange() + this.schemaPropagationMillis;
+    }
+
+    CompletionStage<Boolean> checkSchemaAgreementAsync() {
+        this.schemaAgreementChecks.incrementAndGet();
+        return this.later(() -> this.schemaDisagreements.getAndUpdate(checks -> Math.max(0, checks - 1)) == 0 && this.isSchemaInAgreement());
+    }
+
+    /**
+     * Runs a request on the calling thread after the latency.
+     */
+    <T> T blocking(Supplier<T> work) {
+        this.started();
+        try {
+            final long latencyNanos = this.latencyNanos();
+            if (latencyNanos > 0) {
+                LockSupport.parkNanos(latencyNanos);
+            }
+            return work.get();
+        } finally {
+            this.inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Runs a request on a scheduler thread after the latency; the stage fails with the exception itself, like the
+     * stages of the driver.
+     */
+    <T> CompletionStage<T> later(Supplier<T> work) {
+        this.started();
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Runnable request = () -> {
+            try {
+                future.complete(work.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            } finally {
+                this.inFlight.decrementAndGet();
+            }
+        };
+        final long latencyNanos = this.latencyNanos();
+        if (latencyNanos == 0) {
+            request.run();
+        } else {
+            CompletableFuture.delayedExecutor(latencyNanos, TimeUnit.NANOSECONDS, this.executor).execute(request);
+        }
+        return future;
+    }
+
+    private void started() {
+        final int current = this.inFlight.incrementAndGet();
+        this.maxInFlight.accumulateAndGet(current, Math::max);
+    }
+
+    private long latencyNanos() {
+        final long min = this.minLatencyNanos;
+        final long max = this.maxLatencyNanos;
+        if (min == max) {
+            return min;
+        }
+        synchronized (this) {
+            return min + (long) (this.random.nextDouble() * (max - min));
+        }
+    }
+
+    /**
+     * An injected failure of the next {@code remaining} statements matching the query.
+     */
+    private static final class Fault {
+        private final Predicate<String> query;
+        private final Function<WriteType, RuntimeException> error;
+        private final boolean afterApplying;
+        private int remaining;
+
+        private Fault(Predicate<String> query, int remaining, Function<WriteType, RuntimeException> error, boolean afterApplying) {
+            this.query = query;
+            this.remaining = remaining;
+            this.error = error;
+            this.afterApplying = afterApplying;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.DefaultProtocolVersion;
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.QueryTrace;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.detach.AttachmentPoint;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.internal.core.cql.DefaultColumnDefinitions;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.IntFunction;
+
+/**
+ * The driver views of a {@link QueryResult}: rows, a {@link ResultSet} and the pages of an {@link AsyncResultSet}.
+ * Values are encoded with the default codecs on access, so rows read exactly like the ones of a real cluster.
+ */
+final class InMemoryResults {
+    static final ProtocolVersion PROTOCOL_VERSION = DefaultProtocolVersion.DEFAULT;
+
+    private InMemoryResults() {
+    }
+
+    static ResultSet resultSet(QueryResult result, ExecutionInfo executionInfo) {
+        final ColumnDefinitions definitions = definitions(result);
+        return new InMemoryResultSet(definitions, rows(result, definitions), result.applied(), executionInfo);
+    }
+
+    /**
+     * @param pageSize rows per page
+     * @param nextPage fetches the page starting at a row index
+     */
+    static AsyncResultSet page(QueryResult result, int offset, int pageSize, ExecutionInfo executionInfo, IntFunction<CompletionStage<AsyncResultSet>> nextPage) {
+        final ColumnDefinitions definitions = definitions(result);
+        final List<Row> rows = rows(result, definitions);
+        final int end = Math.min(rows.size(), offset + pageSize);
+        return new InMemoryAsyncResultSet(definitions, rows.subList(Math.min(offset, end), end), end < rows.size() ? end : -1,
+                result.applied(), executionInfo, nextPage);
+    }
+
+    static ExecutionInfo executionInfo(Statement<?> statement, boolean schemaInAgreement) {
+        return new InMemoryExecutionInfo(statement, schemaInAgreement);
+    }
+
+    private static ColumnDefinitions definitions(QueryResult result) {
+        return DefaultColumnDefinitions.valueOf(new ArrayList<ColumnDefinition>(result.columns()));
+    }
+
+    private static List<Row> rows(QueryResult result, ColumnDefinitions definitions) {
+        return result.rows().stream().<Row>map(values -> new InMemoryRow(definitions, values)).toList();
+    }
+
+    private static final class InMemoryRow implements Row {
+        private final ColumnDefinitions definitions;
+        private final List<Object> values;
+
+        private InMemoryRow(ColumnDefinitions definitions, List<Object> values) {
+            this.definitions = definitions;
+            this.values = values;
+        }
+
+        @Override
+        public ColumnDefinitions getColumnDefinitions() {
+            return this.definitions;
+        }
+
+        @Override
+        public ByteBuffer getBytesUnsafe(int i) {
+            final Object value = this.values.get(i);
+            return Objects.isNull(value) ? null : CqlTypes.codec(this.getType(i)).encode(value, PROTOCOL_VERSION);
+        }
+
+        @Override
+        public int size() {
+            return this.values.size();
+        }
+
+        @Override
+        public DataType getType(int i) {
+            return this.definitions.get(i).getType();
+        }
+
+        @Override
+        public int firstIndexOf(String name) {
+            return checkIndex(this.definitions.firstIndexOf(name), name);
+        }
+
+        @Override
+        public DataType getType(String name) {
+            return this.getType(this.firstIndexOf(name));
+        }
+
+        @Override
+        public int firstIndexOf(CqlIdentifier id) {
+            return checkIndex(this.definitions.firstIndexOf(id), id.asCql(true));
+        }
+
+        @Override
+        public DataType getType(CqlIdentifier id) {
+            return this.getType(this.firstIndexOf(id));
+        }
+
+        @Override
+        public CodecRegistry codecRegistry() {
+            return CodecRegistry.DEFAULT;
+        }
+
+        @Override
+        public ProtocolVersion protocolVersion() {
+            return PROTOCOL_VERSION;
+        }
+
+        @Override
+        public boolean isDetached() {
+            return false;
+        }
+
+        @Override
+        public void attach(AttachmentPoint attachmentPoint) {
+        }
+
+        @Override
+        public String toString() {
+            return "InMemoryRow" + this.values;
+        }
+
+        private static int checkIndex(int index, String name) {
+            if (index < 0) {
+                throw new IllegalArgumentException(name + " is not a column in this row");
+            }
+            return index;
+        }
+    }
+
+    private static final class InMemoryResultSet implements ResultSet {
+        private final ColumnDefinitions definitions;
+        private final Iterator<Row> iterator;
+        private final int size;
+        private final boolean applied;
+        private final ExecutionInfo executionInfo;
+        private int consumed;
+
+        private InMemoryResultSet(ColumnDefinitions definitions, List<Row> rows, boolean applied, ExecutionInfo executionInfo) {
+            this.definitions = definitions;
+            this.iterator = rows.iterator();
+            this.size = rows.size();
+            this.applied = applied;
+            this.executionInfo = executionInfo;
+        }
+
+        @Override
+        public ColumnDefinitions getColumnDefinitions() {
+            return this.definitions;
+        }
+
+        @Override
+        public List<ExecutionInfo> getExecutionInfos() {
+            return List.of(this.executionInfo);
+        }
+
+        @Override
+        public boolean isFullyFetched() {
+            return true;
+        }
+
+        @Override
+        public int getAvailableWithoutFetching() {
+            return this.size - this.consumed;
+        }
+
+        @Override
+        public boolean wasApplied() {
+            return this.applied;
+        }
+
+        // one iterator over the rows, like the paging iterator of the driver
+        @Override
+        public Iterator<Row> iterator() {
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return InMemoryResultSet.this.iterator.hasNext();
+                }
+
+                @Override
+                public Row next() {
+                    final Row row = InMemoryResultSet.this.iterator.next();
+                    InMemoryResultSet.this.consumed++;
+                    return row;
+                }
+            };
+        }
+    }
+
+    private static final class InMemoryAsyncResultSet implements AsyncResultSet {
+        private final ColumnDefinitions definitions;
+        private final Iterator<Row> iterator;
+        private final List<Row> page;
+        private final int nextOffset;
+        private final boolean applied;
+        private final ExecutionInfo executionInfo;
+        private final IntFunction<CompletionStage<AsyncResultSet>> nextPage;
+        private int consumed;
+
+        private InMemoryAsyncResultSet(ColumnDefinitions definitions, List<Row> page, int nextOffset, boolean applied,
+                                       ExecutionInfo executionInfo, IntFunction<CompletionStage<AsyncResultSet>> nextPage) {
+            this.definitions = definitions;
+            this.page = page;
+            this.iterator = page.iterator();
+            this.nextOffset = nextOffset;
+            this.applied = applied;
+            this.executionInfo = executionInfo;
+            this.nextPage = nextPage;
+        }
+
+        @Override
+        public ColumnDefinitions getColumnDefinitions() {
+            return this.definitions;
+        }
+
+        @Override
+        public ExecutionInfo getExecutionInfo() {
+            return this.executionInfo;
+        }
+
+        @Override
+        public int remaining() {
+            return this.page.size() - this.consumed;
+        }
+
+        @Override
+        public Iterable<Row> currentPage() {
+            return () -> new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return InMemoryAsyncResultSet.this.iterator.hasNext();
+                }
+
+                @Override
+                public Row next() {
+                    final Row row = InMemoryAsyncResultSet.this.iterator.next();
+                    InMemoryAsyncResultSet.this.consumed++;
+                    return row;
+                }
+            };
+        }
+
+        @Override
+        public boolean hasMorePages() {
+            return this.nextOffset >= 0;
+        }
+
+        @Override
+        public CompletionStage<AsyncResultSet> fetchNextPage() throws IllegalStateException {
+            if (!this.hasMorePages()) {
+                throw new IllegalStateException("No next page. Use #hasMorePages before calling this method to avoid this error.");
+            }
+            return this.nextPage.apply(this.nextOffset);
+        }
+
+        @Override
+        public boolean wasApplied() {
+            return this.applied;
+        }
+    }
+
+    private record InMemoryExecutionInfo(Statement<?> statement, boolean schemaInAgreement) implements ExecutionInfo {
+
+        @Override
+        public Statement<?> getStatement() {
+            return this.statement;
+        }
+
+        @Override
+        public Node getCoordinator() {
+            return InMemoryStore.NODE;
+        }
+
+        @Override
+        public int getSpeculativeExecutionCount() {
+            return 0;
+        }
+
+        @Override
+        public int getSuccessfulExecutionIndex() {
+            return 0;
+        }
+
+        @Override
+        public List<Map.Entry<Node, Throwable>> getErrors() {
+            return List.of();
+        }
+
+        @Override
+        public ByteBuffer getPagingState() {
+            return null;
+        }
+
+        @Override
+        public List<String> getWarnings() {
+            return List.of();
+        }
+
+        @Override
+        public Map<String, ByteBuffer> getIncomingPayload() {
+            return Map.of();
+        }
+
+        @Override
+        public boolean isSchemaInAgreement() {
+            return this.schemaInAgreement;
+        }
+
+        @Override
+        public UUID getTracingId() {
+            return null;
+        }
+
+        @Override
+        public CompletionStage<QueryTrace> getQueryTraceAsync() {
+            return CompletableFuture.failedFuture(new IllegalStateException("Tracing was disabled for this request"));
+        }
+
+        @Override
+        public int getResponseSizeInBytes() {
+            return -1;
+        }
+
+        @Override
+        public int getCompressedResponseSizeInBytes() {
+            return -1;
+        }
+    }
+}
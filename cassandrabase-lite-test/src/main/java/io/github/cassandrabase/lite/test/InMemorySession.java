@@ -0,0 +1,246 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.PrepareRequest;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
+import com.datastax.oss.driver.api.core.session.Request;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.internal.core.cql.DefaultColumnDefinitions;
+import com.datastax.oss.driver.internal.core.cql.DefaultPreparedStatement;
+import io.github.cassandrabase.lite.test.CqlStatement.Ignored;
+import io.github.cassandrabase.lite.test.CqlStatement.Parsed;
+import io.github.cassandrabase.lite.test.CqlStatement.Schema;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * One {@link CqlSession} of an {@link InMemoryCassandra}. Only the abstract request methods are implemented; the
+ * default methods of the driver interfaces ({@code execute(String)}, {@code prepare(String)},
+ * {@code checkSchemaAgreement()}, ...) run unchanged on top of them.
+ */
+final class InMemorySession implements InvocationHandler {
+    private static final int DEFAULT_PAGE_SIZE = 5000;
+    private final InMemoryCassandra cassandra;
+    private final String keyspace;
+    private final String name;
+    private final CompletableFuture<Void> closeFuture = new CompletableFuture<>();
+    private final Metadata metadata;
+    private final DriverContext driverContext;
+
+    InMemorySession(InMemoryCassandra cassandra, String keyspace, String name) {
+        this.cassandra = cassandra;
+        this.keyspace = keyspace;
+        this.name = name;
+        this.metadata = proxy(Metadata.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getNodes", "getKeyspaces" -> Map.of();
+            case "getTokenMap" -> Optional.empty();
+            case "getClusterName" -> Optional.of("in-memory");
+            default -> unsupported(proxy, method, args);
+        });
+        this.driverContext = proxy(DriverContext.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getCodecRegistry" -> CodecRegistry.DEFAULT;
+            case "getProtocolVersion" -> InMemoryResults.PROTOCOL_VERSION;
+            case "getSessionName" -> this.name;
+            default -> unsupported(proxy, method, args);
+        });
+    }
+
+    CqlSession create() {
+        return proxy(CqlSession.class, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        return switch (method.getName()) {
+            case "execute" -> {
+                if (args.length != 2 || !(args[1] instanceof GenericType<?> resultType)) {
+                    yield InvocationHandler.invokeDefault(proxy, method, args);
+                }
+                yield this.execute((Request) args[0], resultType);
+            }
+            case "checkSchemaAgreementAsync" -> this.cassandra.checkSchemaAgreementAsync();
+            case "getKeyspace" -> Optional.ofNullable(this.keyspace).map(CqlIdentifier::fromInternal);
+            case "getMetadata" -> this.metadata;
+            case "getContext" -> this.driverContext;
+            case "getName" -> this.name;
+            case "getMetrics" -> Optional.empty();
+            case "isSchemaMetadataEnabled" -> false;
+            case "setSchemaMetadataEnabled", "refreshSchemaAsync" -> CompletableFuture.completedFuture(this.metadata);
+            case "checkSchemaAgreement" -> this.cassandra.checkSchemaAgreementAsync().toCompletableFuture().join();
+            case "closeFuture" -> this.closeFuture;
+            case "closeAsync", "forceCloseAsync" -> {
+                this.closeFuture.complete(null);
+                yield this.closeFuture;
+            }
+            case "isClosed" -> this.closeFuture.isDone();
+            default -> unsupported(proxy, method, args);
+        };
+    }
+
+    private Object execute(Request request, GenericType<?> resultType) {
+        if (Statement.SYNC.equals(resultType)) {
+            return this.cassandra.blocking(() -> this.resultSet((Statement<?>) request));
+        }
+        if (Statement.ASYNC.equals(resultType)) {
+            return this.cassandra.later(() -> this.page((Statement<?>) request, 0));
+        }
+        if (PrepareRequest.SYNC.equals(resultType)) {
+            return this.cassandra.blocking(() -> this.prepare((PrepareRequest) request));
+        }
+        if (PrepareRequest.ASYNC.equals(resultType)) {
+            return this.cassandra.later(() -> this.prepare((PrepareRequest) request));
+        }
+        throw new UnsupportedOperationException("Not supported by the in-memory session : " + resultType);
+    }
+
+    private ResultSet resultSet(Statement<?> statement) {
+        final QueryResult result = this.run(statement);
+        return InMemoryResults.resultSet(result, this.executionInfo(statement));
+    }
+
+    // the first page runs the statement, the next ones page through its result after another round trip
+    private AsyncResultSet page(Statement<?> statement, int offset) {
+        final QueryResult result = this.run(statement);
+        return this.page(statement, result, offset);
+    }
+
+    private AsyncResultSet page(Statement<?> statement, QueryResult result, int offset) {
+        final int pageSize = statement.getPageSize() > 0 ? statement.getPageSize() : DEFAULT_PAGE_SIZE;
+        return InMemoryResults.page(result, offset, pageSize, this.executionInfo(statement),
+                next -> this.cassandra.later(() -> this.page(statement, result, next)));
+    }
+
+    private ExecutionInfo executionInfo(Statement<?> statement) {
+        return InMemoryResults.executionInfo(statement, this.cassandra.isSchemaInAgreement());
+    }
+
+    private QueryResult run(Statement<?> statement) {
+        final String query = query(statement);
+        return this.cassandra.intercept(query, statement instanceof BatchStatement || !query.trim().toUpperCase(Locale.ROOT).startsWith("SELECT"), () -> {
+            if (statement instanceof BatchStatement batchStatement) {
+                QueryResult result = QueryResult.EMPTY;
+                for (BatchableStatement<?> child : batchStatement) {
+                    final QueryResult childResult = this.runOne(child, query(child));
+                    if (!childResult.applied() || childResult.columns().size() > result.columns().size()) {
+                        result = childResult;
+                    }
+                    if (!result.applied()) {
+                        break;
+                    }
+                }
+                return result;
+            }
+            return this.runOne(statement, query);
+        });
+    }
+
+    private QueryResult runOne(Statement<?> statement, String query) {
+        final Parsed parsed = this.cassandra.parse(query);
+        if (parsed.statement() instanceof Ignored ignored) {
+            this.cassandra.ignore(query, ignored.reason());
+            return QueryResult.EMPTY;
+        }
+        if (parsed.statement() instanceof Schema schema && Objects.isNull(schema.ddl())) {
+            this.cassandra.ignore(query, "schema change not tracked");
+        }
+        final CqlIdentifier statementKeyspace = statement.getKeyspace();
+        final String sessionKeyspace = Objects.nonNull(statementKeyspace) ? statementKeyspace.asInternal() : this.keyspace;
+        return this.cassandra.store().execute(parsed, values(statement), sessionKeyspace, this.cassandra.now());
+    }
+
+    private PreparedStatement prepare(PrepareRequest request) {
+        final String query = request.getQuery();
+        final Parsed parsed = this.cassandra.intercept(query, false, () -> this.cassandra.parse(query));
+        final CqlIdentifier requestKeyspace = request.getKeyspace();
+        final String sessionKeyspace = Objects.nonNull(requestKeyspace) ? requestKeyspace.asInternal() : this.keyspace;
+        final ColumnDefinitions variables = DefaultColumnDefinitions.valueOf(new ArrayList<ColumnDefinition>(this.cassandra.store().variables(parsed, sessionKeyspace)));
+        final ByteBuffer id = ByteBuffer.wrap(query.getBytes(StandardCharsets.UTF_8));
+        return new DefaultPreparedStatement(id, query, variables, List.of(), null, DefaultColumnDefinitions.valueOf(List.of()),
+                Optional.ofNullable(sessionKeyspace).map(CqlIdentifier::fromInternal).orElse(null), Map.of(),
+                request.getExecutionProfileNameForBoundStatements(), request.getExecutionProfileForBoundStatements(),
+                null, null, null, Map.of(), request.areBoundStatementsIdempotent(), request.getTimeoutForBoundStatements(),
+                null, request.getPageSizeForBoundStatements(), request.getConsistencyLevelForBoundStatements(),
+                request.getSerialConsistencyLevelForBoundStatements(), false, CodecRegistry.DEFAULT, InMemoryResults.PROTOCOL_VERSION);
+    }
+
+    private static String query(Statement<?> statement) {
+        if (statement instanceof SimpleStatement simpleStatement) {
+            return simpleStatement.getQuery();
+        }
+        if (statement instanceof BoundStatement boundStatement) {
+            return boundStatement.getPreparedStatement().getQuery();
+        }
+        if (statement instanceof BatchStatement batchStatement) {
+            final StringBuilder query = new StringBuilder("BEGIN BATCH");
+            batchStatement.forEach(child -> query.append(' ').append(query(child)).append(';'));
+            return query.append(" APPLY BATCH").toString();
+        }
+        throw new UnsupportedOperationException("Not supported by the in-memory session : " + statement.getClass().getName());
+    }
+
+    // bound values decoded with the codecs of the markers, simple statement values as they are
+    private static List<Object> values(Statement<?> statement) {
+        if (statement instanceof BoundStatement boundStatement) {
+            final ColumnDefinitions variables = boundStatement.getPreparedStatement().getVariableDefinitions();
+            final List<Object> values = new ArrayList<>(variables.size());
+            for (int i = 0; i < variables.size(); i++) {
+                values.add(boundStatement.isSet(i)
+                        ? CqlTypes.codec(variables.get(i).getType()).decode(boundStatement.getBytesUnsafe(i), InMemoryResults.PROTOCOL_VERSION)
+                        : InMemoryStore.UNSET);
+            }
+            return values;
+        }
+        if (statement instanceof SimpleStatement simpleStatement) {
+            if (!simpleStatement.getNamedValues().isEmpty()) {
+                throw new InvalidQueryException(InMemoryStore.NODE, "Named values are not supported by the in-memory session");
+            }
+            return simpleStatement.getPositionalValues();
+        }
+        return List.of();
+    }
+
+    private static Object unsupported(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.isDefault()) {
+            return InvocationHandler.invokeDefault(proxy, method, args);
+        }
+        return switch (method.getName()) {
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "InMemory" + proxy.getClass().getInterfaces()[0].getSimpleName();
+            default -> throw new UnsupportedOperationException("Not supported by the in-memory session : "
+                    + method.getDeclaringClass().getSimpleName() + "." + method.getName());
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InMemorySession.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
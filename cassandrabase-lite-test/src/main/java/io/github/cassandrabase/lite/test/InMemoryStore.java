@@ -0,0 +1,675 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.metadata.EndPoint;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.servererrors.AlreadyExistsException;
+import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.uuid.Uuids;
+import com.datastax.oss.driver.internal.core.metadata.DefaultEndPoint;
+import io.github.cassandrabase.lite.cql.DdlStatement;
+import io.github.cassandrabase.lite.test.CqlStatement.Assignment;
+import io.github.cassandrabase.lite.test.CqlStatement.Call;
+import io.github.cassandrabase.lite.test.CqlStatement.Condition;
+import io.github.cassandrabase.lite.test.CqlStatement.Delete;
+import io.github.cassandrabase.lite.test.CqlStatement.Insert;
+import io.github.cassandrabase.lite.test.CqlStatement.Literal;
+import io.github.cassandrabase.lite.test.CqlStatement.Marker;
+import io.github.cassandrabase.lite.test.CqlStatement.Parsed;
+import io.github.cassandrabase.lite.test.CqlStatement.Schema;
+import io.github.cassandrabase.lite.test.CqlStatement.Select;
+import io.github.cassandrabase.lite.test.CqlStatement.Term;
+import io.github.cassandrabase.lite.test.CqlStatement.Truncate;
+import io.github.cassandrabase.lite.test.CqlStatement.Update;
+
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * The keyspaces, their schema objects and the rows of their tables, shared by all sessions of an
+ * {@link InMemoryCassandra}. Every statement runs atomically, so a lightweight transaction is linearizable like a
+ * Paxos round on a real cluster. {@code system_schema} is answered from the catalog.
+ */
+final class InMemoryStore {
+    /**
+     * The value of a bind marker that was not set; the column keeps its value.
+     */
+    static final Object UNSET = new Object();
+    static final Node NODE = node();
+    private static final String SYSTEM_SCHEMA = "system_schema";
+    private final Map<String, Keyspace> keyspaces = new LinkedHashMap<>();
+    private long lastSchemaChange;
+
+    synchronized void createKeyspace(String keyspace) {
+        this.keyspaces.putIfAbsent(keyspace, new Keyspace());
+    }
+
+    synchronized boolean hasTable(String keyspace, String table) {
+        return Objects.nonNull(this.keyspaces.get(keyspace)) && this.keyspaces.get(keyspace).tables.containsKey(table);
+    }
+
+    synchronized long getLastSchemaChange() {
+        return lastSchemaChange;
+    }
+
+    /**
+     * The live rows of a table with all their columns.
+     */
+    synchronized List<Map<String, Object>> rows(String keyspace, String table, long now) {
+        final List<Map<String, Object>> rows = new ArrayList<>();
+        this.table(keyspace, table).forEachLive(now, (values, row) -> rows.add(values));
+        return rows;
+    }
+
+    /**
+     * The types of the bind markers of a statement, to prepare it.
+     */
+    synchronized List<Column> variables(Parsed parsed, String sessionKeyspace) {
+        final CqlStatement statement = parsed.statement();
+        final List<Column> variables = new ArrayList<>(parsed.markers().size());
+        final InMemoryTable table;
+        if (statement instanceof Insert insert) {
+            table = this.table(keyspace(insert.keyspace(), sessionKeyspace), insert.table());
+        } else if (statement instanceof Update update) {
+            table = this.table(keyspace(update.keyspace(), sessionKeyspace), update.table());
+        } else if (statement instanceof Delete delete) {
+            table = this.table(keyspace(delete.keyspace(), sessionKeyspace), delete.table());
+        } else if (statement instanceof Select select && !SYSTEM_SCHEMA.equals(select.keyspace())) {
+            table = this.table(keyspace(select.keyspace(), sessionKeyspace), select.table());
+        } else {
+            table = null;
+        }
+        for (int i = 0; i < parsed.markers().size(); i++) {
+            final String marker = parsed.markers().get(i);
+            final DataType type = switch (marker) {
+                case Parsed.TTL, Parsed.LIMIT -> DataTypes.INT;
+                case Parsed.TIMESTAMP, Parsed.TOKEN -> DataTypes.BIGINT;
+                default -> Objects.nonNull(table) ? this.column(table, marker) : DataTypes.TEXT;
+            };
+            variables.add(new Column(Objects.nonNull(table) ? table.getKeyspace() : "", Objects.nonNull(table) ? table.getName() : "", parsed.names().get(i), type));
+        }
+        return variables;
+    }
+
+    /**
+     * @param values the values of the bind markers, {@link #UNSET} for the ones not set
+     * @param now    the time of the cluster, against which TTLs expire
+     */
+    synchronized QueryResult execute(Parsed parsed, List<Object> values, String sessionKeyspace, long now) {
+        if (values.size() < parsed.markers().size()) {
+            throw new InvalidQueryException(NODE, "Invalid amount of bind variables: expected " + parsed.markers().size() + " but got " + values.size());
+        }
+        final Context context = new Context(values, now);
+        final CqlStatement statement = parsed.statement();
+        if (statement instanceof Insert insert) {
+            return this.insert(insert, this.table(keyspace(insert.keyspace(), sessionKeyspace), insert.table()), context);
+        }
+        if (statement instanceof Update update) {
+            return this.update(update, this.table(keyspace(update.keyspace(), sessionKeyspace), update.table()), context);
+        }
+        if (statement instanceof Delete delete) {
+            return this.delete(delete, this.table(keyspace(delete.keyspace(), sessionKeyspace), delete.table()), context);
+        }
+        if (statement instanceof Select select) {
+            return SYSTEM_SCHEMA.equals(select.keyspace()) ? this.selectSystemSchema(select, context)
+                    : this.select(select, this.table(keyspace(select.keyspace(), sessionKeyspace), select.table()), context);
+        }
+        if (statement instanceof Truncate truncate) {
+            this.table(keyspace(truncate.keyspace(), sessionKeyspace), truncate.table()).truncate();
+            return QueryResult.EMPTY;
+        }
+        if (statement instanceof Schema schema) {
+            return this.changeSchema(schema.ddl(), sessionKeyspace, now);
+        }
+        return QueryResult.EMPTY;
+    }
+
+    private QueryResult insert(Insert insert, InMemoryTable table, Context context) {
+        final Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < insert.columns().size(); i++) {
+            final String column = insert.columns().get(i);
+            values.put(column, context.value(insert.values().get(i), this.column(table, column)));
+        }
+        final List<Object> partition = this.key(table, table.getPartitionKey(), values);
+        final List<Object> clustering = this.key(table, table.getClusteringColumns(), values);
+        if (insert.ifNotExists()) {
+            final InMemoryTable.StoredRow existing = table.row(partition, clustering, false);
+            if (Objects.nonNull(existing) && existing.isLive(context.now)) {
+                final Map<String, Object> current = table.values(partition, clustering, existing, context.now);
+                return QueryResult.notApplied(columns(table, current.keySet()), new ArrayList<>(current.values()));
+            }
+        }
+        final long expiresAt = context.expiresAt(insert.ttl());
+        final InMemoryTable.StoredRow row = table.row(partition, clustering, true);
+        row.writeMarker(expiresAt);
+        values.forEach((column, value) -> {
+            if (!table.isPrimaryKey(column) && value != UNSET) {
+                row.write(column, value, expiresAt);
+            }
+        });
+        return insert.ifNotExists() ? QueryResult.applied(true) : QueryResult.EMPTY;
+    }
+
+    private QueryResult update(Update update, InMemoryTable table, Context context) {
+        final List<List<Object>[]> keys = this.keys(table, update.where(), context, true);
+        final boolean conditional = update.ifExists() || !update.conditions().isEmpty();
+        if (conditional) {
+            final QueryResult notApplied = this.checkConditions(table, keys, update.ifExists(), update.conditions(), context);
+            if (Objects.nonNull(notApplied)) {
+                return notApplied;
+            }
+        }
+        final long expiresAt = context.expiresAt(update.ttl());
+        for (List<Object>[] key : keys) {
+            final InMemoryTable.StoredRow row = table.row(key[0], key[1], true);
+            for (Assignment assignment : update.assignments()) {
+                if (table.isPrimaryKey(assignment.column())) {
+                    throw new InvalidQueryException(NODE, "PRIMARY KEY part " + assignment.column() + " found in SET part");
+                }
+                final DataType type = this.column(table, assignment.column());
+                Object value = context.value(assignment.value(), type);
+                if (value == UNSET) {
+                    continue;
+                }
+                if (Objects.nonNull(assignment.increment())) {
+                    value = increment(row.value(assignment.column(), context.now), value, assignment.increment());
+                }
+                row.write(assignment.column(), value, expiresAt);
+            }
+        }
+        return conditional ? QueryResult.applied(true) : QueryResult.EMPTY;
+    }
+
+    private QueryResult delete(Delete delete, InMemoryTable table, Context context) {
+        final boolean wholePartition = delete.columns().isEmpty()
+                && delete.where().stream().noneMatch(condition -> table.getClusteringColumns().contains(condition.column()));
+        final List<List<Object>[]> keys = this.keys(table, delete.where(), context, !wholePartition);
+        final boolean conditional = delete.ifExists() || !delete.conditions().isEmpty();
+        if (conditional) {
+            final QueryResult notApplied = this.checkConditions(table, keys, delete.ifExists(), delete.conditions(), context);
+            if (Objects.nonNull(notApplied)) {
+                return notApplied;
+            }
+        }
+        for (List<Object>[] key : keys) {
+            if (wholePartition) {
+                table.deletePartition(key[0]);
+                continue;
+            }
+            final InMemoryTable.StoredRow row = table.row(key[0], key[1], false);
+            if (Objects.isNull(row)) {
+                continue;
+            }
+            if (delete.columns().isEmpty()) {
+                row.writeMarker(-1);
+                table.getTypes().keySet().forEach(column -> row.write(column, null, 0));
+            } else {
+                delete.columns().forEach(column -> {
+                    this.column(table, column);
+                    row.write(column, null, 0);
+                });
+            }
+        }
+        return conditional ? QueryResult.applied(true) : QueryResult.EMPTY;
+    }
+
+    /**
+     * @return {@code null} when the conditions hold, otherwise the not applied result
+     */
+    private QueryResult checkConditions(InMemoryTable table, List<List<Object>[]> keys, boolean ifExists, List<Condition> conditions, Context context) {
+        if (keys.size() != 1) {
+            throw new InvalidQueryException(NODE, "IN on the clustering key columns is not supported with conditional updates");
+        }
+        final InMemoryTable.StoredRow row = table.row(keys.get(0)[0], keys.get(0)[1], false);
+        final boolean exists = Objects.nonNull(row) && row.isLive(context.now);
+        if (ifExists) {
+            return exists ? null : QueryResult.applied(false);
+        }
+        final Map<String, Object> current = table.values(keys.get(0)[0], keys.get(0)[1], exists ? row : null, context.now);
+        for (Condition condition : conditions) {
+            if (!this.matches(condition, current, table.dataType(condition.column()), context)) {
+                if (!exists) {
+                    return QueryResult.applied(false);
+                }
+                final List<String> conditionColumns = conditions.stream().map(Condition::column).distinct().toList();
+                return QueryResult.notApplied(columns(table, conditionColumns), conditionColumns.stream().map(current::get).toList());
+            }
+        }
+        return null;
+    }
+
+    private QueryResult select(Select select, InMemoryTable table, Context context) {
+        final boolean token = select.where().stream().anyMatch(condition -> Parsed.TOKEN.equals(condition.column()));
+        select.where().stream().filter(condition -> !Parsed.TOKEN.equals(condition.column())).forEach(condition -> this.column(table, condition.column()));
+        final List<String> columns = select.columns().isEmpty() ? new ArrayList<>(table.getTypes().keySet()) : select.columns();
+        columns.forEach(column -> this.column(table, column));
+        final List<Map<String, Object>> rows = new ArrayList<>();
+        table.forEachLive(context.now, (values, row) -> {
+            if (token) {
+                values.put(Parsed.TOKEN, table.token(values));
+            }
+            rows.add(values);
+        });
+        return this.project(select, columns(table, columns), rows, column -> Parsed.TOKEN.equals(column) ? DataTypes.BIGINT : table.dataType(column), context);
+    }
+
+    private QueryResult project(Select select, List<Column> columns, List<Map<String, Object>> rows, Function<String, DataType> types, Context context) {
+        final int limit = Objects.nonNull(select.limit()) ? (Integer) context.value(select.limit(), DataTypes.INT) : Integer.MAX_VALUE;
+        final List<List<Object>> selected = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            if (selected.size() >= limit) {
+                break;
+            }
+            if (select.where().stream().allMatch(condition -> this.matches(condition, row, types.apply(condition.column()), context))) {
+                selected.add(columns.stream().map(column -> row.get(column.name())).toList());
+            }
+        }
+        if (select.count()) {
+            return new QueryResult(List.of(new Column("", "", "count", DataTypes.BIGINT)), List.of(List.of((long) selected.size())), true);
+        }
+        return new QueryResult(columns, selected, true);
+    }
+
+    private boolean matches(Condition condition, Map<String, Object> row, DataType type, Context context) {
+        final Object current = row.get(condition.column());
+        final List<Object> values = condition.values().stream().map(term -> context.value(term, type)).toList();
+        return switch (condition.operator()) {
+            case "IN" -> values.stream().anyMatch(value -> Objects.equals(current, value));
+            case "=" -> Objects.equals(current, values.get(0));
+            case "!=" -> !Objects.equals(current, values.get(0));
+            default -> {
+                if (Objects.isNull(current) || Objects.isNull(values.get(0))) {
+                    yield false;
+                }
+                final int compared = InMemoryTable.compare(current, values.get(0));
+                yield switch (condition.operator()) {
+                    case "<" -> compared < 0;
+                    case "<=" -> compared <= 0;
+                    case ">" -> compared > 0;
+                    default -> compared >= 0;
+                };
+            }
+        };
+    }
+
+    // the full primary keys a write restricts to, = or IN on every key column
+    @SuppressWarnings("unchecked")
+    private List<List<Object>[]> keys(InMemoryTable table, List<Condition> where, Context context, boolean clustering) {
+        final Map<String, List<Object>> restrictions = new LinkedHashMap<>();
+        for (Condition condition : where) {
+            this.column(table, condition.column());
+            if (!table.isPrimaryKey(condition.column())) {
+                throw new InvalidQueryException(NODE, "Non PRIMARY KEY columns found in where clause: " + condition.column());
+            }
+            if (!condition.operator().equals("=") && !condition.operator().equals("IN")) {
+                throw new InvalidQueryException(NODE, "Only EQ and IN relation are supported on the primary key of a write : " + condition.column());
+            }
+            final DataType type = table.dataType(condition.column());
+            restrictions.put(condition.column(), condition.values().stream().map(term -> context.value(term, type)).toList());
+        }
+        List<List<Object>> partitions = product(table.getPartitionKey(), restrictions, "Some partition key parts are missing: ");
+        List<List<Object>> clusterings = clustering ? product(table.getClusteringColumns(), restrictions, "Some clustering keys are missing: ") : List.of(List.of());
+        final List<List<Object>[]> keys = new ArrayList<>();
+        for (List<Object> partition : partitions) {
+            for (List<Object> clusteringKey : clusterings) {
+                keys.add(new List[]{partition, clusteringKey});
+            }
+        }
+        return keys;
+    }
+
+    private static List<List<Object>> product(List<String> columns, Map<String, List<Object>> restrictions, String missing) {
+        List<List<Object>> keys = List.of(List.of());
+        for (String column : columns) {
+            final List<Object> values = restrictions.get(column);
+            if (Objects.isNull(values)) {
+                throw new InvalidQueryException(NODE, missing + column);
+            }
+            final List<List<Object>> extended = new ArrayList<>();
+            for (List<Object> key : keys) {
+                for (Object value : values) {
+                    if (Objects.isNull(value) || value == UNSET) {
+                        throw new InvalidQueryException(NODE, "Invalid null value in condition for column " + column);
+                    }
+                    final List<Object> next = new ArrayList<>(key);
+                    next.add(value);
+                    extended.add(next);
+                }
+            }
+            keys = extended;
+        }
+        return keys;
+    }
+
+    private List<Object> key(InMemoryTable table, List<String> columns, Map<String, Object> values) {
+        for (String column : columns) {
+            final Object value = values.get(column);
+            if (Objects.isNull(value) || value == UNSET) {
+                throw new InvalidQueryException(NODE, "Invalid null value for primary key column " + column + " of " + table.getKeyspace() + "." + table.getName());
+            }
+        }
+        return InMemoryTable.key(columns, values);
+    }
+
+    private static Object increment(Object current, Object delta, String operator) {
+        if (!(delta instanceof Number value)) {
+            throw new InvalidQueryException(NODE, "Invalid operation (" + operator + ") for a non counter column");
+        }
+        final long base = Objects.nonNull(current) ? ((Number) current).longValue() : 0L;
+        return operator.equals("+") ? base + value.longValue() : base - value.longValue();
+    }
+
+    private QueryResult selectSystemSchema(Select select, Context context) {
+        final Map<String, DataType> types = new LinkedHashMap<>();
+        final List<Map<String, Object>> rows = new ArrayList<>();
+        types.put("keyspace_name", DataTypes.TEXT);
+        switch (select.table()) {
+            case "keyspaces" -> {
+                types.put("durable_writes", DataTypes.BOOLEAN);
+                this.keyspaces.keySet().forEach(keyspace -> rows.add(row("keyspace_name", keyspace, "durable_writes", true)));
+            }
+            case "tables" -> {
+                types.put("table_name", DataTypes.TEXT);
+                this.keyspaces.forEach((keyspace, objects) -> objects.tables.keySet()
+                        .forEach(table -> rows.add(row("keyspace_name", keyspace, "table_name", table))));
+            }
+            case "columns" -> {
+                types.put("table_name", DataTypes.TEXT);
+                types.put("column_name", DataTypes.TEXT);
+                types.put("clustering_order", DataTypes.TEXT);
+                types.put("kind", DataTypes.TEXT);
+                types.put("position", DataTypes.INT);
+                types.put("type", DataTypes.TEXT);
+                this.keyspaces.forEach((keyspace, objects) -> objects.tables.values().forEach(table -> table.getTypes().forEach((column, type) -> {
+                    final int partition = table.getPartitionKey().indexOf(column);
+                    final int clustering = table.getClusteringColumns().indexOf(column);
+                    final Map<String, Object> row = row("keyspace_name", keyspace, "table_name", table.getName());
+                    row.put("column_name", column);
+                    row.put("clustering_order", clustering >= 0 ? table.getClusteringOrder().get(clustering) : "none");
+                    row.put("kind", partition >= 0 ? "partition_key" : clustering >= 0 ? "clustering" : "regular");
+                    row.put("position", partition >= 0 ? partition : clustering >= 0 ? clustering : -1);
+                    row.put("type", type);
+                    rows.add(row);
+                })));
+            }
+            case "indexes" -> {
+                types.put("table_name", DataTypes.TEXT);
+                types.put("index_name", DataTypes.TEXT);
+                this.keyspaces.forEach((keyspace, objects) -> objects.indexes.forEach((index, table) -> {
+                    final Map<String, Object> row = row("keyspace_name", keyspace, "table_name", table);
+                    row.put("index_name", index);
+                    rows.add(row);
+                }));
+            }
+            case "types" -> {
+                types.put("type_name", DataTypes.TEXT);
+                this.keyspaces.forEach((keyspace, objects) -> objects.types
+                        .forEach(type -> rows.add(row("keyspace_name", keyspace, "type_name", type))));
+            }
+            case "views" -> {
+                types.put("view_name", DataTypes.TEXT);
+                types.put("base_table_name", DataTypes.TEXT);
+                this.keyspaces.forEach((keyspace, objects) -> objects.views.forEach((view, table) -> {
+                    final Map<String, Object> row = row("keyspace_name", keyspace, "view_name", view);
+                    row.put("base_table_name", table);
+                    rows.add(row);
+                }));
+            }
+            default -> throw new InvalidQueryException(NODE, "unconfigured table " + select.table());
+        }
+        final List<String> columns = select.columns().isEmpty() ? new ArrayList<>(types.keySet()) : select.columns();
+        for (String column : columns) {
+            if (!types.containsKey(column)) {
+                throw new InvalidQueryException(NODE, "Undefined column name " + column + " in table system_schema." + select.table());
+            }
+        }
+        return this.project(select, columns.stream().map(column -> new Column(SYSTEM_SCHEMA, select.table(), column, types.get(column))).toList(),
+                rows, types::get, context);
+    }
+
+    private static Map<String, Object> row(String column, Object value, String otherColumn, Object otherValue) {
+        final Map<String, Object> row = new LinkedHashMap<>();
+        row.put(column, value);
+        row.put(otherColumn, otherValue);
+        return row;
+    }
+
+    private QueryResult changeSchema(DdlStatement ddl, String sessionKeyspace, long now) {
+        this.lastSchemaChange = now;
+        if (Objects.isNull(ddl)) {
+            return QueryResult.EMPTY;
+        }
+        if (ddl.getKind() == DdlStatement.Kind.CREATE_KEYSPACE) {
+            if (this.keyspaces.containsKey(ddl.getKeyspace()) && !ddl.isConditional()) {
+                throw new AlreadyExistsException(NODE, ddl.getKeyspace(), "");
+            }
+            this.createKeyspace(ddl.getKeyspace());
+            return QueryResult.EMPTY;
+        }
+        if (ddl.getKind() == DdlStatement.Kind.DROP_KEYSPACE) {
+            if (Objects.isNull(this.keyspaces.remove(ddl.getKeyspace())) && !ddl.isConditional()) {
+                throw new InvalidQueryException(NODE, "Keyspace '" + ddl.getKeyspace() + "' doesn't exist");
+            }
+            return QueryResult.EMPTY;
+        }
+        final String keyspaceName = keyspace(ddl.getKeyspace(), sessionKeyspace);
+        final Keyspace keyspace = this.keyspace(keyspaceName);
+        final String name = ddl.getName();
+        switch (ddl.getKind()) {
+            case CREATE_TABLE -> {
+                if (keyspace.tables.containsKey(name) || keyspace.views.containsKey(name)) {
+                    if (!ddl.isConditional()) {
+                        throw new AlreadyExistsException(NODE, keyspaceName, name);
+                    }
+                } else {
+                    keyspace.tables.put(name, new InMemoryTable(keyspaceName, name, ddl.getColumns(), ddl.getPartitionKey(), ddl.getClusteringColumns(),
+                            ddl.getClusteringOrder()));
+                }
+            }
+            case ALTER_TABLE_ADD -> {
+                final InMemoryTable table = this.table(keyspaceName, name);
+                ddl.getColumns().forEach((column, type) -> {
+                    if (table.getTypes().containsKey(column)) {
+                        if (!ddl.isConditional()) {
+                            throw new InvalidQueryException(NODE, "Invalid column name " + column + " because it conflicts with an existing column");
+                        }
+                    } else {
+                        table.addColumn(column, type);
+                    }
+                });
+            }
+            case ALTER_TABLE_DROP -> {
+                final InMemoryTable table = this.table(keyspaceName, name);
+                ddl.getColumns().keySet().forEach(column -> {
+                    if (table.isPrimaryKey(column)) {
+                        throw new InvalidQueryException(NODE, "Cannot drop PRIMARY KEY part " + column);
+                    }
+                    if (!table.getTypes().containsKey(column)) {
+                        if (!ddl.isConditional()) {
+                            throw new InvalidQueryException(NODE, "Column " + column + " was not found in table " + name);
+                        }
+                    } else {
+                        table.dropColumn(column);
+                    }
+                });
+            }
+            case DROP_TABLE -> {
+                if (Objects.isNull(keyspace.tables.remove(name))) {
+                    if (!ddl.isConditional()) {
+                        throw new InvalidQueryException(NODE, "Table '" + keyspaceName + "." + name + "' doesn't exist");
+                    }
+                } else {
+                    keyspace.indexes.values().removeIf(name::equals);
+                    keyspace.views.values().removeIf(name::equals);
+                }
+            }
+            case CREATE_INDEX -> {
+                final InMemoryTable table = this.table(keyspaceName, ddl.getTable());
+                ddl.getColumns().keySet().forEach(column -> this.column(table, column));
+                if (keyspace.indexes.containsKey(name)) {
+                    if (!ddl.isConditional()) {
+                        throw new AlreadyExistsException(NODE, keyspaceName, name);
+                    }
+                } else {
+                    keyspace.indexes.put(name, ddl.getTable());
+                }
+            }
+            case DROP_INDEX -> dropObject(keyspace.indexes.remove(name), ddl, "Index '" + keyspaceName + "." + name + "' doesn't exist");
+            case CREATE_TYPE -> {
+                if (!keyspace.types.add(name) && !ddl.isConditional()) {
+                    throw new InvalidQueryException(NODE, "A user type of name " + keyspaceName + "." + name + " already exists");
+                }
+            }
+            case DROP_TYPE -> dropObject(keyspace.types.remove(name) ? name : null, ddl, "No user type named " + keyspaceName + "." + name + " exists.");
+            case CREATE_VIEW -> {
+                this.table(keyspaceName, ddl.getTable());
+                if (keyspace.views.containsKey(name) || keyspace.tables.containsKey(name)) {
+                    if (!ddl.isConditional()) {
+                        throw new AlreadyExistsException(NODE, keyspaceName, name);
+                    }
+                } else {
+                    keyspace.views.put(name, ddl.getTable());
+                }
+            }
+            case DROP_VIEW -> dropObject(keyspace.views.remove(name), ddl, "View '" + keyspaceName + "." + name + "' doesn't exist");
+            default -> throw new IllegalStateException("Unexpected DDL : " + ddl.getKind());
+        }
+        return QueryResult.EMPTY;
+    }
+
+    private static void dropObject(Object dropped, DdlStatement ddl, String message) {
+        if (Objects.isNull(dropped) && !ddl.isConditional()) {
+            throw new InvalidQueryException(NODE, message);
+        }
+    }
+
+    private static String keyspace(String keyspace, String sessionKeyspace) {
+        if (Objects.nonNull(keyspace)) {
+            return keyspace;
+        }
+        if (Objects.isNull(sessionKeyspace)) {
+            throw new InvalidQueryException(NODE, "No keyspace has been specified. USE a keyspace, or explicitly specify keyspace.tablename");
+        }
+        return sessionKeyspace;
+    }
+
+    private Keyspace keyspace(String keyspace) {
+        final Keyspace objects = this.keyspaces.get(keyspace);
+        if (Objects.isNull(objects)) {
+            throw new InvalidQueryException(NODE, "Keyspace '" + keyspace + "' does not exist");
+        }
+        return objects;
+    }
+
+    private InMemoryTable table(String keyspace, String table) {
+        final InMemoryTable inMemoryTable = this.keyspace(keyspace).tables.get(table);
+        if (Objects.isNull(inMemoryTable)) {
+            throw new InvalidQueryException(NODE, "unconfigured table " + table);
+        }
+        return inMemoryTable;
+    }
+
+    private DataType column(InMemoryTable table, String column) {
+        final DataType type = table.dataType(column);
+        if (Objects.isNull(type)) {
+            throw new InvalidQueryException(NODE, "Undefined column name " + column + " in table " + table.getKeyspace() + "." + table.getName());
+        }
+        return type;
+    }
+
+    private static List<Column> columns(InMemoryTable table, Collection<String> names) {
+        return names.stream().map(name -> new Column(table.getKeyspace(), table.getName(), name, table.dataType(name))).toList();
+    }
+
+    private static Node node() {
+        final EndPoint endPoint = new DefaultEndPoint(new InetSocketAddress("127.0.0.1", 9042));
+        return (Node) Proxy.newProxyInstance(InMemoryStore.class.getClassLoader(), new Class<?>[]{Node.class}, (proxy, method, args) -> switch (method.getName()) {
+            case "getEndPoint" -> endPoint;
+            case "getDatacenter" -> "in-memory";
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "Node(in-memory)";
+            default -> null;
+        });
+    }
+
+    /**
+     * The values of the bind markers and the time of one statement.
+     */
+    private static final class Context {
+        private final List<Object> values;
+        private final long now;
+
+        private Context(List<Object> values, long now) {
+            this.values = values;
+            this.now = now;
+        }
+
+        private long expiresAt(Term ttl) {
+            if (Objects.isNull(ttl)) {
+                return InMemoryTable.NEVER;
+            }
+            final Object seconds = this.value(ttl, DataTypes.INT);
+            return seconds instanceof Integer value && value > 0 ? this.now + value * 1000L : InMemoryTable.NEVER;
+        }
+
+        private Object value(Term term, DataType type) {
+            if (term instanceof Marker marker) {
+                return this.values.get(marker.index());
+            }
+            if (term instanceof Call call) {
+                return this.call(call.function());
+            }
+            return parse(((Literal) term).text(), type);
+        }
+
+        private Object call(String function) {
+            return switch (function) {
+                case "uuid()" -> UUID.randomUUID();
+                case "now()", "currenttimeuuid()" -> Uuids.timeBased();
+                case "currenttimestamp()", "totimestamp(now())" -> Instant.ofEpochMilli(this.now);
+                case "currentdate()", "todate(now())" -> LocalDate.ofInstant(Instant.ofEpochMilli(this.now), ZoneOffset.UTC);
+                default -> throw new InvalidQueryException(NODE, "Unknown function " + function);
+            };
+        }
+
+        private static Object parse(String literal, DataType type) {
+            if ("null".equals(literal.toLowerCase(Locale.ROOT))) {
+                return null;
+            }
+            if (DataTypes.TEXT.equals(type) && !literal.startsWith("'")) {
+                // a user defined type, kept as its literal
+                return literal;
+            }
+            try {
+                return CqlTypes.codec(type).parse(literal);
+            } catch (RuntimeException e) {
+                throw new InvalidQueryException(NODE, "Invalid literal " + literal + " for type " + type.asCql(false, true));
+            }
+        }
+    }
+
+    private static final class Keyspace {
+        private final Map<String, InMemoryTable> tables = new LinkedHashMap<>();
+        // index name to table
+        private final Map<String, String> indexes = new LinkedHashMap<>();
+        private final Set<String> types = new LinkedHashSet<>();
+        // view name to base table
+        private final Map<String, String> views = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,242 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3TokenFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * The rows of one table. Partitions keep the order they were first written in, rows are sorted by clustering key
+ * within a partition. Like in Cassandra, {@code INSERT} writes a row marker and {@code UPDATE} only writes cells, so a
+ * row lives as long as its marker or any of its cells; each expires with the TTL it was written with.
+ */
+final class InMemoryTable {
+    static final long NEVER = Long.MAX_VALUE;
+    private static final Comparator<List<Object>> CLUSTERING_ORDER = InMemoryTable::compare;
+    private static final Murmur3TokenFactory MURMUR3 = new Murmur3TokenFactory();
+    private final String keyspace;
+    private final String name;
+    private final Map<String, String> types = new LinkedHashMap<>();
+    private final Map<String, DataType> dataTypes = new HashMap<>();
+    private final List<String> partitionKey;
+    private final List<String> clusteringColumns;
+    private final List<String> clusteringOrder;
+    private final Map<List<Object>, TreeMap<List<Object>, StoredRow>> partitions = new LinkedHashMap<>();
+
+    InMemoryTable(String keyspace, String name, Map<String, String> columns, List<String> partitionKey, List<String> clusteringColumns,
+                  List<String> clusteringOrder) {
+        this.keyspace = keyspace;
+        this.name = name;
+        this.partitionKey = List.copyOf(partitionKey);
+        this.clusteringColumns = List.copyOf(clusteringColumns);
+        this.clusteringOrder = List.copyOf(clusteringOrder);
+        columns.forEach(this::addColumn);
+    }
+
+    String getKeyspace() {
+        return keyspace;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Column name to type as {@code system_schema.columns} spells it, in definition order.
+     */
+    Map<String, String> getTypes() {
+        return types;
+    }
+
+    List<String> getPartitionKey() {
+        return partitionKey;
+    }
+
+    List<String> getClusteringColumns() {
+        return clusteringColumns;
+    }
+
+    /**
+     * {@code asc} or {@code desc} per clustering column, as declared; rows are kept in ascending order regardless.
+     */
+    List<String> getClusteringOrder() {
+        return clusteringOrder;
+    }
+
+    boolean isPrimaryKey(String column) {
+        return this.partitionKey.contains(column) || this.clusteringColumns.contains(column);
+    }
+
+    DataType dataType(String column) {
+        return this.dataTypes.get(column);
+    }
+
+    void addColumn(String column, String type) {
+        this.types.put(column, type);
+        this.dataTypes.put(column, CqlTypes.dataType(type));
+    }
+
+    void dropColumn(String column) {
+        this.types.remove(column);
+        this.dataTypes.remove(column);
+        this.partitions.values().forEach(rows -> rows.values().forEach(row -> row.cells.remove(column)));
+    }
+
+    /**
+     * The row of a full primary key, created when {@code create} is set.
+     */
+    StoredRow row(List<Object> partition, List<Object> clustering, boolean create) {
+        TreeMap<List<Object>, StoredRow> rows = this.partitions.get(partition);
+        if (Objects.isNull(rows)) {
+            if (!create) {
+                return null;
+            }
+            rows = new TreeMap<>(CLUSTERING_ORDER);
+            this.partitions.put(partition, rows);
+        }
+        return create ? rows.computeIfAbsent(clustering, key -> new StoredRow()) : rows.get(clustering);
+    }
+
+    void deletePartition(List<Object> partition) {
+        this.partitions.remove(partition);
+    }
+
+    void truncate() {
+        this.partitions.clear();
+    }
+
+    /**
+     * Visits the live rows with all their columns, and drops the expired ones.
+     */
+    void forEachLive(long now, BiConsumer<Map<String, Object>, StoredRow> consumer) {
+        final Iterator<Map.Entry<List<Object>, TreeMap<List<Object>, StoredRow>>> partitionIterator = this.partitions.entrySet().iterator();
+        while (partitionIterator.hasNext()) {
+            final Map.Entry<List<Object>, TreeMap<List<Object>, StoredRow>> partition = partitionIterator.next();
+            final Iterator<Map.Entry<List<Object>, StoredRow>> rowIterator = partition.getValue().entrySet().iterator();
+            while (rowIterator.hasNext()) {
+                final Map.Entry<List<Object>, StoredRow> row = rowIterator.next();
+                if (!row.getValue().isLive(now)) {
+                    rowIterator.remove();
+                    continue;
+                }
+                consumer.accept(this.values(partition.getKey(), row.getKey(), row.getValue(), now), row.getValue());
+            }
+            if (partition.getValue().isEmpty()) {
+                partitionIterator.remove();
+            }
+        }
+    }
+
+    /**
+     * All columns of a row by name, {@code null} for the ones without a live value.
+     */
+    Map<String, Object> values(List<Object> partition, List<Object> clustering, StoredRow row, long now) {
+        final Map<String, Object> values = new LinkedHashMap<>();
+        for (String column : this.types.keySet()) {
+            final int partitionIndex = this.partitionKey.indexOf(column);
+            final int clusteringIndex = this.clusteringColumns.indexOf(column);
+            if (partitionIndex >= 0) {
+                values.put(column, partition.get(partitionIndex));
+            } else if (clusteringIndex >= 0) {
+                values.put(column, clustering.get(clusteringIndex));
+            } else {
+                values.put(column, Objects.nonNull(row) ? row.value(column, now) : null);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * The Murmur3 token of the partition key of a row, with composite keys serialized like Cassandra does.
+     */
+    long token(Map<String, Object> values) {
+        final List<ByteBuffer> components = new ArrayList<>(this.partitionKey.size());
+        for (String column : this.partitionKey) {
+            components.add(CqlTypes.codec(this.dataType(column)).encode(values.get(column), InMemoryResults.PROTOCOL_VERSION));
+        }
+        ByteBuffer key = components.get(0);
+        if (components.size() > 1) {
+            key = ByteBuffer.allocate(components.stream().mapToInt(component -> component.remaining() + 3).sum());
+            for (ByteBuffer component : components) {
+                key.putShort((short) component.remaining()).put(component.duplicate()).put((byte) 0);
+            }
+            key.flip();
+        }
+        return ((Murmur3Token) MURMUR3.hash(key.duplicate())).getValue();
+    }
+
+    // element by element, values of one type by their natural order, nulls first
+    static int compare(List<Object> left, List<Object> right) {
+        for (int i = 0; i < Math.min(left.size(), right.size()); i++) {
+            final int compared = compare(left.get(i), right.get(i));
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return Integer.compare(left.size(), right.size());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compare(Object left, Object right) {
+        if (Objects.isNull(left) || Objects.isNull(right)) {
+            return Objects.isNull(left) ? (Objects.isNull(right) ? 0 : -1) : 1;
+        }
+        if (left instanceof Number leftNumber && right instanceof Number rightNumber && left.getClass() != right.getClass()) {
+            return Double.compare(leftNumber.doubleValue(), rightNumber.doubleValue());
+        }
+        if (left instanceof Comparable comparable && left.getClass() == right.getClass()) {
+            return comparable.compareTo(right);
+        }
+        return String.valueOf(left).compareTo(String.valueOf(right));
+    }
+
+    static List<Object> key(List<String> columns, Map<String, Object> values) {
+        final List<Object> key = new ArrayList<>(columns.size());
+        columns.forEach(column -> key.add(values.get(column)));
+        return key;
+    }
+
+    /**
+     * A row marker and the cells of the regular columns, each with the time it expires at.
+     */
+    static final class StoredRow {
+        private long markerExpiresAt = -1;
+        private final Map<String, Cell> cells = new HashMap<>();
+
+        void writeMarker(long expiresAt) {
+            this.markerExpiresAt = expiresAt;
+        }
+
+        void write(String column, Object value, long expiresAt) {
+            if (Objects.isNull(value)) {
+                // writing null is a tombstone
+                this.cells.remove(column);
+            } else {
+                this.cells.put(column, new Cell(value, expiresAt));
+            }
+        }
+
+        Object value(String column, long now) {
+            final Cell cell = this.cells.get(column);
+            return Objects.nonNull(cell) && cell.expiresAt > now ? cell.value : null;
+        }
+
+        boolean isLive(long now) {
+            return this.markerExpiresAt > now || this.cells.values().stream().anyMatch(cell -> cell.expiresAt > now);
+        }
+    }
+
+    private record Cell(Object value, long expiresAt) {
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.type.DataTypes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The rows a statement returns, by column index. A lightweight transaction returns {@code [applied]} first, followed
+ * by the current values when it was not applied.
+ */
+record QueryResult(List<Column> columns, List<List<Object>> rows, boolean applied) {
+    static final QueryResult EMPTY = new QueryResult(List.of(), List.of(), true);
+    private static final Column APPLIED = new Column("", "", "[applied]", DataTypes.BOOLEAN);
+
+    static QueryResult applied(boolean applied) {
+        return new QueryResult(List.of(APPLIED), List.of(List.of(applied)), applied);
+    }
+
+    /**
+     * A lightweight transaction that was not applied, with the current values of some columns.
+     */
+    static QueryResult notApplied(List<Column> columns, List<Object> values) {
+        final List<Column> resultColumns = new ArrayList<>(columns.size() + 1);
+        resultColumns.add(APPLIED);
+        resultColumns.addAll(columns);
+        final List<Object> row = new ArrayList<>(values.size() + 1);
+        row.add(false);
+        row.addAll(values);
+        return new QueryResult(resultColumns, List.of(row), false);
+    }
+}
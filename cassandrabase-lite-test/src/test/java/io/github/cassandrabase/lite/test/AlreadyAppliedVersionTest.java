@@ -0,0 +1,83 @@
+package io.github.cassandrabase.lite.test;
+
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlreadyAppliedVersionTest {
+    private static final String USERS = """
+            <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                <statement>CREATE TABLE users (id int PRIMARY KEY, name text)</statement>
+            </changeSet>
+            """;
+    private static final String ADMIN = """
+            <changeSet id="admin" author="test" order="2" consistencyLevel="ALL">
+                <statement>INSERT INTO users (id, name) VALUES (1, 'admin')</statement>
+            </changeSet>
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restartsAfterTheVersionIsDoneWithASingleRead() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, USERS + ADMIN);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node-1", classObject)) {
+            cassandrabase.validate(ExecutionMode.PARALLEL);
+        }
+        cassandra.resetStatistics();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node-2", classObject)) {
+            cassandrabase.validate(ExecutionMode.PARALLEL);
+        }
+
+        final List<String> statements = cassandra.getStatements();
+        assertEquals(1, statements.size(), statements.toString());
+        assertTrue(statements.get(0).startsWith("SELECT"), statements.get(0));
+        assertTrue(statements.get(0).contains("changelog_lock"), statements.get(0));
+        assertEquals(0, cassandra.getSchemaAgreementChecks());
+        assertEquals("node-1", cassandra.getRows("ks", "changelog_lock").get(0).get("locked_by"));
+    }
+
+    @Test
+    void readsTheLockBeforeTheChangelogTablesExist() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, USERS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+
+        final List<String> statements = cassandra.getStatements();
+        assertTrue(statements.get(0).contains("changelog_lock"), statements.get(0));
+        assertFalse(statements.get(0).contains("system_schema"), statements.get(0));
+        assertTrue(cassandra.hasTable("ks", "users"));
+        assertEquals(false, cassandra.getRows("ks", "changelog_lock").get(0).get("locked"));
+    }
+
+    @Test
+    void takesTheLockForAChangedVersion() throws Exception {
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", TestChangeLogs.write(this.directory.resolve("v1"), USERS))) {
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+        cassandra.resetStatistics();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", TestChangeLogs.write(this.directory.resolve("v2"), USERS + ADMIN))) {
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+
+        assertTrue(cassandra.getStatements().stream().anyMatch(statement -> statement.startsWith("INSERT INTO users")));
+        assertEquals(2, cassandra.getRows("ks", "changelog_lock").size());
+        assertEquals(2, cassandra.getRows("ks", "changelog_history").size());
+    }
+}
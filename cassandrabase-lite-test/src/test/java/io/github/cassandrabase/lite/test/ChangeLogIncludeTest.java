@@ -0,0 +1,99 @@
+package io.github.cassandrabase.lite.test;
+
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.loader.ChangeLogLoader;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChangeLogIncludeTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void mergesTheIncludedFilesByOrder() throws Exception {
+        final Object classObject = this.changeLog("""
+                <changeLog path="core.xml">
+                    <include path="changelog/**.xml"/>
+                </changeLog>
+                """);
+        TestChangeLogs.file(this.directory, "core.xml", changeSets("users:1"));
+        TestChangeLogs.file(this.directory, "changelog/b.xml", changeSets("admin:4", "roles:2"));
+        TestChangeLogs.file(this.directory, "changelog/a.xml", changeSets("guest:5"));
+        TestChangeLogs.file(this.directory, "changelog/teams/ops.xml", changeSets("ops:3"));
+
+        final List<ChangeSet> changeSets = ChangeLogLoader.load(classObject.getClass().getClassLoader()).getChangeLog().getChangeSets();
+        assertEquals(List.of("users", "roles", "ops", "admin", "guest"), changeSets.stream().map(ChangeSet::getId).toList());
+
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.validate(ExecutionMode.PARALLEL);
+        }
+        assertEquals(5, cassandra.getRows("ks", "changelog_history").size());
+    }
+
+    @Test
+    void reportsTheFilesDeclaringADuplicate() {
+        final Object classObject = this.changeLog("""
+                <changeLog path="changelog/*.xml"/>
+                """);
+        TestChangeLogs.file(this.directory, "changelog/b.xml", changeSets("roles:2"));
+        TestChangeLogs.file(this.directory, "changelog/a.xml", changeSets("users:1", "admin:2"));
+        // matches of a glob are read sorted by name
+        assertEquals("Duplicate changeSet found in post changeLog. [Order : 2, Files : db/changelog/a.xml, db/changelog/b.xml]", this.loadFailure(classObject));
+
+        TestChangeLogs.file(this.directory, "changelog/b.xml", changeSets("users:3"));
+        assertEquals("Duplicate changeSet found in post changeLog. [ChangeSetId : users, Files : db/changelog/a.xml, db/changelog/b.xml]", this.loadFailure(classObject));
+    }
+
+    @Test
+    void rejectsAGlobWithoutMatchesAndAStreamedChangeLogOfManyFiles() {
+        final Object missing = this.changeLog("""
+                <changeLog path="missing/*.xml"/>
+                """);
+        assertEquals("Changelog resource not found : db/missing/*.xml", this.loadFailure(missing));
+
+        final Object streamed = this.changeLog("""
+                <changeLog path="changelog/*.xml" streaming="true"/>
+                """);
+        TestChangeLogs.file(this.directory, "changelog/a.xml", changeSets("users:1"));
+        TestChangeLogs.file(this.directory, "changelog/b.xml", changeSets("admin:2"));
+        assertEquals("A streamed post changeLog must be a single file. [db/changelog/a.xml, db/changelog/b.xml]", this.loadFailure(streamed));
+    }
+
+    private String loadFailure(Object classObject) {
+        return assertThrows(RuntimeException.class, () -> ChangeLogLoader.load(classObject.getClass().getClassLoader())).getMessage();
+    }
+
+    // the changeLog element of the config replaced, the pre changeLog kept
+    private Object changeLog(String changeLogElement) {
+        final Object classObject = TestChangeLogs.write(this.directory, "");
+        TestChangeLogs.file(this.directory, "changeset-config.xml", """
+                <?xml version="1.0"?>
+                <cassandraBaseConfig>
+                    <majorVersion>1</majorVersion>
+                    <preChangeLog path="pre.xml"/>
+                    %s
+                </cassandraBaseConfig>
+                """.formatted(changeLogElement));
+        return classObject;
+    }
+
+    // id:order pairs, every changeSet creating a table named after its id
+    private static String changeSets(String... changeSets) {
+        return "<?xml version=\"1.0\"?>\n<changeLog>\n" + Arrays.stream(changeSets).map(changeSet -> changeSet.split(":")).map(idOrder -> """
+                <changeSet id="%1$s" author="test" order="%2$s" consistencyLevel="ALL">
+                    <statement>CREATE TABLE %1$s (id int PRIMARY KEY)</statement>
+                </changeSet>
+                """.formatted(idOrder[0], idOrder[1])).collect(Collectors.joining()) + "</changeLog>\n";
+    }
+}
@@ -0,0 +1,189 @@
+package io.github.cassandrabase.lite.test;
+
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.loader.ChangeLogLoader;
+import io.github.cassandrabase.lite.model.CassandraConfigs;
+import io.github.cassandrabase.lite.snapshot.ChangeLogSnapshot;
+import io.github.cassandrabase.lite.snapshot.StaleSnapshotException;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import io.github.cassandrabase.lite.xml.LoadDataChangeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChangeLogSnapshotTest {
+    private static final String CHANGE_SETS = """
+            <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                <statement>CREATE TABLE users (id int PRIMARY KEY, name text)</statement>
+            </changeSet>
+            """;
+    private static final String ADMIN = """
+            <changeSet id="admin" author="test" order="2" consistencyLevel="ALL">
+                <statement>INSERT INTO users (id, name) VALUES (1, 'admin')</statement>
+            </changeSet>
+            """;
+    private static final String LOAD_DATA = """
+            <loadData id="admin" author="test" order="2" consistencyLevel="ALL" file="users.csv" table="users"/>
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void loadsTheXmlWhenTheSnapshotIsStale() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        this.precompile(classObject.getClass().getClassLoader());
+        // edited after the build, without a new snapshot
+        TestChangeLogs.file(this.directory, "changeLog.xml", "<?xml version=\"1.0\"?>\n<changeLog>\n" + CHANGE_SETS + ADMIN + "</changeLog>\n");
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+
+        assertEquals(List.of(Map.of("id", 1, "name", "admin")), cassandra.getRows("ks", "users"));
+    }
+
+    @Test
+    void rejectsASnapshotOfOtherFiles() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final ClassLoader classLoader = classObject.getClass().getClassLoader();
+        this.precompile(classLoader);
+        try (InputStream inputStream = Files.newInputStream(this.snapshot())) {
+            assertEquals(1, ChangeLogSnapshot.read(inputStream, classLoader).getMajorVersion());
+        }
+
+        TestChangeLogs.file(this.directory, "pre.xml", Files.readString(this.directory.resolve("db/pre.xml")).replace("author=\"test\"", "author=\"other\""));
+        try (InputStream inputStream = Files.newInputStream(this.snapshot())) {
+            assertThrows(StaleSnapshotException.class, () -> ChangeLogSnapshot.read(inputStream, classLoader));
+        }
+    }
+
+    @Test
+    void hashesTheCsvAgainOnlyOnceItChanged() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS + LOAD_DATA);
+        TestChangeLogs.file(this.directory, "users.csv", "id,name\n1,admin\n");
+        final ClassLoader classLoader = classObject.getClass().getClassLoader();
+        this.precompile(classLoader);
+        final String built = loadData(ChangeLogLoader.load(classLoader).getChangeLog().getChangeSets()).getMd5Sum();
+        final AtomicInteger reads = new AtomicInteger();
+        final ClassLoader countingClassLoader = countCsvReads(classLoader, reads);
+
+        try (InputStream inputStream = Files.newInputStream(this.snapshot())) {
+            assertEquals(built, loadData(ChangeLogSnapshot.read(inputStream, countingClassLoader).getChangeLog().getChangeSets()).getMd5Sum());
+        }
+        assertEquals(0, reads.get());
+
+        // same size, modified after the build
+        final Path csv = this.directory.resolve("db/users.csv");
+        Files.writeString(csv, "id,name\n1,guest\n");
+        Files.setLastModifiedTime(csv, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        try (InputStream inputStream = Files.newInputStream(this.snapshot())) {
+            final String md5Sum = loadData(ChangeLogSnapshot.read(inputStream, countingClassLoader).getChangeLog().getChangeSets()).getMd5Sum();
+            assertNotEquals(built, md5Sum);
+            assertEquals(loadData(ChangeLogLoader.load(classLoader).getChangeLog().getChangeSets()).getMd5Sum(), md5Sum);
+        }
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void hashesTheCsvOfTheXmlOnlyOnceItChanged() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS + LOAD_DATA);
+        TestChangeLogs.file(this.directory, "users.csv", "id,name\n1,admin\n");
+        final AtomicInteger reads = new AtomicInteger();
+        final ClassLoader classLoader = countCsvReads(classObject.getClass().getClassLoader(), reads);
+
+        final String loaded = loadData(ChangeLogLoader.load(classLoader).getChangeLog().getChangeSets()).getMd5Sum();
+        assertEquals(loaded, loadData(ChangeLogLoader.load(classLoader).getChangeLog().getChangeSets()).getMd5Sum());
+        assertEquals(1, reads.get());
+
+        final Path csv = this.directory.resolve("db/users.csv");
+        Files.writeString(csv, "id,name\n1,guest\n");
+        Files.setLastModifiedTime(csv, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        assertNotEquals(loaded, loadData(ChangeLogLoader.load(classLoader).getChangeLog().getChangeSets()).getMd5Sum());
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    void rendersPlaceholdersLikeTheXml() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, """
+                <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                    <statement>CREATE TABLE ${table} (id int PRIMARY KEY, name text)</statement>
+                </changeSet>
+                <changeSet id="admin" author="test" order="2" consistencyLevel="ALL">
+                    <statement>INSERT INTO ${table} (id, name) VALUES (1, '$${table} ${name:-admin}')</statement>
+                </changeSet>
+                """);
+        final ClassLoader classLoader = classObject.getClass().getClassLoader();
+        final Properties buildProperties = new Properties();
+        buildProperties.setProperty("name", "root");
+        final CassandraConfigs built = ChangeLogLoader.load(classLoader);
+        built.setBuildProperties(buildProperties);
+        try (OutputStream outputStream = Files.newOutputStream(this.snapshot())) {
+            ChangeLogSnapshot.write(built, outputStream);
+        }
+        final Properties properties = new Properties();
+        properties.setProperty("table", "users");
+        properties.setProperty("name", "guest");
+
+        final CassandraConfigs xml = ChangeLogLoader.load(classLoader);
+        final Properties xmlProperties = new Properties();
+        xmlProperties.putAll(properties);
+        xmlProperties.putAll(buildProperties);
+        ChangeLogLoader.setProperties(xml, xmlProperties);
+        final CassandraConfigs snapshot;
+        try (InputStream inputStream = Files.newInputStream(this.snapshot())) {
+            snapshot = ChangeLogSnapshot.read(inputStream, classLoader);
+        }
+        ChangeLogLoader.setProperties(snapshot, properties);
+
+        assertEquals("INSERT INTO users (id, name) VALUES (1, '${table} root')", xml.getChangeLog().getChangeSets().get(1).getStatement());
+        for (CassandraConfigs cassandraConfigs : List.of(xml, snapshot)) {
+            assertEquals(List.of("CREATE TABLE users (id int PRIMARY KEY, name text)", xml.getChangeLog().getChangeSets().get(1).getStatement()),
+                    cassandraConfigs.getChangeLog().getChangeSets().stream().map(ChangeSet::getStatement).toList());
+        }
+        assertEquals(xml.getChangeLog().getChangeSets().stream().map(ChangeSet::getMd5Sum).toList(),
+                snapshot.getChangeLog().getChangeSets().stream().map(ChangeSet::getMd5Sum).toList());
+        assertEquals(xml.getPreChangeLog().getChangeSets().get(0).getMd5Sum(), snapshot.getPreChangeLog().getChangeSets().get(0).getMd5Sum());
+    }
+
+    private void precompile(ClassLoader classLoader) throws Exception {
+        try (OutputStream outputStream = Files.newOutputStream(this.snapshot())) {
+            ChangeLogSnapshot.write(ChangeLogLoader.load(classLoader), outputStream);
+        }
+    }
+
+    private Path snapshot() {
+        return this.directory.resolve(ChangeLogSnapshot.RESOURCE);
+    }
+
+    private static LoadDataChangeSet loadData(List<ChangeSet> changeSets) {
+        return changeSets.stream().filter(LoadDataChangeSet.class::isInstance).map(LoadDataChangeSet.class::cast).findFirst().orElseThrow();
+    }
+
+    private static ClassLoader countCsvReads(ClassLoader classLoader, AtomicInteger reads) {
+        return new ClassLoader(classLoader) {
+            @Override
+            public InputStream getResourceAsStream(String name) {
+                if (name.endsWith(".csv")) {
+                    reads.incrementAndGet();
+                }
+                return super.getResourceAsStream(name);
+            }
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.digest.MerkleTree;
+import io.github.cassandrabase.lite.util.HashGen;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChangeSetDigestTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void normalizesTheStatementOnceBeforeHashing() {
+        final ChangeSet compact = changeSet("users", 1, "CREATE TABLE users (id int PRIMARY KEY)");
+        final ChangeSet spread = changeSet("users", 1, "\n    CREATE TABLE users\n        (id int   PRIMARY KEY)  ");
+
+        assertEquals("CREATE TABLE users (id int PRIMARY KEY)", spread.getStatement());
+        assertEquals(compact.getMd5Sum(), spread.getMd5Sum());
+        assertEquals(compact.getDigest(HashGen.ALGType.MURMUR3_128), spread.getDigest(HashGen.ALGType.MURMUR3_128));
+    }
+
+    @Test
+    void hashesAgainOnceTheStatementChanged() {
+        final ChangeSet changeSet = changeSet("users", 1, "CREATE TABLE users (id int PRIMARY KEY)");
+        final String md5Sum = changeSet.getMd5Sum();
+        final String sha256 = changeSet.getDigest(HashGen.ALGType.SHA256);
+
+        changeSet.setStatement("CREATE TABLE users (id int PRIMARY KEY, name text)");
+
+        assertNotEquals(md5Sum, changeSet.getMd5Sum());
+        assertNotEquals(sha256, changeSet.getDigest(HashGen.ALGType.SHA256));
+        assertEquals(changeSet("users", 1, "CREATE TABLE users (id int PRIMARY KEY, name text)").getMd5Sum(), changeSet.getMd5Sum());
+    }
+
+    @Test
+    void diffsTreesDownToTheChangedChangeSets() {
+        final List<ChangeSet> local = changeSets(11);
+        final List<ChangeSet> remote = changeSets(11);
+        remote.get(3).setStatement("INSERT INTO users (id) VALUES (-3)");
+        remote.get(10).setStatement("INSERT INTO users (id) VALUES (-10)");
+
+        final MerkleTree localTree = MerkleTree.of(local.stream(), HashGen.ALGType.MURMUR3_128);
+        final MerkleTree remoteTree = MerkleTree.of(remote.stream(), HashGen.ALGType.MURMUR3_128);
+
+        assertEquals(11, localTree.getLeafCount());
+        assertEquals(5, localTree.getHeight());
+        assertNotEquals(localTree.getRootHash(), remoteTree.getRootHash());
+        assertEquals(List.of(3, 10), localTree.diff(remoteTree));
+        assertEquals(localTree.getHash(1, 0), remoteTree.getHash(1, 0));
+        assertNotEquals(localTree.getHash(1, 1), remoteTree.getHash(1, 1));
+        assertNull(localTree.getHash(0, 11));
+        assertEquals(List.of(), localTree.diff(MerkleTree.of(changeSets(11).stream(), HashGen.ALGType.MURMUR3_128)));
+    }
+
+    @Test
+    void reportsTheChangeSetsOnlyOneTreeHas() {
+        final MerkleTree shorter = MerkleTree.of(changeSets(5).stream(), HashGen.ALGType.SHA256);
+        final MerkleTree longer = MerkleTree.of(changeSets(7).stream(), HashGen.ALGType.SHA256);
+
+        assertEquals(List.of(5, 6), shorter.diff(longer));
+        assertEquals(List.of(5, 6), longer.diff(shorter));
+        assertNull(MerkleTree.of(changeSets(0).stream(), HashGen.ALGType.SHA256).getRootHash());
+        final RuntimeException exception = assertThrows(RuntimeException.class, () -> shorter.diff(MerkleTree.of(changeSets(5).stream(), HashGen.ALGType.MD5)));
+        assertEquals("Merkle trees use different hash algorithms. [SHA256, MD5]", exception.getMessage());
+    }
+
+    @Test
+    void buildsTheSameTreeOnEveryNode() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, """
+                <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                    <statement>CREATE TABLE users (id int PRIMARY KEY)</statement>
+                </changeSet>
+                <changeSet id="admin" author="test" order="2" consistencyLevel="ALL">
+                    <statement>INSERT INTO users (id) VALUES (1)</statement>
+                </changeSet>
+                """);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+
+        try (Cassandrabase first = new Cassandrabase(cassandra.connect("ks"), "node-1", classObject);
+             Cassandrabase second = new Cassandrabase(cassandra.connect("ks"), "node-2", classObject)) {
+            final MerkleTree tree = first.getMerkleTree(HashGen.ALGType.MD5);
+            // the pre changeLog and the changeLog
+            assertEquals(3, tree.getLeafCount());
+            assertEquals(tree.getRootHash(), second.getMerkleTree(HashGen.ALGType.MD5).getRootHash());
+        }
+    }
+
+    private static List<ChangeSet> changeSets(int count) {
+        final List<ChangeSet> changeSets = new ArrayList<>();
+        IntStream.range(0, count).forEach(i -> changeSets.add(changeSet("user_" + i, i, "INSERT INTO users (id) VALUES (" + i + ")")));
+        return changeSets;
+    }
+
+    private static ChangeSet changeSet(String id, int order, String statement) {
+        final ChangeSet changeSet = new ChangeSet();
+        changeSet.setId(id);
+        changeSet.setAuthor("test");
+        changeSet.setOrder(order);
+        changeSet.setConsistencyLevel(DefaultConsistencyLevel.ALL);
+        changeSet.setStatement(statement);
+        return changeSet;
+    }
+}
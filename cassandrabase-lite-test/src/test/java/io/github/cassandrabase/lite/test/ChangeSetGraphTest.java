@@ -0,0 +1,149 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.execution.ChangeSetGraph;
+import io.github.cassandrabase.lite.execution.ChangeSetGraphExecutor;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeSetGraphTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void dependsOnThePreviousChangeSetTouchingTheSameTable() {
+        final ChangeSetGraph graph = ChangeSetGraph.of(List.of(
+                changeSet("users", 1, "CREATE TABLE users (id int PRIMARY KEY)"),
+                changeSet("orders", 2, "CREATE TABLE orders (id int PRIMARY KEY)"),
+                changeSet("admin", 3, "INSERT INTO users (id) VALUES (1)"),
+                changeSet("order", 4, "INSERT INTO orders (id) VALUES (1)"),
+                changeSet("guest", 5, "INSERT INTO users (id) VALUES (2)", "order")), Set.of());
+
+        assertEquals(Set.of(), graph.getDependencies(0));
+        assertEquals(Set.of(), graph.getDependencies(1));
+        assertEquals(Set.of(0), graph.getDependencies(2));
+        assertEquals(Set.of(1), graph.getDependencies(3));
+        assertEquals(Set.of(2, 3), graph.getDependencies(4));
+        assertEquals(List.of(List.of("users", "orders"), List.of("admin", "order"), List.of("guest")), ids(graph.waves()));
+    }
+
+    @Test
+    void runsStatementsThatCannotBeAnalyzedAlone() {
+        final ChangeSetGraph graph = ChangeSetGraph.of(List.of(
+                changeSet("users", 1, "CREATE TABLE users (id int PRIMARY KEY)"),
+                changeSet("orders", 2, "CREATE TABLE orders (id int PRIMARY KEY)"),
+                changeSet("address", 3, "CREATE TYPE address (street text)"),
+                changeSet("admin", 4, "INSERT INTO users (id) VALUES (1)"),
+                changeSet("order", 5, "INSERT INTO orders (id) VALUES (1)")), Set.of());
+
+        assertEquals(Set.of(0, 1), graph.getDependencies(2));
+        assertEquals(Set.of(2), graph.getDependencies(3));
+        assertEquals(Set.of(2), graph.getDependencies(4));
+        assertEquals(List.of(List.of("users", "orders"), List.of("address"), List.of("admin", "order")), ids(graph.waves()));
+    }
+
+    @Test
+    void rejectsUnknownAndCyclicDependencies() {
+        final RuntimeException unknown = assertThrows(RuntimeException.class, () -> ChangeSetGraph.of(List.of(
+                changeSet("users", 1, "CREATE TABLE users (id int PRIMARY KEY)", "missing")), Set.of()));
+        assertEquals("Unknown dependsOn reference. [ChangeSetId : users, DependsOn : missing]", unknown.getMessage());
+        // an applied changeSet may be referenced
+        ChangeSetGraph.of(List.of(changeSet("admin", 2, "INSERT INTO users (id) VALUES (1)", "users")), Set.of("users"));
+
+        final RuntimeException cyclic = assertThrows(RuntimeException.class, () -> ChangeSetGraph.of(List.of(
+                changeSet("users", 1, "CREATE TABLE users (id int PRIMARY KEY)", "admin"),
+                changeSet("admin", 2, "INSERT INTO users (id) VALUES (1)")), Set.of()));
+        assertEquals("Cyclic changeSet dependencies found. [ChangeSetIds : users, admin]", cyclic.getMessage());
+    }
+
+    @Test
+    void startsAChangeSetAsSoonAsItsDependenciesCompleted() {
+        final ChangeSetGraph graph = ChangeSetGraph.of(List.of(
+                changeSet("users", 1, "CREATE TABLE users (id int PRIMARY KEY)"),
+                changeSet("orders", 2, "CREATE TABLE orders (id int PRIMARY KEY)"),
+                changeSet("admin", 3, "INSERT INTO users (id) VALUES (1)"),
+                changeSet("order", 4, "INSERT INTO orders (id) VALUES (1)")), Set.of());
+        final Map<String, CompletableFuture<Void>> started = new ConcurrentHashMap<>();
+
+        final CompletableFuture<Void> execution = new ChangeSetGraphExecutor(changeSet -> started.computeIfAbsent(changeSet.getId(), id -> new CompletableFuture<>())).execute(graph);
+        assertEquals(Set.of("users", "orders"), started.keySet());
+
+        // the users branch does not wait for the orders table
+        started.get("users").complete(null);
+        assertEquals(Set.of("users", "orders", "admin"), started.keySet());
+        started.get("admin").complete(null);
+        assertFalse(execution.isDone());
+
+        started.get("orders").complete(null);
+        started.get("order").complete(null);
+        assertTrue(execution.isDone());
+    }
+
+    @Test
+    void runsIndependentBranchesConcurrently() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, """
+                <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                    <statement>CREATE TABLE users (id int PRIMARY KEY)</statement>
+                </changeSet>
+                <changeSet id="orders" author="test" order="2" consistencyLevel="ALL">
+                    <statement>CREATE TABLE orders (id int PRIMARY KEY)</statement>
+                </changeSet>
+                <changeSet id="admin" author="test" order="3" consistencyLevel="ALL">
+                    <statement>INSERT INTO users (id) VALUES (1)</statement>
+                </changeSet>
+                <changeSet id="order" author="test" order="4" consistencyLevel="ALL">
+                    <statement>INSERT INTO orders (id) VALUES (1)</statement>
+                </changeSet>
+                """);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        cassandra.setLatency(Duration.ofMillis(20));
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandra.resetStatistics();
+            cassandrabase.validate(ExecutionMode.PARALLEL);
+        }
+
+        assertTrue(cassandra.getMaxInFlight() > 1, String.valueOf(cassandra.getMaxInFlight()));
+        assertEquals(1, cassandra.getRows("ks", "users").size());
+        assertEquals(1, cassandra.getRows("ks", "orders").size());
+        final List<String> statements = cassandra.getStatements();
+        assertTrue(statements.indexOf("CREATE TABLE users (id int PRIMARY KEY)") < statements.indexOf("INSERT INTO users (id) VALUES (1)"));
+        assertTrue(statements.indexOf("CREATE TABLE orders (id int PRIMARY KEY)") < statements.indexOf("INSERT INTO orders (id) VALUES (1)"));
+    }
+
+    private static List<List<String>> ids(List<List<ChangeSet>> waves) {
+        final List<List<String>> ids = new ArrayList<>();
+        for (List<ChangeSet> wave : waves) {
+            ids.add(wave.stream().map(ChangeSet::getId).toList());
+        }
+        return ids;
+    }
+
+    private static ChangeSet changeSet(String id, int order, String statement, String... dependsOn) {
+        final ChangeSet changeSet = new ChangeSet();
+        changeSet.setId(id);
+        changeSet.setAuthor("test");
+        changeSet.setOrder(order);
+        changeSet.setConsistencyLevel(DefaultConsistencyLevel.ALL);
+        changeSet.setStatement(statement);
+        changeSet.setDependsOn(List.of(dependsOn));
+        return changeSet;
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.entity.ChangelogLockEntity;
+import io.github.cassandrabase.lite.exception.CassandrabaseException;
+import io.github.cassandrabase.lite.model.ExecutionOptions;
+import io.github.cassandrabase.lite.repository.ChangelogLockRepository;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangelogLockTest {
+    private static final String CHANGE_SETS = """
+            <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                <statement>CREATE TABLE users (id int PRIMARY KEY, name text)</statement>
+            </changeSet>
+            <changeSet id="admin" author="test" order="2" consistencyLevel="ALL">
+                <statement>INSERT INTO users (id, name) VALUES (1, 'admin')</statement>
+            </changeSet>
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void takesOverLockRowLeftLockedByBaselineRelease() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final String lockId = lockId(classObject);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final CqlSession session = cassandra.connect("ks");
+        // the baseline lock: a plain INSERT without TTL, never unlocked by its release
+        session.execute("CREATE TABLE changelog_lock (id text, major_version int, locked boolean, lock_time timestamp, locked_by text, PRIMARY KEY (id, major_version))");
+        session.execute(session.prepare("INSERT INTO changelog_lock (id, major_version, locked, lock_time, locked_by) VALUES (?, ?, ?, ?, ?)")
+                .bind(lockId, 1, true, Instant.now().minus(Duration.ofDays(30)), "baseline"));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+                cassandrabase.validate(ExecutionMode.SERIAL);
+            }
+        });
+
+        assertEquals(List.of(Map.of("id", 1, "name", "admin")), cassandra.getRows("ks", "users"));
+        final Map<String, Object> lock = cassandra.getRows("ks", "changelog_lock").get(0);
+        assertEquals(false, lock.get("locked"));
+        assertEquals("node", lock.get("locked_by"));
+    }
+
+    @Test
+    void concurrentInstancesApplyEachChangeSetOnceAfterTakingTheBaselineRowOver() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final String lockId = lockId(classObject);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        cassandra.setLatency(Duration.ofMillis(1), Duration.ofMillis(3));
+        final CqlSession session = cassandra.connect("ks");
+        session.execute("CREATE TABLE changelog_lock (id text, major_version int, locked boolean, lock_time timestamp, locked_by text, PRIMARY KEY (id, major_version))");
+        session.execute(session.prepare("INSERT INTO changelog_lock (id, major_version, locked, lock_time, locked_by) VALUES (?, ?, ?, ?, ?)")
+                .bind(lockId, 1, true, Instant.now().minus(Duration.ofDays(30)), "baseline"));
+        cassandra.resetStatistics();
+
+        final List<Callable<Void>> instances = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final String identifier = "node-" + i;
+            instances.add(() -> {
+                try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), identifier, classObject)) {
+                    final ExecutionOptions options = new ExecutionOptions();
+                    options.setLockPollInterval(Duration.ofMillis(20));
+                    cassandrabase.setExecutionOptions(options);
+                    cassandrabase.validate(ExecutionMode.SERIAL);
+                }
+                return null;
+            });
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(instances.size());
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for (Future<Void> future : executor.invokeAll(instances)) {
+                future.get();
+            }
+        });
+        executor.shutdown();
+
+        assertEquals(1, cassandra.getStatements().stream().filter(statement -> statement.startsWith("INSERT INTO users")).count());
+        assertEquals(List.of(Map.of("id", 1, "name", "admin")), cassandra.getRows("ks", "users"));
+        assertEquals(2, cassandra.getRows("ks", "changelog_history").size());
+        assertEquals(false, cassandra.getRows("ks", "changelog_lock").get(0).get("locked"));
+    }
+
+    @Test
+    void takesOverLockedRowOnlyOnceNotRenewedForALease() {
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final CqlSession session = cassandra.connect("ks");
+        session.execute(TestChangeLogs.LOCK_TABLE);
+        session.execute(session.prepare("INSERT INTO changelog_lock (id, major_version, locked, lock_time, locked_by) VALUES (?, ?, ?, ?, ?)")
+                .bind("key", 1, true, Instant.now().minus(Duration.ofMinutes(2)), "dead"));
+        final ChangelogLockRepository repository = new ChangelogLockRepository(session);
+
+        assertFalse(repository.acquireLock("key", 1, "node", Duration.ofMinutes(5)));
+        assertTrue(repository.acquireLock("key", 1, "node", Duration.ofMinutes(1)));
+        assertEquals("node", repository.getByLockId("key", 1).getLockedBy());
+        // renewed just now by its new holder
+        assertFalse(repository.acquireLock("key", 1, "other", Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void oneOfConcurrentInstancesTakesAStaleLockOver() throws Exception {
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        cassandra.setLatency(Duration.ofMillis(1), Duration.ofMillis(5));
+        final CqlSession session = cassandra.connect("ks");
+        session.execute(TestChangeLogs.LOCK_TABLE);
+        session.execute(session.prepare("INSERT INTO changelog_lock (id, major_version, locked, lock_time, locked_by) VALUES (?, ?, ?, ?, ?)")
+                .bind("key", 1, true, Instant.now().minus(Duration.ofDays(1)), "baseline"));
+        final ChangelogLockRepository repository = new ChangelogLockRepository(session);
+
+        final List<Callable<Boolean>> instances = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final String identifier = "node-" + i;
+            instances.add(() -> repository.acquireLock("key", 1, identifier, Duration.ofMinutes(1)));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(instances.size());
+        int acquired = 0;
+        for (Future<Boolean> future : executor.invokeAll(instances)) {
+            acquired += future.get() ? 1 : 0;
+        }
+        executor.shutdown();
+        assertEquals(1, acquired);
+    }
+
+    @Test
+    void lateRenewalDoesNotLockAReleasedVersionAgain() {
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final CqlSession session = cassandra.connect("ks");
+        session.execute(TestChangeLogs.LOCK_TABLE);
+        final ChangelogLockRepository repository = new ChangelogLockRepository(session);
+        assertTrue(repository.acquireLock("key", 1, "node", Duration.ofMinutes(1)));
+        assertTrue(repository.releaseLock("key", 1, "node"));
+
+        assertFalse(repository.renewLock("key", 1, "node", Duration.ofMinutes(1)));
+        cassandra.advanceTime(Duration.ofMinutes(2));
+        final ChangelogLockEntity lock = repository.getByLockId("key", 1);
+        assertEquals(false, lock.getLocked());
+    }
+
+    // the lock row id of a changelog is its major version key
+    static String lockId(Object classObject) throws CassandrabaseException {
+        final InMemoryCassandra reference = new InMemoryCassandra();
+        try (Cassandrabase cassandrabase = new Cassandrabase(reference.connect("ks"), "reference", classObject)) {
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+        return (String) reference.getRows("ks", "changelog_lock").get(0).get("id");
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.cassandrabase.lite.test;
+
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.model.ExecutionOptions;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CheckpointResumeTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void resumesAfterTheCheckpointOfAFailedRun() throws Exception {
+        final String changeSets = """
+                <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                    <statement>CREATE TABLE users (id int PRIMARY KEY, name text)</statement>
+                </changeSet>
+                """ + IntStream.rangeClosed(2, 9).mapToObj(i -> """
+                <changeSet id="user_%d" author="test" order="%d" consistencyLevel="ALL" dependsOn="users">
+                    <statement>INSERT INTO users (id, name) VALUES (%d, 'user')</statement>
+                </changeSet>
+                """.formatted(i, i, i)).collect(Collectors.joining());
+        final Object classObject = TestChangeLogs.write(this.directory, changeSets, true);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        cassandra.fail(statement -> statement.contains("VALUES (5,"), 1, () -> new IllegalStateException("injected"));
+
+        assertThrows(RuntimeException.class, () -> this.migrate(cassandra, classObject));
+        // given up for another instance, the low-water mark stops before the failed changeSet
+        final Map<String, Object> lock = cassandra.getRows("ks", "changelog_lock").get(0);
+        assertEquals(null, lock.get("locked"));
+        assertEquals(4, lock.get("checkpoint_order"));
+
+        cassandra.resetStatistics();
+        this.migrate(cassandra, classObject);
+
+        assertEquals(8, cassandra.getRows("ks", "users").size());
+        assertEquals(9, cassandra.getRows("ks", "changelog_history").size());
+        // the changeSets up to the mark are neither looked up nor sent again
+        final List<String> lookups = cassandra.getStatements().stream().filter(statement -> statement.startsWith("SELECT * FROM changelog_history")).toList();
+        assertTrue(lookups.stream().anyMatch(statement -> statement.contains("'user_5'")), lookups.toString());
+        assertTrue(lookups.stream().noneMatch(statement -> statement.matches(".*'user_[2-4]'.*")), lookups.toString());
+        assertTrue(cassandra.getStatements().stream().noneMatch(statement -> statement.matches("INSERT INTO users .*VALUES \\([2-4],.*")));
+        assertEquals(false, cassandra.getRows("ks", "changelog_lock").get(0).get("locked"));
+    }
+
+    private void migrate(InMemoryCassandra cassandra, Object classObject) throws Exception {
+        final ExecutionOptions options = new ExecutionOptions();
+        options.setStreamingWindowSize(4);
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.setExecutionOptions(options);
+            cassandrabase.validate(ExecutionMode.PARALLEL);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.execution.BatchChangeSet;
+import io.github.cassandrabase.lite.execution.DmlBatchPlanner;
+import io.github.cassandrabase.lite.model.ExecutionOptions;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DmlBatchPlannerTest {
+    private static final String EVENTS = "CREATE TABLE events (user int, seq int, payload text, PRIMARY KEY (user, seq))";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mergesConsecutiveWritesToOnePartition() {
+        final List<ChangeSet> planned = plan(50, 5 * 1024,
+                changeSet("events", EVENTS),
+                changeSet("e1", "INSERT INTO events (user, seq, payload) VALUES (1, 1, 'a')"),
+                changeSet("e2", "UPDATE events SET payload = 'b' WHERE user = 1 AND seq = 2"),
+                changeSet("e3", "DELETE FROM events WHERE user = 1 AND seq = 3"),
+                changeSet("e4", "INSERT INTO events (user, seq, payload) VALUES (2, 1, 'c')"),
+                changeSet("e5", "INSERT INTO events (user, seq, payload) VALUES (2, 2, 'd')"));
+
+        assertEquals(List.of("events", "[e1, e2, e3]", "[e4, e5]"), ids(planned));
+    }
+
+    @Test
+    void closesABatchAtItsStatementAndByteLimits() {
+        final List<ChangeSet> changeSets = new ArrayList<>(List.of(changeSet("events", EVENTS)));
+        IntStream.rangeClosed(1, 5).forEach(i -> changeSets.add(changeSet("e" + i, "INSERT INTO events (user, seq, payload) VALUES (1, " + i + ", 'x')")));
+
+        assertEquals(List.of("events", "[e1, e2]", "[e3, e4]", "e5"), ids(plan(2, 5 * 1024, changeSets.toArray(ChangeSet[]::new))));
+        // each INSERT is 58 bytes
+        assertEquals(List.of("events", "[e1, e2, e3]", "[e4, e5]"), ids(plan(50, 3 * 58, changeSets.toArray(ChangeSet[]::new))));
+    }
+
+    @Test
+    void leavesWritesThatCannotBeBatchedAlone() {
+        final ChangeSet quorum = changeSet("quorum", "INSERT INTO events (user, seq, payload) VALUES (1, 6, 'x')");
+        quorum.setConsistencyLevel(DefaultConsistencyLevel.QUORUM);
+        final ChangeSet dependent = changeSet("dependent", "INSERT INTO events (user, seq, payload) VALUES (1, 8, 'x')");
+        dependent.setDependsOn(List.of("e1"));
+
+        final List<ChangeSet> planned = plan(50, 5 * 1024,
+                changeSet("events", EVENTS),
+                changeSet("counts", "CREATE TABLE counts (user int PRIMARY KEY, total counter)"),
+                changeSet("e1", "INSERT INTO events (user, seq, payload) VALUES (1, 1, 'a')"),
+                // the same row again: a batch shares one timestamp, the order would be lost
+                changeSet("e1_again", "UPDATE events SET payload = 'b' WHERE user = 1 AND seq = 1"),
+                changeSet("conditional", "INSERT INTO events (user, seq, payload) VALUES (1, 2, 'c') IF NOT EXISTS"),
+                changeSet("count", "UPDATE counts SET total = total + 1 WHERE user = 1"),
+                changeSet("partial", "DELETE FROM events WHERE user = 1"),
+                changeSet("e5", "INSERT INTO events (user, seq, payload) VALUES (1, 5, 'x')"),
+                quorum,
+                changeSet("e7", "INSERT INTO events (user, seq, payload) VALUES (1, 7, 'x')"),
+                dependent);
+
+        assertEquals(List.of("events", "counts", "e1", "e1_again", "conditional", "count", "partial", "e5", "quorum", "e7", "dependent"), ids(planned));
+    }
+
+    @Test
+    void writesTheBatchedChangeSetsAndTheirHistory() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, """
+                <changeSet id="events" author="test" order="1" consistencyLevel="ALL">
+                    <statement>%s</statement>
+                </changeSet>
+                """.formatted(EVENTS) + IntStream.rangeClosed(1, 10).mapToObj(i -> """
+                <changeSet id="event_%d" author="test" order="%d" consistencyLevel="ALL">
+                    <statement>INSERT INTO events (user, seq, payload) VALUES (%d, %d, 'x')</statement>
+                </changeSet>
+                """.formatted(i, 1 + i, i <= 5 ? 1 : 2, i)).collect(Collectors.joining()));
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final ExecutionOptions options = new ExecutionOptions();
+        options.setBatching(true);
+        options.setMaxBatchStatements(4);
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.setExecutionOptions(options);
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+
+        assertEquals(10, cassandra.getRows("ks", "events").size());
+        assertEquals(11, cassandra.getRows("ks", "changelog_history").size());
+        // partition 1: 4 + 1, partition 2: 4 + 1
+        assertEquals(2, cassandra.getStatements().stream().filter(statement -> statement.startsWith("BEGIN BATCH INSERT INTO events")).count());
+        assertEquals(2, cassandra.getStatements().stream().filter(statement -> statement.startsWith("INSERT INTO events")).count());
+    }
+
+    private static List<ChangeSet> plan(int maxStatements, int maxBytes, ChangeSet... changeSets) {
+        return new DmlBatchPlanner(new InMemoryCassandra().connect("ks"), maxStatements, maxBytes).plan(List.of(changeSets));
+    }
+
+    private static List<String> ids(List<ChangeSet> planned) {
+        return planned.stream().map(changeSet -> changeSet instanceof BatchChangeSet batchChangeSet
+                ? batchChangeSet.getChangeSets().stream().map(ChangeSet::getId).toList().toString()
+                : changeSet.getId()).toList();
+    }
+
+    private static ChangeSet changeSet(String id, String statement) {
+        final ChangeSet changeSet = new ChangeSet();
+        changeSet.setId(id);
+        changeSet.setAuthor("test");
+        changeSet.setOrder(1);
+        changeSet.setConsistencyLevel(DefaultConsistencyLevel.ALL);
+        changeSet.setStatement(statement);
+        return changeSet;
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.types.ChangeLogOrder;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import io.github.cassandrabase.lite.xml.ChangeLog;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicateChangeSetIdTest {
+    private static final String CHANGE_SETS = """
+            <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                <statement>CREATE TABLE users (id int PRIMARY KEY, name text)</statement>
+            </changeSet>
+            <changeSet id="admin" author="test" order="2" consistencyLevel="ALL">
+                <statement>INSERT INTO users (id, name) VALUES (1, 'admin')</statement>
+            </changeSet>
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rejectsAnIdOfThePreChangeLogInTheChangeLog() {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS + """
+                <changeSet id="changelog_lock" author="test" order="3" consistencyLevel="ALL">
+                    <statement>INSERT INTO users (id, name) VALUES (2, 'guest')</statement>
+                </changeSet>
+                """);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+
+        final RuntimeException exception = assertThrows(RuntimeException.class, () -> new Cassandrabase(cassandra.connect("ks"), "node", classObject));
+        assertEquals("Duplicate changeSet found in preChangeLog and post changeLog. [ChangeSetId : changelog_lock]", exception.getMessage());
+    }
+
+    @Test
+    void rejectsAnIdOfTheChangeLogInADynamicChangeLogBeforeAnythingRuns() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.addDynamicChangeLog(changeLog(changeSet("admin", 1, "INSERT INTO users (id, name) VALUES (3, 'dynamic')")), ChangeLogOrder.AFTER_STATIC_CHANGE_LOG);
+            final RuntimeException exception = assertThrows(RuntimeException.class, () -> cassandrabase.validate(ExecutionMode.SERIAL));
+            assertEquals("Duplicate changeSet found in post changeLog and AFTER_STATIC_CHANGE_LOG dynamic changeLog. [ChangeSetId : admin]", exception.getMessage());
+        }
+        assertEquals(0, cassandra.getStatementCount());
+    }
+
+    @Test
+    void rejectsAnIdOfADynamicChangeLogInAStreamedChangeLog() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS, true);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.addDynamicChangeLog(changeLog(changeSet("users", 1, "CREATE TABLE IF NOT EXISTS users (id int PRIMARY KEY, name text)")), ChangeLogOrder.BEFORE_STATIC_CHANGE_LOG);
+            final RuntimeException exception = assertThrows(RuntimeException.class, () -> cassandrabase.validate(ExecutionMode.SERIAL));
+            assertTrue(exception.getMessage().startsWith("Duplicate changeSet found in STATIC_CHANGE_LOG."), exception.getMessage());
+        }
+        // the dynamic changeSet ran before the streamed window, its history entry is not overwritten
+        final List<Map<String, Object>> history = cassandra.getRows("ks", "changelog_history");
+        assertEquals(1, history.size());
+        assertEquals("dynamic", history.get(0).get("author"));
+    }
+
+    private static ChangeLog changeLog(ChangeSet... changeSets) {
+        final ChangeLog changeLog = new ChangeLog();
+        changeLog.setChangeSets(new ArrayList<>(List.of(changeSets)));
+        return changeLog;
+    }
+
+    private static ChangeSet changeSet(String id, int order, String statement) {
+        final ChangeSet changeSet = new ChangeSet();
+        changeSet.setId(id);
+        changeSet.setAuthor("dynamic");
+        changeSet.setOrder(order);
+        changeSet.setConsistencyLevel(DefaultConsistencyLevel.ALL);
+        changeSet.setStatement(statement);
+        return changeSet;
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import io.github.cassandrabase.lite.execution.ExecutionThrottle;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExecutionThrottleTest {
+
+    @Test
+    void drainsAQueueOfCompletedStagesWithoutGrowingTheStack() throws Exception {
+        final ExecutionThrottle throttle = new ExecutionThrottle(1, 0, 3, Duration.ofMillis(1), Duration.ofMillis(10));
+        final CompletableFuture<Integer> first = new CompletableFuture<>();
+        final List<CompletableFuture<Integer>> results = new ArrayList<>();
+        results.add(throttle.submit(() -> first));
+        // queued behind the first one, each completes as soon as it runs, like a synchronous stub or a failed future
+        for (int i = 1; i < 200_000; i++) {
+            final int value = i;
+            results.add(throttle.submit(() -> value % 2 == 0 ? CompletableFuture.completedFuture(value)
+                    : CompletableFuture.failedFuture(new IllegalStateException(String.valueOf(value)))));
+        }
+
+        first.complete(0);
+
+        CompletableFuture.allOf(results.stream().map(result -> result.exceptionally(throwable -> -1)).toArray(CompletableFuture[]::new))
+                .get(30, TimeUnit.SECONDS);
+        assertEquals(100_000, results.stream().filter(result -> !result.isCompletedExceptionally()).count());
+        assertEquals(199_999, results.get(199_999).handle((result, throwable) -> Integer.parseInt(throwable.getMessage())).join());
+    }
+
+    @Test
+    void retriesOverloadedStatementsWithASmallerWindow() throws Exception {
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final CqlSession session = cassandra.connect("ks");
+        session.execute("CREATE TABLE t (id int PRIMARY KEY)");
+        cassandra.overload(query -> query.startsWith("INSERT INTO t"), 2);
+        final ExecutionThrottle throttle = new ExecutionThrottle(8, 0, 3, Duration.ofMillis(1), Duration.ofMillis(10));
+
+        throttle.submit(() -> session.executeAsync("INSERT INTO t (id) VALUES (1)")).get(30, TimeUnit.SECONDS);
+
+        assertEquals(2, throttle.getWindow());
+        assertEquals(3, cassandra.getStatements().stream().filter(query -> query.startsWith("INSERT INTO t")).count());
+        assertEquals(1, cassandra.getRows("ks", "t").size());
+    }
+
+    @Test
+    void givesUpOnceTheRetriesAreSpent() {
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final CqlSession session = cassandra.connect("ks");
+        session.execute("CREATE TABLE t (id int PRIMARY KEY)");
+        cassandra.overload(query -> query.startsWith("INSERT INTO t"), 3);
+        final ExecutionThrottle throttle = new ExecutionThrottle(8, 0, 2, Duration.ofMillis(1), Duration.ofMillis(10));
+
+        final CompletableFuture<AsyncResultSet> result = throttle.submit(() -> session.executeAsync("INSERT INTO t (id) VALUES (1)"));
+
+        final ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(30, TimeUnit.SECONDS));
+        assertInstanceOf(OverloadedException.class, exception.getCause());
+        assertEquals(1, throttle.getWindow());
+        assertEquals(0, cassandra.getRows("ks", "t").size());
+    }
+}
@@ -0,0 +1,216 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.JavaChangeSet;
+import io.github.cassandrabase.lite.types.ChangeLogOrder;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import io.github.cassandrabase.lite.xml.ChangeLog;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JavaChangeSetTest {
+    private static final String USERS = """
+            <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                <statement>CREATE TABLE users (id int PRIMARY KEY, name text)</statement>
+            </changeSet>
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void runsOnAWorkerThreadAfterTheDynamicChangeSetsBeforeIt() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, USERS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final List<String> threads = new ArrayList<>();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.addDynamicChangeLog(changeLog(changeSet("admin", 1, "INSERT INTO users (id, name) VALUES (1, 'admin')")), ChangeLogOrder.AFTER_STATIC_CHANGE_LOG);
+            cassandrabase.addJavaChangeSet(new UpperCaseNames("upper", 2, "v1", threads), ChangeLogOrder.AFTER_STATIC_CHANGE_LOG);
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+
+        assertEquals(1, threads.size());
+        assertTrue(threads.get(0).startsWith("cassandrabase-worker-"), threads.get(0));
+        assertEquals("ADMIN", cassandra.getRows("ks", "users").get(0).get("name"));
+        final Map<String, Object> history = cassandra.getRows("ks", "changelog_history").stream()
+                .filter(row -> "upper".equals(row.get("change_set_id"))).findFirst().orElseThrow();
+        assertEquals("UpperCaseNames", history.get("author"));
+    }
+
+    @Test
+    void runsAgainOnlyOnceItsChecksumChanged() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, USERS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final List<String> threads = new ArrayList<>();
+
+        for (String checksum : List.of("v1", "v1", "v2")) {
+            try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+                cassandrabase.addJavaChangeSet(new UpperCaseNames("upper", 1, checksum, threads), ChangeLogOrder.AFTER_STATIC_CHANGE_LOG);
+                cassandrabase.validate(ExecutionMode.SERIAL);
+            }
+        }
+
+        assertEquals(2, threads.size());
+    }
+
+    @Test
+    void failsTheMigrationWithoutRecordingAFailedChangeSet() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, USERS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.addJavaChangeSet(new UpperCaseNames("upper", 1, "v1", null), ChangeLogOrder.AFTER_STATIC_CHANGE_LOG);
+            assertThrows(RuntimeException.class, () -> cassandrabase.validate(ExecutionMode.PARALLEL));
+        }
+
+        assertTrue(cassandra.getRows("ks", "changelog_history").stream().noneMatch(row -> "upper".equals(row.get("change_set_id"))));
+        assertEquals(null, cassandra.getRows("ks", "changelog_lock").get(0).get("locked"));
+    }
+
+    @Test
+    void runsConcurrentlyOnlyWithChangeSetsOnOtherTables() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, USERS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final CyclicBarrier together = new CyclicBarrier(2);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            // both wait for each other, so they only complete if they run at the same time
+            cassandrabase.addJavaChangeSet(new Transform("users_transform", 1, Set.of("users"), session -> together.await(10, TimeUnit.SECONDS)), ChangeLogOrder.BEFORE_STATIC_CHANGE_LOG);
+            cassandrabase.addJavaChangeSet(new Transform("orders_transform", 2, Set.of("orders"), session -> together.await(10, TimeUnit.SECONDS)), ChangeLogOrder.BEFORE_STATIC_CHANGE_LOG);
+            final Transform.Body alone = session -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                running.decrementAndGet();
+            };
+            cassandrabase.addJavaChangeSet(new Transform("first", 1, Set.of(), alone), ChangeLogOrder.AFTER_STATIC_CHANGE_LOG);
+            cassandrabase.addJavaChangeSet(new Transform("second", 2, Set.of(), alone), ChangeLogOrder.AFTER_STATIC_CHANGE_LOG);
+            cassandrabase.validate(ExecutionMode.PARALLEL);
+        }
+
+        assertEquals(1, maxRunning.get());
+        assertEquals(5, cassandra.getRows("ks", "changelog_history").size());
+    }
+
+    private static ChangeLog changeLog(ChangeSet... changeSets) {
+        final ChangeLog changeLog = new ChangeLog();
+        changeLog.setChangeSets(new ArrayList<>(List.of(changeSets)));
+        return changeLog;
+    }
+
+    private static ChangeSet changeSet(String id, int order, String statement) {
+        final ChangeSet changeSet = new ChangeSet();
+        changeSet.setId(id);
+        changeSet.setAuthor("dynamic");
+        changeSet.setOrder(order);
+        changeSet.setConsistencyLevel(DefaultConsistencyLevel.ALL);
+        changeSet.setStatement(statement);
+        return changeSet;
+    }
+
+    /**
+     * Upper-cases every name; without a list of threads to record into it fails.
+     */
+    private static final class UpperCaseNames implements JavaChangeSet {
+        private final String id;
+        private final Integer order;
+        private final String checksum;
+        private final List<String> threads;
+
+        private UpperCaseNames(String id, Integer order, String checksum, List<String> threads) {
+            this.id = id;
+            this.order = order;
+            this.checksum = checksum;
+            this.threads = threads;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public Integer getOrder() {
+            return order;
+        }
+
+        @Override
+        public String getChecksum() {
+            return checksum;
+        }
+
+        @Override
+        public void execute(CqlSession cqlSession) {
+            if (Objects.isNull(threads)) {
+                throw new IllegalStateException("injected");
+            }
+            synchronized (threads) {
+                threads.add(Thread.currentThread().getName());
+            }
+            cqlSession.execute("SELECT id, name FROM users").forEach(row ->
+                    cqlSession.execute("UPDATE users SET name = '" + row.getString("name").toUpperCase() + "' WHERE id = " + row.getInt("id")));
+        }
+    }
+
+    private static final class Transform implements JavaChangeSet {
+        private final String id;
+        private final Integer order;
+        private final Set<String> tables;
+        private final Body body;
+
+        private Transform(String id, Integer order, Set<String> tables, Body body) {
+            this.id = id;
+            this.order = order;
+            this.tables = tables;
+            this.body = body;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public Integer getOrder() {
+            return order;
+        }
+
+        @Override
+        public String getChecksum() {
+            return "v1";
+        }
+
+        @Override
+        public Set<String> getTables() {
+            return tables;
+        }
+
+        @Override
+        public void execute(CqlSession cqlSession) throws Exception {
+            this.body.run(cqlSession);
+        }
+
+        private interface Body {
+            void run(CqlSession cqlSession) throws Exception;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package io.github.cassandrabase.lite.test;
+
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.event.MigrationEvent;
+import io.github.cassandrabase.lite.event.MigrationListener;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MigrationEventsTest {
+    private static final String CHANGE_SETS = """
+            <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                <statement>CREATE TABLE users (id int PRIMARY KEY, name text)</statement>
+            </changeSet>
+            <changeSet id="admin" author="test" order="2" consistencyLevel="ALL">
+                <statement>INSERT INTO users (id, name) VALUES (1, 'admin')</statement>
+            </changeSet>
+            """;
+    static final List<MigrationEvent> SERVICE_EVENTS = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void deliversTheMilestonesOfEveryRunToTheListeners() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final List<MigrationEvent> events = new CopyOnWriteArrayList<>();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.addMigrationListener(event -> {
+                throw new IllegalStateException("ignored");
+            });
+            cassandrabase.addMigrationListener(events::add);
+            cassandrabase.validate(ExecutionMode.PARALLEL);
+        }
+
+        assertEquals(MigrationEvent.Type.CONFIG_LOADED, events.get(0).getType());
+        assertEquals(3, events.get(0).getStatements());
+        // the lock table of the pre changeLog is created before the lock can be taken
+        assertEquals("changelog_lock", events.get(1).getChangeSetId());
+        assertEquals(MigrationEvent.Type.LOCK_ACQUIRED, events.get(2).getType());
+        assertEquals(List.of("users", "admin"), events.stream()
+                .filter(event -> MigrationEvent.Type.CHANGE_SET_APPLIED.equals(event.getType()) && !"changelog_lock".equals(event.getChangeSetId()))
+                .map(MigrationEvent::getChangeSetId).toList());
+        final MigrationEvent completed = events.get(events.size() - 1);
+        assertEquals(MigrationEvent.Type.MIGRATION_COMPLETED, completed.getType());
+        assertEquals("node", completed.getIdentifier());
+        assertEquals("ks", completed.getKeyspace());
+
+        events.clear();
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.addMigrationListener(events::add);
+            cassandrabase.validate(ExecutionMode.PARALLEL);
+        }
+        // nothing was migrated, so there is no run to complete
+        assertEquals(List.of(MigrationEvent.Type.CONFIG_LOADED, MigrationEvent.Type.LOCK_NOT_NEEDED),
+                events.stream().map(MigrationEvent::getType).toList());
+    }
+
+    @Test
+    void reportsTheFailedChangeSetAndRun() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        cassandra.fail(statement -> statement.startsWith("INSERT INTO users"), 1, () -> new IllegalStateException("injected"));
+        final List<MigrationEvent> events = new CopyOnWriteArrayList<>();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.addMigrationListener(events::add);
+            assertThrows(RuntimeException.class, () -> cassandrabase.validate(ExecutionMode.SERIAL));
+        }
+
+        final MigrationEvent failed = events.stream().filter(event -> MigrationEvent.Type.CHANGE_SET_FAILED.equals(event.getType())).findFirst().orElseThrow();
+        assertEquals("admin", failed.getChangeSetId());
+        assertEquals(2, failed.getOrder());
+        assertEquals("injected", failed.getFailure().getMessage());
+        assertEquals(MigrationEvent.Type.MIGRATION_FAILED, events.get(events.size() - 1).getType());
+    }
+
+    @Test
+    void findsListenersThroughTheServiceLoader() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final Path services = this.directory.resolve("META-INF/services/" + MigrationListener.class.getName());
+        Files.createDirectories(services.getParent());
+        Files.writeString(services, ServiceListener.class.getName());
+        SERVICE_EVENTS.clear();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(new InMemoryCassandra().connect("ks"), "node", classObject)) {
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+
+        assertEquals(MigrationEvent.Type.MIGRATION_COMPLETED, SERVICE_EVENTS.get(SERVICE_EVENTS.size() - 1).getType());
+    }
+
+    @Test
+    void publishesTheProgressUntilClosed() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final List<MigrationEvent.Type> types = new CopyOnWriteArrayList<>();
+        final CompletableFuture<Void> completed = new CompletableFuture<>();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(new InMemoryCassandra().connect("ks"), "node", classObject)) {
+            cassandrabase.getProgressPublisher().subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(MigrationEvent item) {
+                    types.add(item.getType());
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    completed.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.complete(null);
+                }
+            });
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+
+        completed.get(5, TimeUnit.SECONDS);
+        assertEquals(MigrationEvent.Type.CONFIG_LOADED, types.get(0));
+        assertEquals(MigrationEvent.Type.MIGRATION_COMPLETED, types.get(types.size() - 1));
+    }
+
+    @Test
+    void recordsFlightRecorderEvents() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final Path file = this.directory.resolve("migration.jfr");
+
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("ConfigLoad", "LockAcquisition", "ChangeSetExecution", "Migration")) {
+                recording.enable("io.github.cassandrabase." + name);
+            }
+            recording.start();
+            try (Cassandrabase cassandrabase = new Cassandrabase(new InMemoryCassandra().connect("ks"), "node", classObject)) {
+                cassandrabase.validate(ExecutionMode.SERIAL);
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        final Map<String, Long> counts = events.stream().collect(Collectors.groupingBy(event -> event.getEventType().getName(), Collectors.counting()));
+        assertEquals(1, counts.get("io.github.cassandrabase.ConfigLoad"));
+        assertEquals(1, counts.get("io.github.cassandrabase.LockAcquisition"));
+        assertEquals(1, counts.get("io.github.cassandrabase.Migration"));
+        final Map<String, RecordedEvent> changeSets = events.stream()
+                .filter(event -> "io.github.cassandrabase.ChangeSetExecution".equals(event.getEventType().getName()))
+                .collect(Collectors.toMap(event -> event.getString("changeSetId"), Function.identity()));
+        assertTrue(changeSets.keySet().containsAll(List.of("users", "admin")), changeSets.keySet().toString());
+        assertTrue(changeSets.get("admin").getBoolean("success"));
+        assertEquals("xml", events.stream().filter(event -> "io.github.cassandrabase.ConfigLoad".equals(event.getEventType().getName()))
+                .findFirst().orElseThrow().getString("source"));
+    }
+
+    public static final class ServiceListener implements MigrationListener {
+        @Override
+        public void onEvent(MigrationEvent event) {
+            SERVICE_EVENTS.add(event);
+        }
+    }
+}
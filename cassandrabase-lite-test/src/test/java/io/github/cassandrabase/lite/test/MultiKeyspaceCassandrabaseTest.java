@@ -0,0 +1,112 @@
+package io.github.cassandrabase.lite.test;
+
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.MultiKeyspaceCassandrabase;
+import io.github.cassandrabase.lite.cql.CqlKeyspaceQualifier;
+import io.github.cassandrabase.lite.event.MigrationEvent;
+import io.github.cassandrabase.lite.exception.KeyspaceMigrationException;
+import io.github.cassandrabase.lite.model.ExecutionOptions;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultiKeyspaceCassandrabaseTest {
+    private static final String CHANGE_SETS = """
+            <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                <statement>CREATE TABLE users (id int PRIMARY KEY, name text)</statement>
+            </changeSet>
+            <changeSet id="admin" author="test" order="2" consistencyLevel="ALL">
+                <statement>INSERT INTO users (id, name) VALUES (1, 'admin')</statement>
+            </changeSet>
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void qualifiesTheUnqualifiedNames() {
+        final CqlKeyspaceQualifier qualifier = new CqlKeyspaceQualifier("Tenant");
+
+        assertEquals("CREATE TABLE IF NOT EXISTS \"Tenant\".users (id int PRIMARY KEY)", qualifier.qualify("CREATE TABLE IF NOT EXISTS users (id int PRIMARY KEY)"));
+        assertEquals("INSERT INTO \"Tenant\".users (id, name) VALUES (1, 'from users')", qualifier.qualify("INSERT INTO users (id, name) VALUES (1, 'from users')"));
+        assertEquals("CREATE INDEX users_name ON \"Tenant\".users (name)", qualifier.qualify("CREATE INDEX users_name ON users (name)"));
+        assertEquals("UPDATE other.users SET name = 'a' WHERE id = 1", qualifier.qualify("UPDATE other.users SET name = 'a' WHERE id = 1"));
+        assertEquals("CREATE KEYSPACE other WITH replication = {'class': 'SimpleStrategy'}", qualifier.qualify("CREATE KEYSPACE other WITH replication = {'class': 'SimpleStrategy'}"));
+        assertEquals("SELECT type FROM \"Tenant\".users", qualifier.qualify("SELECT type FROM users"));
+    }
+
+    @Test
+    void migratesEveryKeyspaceInItsOwnTables() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final List<String> keyspaces = List.of("tenant_a", "tenant_b", "tenant_c");
+        keyspaces.forEach(cassandra::createKeyspace);
+        final List<MigrationEvent> events = new CopyOnWriteArrayList<>();
+        final ExecutionOptions options = new ExecutionOptions();
+        options.setMaxConcurrentKeyspaces(2);
+
+        try (MultiKeyspaceCassandrabase cassandrabase = new MultiKeyspaceCassandrabase(cassandra.connect(), "node", classObject)) {
+            cassandrabase.setExecutionOptions(options);
+            cassandrabase.addMigrationListener(events::add);
+            cassandrabase.validate(keyspaces, ExecutionMode.PARALLEL);
+        }
+
+        for (String keyspace : keyspaces) {
+            assertEquals("admin", cassandra.getRows(keyspace, "users").get(0).get("name"));
+            assertEquals(2, cassandra.getRows(keyspace, "changelog_history").size());
+            assertEquals(1, cassandra.getRows(keyspace, "changelog_lock").size());
+            assertTrue(cassandra.getStatements().contains("CREATE TABLE " + keyspace + ".users (id int PRIMARY KEY, name text)"), keyspace);
+        }
+        assertEquals(keyspaces, events.stream().filter(event -> MigrationEvent.Type.MIGRATION_COMPLETED.equals(event.getType()))
+                .map(MigrationEvent::getKeyspace).sorted().toList());
+    }
+
+    @Test
+    void recognizesAKeyspaceMigratedOnItsOwn() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("tenant_a"), "node", classObject)) {
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+        cassandra.createKeyspace("tenant_b");
+        final List<MigrationEvent> events = new CopyOnWriteArrayList<>();
+
+        try (MultiKeyspaceCassandrabase cassandrabase = new MultiKeyspaceCassandrabase(cassandra.connect(), "node", classObject)) {
+            cassandrabase.addMigrationListener(events::add);
+            cassandrabase.validate(List.of("tenant_a", "tenant_b"));
+        }
+
+        assertEquals(List.of("tenant_a"), events.stream().filter(event -> MigrationEvent.Type.LOCK_NOT_NEEDED.equals(event.getType()))
+                .map(MigrationEvent::getKeyspace).toList());
+        assertEquals(1, cassandra.getRows("tenant_a", "users").size());
+        assertEquals(2, cassandra.getRows("tenant_b", "changelog_history").size());
+    }
+
+    @Test
+    void migratesTheOtherKeyspacesWhenOneFails() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        List.of("tenant_a", "tenant_b", "tenant_c").forEach(cassandra::createKeyspace);
+        cassandra.fail(statement -> statement.startsWith("INSERT INTO tenant_b.users"), 1, () -> new IllegalStateException("injected"));
+
+        try (MultiKeyspaceCassandrabase cassandrabase = new MultiKeyspaceCassandrabase(cassandra.connect(), "node", classObject)) {
+            final KeyspaceMigrationException exception = assertThrows(KeyspaceMigrationException.class,
+                    () -> cassandrabase.validate(List.of("tenant_a", "tenant_b", "tenant_c")));
+            assertEquals(List.of("tenant_b"), List.copyOf(exception.getFailures().keySet()));
+            assertEquals("1 of 3 keyspaces failed : [tenant_b]", exception.getMessage());
+        }
+
+        assertEquals(2, cassandra.getRows("tenant_a", "changelog_history").size());
+        assertEquals(2, cassandra.getRows("tenant_c", "changelog_history").size());
+        assertEquals(1, cassandra.getRows("tenant_b", "changelog_history").size());
+        assertEquals(null, cassandra.getRows("tenant_b", "changelog_lock").get(0).get("locked"));
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.JavaChangeSet;
+import io.github.cassandrabase.lite.types.ChangeLogOrder;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollbackTest {
+    private static final String CHANGE_SETS = """
+            <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                <statement>CREATE TABLE users (id int PRIMARY KEY, name text)</statement>
+                <rollbackStatement>DROP TABLE users</rollbackStatement>
+            </changeSet>
+            <changeSet id="admin" author="test" order="2" consistencyLevel="ALL">
+                <statement>INSERT INTO users (id, name) VALUES (1, 'admin')</statement>
+                <rollbackStatement>DELETE FROM users WHERE id = 1</rollbackStatement>
+            </changeSet>
+            <changeSet id="roles" author="test" order="3" consistencyLevel="ALL">
+                <statement>CREATE TABLE roles (id int PRIMARY KEY, name text)</statement>
+                <rollbackStatement>DROP TABLE roles</rollbackStatement>
+            </changeSet>
+            <changeSet id="audit" author="test" order="4" consistencyLevel="ALL">
+                <statement>SELECT * FROM roles</statement>
+                <rollbackStatement></rollbackStatement>
+            </changeSet>
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rollsBackInReverseOrderAndAppliesThemAgain() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+        cassandra.resetStatistics();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.rollbackToOrder(1);
+        }
+
+        final List<String> statements = cassandra.getStatements();
+        assertTrue(statements.indexOf("DROP TABLE roles") < statements.indexOf("DELETE FROM users WHERE id = 1"), statements.toString());
+        assertFalse(statements.contains("DROP TABLE users"));
+        assertFalse(cassandra.hasTable("ks", "roles"));
+        assertEquals(List.of(), cassandra.getRows("ks", "users"));
+        assertEquals(List.of("users"), cassandra.getRows("ks", "changelog_history").stream().map(row -> row.get("change_set_id")).toList());
+        // the done marker is gone with the lock row
+        assertEquals(List.of(), cassandra.getRows("ks", "changelog_lock"));
+
+        cassandra.resetStatistics();
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+        assertFalse(cassandra.getStatements().contains("CREATE TABLE users (id int PRIMARY KEY, name text)"));
+        assertEquals("admin", cassandra.getRows("ks", "users").get(0).get("name"));
+        assertEquals(4, cassandra.getRows("ks", "changelog_history").size());
+    }
+
+    @Test
+    void rollsBackToAChangeSetId() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.validate(ExecutionMode.PARALLEL);
+        }
+
+        // the version is marked as done, and the lock given up, once the migrating instance is closed
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.rollbackTo("admin", ExecutionMode.PARALLEL);
+            assertEquals("ChangeSet to roll back to not found. [ChangeSetId : missing]",
+                    assertThrows(RuntimeException.class, () -> cassandrabase.rollbackTo("missing")).getMessage());
+        }
+
+        assertFalse(cassandra.hasTable("ks", "roles"));
+        assertEquals(1, cassandra.getRows("ks", "users").size());
+        assertEquals(2, cassandra.getRows("ks", "changelog_history").size());
+    }
+
+    @Test
+    void runsNothingIfAChangeSetHasNoRollback() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS + """
+                <changeSet id="guest" author="test" order="5" consistencyLevel="ALL">
+                    <statement>INSERT INTO users (id, name) VALUES (2, 'guest')</statement>
+                </changeSet>
+                """);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+        cassandra.resetStatistics();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            final RuntimeException exception = assertThrows(RuntimeException.class, () -> cassandrabase.rollbackToOrder(1));
+            assertEquals("ChangeSets without rollback cannot be rolled back. [ChangeSetIds : guest]", exception.getMessage());
+        }
+
+        assertTrue(cassandra.getStatements().stream().noneMatch(statement -> statement.startsWith("DROP") || statement.startsWith("DELETE")));
+        assertEquals(5, cassandra.getRows("ks", "changelog_history").size());
+        assertEquals(false, cassandra.getRows("ks", "changelog_lock").get(0).get("locked"));
+    }
+
+    @Test
+    void rollsBackReversibleJavaChangeSetsOnly() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final AtomicInteger rollbacks = new AtomicInteger();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.addJavaChangeSet(new Rename("rename", true, rollbacks), ChangeLogOrder.AFTER_STATIC_CHANGE_LOG);
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.addJavaChangeSet(new Rename("rename", true, rollbacks), ChangeLogOrder.AFTER_STATIC_CHANGE_LOG);
+            cassandrabase.rollbackToOrder(3);
+        }
+        assertEquals(1, rollbacks.get());
+        assertEquals("admin", cassandra.getRows("ks", "users").get(0).get("name"));
+        assertTrue(cassandra.hasTable("ks", "roles"));
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.addJavaChangeSet(new Rename("rename", false, rollbacks), ChangeLogOrder.AFTER_STATIC_CHANGE_LOG);
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.addJavaChangeSet(new Rename("rename", false, rollbacks), ChangeLogOrder.AFTER_STATIC_CHANGE_LOG);
+            assertEquals("ChangeSets without rollback cannot be rolled back. [ChangeSetIds : rename]",
+                    assertThrows(RuntimeException.class, () -> cassandrabase.rollbackToOrder(3)).getMessage());
+        }
+        assertEquals(1, rollbacks.get());
+        assertEquals("root", cassandra.getRows("ks", "users").get(0).get("name"));
+    }
+
+    /**
+     * Renames the admin; the rollback renames it back when reversible.
+     */
+    private static final class Rename implements JavaChangeSet {
+        private final String id;
+        private final boolean reversible;
+        private final AtomicInteger rollbacks;
+
+        private Rename(String id, boolean reversible, AtomicInteger rollbacks) {
+            this.id = id;
+            this.reversible = reversible;
+            this.rollbacks = rollbacks;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public Integer getOrder() {
+            return 1;
+        }
+
+        @Override
+        public String getChecksum() {
+            return "v1";
+        }
+
+        @Override
+        public void execute(CqlSession cqlSession) {
+            cqlSession.execute("UPDATE users SET name = 'root' WHERE id = 1");
+        }
+
+        @Override
+        public boolean isReversible() {
+            return reversible;
+        }
+
+        @Override
+        public void rollback(CqlSession cqlSession) {
+            this.rollbacks.incrementAndGet();
+            cqlSession.execute("UPDATE users SET name = 'admin' WHERE id = 1");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.execution.ChangeSetGraph;
+import io.github.cassandrabase.lite.execution.ChangeSetGraphExecutor;
+import io.github.cassandrabase.lite.execution.SchemaAgreementAwaiter;
+import io.github.cassandrabase.lite.model.ExecutionOptions;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaAgreementPipelineTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void awaitsAgreementOncePerGroupOfDdl() throws Exception {
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final SchemaAgreementAwaiter awaiter = new SchemaAgreementAwaiter(cassandra.connect("ks"), Duration.ofSeconds(5), Duration.ofMillis(1));
+        final ChangeSetGraph graph = ChangeSetGraph.of(IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> changeSet("t" + i, i, "CREATE TABLE t" + i + " (id int PRIMARY KEY)")).toList(), Set.of());
+
+        new ChangeSetGraphExecutor(changeSet -> CompletableFuture.completedFuture(null), awaiter, 2).execute(graph).get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, cassandra.getSchemaAgreementChecks());
+    }
+
+    @Test
+    void keepsDmlFlowingWhileAgreementIsPending() throws Exception {
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final SchemaAgreementAwaiter awaiter = new SchemaAgreementAwaiter(cassandra.connect("ks"), Duration.ofSeconds(5), Duration.ofMillis(5));
+        final ChangeSetGraph graph = ChangeSetGraph.of(List.of(
+                changeSet("orders", 1, "CREATE TABLE orders (id int PRIMARY KEY)"),
+                changeSet("admin", 2, "INSERT INTO users (id) VALUES (1)"),
+                changeSet("order", 3, "INSERT INTO orders (id) VALUES (1)")), Set.of());
+        final Map<String, CompletableFuture<Void>> started = new ConcurrentHashMap<>();
+        cassandra.disagreeOnSchema(Integer.MAX_VALUE);
+
+        final CompletableFuture<Void> execution = new ChangeSetGraphExecutor(changeSet -> started.computeIfAbsent(changeSet.getId(), id -> new CompletableFuture<>()), awaiter, 10)
+                .execute(graph);
+        started.get("orders").complete(null);
+        started.get("admin").complete(null);
+        Thread.sleep(50);
+
+        // the table exists but the cluster does not agree on it yet
+        assertEquals(Set.of("orders", "admin"), started.keySet());
+        assertTrue(cassandra.getSchemaAgreementChecks() > 1);
+
+        cassandra.disagreeOnSchema(0);
+        for (int i = 0; i < 1_000 && !started.containsKey("order"); i++) {
+            Thread.sleep(5);
+        }
+        assertTrue(started.containsKey("order"));
+        assertFalse(execution.isDone());
+        started.get("order").complete(null);
+        execution.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void migratesInThePipelinedMode() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, IntStream.rangeClosed(1, 6).mapToObj(i -> """
+                <changeSet id="create_t%d" author="test" order="%d" consistencyLevel="ALL">
+                    <statement>CREATE TABLE t%d (id int PRIMARY KEY)</statement>
+                </changeSet>
+                <changeSet id="insert_t%d" author="test" order="%d" consistencyLevel="ALL">
+                    <statement>INSERT INTO t%d (id) VALUES (1)</statement>
+                </changeSet>
+                """.formatted(i, i, i, i, 10 + i, i)).collect(Collectors.joining()));
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        cassandra.setSchemaPropagationDelay(Duration.ofMillis(20));
+        final ExecutionOptions options = new ExecutionOptions();
+        options.setDdlGroupSize(3);
+        options.setSchemaAgreementInterval(Duration.ofMillis(5));
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.setExecutionOptions(options);
+            cassandrabase.validate(ExecutionMode.SCHEMA_AGREEMENT_PIPELINED);
+        }
+
+        for (int i = 1; i <= 6; i++) {
+            assertEquals(1, cassandra.getRows("ks", "t" + i).size());
+        }
+        // the tables of a group were awaited together, and the propagation delay made them poll again
+        assertTrue(cassandra.getSchemaAgreementChecks() >= 2);
+        assertEquals(12, cassandra.getRows("ks", "changelog_history").size());
+    }
+
+    private static ChangeSet changeSet(String id, int order, String statement) {
+        final ChangeSet changeSet = new ChangeSet();
+        changeSet.setId(id);
+        changeSet.setAuthor("test");
+        changeSet.setOrder(order);
+        changeSet.setConsistencyLevel(DefaultConsistencyLevel.ALL);
+        changeSet.setStatement(statement);
+        return changeSet;
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.entity.ChangelogHistoryEntity;
+import io.github.cassandrabase.lite.model.ExecutionOptions;
+import io.github.cassandrabase.lite.repository.ChangelogHistoryRepository;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SkipAppliedDdlTest {
+    private static final String CHANGE_SETS = """
+            <changeSet id="create" author="test" order="1" consistencyLevel="ALL">
+                <statement>CREATE TABLE t (id int PRIMARY KEY, c int)</statement>
+            </changeSet>
+            <changeSet id="drop" author="test" order="2" consistencyLevel="ALL">
+                <statement>ALTER TABLE t DROP c</statement>
+            </changeSet>
+            <changeSet id="add" author="test" order="3" consistencyLevel="ALL">
+                <statement>ALTER TABLE t ADD c int</statement>
+            </changeSet>
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void skipsDdlAlreadyInTheSchema() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final CqlSession session = cassandra.connect("ks");
+        // restored from a snapshot taken after the first changeSet, without its history
+        session.execute("CREATE TABLE t (id int PRIMARY KEY, c int)");
+        cassandra.resetStatistics();
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.setExecutionOptions(options());
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+
+        assertTrue(cassandra.getStatements().stream().noneMatch(statement -> statement.startsWith("CREATE TABLE ks.t") || statement.startsWith("CREATE TABLE t")));
+        assertEquals(3, cassandra.getRows("ks", "changelog_history").size());
+        assertTrue(columns(cassandra).containsKey("c"));
+    }
+
+    @Test
+    void skipsATableOnlyWithTheSameClusteringOrderAndNoOptions() throws Exception {
+        final String events = "CREATE TABLE events (id int, ts int, PRIMARY KEY (id, ts)) WITH CLUSTERING ORDER BY (ts DESC)";
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        cassandra.connect("ks").execute(events);
+        cassandra.connect("ks").execute("CREATE TABLE logs (id int, ts int, PRIMARY KEY (id, ts))");
+        cassandra.connect("ks").execute("CREATE TABLE metrics (id int PRIMARY KEY, v int)");
+
+        cassandra.resetStatistics();
+
+        this.migrate(cassandra, "events", events);
+        assertThrows(RuntimeException.class, () -> this.migrate(cassandra, "logs",
+                "CREATE TABLE logs (id int, ts int, PRIMARY KEY (id, ts)) WITH CLUSTERING ORDER BY (ts DESC)"));
+        assertThrows(RuntimeException.class, () -> this.migrate(cassandra, "metrics",
+                "CREATE TABLE metrics (id int PRIMARY KEY, v int) WITH default_time_to_live = 60 AND comment = 'metrics'"));
+
+        // the same table is skipped, the others are sent for Cassandra to report
+        assertEquals(List.of("logs", "metrics"), cassandra.getStatements().stream()
+                .filter(statement -> statement.startsWith("CREATE TABLE") && statement.contains(" WITH "))
+                .map(statement -> statement.split(" ")[2]).toList());
+    }
+
+    @Test
+    void readsTheSchemaOnlyOnceTheLockIsHeld() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, CHANGE_SETS);
+        final InMemoryCassandra reference = new InMemoryCassandra();
+        try (Cassandrabase cassandrabase = new Cassandrabase(reference.connect("ks"), "reference", classObject)) {
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+        final String lockId = (String) reference.getRows("ks", "changelog_lock").get(0).get("id");
+        final Map<String, ChangelogHistoryEntity> referenceHistory = new ChangelogHistoryRepository(reference.connect("ks")).findAll(1);
+
+        // another instance holds the lock and has applied the first changeSet
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final CqlSession session = cassandra.connect("ks");
+        session.execute(TestChangeLogs.LOCK_TABLE);
+        session.execute(session.prepare("INSERT INTO changelog_lock (id, major_version, locked, lock_time, locked_by) VALUES (?, ?, ?, ?, ?)")
+                .bind(lockId, 1, true, Instant.now(), "dead"));
+        final ChangelogHistoryRepository history = new ChangelogHistoryRepository(session);
+        history.createTableIfNotExists();
+        session.execute("CREATE TABLE t (id int PRIMARY KEY, c int)");
+        history.save(referenceHistory.get("create"));
+
+        final CompletableFuture<Void> migration = CompletableFuture.runAsync(() -> {
+            try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+                cassandrabase.setExecutionOptions(options());
+                cassandrabase.validate(ExecutionMode.SERIAL);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // the other instance tried the lock, then the holder applies the second changeSet and dies
+        while (cassandra.getStatements().stream().noneMatch(statement -> statement.startsWith("INSERT INTO changelog_lock") && statement.contains("IF NOT EXISTS"))) {
+            if (migration.isDone()) {
+                migration.join();
+            }
+            Thread.sleep(5);
+        }
+        session.execute("ALTER TABLE t DROP c");
+        history.save(referenceHistory.get("drop"));
+        migration.get(30, TimeUnit.SECONDS);
+
+        assertTrue(columns(cassandra).containsKey("c"));
+        assertEquals(3, cassandra.getRows("ks", "changelog_history").size());
+    }
+
+    private void migrate(InMemoryCassandra cassandra, String id, String createTable) throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory.resolve(id), """
+                <changeSet id="%s" author="test" order="1" consistencyLevel="ALL">
+                    <statement>%s</statement>
+                </changeSet>
+                """.formatted(id, createTable));
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.setExecutionOptions(options());
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+    }
+
+    private static ExecutionOptions options() {
+        final ExecutionOptions options = new ExecutionOptions();
+        options.setSkipAppliedDdl(true);
+        options.setLockLease(Duration.ofSeconds(1));
+        options.setLockPollInterval(Duration.ofMillis(20));
+        return options;
+    }
+
+    private static Map<String, Object> columns(InMemoryCassandra cassandra) {
+        final Map<String, Object> columns = new HashMap<>();
+        cassandra.connect("ks").execute("SELECT column_name, type FROM system_schema.columns WHERE keyspace_name = 'ks' AND table_name = 't'")
+                .forEach(row -> columns.put(row.getString("column_name"), row.getString("type")));
+        return columns;
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import io.github.cassandrabase.lite.execution.StatementFactory;
+import io.github.cassandrabase.lite.loader.ChangeLogLoader;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementFactoryTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void appliesTheExecutionAttributesOfTheChangeSet() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, """
+                <changeSet id="slow" author="test" order="1" consistencyLevel="LOCAL_QUORUM"
+                           executionProfile="slow" timeout="2m" pageSize="500" idempotent="true">
+                    <statement>UPDATE users SET name = 'a' WHERE id = 1</statement>
+                </changeSet>
+                <changeSet id="short" author="test" order="2" consistencyLevel="ONE" timeout="500ms">
+                    <statement>UPDATE users SET name = 'b' WHERE id = 2</statement>
+                </changeSet>
+                <changeSet id="iso" author="test" order="3" consistencyLevel="ONE" timeout="PT1H30M" idempotent="false">
+                    <statement>UPDATE users SET name = 'c' WHERE id = 3</statement>
+                </changeSet>
+                """);
+        final List<ChangeSet> changeSets = ChangeLogLoader.load(classObject.getClass().getClassLoader()).getChangeLog().getChangeSets();
+
+        final SimpleStatement slow = StatementFactory.statement(changeSets.get(0));
+        assertEquals("UPDATE users SET name = 'a' WHERE id = 1", slow.getQuery());
+        assertEquals(DefaultConsistencyLevel.LOCAL_QUORUM, slow.getConsistencyLevel());
+        assertEquals("slow", slow.getExecutionProfileName());
+        assertEquals(Duration.ofMinutes(2), slow.getTimeout());
+        assertEquals(500, slow.getPageSize());
+        assertTrue(slow.isIdempotent());
+
+        assertEquals(Duration.ofMillis(500), StatementFactory.statement(changeSets.get(1)).getTimeout());
+        final SimpleStatement iso = StatementFactory.statement(changeSets.get(2), "UPDATE users SET name = 'd' WHERE id = 3");
+        assertEquals("UPDATE users SET name = 'd' WHERE id = 3", iso.getQuery());
+        assertEquals(Duration.ofMinutes(90), iso.getTimeout());
+        assertFalse(iso.isIdempotent());
+    }
+
+    @Test
+    void keepsTheDriverDefaultsOfUnsetAttributes() {
+        final SimpleStatement statement = StatementFactory.statement(changeSet(DefaultConsistencyLevel.ALL));
+        final SimpleStatement plain = SimpleStatement.newInstance(statement.getQuery());
+
+        assertEquals(DefaultConsistencyLevel.ALL, statement.getConsistencyLevel());
+        assertNull(statement.getExecutionProfileName());
+        assertNull(statement.getTimeout());
+        assertEquals(plain.getPageSize(), statement.getPageSize());
+        assertNull(statement.isIdempotent());
+    }
+
+    @Test
+    void comparesTheOptionsThatMatterForABatch() {
+        final ChangeSet first = changeSet(DefaultConsistencyLevel.ALL);
+        final ChangeSet second = changeSet(DefaultConsistencyLevel.ALL);
+        // rows per page do not matter for writes
+        second.setPageSize(100);
+        assertTrue(StatementFactory.sameOptions(first, second));
+
+        second.setTimeout(Duration.ofSeconds(5));
+        assertFalse(StatementFactory.sameOptions(first, second));
+        first.setTimeout(Duration.ofSeconds(5));
+        assertTrue(StatementFactory.sameOptions(first, second));
+
+        second.setExecutionProfile("slow");
+        assertFalse(StatementFactory.sameOptions(first, second));
+        assertFalse(StatementFactory.sameOptions(changeSet(DefaultConsistencyLevel.ALL), changeSet(DefaultConsistencyLevel.ONE)));
+        final ChangeSet idempotent = changeSet(DefaultConsistencyLevel.ALL);
+        idempotent.setIdempotent(true);
+        assertFalse(StatementFactory.sameOptions(changeSet(DefaultConsistencyLevel.ALL), idempotent));
+    }
+
+    private static ChangeSet changeSet(DefaultConsistencyLevel consistencyLevel) {
+        final ChangeSet changeSet = new ChangeSet();
+        changeSet.setId("users");
+        changeSet.setAuthor("test");
+        changeSet.setOrder(1);
+        changeSet.setConsistencyLevel(consistencyLevel);
+        changeSet.setStatement("INSERT INTO users (id) VALUES (1)");
+        return changeSet;
+    }
+}
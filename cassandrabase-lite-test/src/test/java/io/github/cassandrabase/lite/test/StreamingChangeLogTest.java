@@ -0,0 +1,94 @@
+package io.github.cassandrabase.lite.test;
+
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.model.ExecutionOptions;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingChangeLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void looksTheHistoryUpPerWindow() throws Exception {
+        final String changeSets = """
+                <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                    <statement>CREATE TABLE users (id int PRIMARY KEY, name text)</statement>
+                </changeSet>
+                """ + IntStream.rangeClosed(2, 9).mapToObj(i -> """
+                <changeSet id="user_%d" author="test" order="%d" consistencyLevel="ALL" dependsOn="users">
+                    <statement>INSERT INTO users (id, name) VALUES (%d, 'user')</statement>
+                </changeSet>
+                """.formatted(i, i, i)).collect(Collectors.joining());
+        final Object classObject = TestChangeLogs.write(this.directory, changeSets, true);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        cassandra.fail(statement -> statement.contains("VALUES (7,"), 1, () -> new IllegalStateException("injected"));
+
+        assertThrows(RuntimeException.class, () -> this.migrate(cassandra, classObject));
+        assertEquals(5, cassandra.getRows("ks", "users").size());
+
+        cassandra.resetStatistics();
+        this.migrate(cassandra, classObject);
+        assertEquals(8, cassandra.getRows("ks", "users").size());
+        assertEquals(9, cassandra.getRows("ks", "changelog_history").size());
+        // the history is never read as a whole partition, the changeSets already applied are not sent again
+        assertTrue(cassandra.getStatements().stream().filter(statement -> statement.startsWith("SELECT * FROM changelog_history"))
+                .allMatch(statement -> statement.contains(" IN ")));
+        assertTrue(cassandra.getStatements().stream().noneMatch(statement -> statement.contains("VALUES (6,")));
+    }
+
+    @Test
+    void rejectsADependsOnMissingFromTheHistory() {
+        final Object classObject = TestChangeLogs.write(this.directory, """
+                <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                    <statement>CREATE TABLE users (id int PRIMARY KEY, name text)</statement>
+                </changeSet>
+                <changeSet id="admin" author="test" order="2" consistencyLevel="ALL">
+                    <statement>INSERT INTO users (id, name) VALUES (1, 'admin')</statement>
+                </changeSet>
+                <changeSet id="guest" author="test" order="3" consistencyLevel="ALL" dependsOn="unknown">
+                    <statement>INSERT INTO users (id, name) VALUES (2, 'guest')</statement>
+                </changeSet>
+                """, true);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+
+        final RuntimeException exception = assertThrows(RuntimeException.class, () -> this.migrate(cassandra, classObject));
+        assertTrue(exception.getMessage().contains("Unknown dependsOn reference"), exception.getMessage());
+        assertEquals(1, cassandra.getRows("ks", "users").size());
+    }
+
+    @Test
+    void validatesTheStreamedFileAgainstTheSchema() {
+        final Object classObject = TestChangeLogs.write(this.directory, """
+                <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                    <statement>CREATE TABLE users (id int PRIMARY KEY, name text)</statement>
+                </changeSet>
+                <changeSet id="admin" author="test" order="2" consistencyLevel="ALL" retries="3">
+                    <statement>INSERT INTO users (id, name) VALUES (1, 'admin')</statement>
+                </changeSet>
+                """, true);
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+
+        final RuntimeException exception = assertThrows(RuntimeException.class, () -> this.migrate(cassandra, classObject));
+        assertTrue(exception.getMessage().contains("Invalid changelog resource"), exception.getMessage());
+        assertTrue(!cassandra.hasTable("ks", "users"));
+    }
+
+    private void migrate(InMemoryCassandra cassandra, Object classObject) throws Exception {
+        final ExecutionOptions options = new ExecutionOptions();
+        options.setStreamingWindowSize(2);
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.setExecutionOptions(options);
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import io.github.cassandrabase.lite.util.StatementTemplate;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import io.github.cassandrabase.lite.xml.TemplateChangeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TemplateChangeSetTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void rendersPlaceholdersDefaultsAndEscapes() {
+        final Function<String, String> variables = Map.of("table", "users", "qualified", "${keyspace}.${table}", "keyspace", "app")::get;
+
+        assertEquals("SELECT * FROM users", StatementTemplate.compile("SELECT * FROM ${table}").render(variables));
+        assertEquals("SELECT * FROM users LIMIT 10", StatementTemplate.compile("SELECT * FROM ${table} LIMIT ${limit:-10}").render(variables));
+        assertEquals("SELECT * FROM app.users", StatementTemplate.compile("SELECT * FROM ${qualified}").render(variables));
+        assertEquals("INSERT INTO users (body) VALUES ('${table}')", StatementTemplate.compile("INSERT INTO ${table} (body) VALUES ('$${table}')").render(variables));
+        assertEquals("SELECT * FROM ${missing}", StatementTemplate.compile("SELECT * FROM ${missing}").render(variables));
+        assertEquals("SELECT * FROM ${table:-t}", StatementTemplate.compile("SELECT * FROM ${table:-t}").render(variables, "table"::equals));
+        assertEquals("CREATE FUNCTION f() AS $$ return 1; $$", StatementTemplate.compile("CREATE FUNCTION f() AS $$ return 1; $$").render(variables));
+
+        final StatementTemplate plain = StatementTemplate.compile("SELECT * FROM users");
+        assertFalse(plain.hasPlaceholders());
+        assertTrue(StatementTemplate.compile("SELECT ${a} FROM ${b:-c}").references("b"));
+        final RuntimeException exception = assertThrows(RuntimeException.class, () -> StatementTemplate.compile("${a}").render(Map.of("a", "${b}", "b", "${a}")::get));
+        assertEquals("Infinite loop in property interpolation of ${a} : a->b->a", exception.getMessage());
+    }
+
+    @Test
+    void expandsAListWithConsecutiveOrders() {
+        final TemplateChangeSet template = template("events_${tenant}", "CREATE TABLE events_${tenant} (id int PRIMARY KEY)");
+        template.setIn("${tenants}");
+        template.setDependsOn(List.of("tenants_${tenant}"));
+        template.resolve(Map.of("tenants", " acme, globex ,")::get);
+
+        final List<ChangeSet> expansions = template.expand().toList();
+        assertEquals(2, template.size());
+        assertEquals(List.of("events_acme", "events_globex"), expansions.stream().map(ChangeSet::getId).toList());
+        assertEquals(List.of(100, 101), expansions.stream().map(ChangeSet::getOrder).toList());
+        assertEquals("CREATE TABLE events_globex (id int PRIMARY KEY)", expansions.get(1).getStatement());
+        assertEquals(List.of("tenants_acme"), expansions.get(0).getDependsOn());
+        assertEquals(DefaultConsistencyLevel.ALL, expansions.get(0).getConsistencyLevel());
+        // the same value gives the same digest
+        assertEquals(expansions.get(0).getMd5Sum(), template.expand().findFirst().orElseThrow().getMd5Sum());
+    }
+
+    @Test
+    void expandsARange() {
+        final TemplateChangeSet template = template("bucket_${bucket}", "CREATE TABLE metrics_${bucket} (id int PRIMARY KEY)");
+        template.setForEach("bucket");
+        template.setFrom(3);
+        template.setTo(5);
+
+        assertEquals(List.of("bucket_3", "bucket_4", "bucket_5"), template.expand().map(ChangeSet::getId).toList());
+        assertEquals(List.of(100, 101, 102), template.expand().map(ChangeSet::getOrder).toList());
+    }
+
+    @Test
+    void rejectsInvalidTemplates() {
+        final TemplateChangeSet unresolved = template("events_${tenant}", "CREATE TABLE events_${tenant} (id int PRIMARY KEY)");
+        unresolved.setIn("${tenants}");
+        assertEquals("Unresolved values of template. [ChangeSetId : events_${tenant}, In : ${tenants}]",
+                assertThrows(RuntimeException.class, unresolved::expand).getMessage());
+
+        final TemplateChangeSet duplicate = template("events_${tenant}", "CREATE TABLE events_${tenant} (id int PRIMARY KEY)");
+        duplicate.setIn("acme,acme");
+        assertEquals("Duplicate template value acme. [ChangeSetId : events_${tenant}]",
+                assertThrows(RuntimeException.class, duplicate::expand).getMessage());
+
+        final TemplateChangeSet sameId = template("events", "CREATE TABLE events_${tenant} (id int PRIMARY KEY)");
+        sameId.setIn("acme");
+        assertEquals("Template id must contain ${tenant}. [ChangeSetId : events]",
+                assertThrows(RuntimeException.class, sameId::expand).getMessage());
+
+        final TemplateChangeSet empty = template("bucket_${tenant}", "CREATE TABLE metrics_${tenant} (id int PRIMARY KEY)");
+        empty.setFrom(2);
+        empty.setTo(1);
+        assertEquals("Template range is empty. [ChangeSetId : bucket_${tenant}, From : 2, To : 1]",
+                assertThrows(RuntimeException.class, empty::expand).getMessage());
+    }
+
+    @Test
+    void appliesEveryExpansionOnce() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, """
+                <template id="events_${tenant}" author="test" order="1" consistencyLevel="ALL" forEach="tenant" in="${tenants}">
+                    <statement>CREATE TABLE events_${tenant} (id int PRIMARY KEY, payload text)</statement>
+                </template>
+                <template id="bucket_${bucket}" author="test" order="10" consistencyLevel="ALL" forEach="bucket" from="0" to="3">
+                    <statement>CREATE TABLE metrics_${bucket} (id int PRIMARY KEY, note text)</statement>
+                </template>
+                """);
+        final Properties properties = new Properties();
+        properties.setProperty("tenants", "acme,globex");
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+
+        for (int run = 0; run < 2; run++) {
+            try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject, properties)) {
+                cassandrabase.validate(ExecutionMode.PARALLEL);
+            }
+        }
+
+        assertTrue(cassandra.hasTable("ks", "events_globex"));
+        assertTrue(cassandra.hasTable("ks", "metrics_3"));
+        assertEquals(6, cassandra.getRows("ks", "changelog_history").size());
+        assertEquals(6, cassandra.getStatements().stream().filter(statement -> statement.startsWith("CREATE TABLE events_") || statement.startsWith("CREATE TABLE metrics_")).count());
+    }
+
+    private static TemplateChangeSet template(String id, String statement) {
+        final TemplateChangeSet template = new TemplateChangeSet();
+        template.setId(id);
+        template.setAuthor("test");
+        template.setOrder(100);
+        template.setConsistencyLevel(DefaultConsistencyLevel.ALL);
+        template.setForEach("tenant");
+        template.setStatement(statement);
+        return template;
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.cassandrabase.lite.test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Changelogs written to a directory, with the class object {@code Cassandrabase} finds them through.
+ */
+final class TestChangeLogs {
+    static final String LOCK_TABLE = "CREATE TABLE IF NOT EXISTS changelog_lock (id text, major_version int, locked boolean, lock_time timestamp, "
+            + "locked_by text, checkpoint_phase text, checkpoint_order int, checkpoint_time timestamp, PRIMARY KEY (id, major_version))";
+
+    private TestChangeLogs() {
+    }
+
+    /**
+     * Writes {@code db/changeset-config.xml} with the lock table in the pre changeLog and {@code changeSets} in the
+     * changeLog.
+     */
+    static Object write(Path directory, String changeSets) {
+        return write(directory, changeSets, false);
+    }
+
+    static Object write(Path directory, String changeSets, boolean streaming) {
+        file(directory, "changeset-config.xml", """
+                <?xml version="1.0"?>
+                <cassandraBaseConfig>
+                    <majorVersion>1</majorVersion>
+                    <preChangeLog path="pre.xml"/>
+                    <changeLog path="changeLog.xml" streaming="%s"/>
+                </cassandraBaseConfig>
+                """.formatted(streaming));
+        file(directory, "pre.xml", """
+                <?xml version="1.0"?>
+                <changeLog>
+                    <changeSet id="changelog_lock" author="test" order="1" consistencyLevel="ALL">
+                        <statement>%s</statement>
+                    </changeSet>
+                </changeLog>
+                """.formatted(LOCK_TABLE));
+        file(directory, "changeLog.xml", "<?xml version=\"1.0\"?>\n<changeLog>\n" + changeSets + "\n</changeLog>\n");
+        try {
+            final ClassLoader classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, TestChangeLogs.class.getClassLoader());
+            return Proxy.newProxyInstance(classLoader, new Class<?>[]{Runnable.class}, (proxy, method, args) -> null);
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes a file next to the changelogs, relative to {@code db/}.
+     */
+    static void file(Path directory, String name, String content) {
+        try {
+            final Path path = directory.resolve("db").resolve(name);
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
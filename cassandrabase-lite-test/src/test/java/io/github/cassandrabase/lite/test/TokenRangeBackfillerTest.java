@@ -0,0 +1,71 @@
+package io.github.cassandrabase.lite.test;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.model.ExecutionOptions;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRangeBackfillerTest {
+    private static final int ROWS = 40;
+    private static final int SPLITS = 8;
+    private static final String WRITE = "UPDATE users SET email_lower = :email WHERE id = :id";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void resumesFromTheRangesCompletedBeforeAFailure() throws Exception {
+        final Object classObject = TestChangeLogs.write(this.directory, """
+                <backfill id="email_lower" author="test" order="1" consistencyLevel="ALL" table="users" splits="%d">
+                    <statement>%s</statement>
+                </backfill>
+                """.formatted(SPLITS, WRITE));
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        final CqlSession session = cassandra.connect("ks");
+        session.execute("CREATE TABLE users (id int PRIMARY KEY, email text, email_lower text)");
+        for (int i = 0; i < ROWS; i++) {
+            session.execute("INSERT INTO users (id, email) VALUES (" + i + ", 'user" + i + "@example.com')");
+        }
+        // one prepare, then a write per row; the last write fails, in the last range holding rows
+        final AtomicInteger writes = new AtomicInteger();
+        cassandra.fail(statement -> statement.startsWith(WRITE) && writes.incrementAndGet() == ROWS + 1, 1, () -> new IllegalStateException("injected"));
+
+        final RuntimeException exception = assertThrows(RuntimeException.class, () -> this.migrate(cassandra, classObject));
+        assertTrue(exception.getMessage().contains("completed ranges are kept"), exception.getMessage());
+        final int completed = cassandra.getRows("ks", "changelog_backfill").size();
+        assertTrue(completed > 0 && completed < SPLITS, String.valueOf(completed));
+
+        cassandra.resetStatistics();
+        this.migrate(cassandra, classObject);
+
+        // one prepare, then a scan per range left
+        assertEquals(SPLITS - completed + 1, cassandra.getStatements().stream().filter(statement -> statement.startsWith("SELECT") && statement.contains("token(")).count());
+        assertTrue(cassandra.getStatements().stream().filter(statement -> statement.startsWith(WRITE)).count() < ROWS + 1);
+        for (Map<String, Object> row : cassandra.getRows("ks", "users")) {
+            assertEquals(row.get("email"), row.get("email_lower"));
+        }
+        assertEquals(0, cassandra.getRows("ks", "changelog_backfill").size());
+        assertEquals(1, cassandra.getRows("ks", "changelog_history").size());
+    }
+
+    private void migrate(InMemoryCassandra cassandra, Object classObject) throws Exception {
+        final ExecutionOptions options = new ExecutionOptions();
+        // one range at a time, one write at a time: the ranges before the failing one are all completed
+        options.setBackfillConcurrencyPerNode(1);
+        options.setBackfillWritesPerRange(1);
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.setExecutionOptions(options);
+            cassandrabase.validate(ExecutionMode.SERIAL);
+        }
+    }
+}
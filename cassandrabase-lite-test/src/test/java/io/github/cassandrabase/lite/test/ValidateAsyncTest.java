@@ -0,0 +1,110 @@
+package io.github.cassandrabase.lite.test;
+
+import io.github.cassandrabase.lite.Cassandrabase;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValidateAsyncTest {
+    private static final int CHANGE_SETS = 20;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void completesWithoutBlockingTheCaller() throws Exception {
+        final Object classObject = this.changeLog();
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        cassandra.setLatency(Duration.ofMillis(5));
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            final CompletableFuture<Void> migration = cassandrabase.validateAsync(ExecutionMode.PARALLEL).toCompletableFuture();
+            assertFalse(migration.isDone());
+            migration.get(30, TimeUnit.SECONDS);
+        }
+
+        assertEquals(CHANGE_SETS, history(cassandra));
+        assertEquals(false, cassandra.getRows("ks", "changelog_lock").get(0).get("locked"));
+    }
+
+    @Test
+    void stopsBeforeTheNextChangeSetOnceCancelled() throws Exception {
+        final Object classObject = this.changeLog();
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        cassandra.setLatency(Duration.ofMillis(10));
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            final CompletableFuture<Void> migration = cassandrabase.validateAsync(ExecutionMode.SERIAL).toCompletableFuture();
+            awaitHistory(cassandra, 2);
+            assertTrue(migration.cancel(false));
+            assertThrows(CancellationException.class, migration::join);
+        }
+
+        // close waited for the migration to stop and gave the lock up
+        final int applied = history(cassandra);
+        assertTrue(applied < CHANGE_SETS, String.valueOf(applied));
+        assertEquals(null, cassandra.getRows("ks", "changelog_lock").get(0).get("locked"));
+        Thread.sleep(100);
+        assertEquals(applied, history(cassandra));
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            cassandrabase.validateAsync().toCompletableFuture().get(30, TimeUnit.SECONDS);
+        }
+        assertEquals(CHANGE_SETS, history(cassandra));
+    }
+
+    @Test
+    void completesExceptionallyOnceTheTimeoutExpired() throws Exception {
+        final Object classObject = this.changeLog();
+        final InMemoryCassandra cassandra = new InMemoryCassandra();
+        cassandra.setLatency(Duration.ofMillis(20));
+
+        try (Cassandrabase cassandrabase = new Cassandrabase(cassandra.connect("ks"), "node", classObject)) {
+            final CompletableFuture<Void> migration = cassandrabase.validateAsync(ExecutionMode.SERIAL, Duration.ofMillis(200)).toCompletableFuture();
+            final ExecutionException exception = assertThrows(ExecutionException.class, () -> migration.get(30, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, exception.getCause());
+        }
+
+        assertTrue(history(cassandra) < CHANGE_SETS);
+        assertEquals(null, cassandra.getRows("ks", "changelog_lock").get(0).get("locked"));
+    }
+
+    private Object changeLog() throws Exception {
+        return TestChangeLogs.write(this.directory, """
+                <changeSet id="users" author="test" order="1" consistencyLevel="ALL">
+                    <statement>CREATE TABLE users (id int PRIMARY KEY, name text)</statement>
+                </changeSet>
+                """ + IntStream.rangeClosed(1, CHANGE_SETS - 1).mapToObj(i -> """
+                <changeSet id="user_%d" author="test" order="%d" consistencyLevel="ALL">
+                    <statement>INSERT INTO users (id, name) VALUES (%d, 'user')</statement>
+                </changeSet>
+                """.formatted(i, 1 + i, i)).collect(Collectors.joining()));
+    }
+
+    private static void awaitHistory(InMemoryCassandra cassandra, int rows) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (history(cassandra) < rows && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static int history(InMemoryCassandra cassandra) {
+        return cassandra.hasTable("ks", "changelog_history") ? cassandra.getRows("ks", "changelog_history").size() : 0;
+    }
+}
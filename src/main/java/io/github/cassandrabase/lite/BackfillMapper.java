@@ -0,0 +1,19 @@
+package io.github.cassandrabase.lite;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+
+import java.util.Map;
+
+/**
+ * Maps the rows scanned by a {@code backfill} changeSet to the values of its statement. It is named by the
+ * {@code mapper} attribute, loaded with the class loader of the changeLog and instantiated once per execution with
+ * its public no-arg constructor. {@link #map(Row)} is called concurrently from the threads scanning the token ranges.
+ */
+public interface BackfillMapper {
+
+    /**
+     * Values of the bind markers of the statement by name; markers without a value are left unset. {@code null} skips
+     * the row.
+     */
+    Map<String, Object> map(Row row);
+}
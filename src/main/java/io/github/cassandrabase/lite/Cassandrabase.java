@@ -1,37 +1,80 @@
 package io.github.cassandrabase.lite;
 
+import com.datastax.oss.driver.api.core.CqlIdentifier;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import io.github.cassandrabase.lite.entity.ChangelogHistoryEntity;
 import io.github.cassandrabase.lite.entity.ChangelogLockEntity;
+import io.github.cassandrabase.lite.event.ChangeSetExecutionEvent;
+import io.github.cassandrabase.lite.event.LockAcquisitionEvent;
+import io.github.cassandrabase.lite.event.MigrationEvent;
+import io.github.cassandrabase.lite.event.MigrationEvents;
+import io.github.cassandrabase.lite.event.MigrationListener;
+import io.github.cassandrabase.lite.event.MigrationRunEvent;
+import io.github.cassandrabase.lite.cql.CqlKeyspaceQualifier;
+import io.github.cassandrabase.lite.digest.MerkleTree;
 import io.github.cassandrabase.lite.exception.CassandrabaseException;
 import io.github.cassandrabase.lite.exception.ChangeLogAlreadyExistException;
+import io.github.cassandrabase.lite.execution.BatchChangeSet;
+import io.github.cassandrabase.lite.execution.ChangeSetGraph;
+import io.github.cassandrabase.lite.execution.ChangeSetGraphExecutor;
+import io.github.cassandrabase.lite.execution.CsvDataLoader;
+import io.github.cassandrabase.lite.execution.DmlBatchPlanner;
+import io.github.cassandrabase.lite.execution.ExecutionThrottle;
+import io.github.cassandrabase.lite.execution.JavaChangeSetAdapter;
+import io.github.cassandrabase.lite.execution.RollbackChangeSet;
+import io.github.cassandrabase.lite.execution.SchemaAgreementAwaiter;
+import io.github.cassandrabase.lite.execution.StatementFactory;
+import io.github.cassandrabase.lite.execution.TokenRangeBackfiller;
+import io.github.cassandrabase.lite.execution.VirtualThreads;
+import io.github.cassandrabase.lite.loader.ChangeLogLoader;
+import io.github.cassandrabase.lite.loader.StreamingChangeLog;
+import io.github.cassandrabase.lite.lock.ChangelogCheckpoint;
+import io.github.cassandrabase.lite.lock.ChangelogLockLease;
 import io.github.cassandrabase.lite.model.CassandraConfigs;
+import io.github.cassandrabase.lite.model.ExecutionOptions;
+import io.github.cassandrabase.lite.repository.ChangelogBackfillRepository;
+import io.github.cassandrabase.lite.repository.ChangelogHistoryRepository;
 import io.github.cassandrabase.lite.repository.ChangelogLockRepository;
+import io.github.cassandrabase.lite.repository.SystemSchemaRepository;
+import io.github.cassandrabase.lite.schema.DdlIntrospector;
+import io.github.cassandrabase.lite.schema.SchemaModel;
 import io.github.cassandrabase.lite.types.ChangeLogOrder;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import io.github.cassandrabase.lite.types.MigrationPhase;
+import io.github.cassandrabase.lite.util.DigestJoiner;
 import io.github.cassandrabase.lite.util.HashGen;
-import io.github.cassandrabase.lite.xml.CassandraBaseConfig;
+import io.github.cassandrabase.lite.xml.BackfillChangeSet;
 import io.github.cassandrabase.lite.xml.ChangeLog;
 import io.github.cassandrabase.lite.xml.ChangeSet;
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Unmarshaller;
-import org.apache.commons.text.StringSubstitutor;
+import io.github.cassandrabase.lite.xml.LoadDataChangeSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xml.sax.SAXException;
 
-import javax.xml.XMLConstants;
-import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public final class Cassandrabase implements Closeable {
     private static final Logger log = LoggerFactory.getLogger(Cassandrabase.class);
@@ -39,9 +82,30 @@ public final class Cassandrabase implements Closeable {
     private final CassandraConfigs cassandraConfigs;
     private final String identifier;
     private final ChangelogLockRepository changelogLockRepository;
+    private final ChangelogHistoryRepository changelogHistoryRepository;
+    private final ChangelogBackfillRepository changelogBackfillRepository;
     private final AtomicBoolean updated = new AtomicBoolean(false);
+    private final AtomicBoolean completed = new AtomicBoolean(false);
+    private final AtomicInteger appliedChangeSets = new AtomicInteger();
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private volatile CompletableFuture<Void> migration;
+    private ChangelogLockLease changelogLockLease;
+    private ChangelogCheckpoint changelogCheckpoint;
     private String md5Key;
-    private final Object classObject;
+    private final String keyspace;
+    private final CqlKeyspaceQualifier cqlKeyspaceQualifier;
+    // the pre changeLog has no history, its changeSets may still be referenced by dependsOn
+    private final Set<String> preChangeSetIds = new HashSet<>();
+    // ids of the changeLogs held in memory, a streamed changeLog is checked against them window by window
+    private Set<String> declaredChangeSetIds = Set.of();
+    private ExecutionOptions executionOptions = new ExecutionOptions();
+    private ExecutorService workerExecutor;
+    private ExecutionThrottle executionThrottle;
+    private DdlIntrospector ddlIntrospector;
+    private final MigrationEvents migrationEvents;
+    private final boolean ownMigrationEvents;
+    private final Duration configLoadDuration;
+    private final int configChangeSets;
     private final Properties properties;
 
     public Cassandrabase(CqlSession cqlSession, String identifier, Object classObject) throws CassandrabaseException {
@@ -49,24 +113,44 @@ public final class Cassandrabase implements Closeable {
     }
 
     public Cassandrabase(CqlSession cqlSession, String identifier, Object classObject, Properties properties) throws CassandrabaseException {
-        try {
-            this.classObject = classObject;
-            this.cqlSession = cqlSession;
-            this.identifier = identifier;
-            this.properties = properties;
-            this.changelogLockRepository = new ChangelogLockRepository(this.cqlSession);
-            this.cassandraConfigs = this.getPrimaryChangeLog();
-        } catch (SAXException e) {
-            throw new CassandrabaseException(e);
-        }
+        this(cqlSession, identifier, null, LoadedConfigs.load(classObject.getClass().getClassLoader(), properties), null);
+    }
+
+    /**
+     * Migrates {@code keyspace}, or the session keyspace if {@code null}, with changelogs that already have been
+     * loaded. Unqualified names in the statements are qualified with {@code keyspace}.
+     *
+     * @param migrationEvents events shared with other instances and closed by the caller, {@code null} for own ones
+     */
+    Cassandrabase(CqlSession cqlSession, String identifier, String keyspace, LoadedConfigs loadedConfigs, MigrationEvents migrationEvents) {
+        this.cqlSession = cqlSession;
+        this.identifier = identifier;
+        this.keyspace = Objects.nonNull(keyspace) ? keyspace : cqlSession.getKeyspace().map(CqlIdentifier::asInternal).orElse(null);
+        this.cqlKeyspaceQualifier = Objects.nonNull(keyspace) ? new CqlKeyspaceQualifier(keyspace) : null;
+        this.changelogLockRepository = new ChangelogLockRepository(this.cqlSession, keyspace);
+        this.changelogHistoryRepository = new ChangelogHistoryRepository(this.cqlSession, keyspace);
+        this.changelogBackfillRepository = new ChangelogBackfillRepository(this.cqlSession, keyspace);
+        this.ownMigrationEvents = Objects.isNull(migrationEvents);
+        this.migrationEvents = this.ownMigrationEvents ? new MigrationEvents(loadedConfigs.getClassLoader()) : migrationEvents;
+        this.cassandraConfigs = loadedConfigs.getCassandraConfigs();
+        this.configLoadDuration = loadedConfigs.getDuration();
+        this.configChangeSets = loadedConfigs.getChangeSets();
+        this.properties = loadedConfigs.getProperties();
     }
 
     private ChangeLog dynamicBeforeChangeLog;
     private ChangeLog dynamiAfterChangeLog;
+    private final List<ChangeSet> javaBeforeChangeSets = new ArrayList<>();
+    private final List<ChangeSet> javaAfterChangeSets = new ArrayList<>();
 
+    /**
+     * Adds a changeLog built at runtime. Its placeholders are replaced with the properties, like the ones of the
+     * changelogs, and its templates are expanded.
+     */
     public void addDynamicChangeLog(ChangeLog dynamicChangeLog, ChangeLogOrder changeLogOrder) {
         if (changeLogOrder.equals(ChangeLogOrder.BEFORE_STATIC_CHANGE_LOG)) {
             if (Objects.isNull(this.dynamicBeforeChangeLog)) {
+                ChangeLogLoader.setProperties(dynamicChangeLog, this.properties);
                 this.dynamicBeforeChangeLog = dynamicChangeLog;
             } else {
                 throw new ChangeLogAlreadyExistException("Before-DynamicChangeLog already has been set.");
@@ -74,6 +158,7 @@ public final class Cassandrabase implements Closeable {
         }
         if (changeLogOrder.equals(ChangeLogOrder.AFTER_STATIC_CHANGE_LOG)) {
             if (Objects.isNull(this.dynamiAfterChangeLog)) {
+                ChangeLogLoader.setProperties(dynamicChangeLog, this.properties);
                 this.dynamiAfterChangeLog = dynamicChangeLog;
             } else {
                 throw new ChangeLogAlreadyExistException("After-DynamicChangeLog already has been set.");
@@ -81,6 +166,40 @@ public final class Cassandrabase implements Closeable {
         }
     }
 
+    /**
+     * Adds a changeSet written in Java to the dynamic changeLog of the given position. It is ordered by its order among
+     * the changeSets of that changeLog and runs on a virtual thread.
+     */
+    public void addJavaChangeSet(JavaChangeSet javaChangeSet, ChangeLogOrder changeLogOrder) {
+        final ChangeSet changeSet = new JavaChangeSetAdapter(javaChangeSet);
+        if (changeLogOrder.equals(ChangeLogOrder.BEFORE_STATIC_CHANGE_LOG)) {
+            this.javaBeforeChangeSets.add(changeSet);
+        }
+        if (changeLogOrder.equals(ChangeLogOrder.AFTER_STATIC_CHANGE_LOG)) {
+            this.javaAfterChangeSets.add(changeSet);
+        }
+    }
+
+    // the java changeSets come after the declared ones, so the major version key of a changeLog without them is unchanged
+    private ChangeLog getDynamicChangeLog(ChangeLogOrder changeLogOrder) {
+        final ChangeLog dynamicChangeLog = changeLogOrder.equals(ChangeLogOrder.BEFORE_STATIC_CHANGE_LOG) ? this.dynamicBeforeChangeLog : this.dynamiAfterChangeLog;
+        final List<ChangeSet> javaChangeSets = changeLogOrder.equals(ChangeLogOrder.BEFORE_STATIC_CHANGE_LOG) ? this.javaBeforeChangeSets : this.javaAfterChangeSets;
+        if (javaChangeSets.isEmpty()) {
+            return dynamicChangeLog;
+        }
+        final List<ChangeSet> changeSets = new ArrayList<>();
+        Optional.ofNullable(dynamicChangeLog).map(ChangeLog::getChangeSets).ifPresent(changeSets::addAll);
+        changeSets.addAll(javaChangeSets);
+        final Set<String> ids = new HashSet<>();
+        for (ChangeSet changeSet : changeSets) {
+            if (!ids.add(changeSet.getId())) {
+                throw new RuntimeException("Duplicate changeSet found in " + changeLogOrder + " dynamic changeLog. [ChangeSetId : " + changeSet.getId() + "]");
+            }
+        }
+        final ChangeLog changeLog = new ChangeLog();
+        changeLog.setChangeSets(changeSets);
+        return changeLog;
+    }
 
     private Runnable runnableBefore;
 
@@ -90,287 +209,934 @@ public final class Cassandrabase implements Closeable {
 
     private Runnable runnableAfter;
 
+    /**
+     * Runs after the dynamic changeLog that runs after the static one.
+     */
     public void runAfter(Runnable runnableAfter) {
         this.runnableAfter = runnableAfter;
     }
 
 
-    private void init(boolean isAsync) {
-        List<ChangeSet> orderedChangeSetsPre = cassandraConfigs.getPreChangeLog().getChangeSets().stream().sorted(Comparator.comparing(ChangeSet::getOrder)).toList();
-        List<ChangeSet> orderedChangeSets = cassandraConfigs.getChangeLog().getChangeSets().stream().sorted(Comparator.comparing(ChangeSet::getOrder)).toList();
-        final StringJoiner keyAsString = new StringJoiner("#");
-        orderedChangeSetsPre.stream().map(ChangeSet::getMd5Sum).forEach(keyAsString::add);
-        Optional.ofNullable(this.dynamicBeforeChangeLog).ifPresent(changeLog -> {
-            changeLog.getChangeSets().forEach(changeSet -> keyAsString.add(changeSet.getMd5Sum()));
-        });
-        orderedChangeSets.stream().map(ChangeSet::getMd5Sum).forEach(keyAsString::add);
-        Optional.ofNullable(this.dynamiAfterChangeLog).ifPresent(changeLog -> {
-            changeLog.getChangeSets().forEach(changeSet -> keyAsString.add(changeSet.getMd5Sum()));
-        });
-        this.md5Key = HashGen.generateHash(keyAsString.toString(), HashGen.ALGType.MD5);
-        log.info("Major version Key (MD5): {}", md5Key);
-        if (!this.changelogLockRepository.tableExists()) {
-            if (isAsync) {
-                final List<CompletableFuture<AsyncResultSet>> asyncResultSetCompletableFutureList = new ArrayList<>();
-                this.cassandraConfigs.getPreChangeLog()
-                        .getChangeSets()
-                        .stream()
-                        .sorted(Comparator.comparing(ChangeSet::getOrder))
-                        .forEach(changeSet -> {
-                            asyncResultSetCompletableFutureList.add(this.executeAsync(changeSet));
-                        });
-
-                CompletableFuture.allOf(asyncResultSetCompletableFutureList.toArray(new CompletableFuture[0])).join();
-                for (CompletableFuture<AsyncResultSet> asyncResultSetCompletableFuture : asyncResultSetCompletableFutureList) {
-                    try {
-                        asyncResultSetCompletableFuture.get();
-                    } catch (InterruptedException | ExecutionException e) {
-                        throw new RuntimeException(e);
+    /**
+     * Registers a listener in addition to the ones found through {@code META-INF/services}.
+     */
+    public void addMigrationListener(MigrationListener migrationListener) {
+        this.migrationEvents.addListener(Objects.requireNonNull(migrationListener));
+    }
+
+    /**
+     * Progress of the migration for asynchronous consumers. Subscribers that fall behind miss events, the migration
+     * never waits for them.
+     */
+    public Flow.Publisher<MigrationEvent> getProgressPublisher() {
+        return this.migrationEvents.getPublisher();
+    }
+
+    public void setExecutionOptions(ExecutionOptions executionOptions) {
+        this.executionOptions = Objects.requireNonNull(executionOptions);
+        this.executionThrottle = null;
+    }
+
+    private void init(ExecutionMode executionMode) {
+        if (!this.prepare(executionMode)) {
+            return;
+        }
+        final long lockStart = System.nanoTime();
+        final LockAcquisitionEvent lockAcquisitionEvent = new LockAcquisitionEvent();
+        lockAcquisitionEvent.begin();
+        boolean isAcquired = this.acquireLock();
+        if (!isAcquired) {
+            boolean isDone = false;
+            while (!isDone && !isAcquired) {
+                try {
+                    ChangelogLockEntity entity = this.changelogLockRepository.getByLockId(this.md5Key, this.cassandraConfigs.getMajorVersion());
+                    if (Objects.isNull(entity) || ChangelogLockRepository.isExpired(entity, this.executionOptions.getLockLease())) {
+                        log.warn("Lock lease of the previous acquirer has expired. Trying to take over. [{}]", this.md5Key);
+                        isAcquired = this.acquireLock();
+                    } else if (entity.getLocked()) {
+                        log.info("Waiting for lock... Lock is being acquired by another instance: {} (renewed at {})", entity.getLockedBy(), entity.getLockTime());
+                        lockAcquisitionEvent.polls++;
+                        Thread.sleep(this.executionOptions.getLockPollInterval().toMillis());
+                    } else {
+                        isDone = true;
                     }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
                 }
-            } else {
-                this.cassandraConfigs.getPreChangeLog()
-                        .getChangeSets()
-                        .stream()
-                        .sorted(Comparator.comparing(ChangeSet::getOrder))
-                        .forEach(this::execute);
             }
+            if (isDone) {
+                log.info("The Update already has been done by another instance. Nothing to update.");
+            }
+        }
+        this.locked(isAcquired, lockAcquisitionEvent, lockStart);
+    }
+
+    /**
+     * Computes the major version key and creates the changelog tables if needed.
+     *
+     * @return false if the version already has been applied and there is no lock to acquire
+     */
+    private boolean prepare(ExecutionMode executionMode) {
+        this.checkChangeSetIds();
+        this.md5Key = this.majorVersionKey();
+        log.info("Major version Key (MD5): {}", md5Key);
+        // restarts after the version is done cost this one read: no schema lookup, no lightweight transaction
+        final long readStart = System.nanoTime();
+        if (this.isAlreadyApplied()) {
+            log.info("Major version already has been applied. Nothing to update. [{}]", this.md5Key);
+            this.migrationEvents.emit(MigrationEvent.lock(MigrationEvent.Type.LOCK_NOT_NEEDED, this.identifier, this.keyspace, Duration.ofNanos(System.nanoTime() - readStart)));
+            this.updated.set(false);
+            return false;
+        }
+        if (!this.changelogLockRepository.tableExists()) {
+            this.savePreChangeLog(this.cassandraConfigs.getPreChangeLog(), executionMode);
             log.info("Changelog Tables created.");
         } else {
             log.info("Changelog Tables already exists.");
+            this.markApplied(this.cassandraConfigs.getPreChangeLog());
         }
-        final boolean isAcquired = this.changelogLockRepository.acquireLock(this.md5Key, this.cassandraConfigs.getMajorVersion(), this.identifier);
+        return true;
+    }
+
+    // the history is keyed by changeSet id alone, so ids must be unique across the pre, static and dynamic changeLogs
+    private void checkChangeSetIds() {
+        final Map<String, String> declaredIn = new HashMap<>();
+        ChangeLogLoader.collectIds(this.cassandraConfigs.getPreChangeLog(), "preChangeLog", declaredIn);
+        ChangeLogLoader.collectIds(this.getDynamicChangeLog(ChangeLogOrder.BEFORE_STATIC_CHANGE_LOG), ChangeLogOrder.BEFORE_STATIC_CHANGE_LOG + " dynamic changeLog", declaredIn);
+        ChangeLogLoader.collectIds(this.cassandraConfigs.getChangeLog(), "post changeLog", declaredIn);
+        ChangeLogLoader.collectIds(this.getDynamicChangeLog(ChangeLogOrder.AFTER_STATIC_CHANGE_LOG), ChangeLogOrder.AFTER_STATIC_CHANGE_LOG + " dynamic changeLog", declaredIn);
+        this.declaredChangeSetIds = this.cassandraConfigs.getChangeLog() instanceof StreamingChangeLog ? declaredIn.keySet() : Set.of();
+    }
+
+    private String majorVersionKey() {
+        final DigestJoiner key = new DigestJoiner("#", HashGen.ALGType.MD5);
+        try (Stream<ChangeSet> orderedChangeSets = this.streamAllChangeSets()) {
+            orderedChangeSets.map(ChangeSet::getMd5Sum).forEach(key::add);
+        }
+        return key.toHex();
+    }
+
+    /**
+     * The lock wait of {@link #init} with the polls scheduled instead of slept: no thread is held while another
+     * instance migrates.
+     */
+    private CompletableFuture<Boolean> acquireLockAsync(LockAcquisitionEvent lockAcquisitionEvent) {
+        return this.changelogLockRepository.acquireLockAsync(this.md5Key, this.cassandraConfigs.getMajorVersion(), this.identifier, this.executionOptions.getLockLease())
+                .toCompletableFuture()
+                .thenCompose(isAcquired -> isAcquired ? CompletableFuture.completedFuture(true) : this.pollLockAsync(lockAcquisitionEvent));
+    }
+
+    private CompletableFuture<Boolean> pollLockAsync(LockAcquisitionEvent lockAcquisitionEvent) {
+        if (this.cancelled.get()) {
+            return CompletableFuture.failedFuture(new CancellationException("Migration cancelled while waiting for the lock. [" + this.md5Key + "]"));
+        }
+        return this.changelogLockRepository.getByLockIdAsync(this.md5Key, this.cassandraConfigs.getMajorVersion()).toCompletableFuture().thenCompose(entity -> {
+            if (Objects.isNull(entity) || ChangelogLockRepository.isExpired(entity, this.executionOptions.getLockLease())) {
+                log.warn("Lock lease of the previous acquirer has expired. Trying to take over. [{}]", this.md5Key);
+                return this.acquireLockAsync(lockAcquisitionEvent);
+            }
+            if (entity.getLocked()) {
+                log.info("Waiting for lock... Lock is being acquired by another instance: {} (renewed at {})", entity.getLockedBy(), entity.getLockTime());
+                lockAcquisitionEvent.polls++;
+                final Executor delayed = CompletableFuture.delayedExecutor(this.executionOptions.getLockPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+                return CompletableFuture.supplyAsync(() -> lockAcquisitionEvent, delayed).thenCompose(this::pollLockAsync);
+            }
+            log.info("The Update already has been done by another instance. Nothing to update.");
+            return CompletableFuture.completedFuture(false);
+        });
+    }
+
+    private void locked(boolean isAcquired, LockAcquisitionEvent lockAcquisitionEvent, long lockStart) {
+        lockAcquisitionEvent.end();
+        if (lockAcquisitionEvent.shouldCommit()) {
+            lockAcquisitionEvent.lockId = this.md5Key;
+            lockAcquisitionEvent.majorVersion = this.cassandraConfigs.getMajorVersion();
+            lockAcquisitionEvent.acquired = isAcquired;
+            lockAcquisitionEvent.commit();
+        }
+        this.migrationEvents.emit(MigrationEvent.lock(isAcquired ? MigrationEvent.Type.LOCK_ACQUIRED : MigrationEvent.Type.LOCK_NOT_NEEDED,
+                this.identifier, this.keyspace, Duration.ofNanos(System.nanoTime() - lockStart)));
         this.updated.set(isAcquired);
         if (isAcquired) {
             log.info("Lock acquired By {}. Proceeding to update.", this.identifier);
-        } else {
-            int count = 0;
-            boolean isDone = false;
-            while (!isDone) {
-                try {
-                    ChangelogLockEntity entity = this.changelogLockRepository.getByLockId(this.md5Key, this.cassandraConfigs.getMajorVersion());
-                    if (entity.getLocked()) {
-                        Thread.sleep(1_000);
-                        log.info("Waiting for lock... Lock is being acquired by another instance: {}", entity.getLockedBy());
-                    }
-                    isDone = !entity.getLocked();
-                    count++;
-                    if (count > 20) {
-                        log.warn("It seems like the acquirer crashed unexpectedly.");
-                    }
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
+            this.changelogLockLease = new ChangelogLockLease(this.changelogLockRepository, this.md5Key, this.cassandraConfigs.getMajorVersion(), this.identifier, this.executionOptions.getLockLease(), this.executionOptions.getLockHeartbeatInterval());
+            this.changelogHistoryRepository.createTableIfNotExists();
+            this.changelogLockRepository.addCheckpointColumnsIfNotExists();
+            this.changelogCheckpoint = new ChangelogCheckpoint(this.changelogLockRepository, this.md5Key, this.cassandraConfigs.getMajorVersion(),
+                    this.changelogLockRepository.getByLockId(this.md5Key, this.cassandraConfigs.getMajorVersion()));
+            if (this.executionOptions.isSkipAppliedDdl()) {
+                // read under the lock: a previous holder may have changed the schema until it died
+                final SystemSchemaRepository systemSchemaRepository = new SystemSchemaRepository(this.cqlSession);
+                final SchemaModel model = Objects.nonNull(this.keyspace) ? systemSchemaRepository.loadSchemaModel(this.keyspace) : systemSchemaRepository.loadSchemaModel();
+                this.ddlIntrospector = new DdlIntrospector(model, this.keyspace);
             }
-            log.info("The Update already has been done by another instance. Nothing to update.");
         }
     }
 
+    /**
+     * Merkle tree over every changeSet in execution order (pre, dynamic before, static, dynamic after). Nodes
+     * running the same changelogs have the same root hash; {@link MerkleTree#diff(MerkleTree)} finds the changeSets
+     * that differ.
+     */
+    public MerkleTree getMerkleTree(HashGen.ALGType algType) {
+        try (Stream<ChangeSet> orderedChangeSets = this.streamAllChangeSets()) {
+            return MerkleTree.of(orderedChangeSets, algType);
+        }
+    }
+
+    // dynamic changeLogs keep their declared order, as they always have in the major version key
+    private Stream<ChangeSet> streamAllChangeSets() {
+        // suppliers, so a streamed changeLog is only opened once the previous one is consumed
+        return Stream.<Supplier<Stream<ChangeSet>>>of(
+                        () -> this.cassandraConfigs.getPreChangeLog().streamChangeSets(),
+                        this::streamMigrationChangeSets)
+                .flatMap(Supplier::get);
+    }
+
+    // the changeSets of the migration itself, without the changelog tables of the pre changeLog
+    private Stream<ChangeSet> streamMigrationChangeSets() {
+        return Stream.<Supplier<Stream<ChangeSet>>>of(
+                        () -> this.streamDynamicChangeSets(ChangeLogOrder.BEFORE_STATIC_CHANGE_LOG),
+                        () -> this.cassandraConfigs.getChangeLog().streamChangeSets(),
+                        () -> this.streamDynamicChangeSets(ChangeLogOrder.AFTER_STATIC_CHANGE_LOG))
+                .flatMap(Supplier::get);
+    }
+
+    private Stream<ChangeSet> streamDynamicChangeSets(ChangeLogOrder changeLogOrder) {
+        return Optional.ofNullable(this.getDynamicChangeLog(changeLogOrder)).map(changeLog -> changeLog.getChangeSets().stream().flatMap(ChangeSet::expand)).orElseGet(Stream::empty);
+    }
+
+    // released locks are never expired, so locked = false is a completion marker of the version
+    private boolean isAlreadyApplied() {
+        return this.changelogLockRepository.findByLockId(this.md5Key, this.cassandraConfigs.getMajorVersion())
+                .map(ChangelogLockEntity::getLocked)
+                .filter(Boolean.FALSE::equals)
+                .isPresent();
+    }
+
+    private boolean acquireLock() {
+        return this.changelogLockRepository.acquireLock(this.md5Key, this.cassandraConfigs.getMajorVersion(), this.identifier, this.executionOptions.getLockLease());
+    }
+
     public void validateInParallel() {
-        this.init(true);
-        if (this.updated.get()) {
-            log.info("Start applying changes in parallel...");
-            if (Objects.nonNull(this.dynamicBeforeChangeLog)) {
-                this.saveChangeLog(this.dynamicBeforeChangeLog,true);
-            } else {
-                log.debug("No dynamic changeLog found for updating before static changeLog.");
+        this.validate(ExecutionMode.PARALLEL);
+    }
+
+    public void validate() {
+        this.validate(ExecutionMode.SERIAL);
+    }
+
+    public void validate(ExecutionMode executionMode) {
+        final long start = System.nanoTime();
+        final int applied = this.appliedChangeSets.get();
+        final MigrationRunEvent migrationRunEvent = this.beginRun();
+        try {
+            this.init(executionMode);
+            if (this.updated.get()) {
+                this.applyChanges(executionMode);
             }
-            if (Objects.nonNull(this.runnableBefore)) {
-                this.runnableBefore.run();
+        } catch (RuntimeException | Error e) {
+            this.endRun(migrationRunEvent, executionMode, start, applied, e);
+            throw e;
+        }
+        this.endRun(migrationRunEvent, executionMode, start, applied, null);
+    }
+
+    public CompletionStage<Void> validateAsync() {
+        return this.validateAsync(ExecutionMode.SERIAL);
+    }
+
+    public CompletionStage<Void> validateAsync(ExecutionMode executionMode) {
+        return this.validateAsync(executionMode, null);
+    }
+
+    /**
+     * Runs the migration without blocking the caller. The lock wait is scheduled, never slept, and polls through the
+     * driver's asynchronous calls; everything else runs on the worker threads (virtual threads where available).
+     * Cancelling the returned stage, or {@code timeout} expiring, completes it right away and stops the migration
+     * before its next changeSet; {@link #close()} then waits for it to stop and gives the lock up.
+     *
+     * @param timeout for the whole migration including the lock wait, {@code null} for none
+     */
+    public CompletionStage<Void> validateAsync(ExecutionMode executionMode, Duration timeout) {
+        final long start = System.nanoTime();
+        final int applied = this.appliedChangeSets.get();
+        final MigrationRunEvent migrationRunEvent = this.beginRun();
+        final CompletableFuture<Void> migration = CompletableFuture.supplyAsync(() -> this.prepare(executionMode), this.getWorkerExecutor())
+                .thenCompose(pending -> pending ? this.lockAndApplyAsync(executionMode) : CompletableFuture.completedFuture(null))
+                .whenComplete((result, throwable) -> this.endRun(migrationRunEvent, executionMode, start, applied, unwrap(throwable)));
+        this.migration = migration;
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        migration.whenComplete((ignored, throwable) -> {
+            if (Objects.isNull(throwable)) {
+                result.complete(null);
             } else {
-                log.debug("No runnable for updating before static changeLog.");
+                result.completeExceptionally(unwrap(throwable));
             }
-            this.saveChangeLog(this.cassandraConfigs.getChangeLog(),true);
-            if (Objects.nonNull(this.dynamiAfterChangeLog)) {
-                this.saveChangeLog(this.dynamiAfterChangeLog,true);
-            } else {
-                log.debug("Not dynamic changeLog found for updating after static changeLog.");
+        });
+        // cancellation and timeout complete the result right away and stop the migration at the next changeSet
+        result.whenComplete((ignored, throwable) -> {
+            if (throwable instanceof CancellationException || throwable instanceof TimeoutException) {
+                log.warn("Migration cancelled. It stops before its next changeSet. [{}]", throwable.toString());
+                this.cancelled.set(true);
+            }
+        });
+        if (Objects.nonNull(timeout)) {
+            result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return result;
+    }
+
+    private CompletableFuture<Void> lockAndApplyAsync(ExecutionMode executionMode) {
+        final long lockStart = System.nanoTime();
+        final LockAcquisitionEvent lockAcquisitionEvent = new LockAcquisitionEvent();
+        lockAcquisitionEvent.begin();
+        return this.acquireLockAsync(lockAcquisitionEvent).thenAcceptAsync(isAcquired -> {
+            this.locked(isAcquired, lockAcquisitionEvent, lockStart);
+            if (isAcquired) {
+                this.applyChanges(executionMode);
+            }
+        }, this.getWorkerExecutor());
+    }
+
+    public void rollbackTo(String changeSetId) {
+        this.rollbackTo(changeSetId, ExecutionMode.SERIAL);
+    }
+
+    /**
+     * Rolls back every applied changeSet that runs after {@code changeSetId} in execution order; the changeSet itself
+     * stays applied.
+     *
+     * @see #rollbackToOrder(int, ExecutionMode)
+     */
+    public void rollbackTo(String changeSetId, ExecutionMode executionMode) {
+        this.rollback("ChangeSetId : " + changeSetId, isApplied -> {
+            final List<ChangeSet> rolledBack = new ArrayList<>();
+            boolean found = false;
+            try (Stream<ChangeSet> orderedChangeSets = this.streamMigrationChangeSets()) {
+                final Iterator<ChangeSet> iterator = orderedChangeSets.iterator();
+                while (iterator.hasNext()) {
+                    final ChangeSet changeSet = iterator.next();
+                    if (found && isApplied.test(changeSet)) {
+                        rolledBack.add(changeSet);
+                    }
+                    found = found || changeSet.getId().equals(changeSetId);
+                }
+            }
+            if (!found) {
+                throw new RuntimeException("ChangeSet to roll back to not found. [ChangeSetId : " + changeSetId + "]");
             }
-            if (Objects.nonNull(this.runnableAfter)) {
-                this.runnableBefore.run();
+            return rolledBack;
+        }, executionMode);
+    }
+
+    public void rollbackToOrder(int order) {
+        this.rollbackToOrder(order, ExecutionMode.SERIAL);
+    }
+
+    /**
+     * Rolls back the applied changeSets of the static changeLog with a greater order, and the dynamic changeLog
+     * running after it. Only the current major version can be rolled back: the rollback statements of earlier ones
+     * are gone with their changelogs.
+     * <p>
+     * The rollback statements run in the reverse of the execution order, independent ones concurrently unless
+     * {@code executionMode} is {@link ExecutionMode#SERIAL}, with schema agreement awaited for each dependency level.
+     * Each rolled back changeSet is removed from the history, and the lock row with its done marker is removed at the
+     * end, so the next {@link #validate()} applies them again and nothing else. The version is locked for the
+     * rollback, even if it was marked as done.
+     *
+     * @throws RuntimeException before anything ran if one of the changeSets has no rollback, or the version is
+     *                          being migrated by another instance
+     */
+    public void rollbackToOrder(int order, ExecutionMode executionMode) {
+        this.rollback("Order : " + order, isApplied -> {
+            try (Stream<ChangeSet> orderedChangeSets = Stream.concat(
+                    this.cassandraConfigs.getChangeLog().streamChangeSets().filter(changeSet -> changeSet.getOrder() > order),
+                    this.streamDynamicChangeSets(ChangeLogOrder.AFTER_STATIC_CHANGE_LOG))) {
+                return orderedChangeSets.filter(isApplied).toList();
+            }
+        }, executionMode);
+    }
+
+    /**
+     * @param rolledBack the applied changeSets to roll back in execution order, given which changeSets are applied
+     */
+    private void rollback(String target, Function<Predicate<ChangeSet>, List<ChangeSet>> rolledBack, ExecutionMode executionMode) {
+        final long start = System.nanoTime();
+        final Integer majorVersion = this.cassandraConfigs.getMajorVersion();
+        this.md5Key = this.majorVersionKey();
+        if (!this.changelogLockRepository.tableExists()) {
+            log.info("Changelog Tables do not exist. Nothing to roll back.");
+            return;
+        }
+        final Map<String, ChangelogHistoryEntity> applied = this.changelogHistoryRepository.findAll(majorVersion);
+        final List<ChangeSet> changeSets = rolledBack.apply(changeSet -> applied.containsKey(changeSet.getId()));
+        if (changeSets.isEmpty()) {
+            log.info("No changeSet applied after the target. Nothing to roll back. [{}]", target);
+            return;
+        }
+        for (ChangeSet changeSet : changeSets) {
+            if (!Objects.equals(applied.get(changeSet.getId()).getMd5Sum(), changeSet.getMd5Sum())) {
+                log.warn("ChangeSet has been changed since it was applied. Rolling back with its current rollback. [ChangeLogId: {}]", changeSet.getId());
+            }
+        }
+        final List<RollbackChangeSet> rollbackChangeSets = RollbackChangeSet.plan(changeSets);
+        // a version marked as done is locked again for the rollback
+        if (!this.acquireLock() && !this.changelogLockRepository.reopenLock(this.md5Key, majorVersion, this.identifier, this.executionOptions.getLockLease())) {
+            throw new RuntimeException("Changelog is locked by another instance. Cannot roll back. [" + this.md5Key + "]");
+        }
+        log.info("Lock acquired By {}. Proceeding to roll back {} changeSets. [{}, ExecutionMode : {}]", this.identifier, rollbackChangeSets.size(), target, executionMode);
+        final ChangelogLockLease lease = new ChangelogLockLease(this.changelogLockRepository, this.md5Key, majorVersion, this.identifier,
+                this.executionOptions.getLockLease(), this.executionOptions.getLockHeartbeatInterval());
+        try {
+            this.rollback(rollbackChangeSets, lease, executionMode);
+        } finally {
+            lease.close();
+            // rolled back or not, the done marker and the checkpoint no longer describe the schema
+            if (this.changelogLockRepository.deleteLock(this.md5Key, majorVersion, this.identifier)) {
+                log.info("lock removed successfully [{}]", this.md5Key);
             } else {
-                log.debug("No runnable for updating after static changeLog.");
+                log.warn("lock removal failed, it will expire with its lease [{}]", this.md5Key);
             }
         }
+        log.info("Rolled back {} changeSets. [{}, Duration : {}]", rollbackChangeSets.size(), target, Duration.ofNanos(System.nanoTime() - start));
     }
 
-    public void validate() {
-        this.init(false);
-        if (this.updated.get()) {
-            log.info("Start applying changes...");
-            if (Objects.nonNull(this.dynamicBeforeChangeLog)) {
-                this.saveChangeLog(this.dynamicBeforeChangeLog,false);
+    private void rollback(List<RollbackChangeSet> rollbackChangeSets, ChangelogLockLease lease, ExecutionMode executionMode) {
+        final List<ChangeSet> statements = new ArrayList<>();
+        final Set<String> noOps = new HashSet<>();
+        for (RollbackChangeSet rollbackChangeSet : rollbackChangeSets) {
+            if (rollbackChangeSet.isNoOp()) {
+                noOps.add(rollbackChangeSet.getId());
             } else {
-                log.debug("No dynamic changeLog found for updating before static changeLog.");
+                statements.add(rollbackChangeSet);
             }
-            if (Objects.nonNull(this.runnableBefore)) {
-                this.runnableBefore.run();
-            } else {
-                log.debug("No runnable for updating before static changeLog.");
+        }
+        final ChangeSetGraph changeSetGraph = ChangeSetGraph.of(statements, noOps);
+        if (ExecutionMode.SERIAL.equals(executionMode)) {
+            changeSetGraph.getTopologicalOrder().stream().map(changeSetGraph::getChangeSet).forEach(changeSet -> this.rollback(changeSet, lease));
+        } else {
+            log.debug("Rolling back {} changeSets by dependency graph. [Levels : {}, ExecutionMode : {}]", changeSetGraph.size(), changeSetGraph.waves().size(), executionMode);
+            final SchemaAgreementAwaiter schemaAgreementAwaiter = new SchemaAgreementAwaiter(this.cqlSession, this.executionOptions.getSchemaAgreementTimeout(), this.executionOptions.getSchemaAgreementInterval());
+            new ChangeSetGraphExecutor(changeSet -> this.rollbackAsync(changeSet, lease), schemaAgreementAwaiter, this.executionOptions.getDdlGroupSize())
+                    .execute(changeSetGraph)
+                    .join();
+        }
+        // nothing to undo, they only leave the history once the rest is rolled back
+        for (String noOp : noOps) {
+            this.changelogHistoryRepository.delete(this.cassandraConfigs.getMajorVersion(), noOp);
+        }
+    }
+
+    private void rollback(ChangeSet changeSet, ChangelogLockLease lease) {
+        lease.ensureHeld();
+        final ChangeSet rolledBack = ((RollbackChangeSet) changeSet).getChangeSet();
+        if (rolledBack instanceof JavaChangeSetAdapter javaChangeSetAdapter) {
+            this.rollbackJava(javaChangeSetAdapter).join();
+        } else {
+            log.info("Rolling back Change log. [ChangeLogId: {}, Author : {}, Order : {}]", changeSet.getId(), changeSet.getAuthor(), changeSet.getOrder());
+            this.cqlSession.execute(StatementFactory.statement(changeSet, this.qualify(changeSet.getStatement())));
+        }
+        this.changelogHistoryRepository.delete(this.cassandraConfigs.getMajorVersion(), changeSet.getId());
+    }
+
+    private CompletableFuture<AsyncResultSet> rollbackAsync(ChangeSet changeSet, ChangelogLockLease lease) {
+        lease.ensureHeld();
+        final ChangeSet rolledBack = ((RollbackChangeSet) changeSet).getChangeSet();
+        final CompletableFuture<?> rollback;
+        if (rolledBack instanceof JavaChangeSetAdapter javaChangeSetAdapter) {
+            rollback = this.rollbackJava(javaChangeSetAdapter);
+        } else {
+            final SimpleStatement simpleStatement = StatementFactory.statement(changeSet, this.qualify(changeSet.getStatement()));
+            log.info("Rolling back Change log asynchronously. [ChangeLogId: {}, Author : {}, Order : {}]", changeSet.getId(), changeSet.getAuthor(), changeSet.getOrder());
+            rollback = this.getExecutionThrottle().submit(() -> this.cqlSession.executeAsync(simpleStatement));
+        }
+        return rollback.thenCompose(result -> this.changelogHistoryRepository.deleteAsync(this.cassandraConfigs.getMajorVersion(), changeSet.getId()));
+    }
+
+    private CompletableFuture<Void> rollbackJava(JavaChangeSetAdapter javaChangeSetAdapter) {
+        final JavaChangeSet javaChangeSet = javaChangeSetAdapter.getJavaChangeSet();
+        Optional.ofNullable(this.ddlIntrospector).ifPresent(DdlIntrospector::invalidate);
+        log.info("Rolling back java changeSet. [ChangeLogId: {}, Author : {}, Order : {}, Class : {}]", javaChangeSetAdapter.getId(), javaChangeSetAdapter.getAuthor(), javaChangeSetAdapter.getOrder(), javaChangeSet.getClass().getName());
+        return CompletableFuture.runAsync(() -> {
+            try {
+                javaChangeSet.rollback(this.cqlSession);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException("Java changeSet rollback failed. [ChangeSetId : " + javaChangeSetAdapter.getId() + "]", e);
             }
-            this.saveChangeLog(this.cassandraConfigs.getChangeLog(),false);
-            if (Objects.nonNull(this.dynamiAfterChangeLog)) {
-                this.saveChangeLog(this.dynamiAfterChangeLog,false);
-            } else {
-                log.debug("Not dynamic changeLog found for updating after static changeLog.");
+        }, this.getWorkerExecutor());
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && Objects.nonNull(throwable.getCause()) ? throwable.getCause() : throwable;
+    }
+
+    private MigrationRunEvent beginRun() {
+        final MigrationRunEvent migrationRunEvent = new MigrationRunEvent();
+        migrationRunEvent.begin();
+        // loading happens in the constructor, before any listener can be registered
+        this.migrationEvents.emit(MigrationEvent.configLoaded(this.identifier, this.keyspace, this.configLoadDuration, this.configChangeSets));
+        return migrationRunEvent;
+    }
+
+    private void endRun(MigrationRunEvent migrationRunEvent, ExecutionMode executionMode, long start, int applied, Throwable failure) {
+        migrationRunEvent.end();
+        if (migrationRunEvent.shouldCommit()) {
+            migrationRunEvent.identifier = this.identifier;
+            migrationRunEvent.executionMode = executionMode.name();
+            migrationRunEvent.changeSets = this.appliedChangeSets.get() - applied;
+            migrationRunEvent.success = Objects.isNull(failure);
+            migrationRunEvent.commit();
+        }
+        if (this.updated.get() || Objects.nonNull(failure)) {
+            this.migrationEvents.emit(MigrationEvent.migration(this.identifier, this.keyspace, Duration.ofNanos(System.nanoTime() - start),
+                    this.appliedChangeSets.get() - applied, failure));
+        }
+    }
+
+    private void applyChanges(ExecutionMode executionMode) {
+        log.info("Start applying changes... [ExecutionMode : {}]", executionMode);
+        final ChangeLog beforeChangeLog = this.getDynamicChangeLog(ChangeLogOrder.BEFORE_STATIC_CHANGE_LOG);
+        if (Objects.nonNull(beforeChangeLog)) {
+            this.saveChangeLog(beforeChangeLog, executionMode, MigrationPhase.DYNAMIC_BEFORE_CHANGE_LOG);
+        } else {
+            log.debug("No dynamic changeLog found for updating before static changeLog.");
+        }
+        if (Objects.nonNull(this.runnableBefore)) {
+            this.run(this.runnableBefore, MigrationPhase.RUNNABLE_BEFORE);
+        } else {
+            log.debug("No runnable for updating before static changeLog.");
+        }
+        this.saveChangeLog(this.cassandraConfigs.getChangeLog(), executionMode, MigrationPhase.STATIC_CHANGE_LOG);
+        final ChangeLog afterChangeLog = this.getDynamicChangeLog(ChangeLogOrder.AFTER_STATIC_CHANGE_LOG);
+        if (Objects.nonNull(afterChangeLog)) {
+            this.saveChangeLog(afterChangeLog, executionMode, MigrationPhase.DYNAMIC_AFTER_CHANGE_LOG);
+        } else {
+            log.debug("Not dynamic changeLog found for updating after static changeLog.");
+        }
+        if (Objects.nonNull(this.runnableAfter)) {
+            this.run(this.runnableAfter, MigrationPhase.RUNNABLE_AFTER);
+        } else {
+            log.debug("No runnable for updating after static changeLog.");
+        }
+        this.completed.set(true);
+    }
+
+    private void run(Runnable runnable, MigrationPhase migrationPhase) {
+        this.ensureNotCancelled();
+        if (this.changelogCheckpoint.isDone(migrationPhase)) {
+            log.info("Skipping {}, it already completed before the checkpoint.", migrationPhase);
+            return;
+        }
+        runnable.run();
+        this.changelogCheckpoint.completed(migrationPhase);
+    }
+
+    private void saveChangeLog(ChangeLog changeLog, ExecutionMode executionMode, MigrationPhase migrationPhase) {
+        if (this.changelogCheckpoint.isDone(migrationPhase)) {
+            log.info("Skipping {}, it already completed before the checkpoint.", migrationPhase);
+            return;
+        }
+        // a streamed changeLog is applied window by window, each with the history of its own changeSets, so only one
+        // window of changeSets and history entries is held at a time
+        final boolean streamed = changeLog instanceof StreamingChangeLog;
+        final int windowSize = streamed ? this.executionOptions.getStreamingWindowSize() : Integer.MAX_VALUE;
+        final List<ChangeSet> window = new ArrayList<>();
+        int total = 0;
+        int pending = 0;
+        try (Stream<ChangeSet> orderedChangeSets = changeLog.streamChangeSets()) {
+            final Iterator<ChangeSet> iterator = orderedChangeSets.iterator();
+            while (iterator.hasNext()) {
+                window.add(iterator.next());
+                total++;
+                if (window.size() >= windowSize) {
+                    pending += this.saveWindow(window, streamed, executionMode, migrationPhase);
+                    window.clear();
+                }
             }
-            if (Objects.nonNull(this.runnableAfter)) {
-                this.runnableBefore.run();
+        }
+        pending += this.saveWindow(window, streamed, executionMode, migrationPhase);
+        this.changelogCheckpoint.completed(migrationPhase);
+        log.info("Applied {} of {} changeSets. The rest already has been applied.", pending, total);
+    }
+
+    /**
+     * Applies the pending changeSets of a window. A {@code dependsOn} outside the window must name a changeSet of the
+     * pre changeLog or one in the history: ascending orders and windows applied one after another make it an earlier,
+     * applied changeSet without remembering the ids of the previous windows.
+     *
+     * @return the number of pending changeSets
+     */
+    private int saveWindow(List<ChangeSet> window, boolean streamed, ExecutionMode executionMode, MigrationPhase migrationPhase) {
+        if (window.isEmpty()) {
+            return 0;
+        }
+        final Set<String> ids = new HashSet<>();
+        final Set<String> lookedUp = new HashSet<>();
+        for (ChangeSet changeSet : window) {
+            // duplicates across windows of a streamed changeLog are found when the snapshot is built
+            if (!ids.add(changeSet.getId()) || (streamed && this.declaredChangeSetIds.contains(changeSet.getId()))) {
+                throw new RuntimeException("Duplicate changeSet found in " + migrationPhase + ". [ChangeSetId : " + changeSet.getId() + "]");
+            }
+            // the checkpoint already proves the changeSets up to its mark applied
+            if (!this.changelogCheckpoint.isDone(migrationPhase, changeSet.getOrder())) {
+                lookedUp.add(changeSet.getId());
+                lookedUp.addAll(changeSet.getDependsOn());
+            }
+        }
+        final Integer majorVersion = this.cassandraConfigs.getMajorVersion();
+        final Map<String, ChangelogHistoryEntity> history;
+        if (lookedUp.isEmpty()) {
+            history = Map.of();
+        } else if (streamed) {
+            history = this.changelogHistoryRepository.findByIds(majorVersion, lookedUp);
+        } else {
+            history = this.changelogHistoryRepository.findAll(majorVersion, lookedUp::contains);
+        }
+        final Set<String> completedIds = new HashSet<>(this.preChangeSetIds);
+        completedIds.addAll(history.keySet());
+        final List<ChangeSet> pendingChangeSets = new ArrayList<>();
+        for (ChangeSet changeSet : window) {
+            if (!this.changelogCheckpoint.isDone(migrationPhase, changeSet.getOrder()) && this.isPending(changeSet, history.get(changeSet.getId()))) {
+                pendingChangeSets.add(changeSet);
             } else {
-                log.debug("No runnable for updating after static changeLog.");
+                completedIds.add(changeSet.getId());
             }
         }
+        this.changelogCheckpoint.track(migrationPhase, pendingChangeSets.stream().map(ChangeSet::getOrder).toList());
+        this.saveChangeSets(this.batch(pendingChangeSets), completedIds, executionMode, this::apply, this::applyAsync);
+        return pendingChangeSets.size();
+    }
+
+    private void savePreChangeLog(ChangeLog changeLog, ExecutionMode executionMode) {
+        final List<ChangeSet> orderedChangeSets;
+        try (Stream<ChangeSet> changeSets = changeLog.streamChangeSets()) {
+            orderedChangeSets = changeSets.toList();
+        }
+        this.saveChangeSets(orderedChangeSets, Set.of(), executionMode, this::execute, this::executeAsync);
+        this.markApplied(orderedChangeSets);
     }
 
-    private void saveChangeLog(ChangeLog changeLog, boolean async) {
-        if (async) {
-            this.saveChangeLogAsync(changeLog);
+    private List<ChangeSet> batch(List<ChangeSet> orderedChangeSets) {
+        if (!this.executionOptions.isBatching()) {
+            return orderedChangeSets;
+        }
+        return new DmlBatchPlanner(this.cqlSession, this.keyspace, this.executionOptions.getMaxBatchStatements(), this.executionOptions.getMaxBatchBytes()).plan(orderedChangeSets);
+    }
+
+    private void saveChangeSets(List<ChangeSet> orderedChangeSets, Set<String> completedIds, ExecutionMode executionMode, Consumer<ChangeSet> action,
+                                Function<ChangeSet, CompletionStage<?>> asyncAction) {
+        final ChangeSetGraph changeSetGraph = ChangeSetGraph.of(orderedChangeSets, completedIds);
+        if (ExecutionMode.SERIAL.equals(executionMode)) {
+            changeSetGraph.getTopologicalOrder().stream().map(changeSetGraph::getChangeSet).forEach(this.instrument(action));
         } else {
-            changeLog.getChangeSets().stream().sorted(Comparator.comparing(ChangeSet::getOrder)).forEach(this::execute);
+            this.saveChangeSetsAsync(changeSetGraph, executionMode, this.instrumentAsync(asyncAction));
         }
     }
 
-    private void saveChangeLogAsync(ChangeLog changeLog) {
-        final List<CompletableFuture<AsyncResultSet>> asyncResultSetCompletableFutureList = new ArrayList<>();
+    private void ensureNotCancelled() {
+        if (this.cancelled.get()) {
+            throw new CancellationException("Migration cancelled. [" + this.md5Key + "]");
+        }
+    }
+
+    private Consumer<ChangeSet> instrument(Consumer<ChangeSet> action) {
+        return changeSet -> {
+            this.ensureNotCancelled();
+            final long start = System.nanoTime();
+            final ChangeSetExecutionEvent changeSetExecutionEvent = new ChangeSetExecutionEvent();
+            changeSetExecutionEvent.begin();
+            try {
+                action.accept(changeSet);
+            } catch (RuntimeException | Error e) {
+                this.executed(changeSet, changeSetExecutionEvent, start, e);
+                throw e;
+            }
+            this.executed(changeSet, changeSetExecutionEvent, start, null);
+        };
+    }
 
-        changeLog.getChangeSets().stream().sorted(Comparator.comparing(ChangeSet::getOrder))
-                .forEach(changeSet -> {
-                    asyncResultSetCompletableFutureList.add(executeAsync(changeSet));
-                });
-        CompletableFuture.allOf(asyncResultSetCompletableFutureList.toArray(new CompletableFuture[0])).join();
-        for (CompletableFuture<AsyncResultSet> asyncResultSetCompletableFuture : asyncResultSetCompletableFutureList) {
+    private Function<ChangeSet, CompletionStage<?>> instrumentAsync(Function<ChangeSet, CompletionStage<?>> asyncAction) {
+        return changeSet -> {
+            this.ensureNotCancelled();
+            final long start = System.nanoTime();
+            final ChangeSetExecutionEvent changeSetExecutionEvent = new ChangeSetExecutionEvent();
+            changeSetExecutionEvent.begin();
+            final CompletionStage<?> completionStage;
             try {
-                asyncResultSetCompletableFuture.get();
-            } catch (InterruptedException | ExecutionException e) {
-                throw new RuntimeException(e);
+                completionStage = asyncAction.apply(changeSet);
+            } catch (RuntimeException | Error e) {
+                this.executed(changeSet, changeSetExecutionEvent, start, e);
+                throw e;
             }
+            return completionStage.whenComplete((result, throwable) -> this.executed(changeSet, changeSetExecutionEvent, start, throwable));
+        };
+    }
+
+    private void executed(ChangeSet changeSet, ChangeSetExecutionEvent changeSetExecutionEvent, long start, Throwable throwable) {
+        final Throwable failure = unwrap(throwable);
+        final int statements = changeSet instanceof BatchChangeSet batchChangeSet ? batchChangeSet.getChangeSets().size() : 1;
+        changeSetExecutionEvent.end();
+        if (changeSetExecutionEvent.shouldCommit()) {
+            changeSetExecutionEvent.changeSetId = changeSet.getId();
+            changeSetExecutionEvent.order = changeSet.getOrder();
+            changeSetExecutionEvent.author = changeSet.getAuthor();
+            changeSetExecutionEvent.kind = kind(changeSet);
+            changeSetExecutionEvent.statements = statements;
+            changeSetExecutionEvent.success = Objects.isNull(failure);
+            changeSetExecutionEvent.failure = Objects.isNull(failure) ? null : failure.toString();
+            changeSetExecutionEvent.commit();
+        }
+        if (Objects.isNull(failure)) {
+            this.appliedChangeSets.addAndGet(statements);
+        }
+        this.migrationEvents.emit(MigrationEvent.changeSet(this.identifier, this.keyspace, changeSet.getId(), changeSet.getOrder(), statements,
+                Duration.ofNanos(System.nanoTime() - start), failure));
+    }
+
+    private static String kind(ChangeSet changeSet) {
+        if (changeSet instanceof BatchChangeSet) {
+            return "batch";
+        }
+        if (changeSet instanceof LoadDataChangeSet) {
+            return "loadData";
+        }
+        if (changeSet instanceof BackfillChangeSet) {
+            return "backfill";
+        }
+        if (changeSet instanceof JavaChangeSetAdapter) {
+            return "java";
+        }
+        return "statement";
+    }
+
+    private void saveChangeSetsAsync(ChangeSetGraph changeSetGraph, ExecutionMode executionMode, Function<ChangeSet, CompletionStage<?>> asyncAction) {
+        log.debug("Executing {} changeSets by dependency graph. [ExecutionMode : {}]", changeSetGraph.size(), executionMode);
+        final ChangeSetGraphExecutor changeSetGraphExecutor;
+        if (ExecutionMode.SCHEMA_AGREEMENT_PIPELINED.equals(executionMode)) {
+            final SchemaAgreementAwaiter schemaAgreementAwaiter = new SchemaAgreementAwaiter(this.cqlSession, this.executionOptions.getSchemaAgreementTimeout(), this.executionOptions.getSchemaAgreementInterval());
+            changeSetGraphExecutor = new ChangeSetGraphExecutor(asyncAction, schemaAgreementAwaiter, this.executionOptions.getDdlGroupSize());
+        } else {
+            changeSetGraphExecutor = new ChangeSetGraphExecutor(asyncAction);
         }
+        changeSetGraphExecutor.execute(changeSetGraph).join();
+    }
+
+    private boolean isPending(ChangeSet changeSet, ChangelogHistoryEntity applied) {
+        if (Objects.isNull(applied)) {
+            return true;
+        }
+        if (!Objects.equals(applied.getMd5Sum(), changeSet.getMd5Sum())) {
+            log.info("ChangeSet has been changed since it was applied. Re-applying. [ChangeLogId: {}, Applied : {}, Current : {}]", changeSet.getId(), applied.getMd5Sum(), changeSet.getMd5Sum());
+            return true;
+        }
+        log.debug("ChangeSet already has been applied. [ChangeLogId: {}, AppliedAt : {}]", changeSet.getId(), applied.getAppliedAt());
+        return false;
+    }
+
+    private void markApplied(ChangeLog changeLog) {
+        try (Stream<ChangeSet> changeSets = changeLog.streamChangeSets()) {
+            changeSets.map(ChangeSet::getId).forEach(this.preChangeSetIds::add);
+        }
+    }
+
+    private void markApplied(List<ChangeSet> changeSets) {
+        changeSets.stream().map(ChangeSet::getId).forEach(this.preChangeSetIds::add);
     }
 
 
     private void execute(ChangeSet changeSet) {
-        SimpleStatement simpleStatement = SimpleStatement.newInstance(changeSet.getStatement()).setConsistencyLevel(changeSet.getConsistencyLevel());
+        if (changeSet instanceof JavaChangeSetAdapter javaChangeSetAdapter) {
+            this.executeJava(javaChangeSetAdapter).join();
+            return;
+        }
+        if (changeSet instanceof LoadDataChangeSet loadDataChangeSet) {
+            log.info("Loading data. [ChangeLogId: {}, Author : {}, Order : {}, Resource : {}]", changeSet.getId(), changeSet.getAuthor(), changeSet.getOrder(), loadDataChangeSet.getResource());
+            new CsvDataLoader(this.cqlSession, this.keyspace, this.executionOptions.getLoadDataConcurrency(), this.getExecutionThrottle()).load(loadDataChangeSet);
+            return;
+        }
+        if (changeSet instanceof BackfillChangeSet backfillChangeSet) {
+            log.info("Backfilling. [ChangeLogId: {}, Author : {}, Order : {}, Table : {}]", changeSet.getId(), changeSet.getAuthor(), changeSet.getOrder(), backfillChangeSet.getTable());
+            this.newBackfiller().backfill(backfillChangeSet, this.qualify(changeSet.getStatement()), this.getWorkerExecutor());
+            return;
+        }
+        final Optional<String> statement = this.introspect(changeSet);
+        if (statement.isEmpty()) {
+            return;
+        }
+        SimpleStatement simpleStatement = StatementFactory.statement(changeSet, statement.get());
         log.info("Updating Change log. [ChangeLogId: {}, Author : {}, Order : {}, RowKey : {}]", changeSet.getId(), changeSet.getAuthor(), changeSet.getOrder(), changeSet.getMd5Sum());
         cqlSession.execute(simpleStatement);
     }
 
-    private CompletableFuture<AsyncResultSet> executeAsync(ChangeSet changeSet) {
-        SimpleStatement simpleStatement = SimpleStatement.newInstance(changeSet.getStatement()).setConsistencyLevel(changeSet.getConsistencyLevel());
+    private void apply(ChangeSet changeSet) {
+        this.changelogLockLease.ensureHeld();
+        if (changeSet instanceof BatchChangeSet batchChangeSet) {
+            cqlSession.execute(this.toBatchStatement(batchChangeSet));
+            this.changelogHistoryRepository.saveAll(batchChangeSet.getChangeSets().stream().map(this::toHistory).toList());
+        } else {
+            this.execute(changeSet);
+            this.changelogHistoryRepository.save(this.toHistory(changeSet));
+        }
+        this.changelogCheckpoint.completed(orders(changeSet));
+    }
+
+    private CompletableFuture<AsyncResultSet> applyAsync(ChangeSet changeSet) {
+        this.changelogLockLease.ensureHeld();
+        if (changeSet instanceof BatchChangeSet batchChangeSet) {
+            final BatchStatement batchStatement = this.toBatchStatement(batchChangeSet);
+            return this.getExecutionThrottle().submit(() -> this.cqlSession.executeAsync(batchStatement))
+                    .thenCompose(asyncResultSet -> this.changelogHistoryRepository.saveAllAsync(batchChangeSet.getChangeSets().stream().map(this::toHistory).toList()))
+                    .whenComplete((asyncResultSet, throwable) -> this.checkpoint(changeSet, throwable));
+        }
+        return this.executeAsync(changeSet).thenCompose(asyncResultSet -> this.changelogHistoryRepository.saveAsync(this.toHistory(changeSet)))
+                .whenComplete((asyncResultSet, throwable) -> this.checkpoint(changeSet, throwable));
+    }
+
+    private void checkpoint(ChangeSet changeSet, Throwable throwable) {
+        if (Objects.isNull(throwable)) {
+            this.changelogCheckpoint.completed(orders(changeSet));
+        }
+    }
+
+    private static List<Integer> orders(ChangeSet changeSet) {
+        if (changeSet instanceof BatchChangeSet batchChangeSet) {
+            return batchChangeSet.getChangeSets().stream().map(ChangeSet::getOrder).toList();
+        }
+        return List.of(changeSet.getOrder());
+    }
+
+    private BatchStatement toBatchStatement(BatchChangeSet batchChangeSet) {
+        final StringJoiner ids = new StringJoiner(", ");
+        final BatchStatementBuilder builder = BatchStatement.builder(DefaultBatchType.UNLOGGED);
+        for (ChangeSet changeSet : batchChangeSet.getChangeSets()) {
+            builder.addStatement(SimpleStatement.newInstance(this.qualify(changeSet.getStatement())));
+            ids.add(changeSet.getId());
+        }
+        log.info("Updating Change log in batch. [ChangeLogIds: {}, Author : {}, Order : {}]", ids, batchChangeSet.getAuthor(), batchChangeSet.getOrder());
+        return StatementFactory.applyOptions(builder.build(), batchChangeSet);
+    }
+
+    private ChangelogHistoryEntity toHistory(ChangeSet changeSet) {
+        final ChangelogHistoryEntity changelogHistoryEntity = new ChangelogHistoryEntity();
+        changelogHistoryEntity.setMajorVersion(this.cassandraConfigs.getMajorVersion());
+        changelogHistoryEntity.setChangeSetId(changeSet.getId());
+        changelogHistoryEntity.setMd5Sum(changeSet.getMd5Sum());
+        changelogHistoryEntity.setAuthor(changeSet.getAuthor());
+        changelogHistoryEntity.setChangeSetOrder(changeSet.getOrder());
+        changelogHistoryEntity.setAppliedAt(Instant.now());
+        changelogHistoryEntity.setAppliedBy(this.identifier);
+        return changelogHistoryEntity;
+    }
+
+    private CompletableFuture<?> executeAsync(ChangeSet changeSet) {
+        if (changeSet instanceof LoadDataChangeSet loadDataChangeSet) {
+            log.info("Loading data asynchronously. [ChangeLogId: {}, Author : {}, Order : {}, Resource : {}]", changeSet.getId(), changeSet.getAuthor(), changeSet.getOrder(), loadDataChangeSet.getResource());
+            return new CsvDataLoader(this.cqlSession, this.keyspace, this.executionOptions.getLoadDataConcurrency(), this.getExecutionThrottle()).loadAsync(loadDataChangeSet, this.getWorkerExecutor());
+        }
+        if (changeSet instanceof BackfillChangeSet backfillChangeSet) {
+            log.info("Backfilling asynchronously. [ChangeLogId: {}, Author : {}, Order : {}, Table : {}]", changeSet.getId(), changeSet.getAuthor(), changeSet.getOrder(), backfillChangeSet.getTable());
+            return this.newBackfiller().backfillAsync(backfillChangeSet, this.qualify(changeSet.getStatement()), this.getWorkerExecutor());
+        }
+        if (changeSet instanceof JavaChangeSetAdapter javaChangeSetAdapter) {
+            return this.executeJava(javaChangeSetAdapter);
+        }
+        final Optional<String> statement = this.introspect(changeSet);
+        if (statement.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        SimpleStatement simpleStatement = StatementFactory.statement(changeSet, statement.get());
         log.info("Updating Change log asynchronously. [ChangeLogId: {}, Author : {}, Order : {}, RowKey : {}]", changeSet.getId(), changeSet.getAuthor(), changeSet.getOrder(), changeSet.getMd5Sum());
-        return this.cqlSession.executeAsync(simpleStatement).toCompletableFuture();
+        return this.getExecutionThrottle().submit(() -> this.cqlSession.executeAsync(simpleStatement));
     }
 
 
-    private CassandraConfigs getPrimaryChangeLog() throws SAXException {
-        try {
-            final CassandraConfigs cassandraConfigs = new CassandraConfigs();
-            String preChangeLogFile;
-            String changeLogFile;
-            {
-                final InputStream inputStream = this.classObject.getClass().getClassLoader().getResourceAsStream("db/changeset-config.xml");
-                final JAXBContext jaxbContext = JAXBContext.newInstance(CassandraBaseConfig.class);
-                final Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-                SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-                File file;
-                try (InputStream resourceAsStream = this.getClass().getClassLoader().getResourceAsStream("CassandraBaseConfig.xsd")) {
-                    Path path = Paths.get("CassandraBaseConfig.xsd");
-                    if (!Files.exists(path)) {
-                        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
-                            assert resourceAsStream != null;
-                            writer.write(new String(resourceAsStream.readAllBytes()));
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-                    file = path.toFile();
-                    Schema schema = schemaFactory.newSchema(file);
-                    jaxbUnmarshaller.setSchema(schema);
-                    final CassandraBaseConfig config = (CassandraBaseConfig) jaxbUnmarshaller.unmarshal(inputStream);
-                    preChangeLogFile = config.getPreChangeLog().getPath();
-                    changeLogFile = config.getChangeLog().getPath();
-                    cassandraConfigs.setMajorVersion(config.getMajorVersion());
-                }
-                if (file.exists()) {
-                    if (file.delete()) {
-                        log.debug("deleted temp file.");
-                    }
-                }
-            }
+    private TokenRangeBackfiller newBackfiller() {
+        return new TokenRangeBackfiller(this.cqlSession, this.keyspace, this.changelogBackfillRepository, this.cassandraConfigs.getMajorVersion(),
+                this.identifier, this.executionOptions, this.getExecutionThrottle(), this.changelogLockLease);
+    }
 
-            {
-                final JAXBContext jaxbContext = JAXBContext.newInstance(ChangeLog.class);
-                final Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-                cassandraConfigs.setPreChangeLog(new ChangeLog());
-                try (final InputStream changeLogFileStream = this.classObject.getClass().getClassLoader().getResourceAsStream("db/" + preChangeLogFile)) {
-                    final ChangeLog preChangeLog = (ChangeLog) jaxbUnmarshaller.unmarshal(changeLogFileStream);
-                    cassandraConfigs.setPreChangeLog(preChangeLog);
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-                cassandraConfigs.setChangeLog(new ChangeLog());
-                try (final InputStream changeLogFileStream = this.classObject.getClass().getClassLoader().getResourceAsStream("db/" + changeLogFile)) {
-                    final ChangeLog changeLog = (ChangeLog) jaxbUnmarshaller.unmarshal(changeLogFileStream);
-                    cassandraConfigs.setChangeLog(changeLog);
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-            this.validate(cassandraConfigs);
-            this.setProperties(cassandraConfigs);
-            return cassandraConfigs;
-        } catch (JAXBException | IOException e) {
-            throw new RuntimeException(e);
+    private synchronized ExecutionThrottle getExecutionThrottle() {
+        if (Objects.isNull(this.executionThrottle)) {
+            this.executionThrottle = new ExecutionThrottle(this.executionOptions.getMaxInFlight(), this.executionOptions.getStatementsPerSecond(),
+                    this.executionOptions.getOverloadRetries(), this.executionOptions.getOverloadBackoff(), this.executionOptions.getMaxOverloadBackoff());
         }
+        return this.executionThrottle;
     }
 
-    private void validate(CassandraConfigs cassandraConfigs) {
-        {
-            HashSet<ChangeSet> changeSetsByOrder = new HashSet<>();
-            HashSet<ChangeSet> changeSetsById = new HashSet<>();
-            cassandraConfigs.getPreChangeLog().getChangeSets().forEach(changeSet -> {
-                if (!changeSetsByOrder.add(changeSet)) {
-                    throw new RuntimeException("Duplicate changeSet found in preChangeLog. [Order : " + changeSet.getOrder() + "]");
-                }
-                if (!changeSetsById.add(changeSet)) {
-                    throw new RuntimeException("Duplicate changeSet found in preChangeLog. [ChangeSetId : " + changeSet.getId() + "]");
-                }
-            });
-        }
-        {
-            HashSet<ChangeSet> changeSetsByOrder = new HashSet<>();
-            HashSet<ChangeSet> changeSetsById = new HashSet<>();
-            cassandraConfigs.getChangeLog().getChangeSets().forEach(changeSet -> {
-                if (!changeSetsByOrder.add(changeSet)) {
-                    throw new RuntimeException("Duplicate changeSet found in post changeLog. [Order : " + changeSet.getOrder() + "]");
-                }
-                if (!changeSetsById.add(changeSet)) {
-                    throw new RuntimeException("Duplicate changeSet found in post changeLog. [ChangeSetId : " + changeSet.getId() + "]");
-                }
-            });
+    private Optional<String> introspect(ChangeSet changeSet) {
+        final String qualified = this.qualify(changeSet.getStatement());
+        if (Objects.isNull(this.ddlIntrospector)) {
+            return Optional.of(qualified);
+        }
+        final Optional<String> statement = this.ddlIntrospector.resolve(qualified);
+        if (statement.isEmpty()) {
+            log.info("Skipping DDL, the schema already has it. [ChangeLogId: {}, Author : {}, Order : {}]", changeSet.getId(), changeSet.getAuthor(), changeSet.getOrder());
+        } else if (!statement.get().equals(qualified)) {
+            log.info("DDL rewritten, the schema already has the object. [ChangeLogId: {}, Statement : {}]", changeSet.getId(), statement.get());
         }
+        return statement;
     }
 
-    @SuppressWarnings("unchecked")
-    private void setProperties(CassandraConfigs cassandraConfigs) {
-        cassandraConfigs.getChangeLog().getChangeSets().forEach(changeSet -> {
-            StringSubstitutor sub = new StringSubstitutor((Map) this.properties);
-            String updatedStatement = sub.replace(changeSet.getStatement());
-            changeSet.setStatement(updatedStatement);
-        });
-        cassandraConfigs.getPreChangeLog().getChangeSets().forEach(changeSet -> {
-            StringSubstitutor sub = new StringSubstitutor((Map) this.properties);
-            String updatedStatement = sub.replace(changeSet.getStatement());
-            changeSet.setStatement(updatedStatement);
-        });
+    private String qualify(String statement) {
+        return Objects.isNull(this.cqlKeyspaceQualifier) ? statement : this.cqlKeyspaceQualifier.qualify(statement);
+    }
+
+    private CompletableFuture<Void> executeJava(JavaChangeSetAdapter javaChangeSetAdapter) {
+        final JavaChangeSet javaChangeSet = javaChangeSetAdapter.getJavaChangeSet();
+        // java code may change the schema in ways the introspector cannot follow
+        Optional.ofNullable(this.ddlIntrospector).ifPresent(DdlIntrospector::invalidate);
+        log.info("Running java changeSet. [ChangeLogId: {}, Author : {}, Order : {}, Class : {}]", javaChangeSetAdapter.getId(), javaChangeSetAdapter.getAuthor(), javaChangeSetAdapter.getOrder(), javaChangeSet.getClass().getName());
+        return CompletableFuture.runAsync(() -> {
+            try {
+                javaChangeSet.execute(this.cqlSession);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException("Java changeSet failed. [ChangeSetId : " + javaChangeSetAdapter.getId() + "]", e);
+            }
+        }, this.getWorkerExecutor());
+    }
+
+    // loads and java changeSets block on I/O, so they get their own (virtual when available) threads
+    private synchronized ExecutorService getWorkerExecutor() {
+        if (Objects.isNull(this.workerExecutor)) {
+            this.workerExecutor = VirtualThreads.newThreadPerTaskExecutor("cassandrabase-worker");
+        }
+        return this.workerExecutor;
     }
 
+    /**
+     * Marks the version as done after a successful migration, or gives the lock up right away for another instance
+     * after a failed one.
+     */
     @Override
     public void close() {
+        final CompletableFuture<Void> running = this.migration;
+        if (Objects.nonNull(running) && !running.isDone()) {
+            log.info("Waiting for the asynchronous migration to stop before closing. [{}]", this.md5Key);
+            this.cancelled.set(true);
+            running.handle((result, throwable) -> null).join();
+        }
+        Optional.ofNullable(this.workerExecutor).ifPresent(ExecutorService::shutdown);
+        if (this.ownMigrationEvents) {
+            this.migrationEvents.close();
+        }
         if (this.updated.get()) {
-            if (this.changelogLockRepository.releaseLock(this.md5Key, this.cassandraConfigs.getMajorVersion(), this.identifier)) {
-                log.info("lock released successfully [{}]", this.md5Key);
+            Optional.ofNullable(this.changelogLockLease).ifPresent(ChangelogLockLease::close);
+            if (this.completed.get()) {
+                if (this.changelogLockRepository.releaseLock(this.md5Key, this.cassandraConfigs.getMajorVersion(), this.identifier)) {
+                    log.info("lock released successfully [{}]", this.md5Key);
+                } else {
+                    log.warn("lock released failed [{}]", this.md5Key);
+                }
+            } else if (this.changelogLockRepository.abandonLock(this.md5Key, this.cassandraConfigs.getMajorVersion(), this.identifier)) {
+                log.warn("Update did not complete. Lock given up for another instance to take over [{}]", this.md5Key);
             } else {
-                log.warn("lock released failed [{}]", this.md5Key);
+                log.warn("Update did not complete and the lock could not be given up. It will expire with its lease [{}]", this.md5Key);
             }
         }
     }
@@ -0,0 +1,54 @@
+package io.github.cassandrabase.lite;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A changeSet written in Java, for data transforms that do not fit in one CQL statement. It is registered with
+ * {@link Cassandrabase#addJavaChangeSet(JavaChangeSet, io.github.cassandrabase.lite.types.ChangeLogOrder)}, ordered and
+ * recorded in the history like the changeSets of a dynamic changeLog, and executed on a virtual thread (a daemon
+ * platform thread before Java 21), so blocking I/O in {@link #execute(CqlSession)} is cheap.
+ */
+public interface JavaChangeSet {
+
+    String getId();
+
+    Integer getOrder();
+
+    /**
+     * Identifies the version of the code; a changed checksum applies the changeSet again.
+     */
+    String getChecksum();
+
+    default String getAuthor() {
+        return this.getClass().getSimpleName();
+    }
+
+    /**
+     * Tables the changeSet reads or writes. Without them it runs alone, like any statement that cannot be analyzed;
+     * with them it runs concurrently with changeSets that touch other tables.
+     */
+    default Set<String> getTables() {
+        return Set.of();
+    }
+
+    default List<String> getDependsOn() {
+        return List.of();
+    }
+
+    void execute(CqlSession cqlSession) throws Exception;
+
+    /**
+     * Whether {@link #rollback(CqlSession)} undoes {@link #execute(CqlSession)}. A rollback stops before changing
+     * anything if one of its changeSets cannot be undone.
+     */
+    default boolean isReversible() {
+        return false;
+    }
+
+    default void rollback(CqlSession cqlSession) throws Exception {
+        throw new UnsupportedOperationException("Java changeSet cannot be rolled back. [ChangeSetId : " + this.getId() + "]");
+    }
+}
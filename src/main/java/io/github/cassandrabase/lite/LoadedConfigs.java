@@ -0,0 +1,111 @@
+package io.github.cassandrabase.lite;
+
+import io.github.cassandrabase.lite.event.ConfigLoadEvent;
+import io.github.cassandrabase.lite.exception.CassandrabaseException;
+import io.github.cassandrabase.lite.loader.ChangeLogLoader;
+import io.github.cassandrabase.lite.loader.StreamingChangeLog;
+import io.github.cassandrabase.lite.model.CassandraConfigs;
+import io.github.cassandrabase.lite.snapshot.ChangeLogSnapshot;
+import io.github.cassandrabase.lite.snapshot.StaleSnapshotException;
+import io.github.cassandrabase.lite.xml.ChangeLog;
+import io.github.cassandrabase.lite.xml.TemplateChangeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * The changelogs found by a class loader, with placeholders replaced, and what loading them took.
+ */
+final class LoadedConfigs {
+    private static final Logger log = LoggerFactory.getLogger(LoadedConfigs.class);
+    private final CassandraConfigs cassandraConfigs;
+    private final ClassLoader classLoader;
+    private final Properties properties;
+    private final Duration duration;
+    private final int changeSets;
+
+    private LoadedConfigs(CassandraConfigs cassandraConfigs, ClassLoader classLoader, Properties properties, Duration duration, int changeSets) {
+        this.cassandraConfigs = cassandraConfigs;
+        this.classLoader = classLoader;
+        this.properties = properties;
+        this.duration = duration;
+        this.changeSets = changeSets;
+    }
+
+    /**
+     * Reads the precompiled snapshot when there is one and it matches the changelog files, the XML otherwise.
+     */
+    static LoadedConfigs load(ClassLoader classLoader, Properties properties) throws CassandrabaseException {
+        final long start = System.nanoTime();
+        final ConfigLoadEvent configLoadEvent = new ConfigLoadEvent();
+        configLoadEvent.begin();
+        CassandraConfigs cassandraConfigs = null;
+        try (InputStream snapshotStream = classLoader.getResourceAsStream(ChangeLogSnapshot.RESOURCE)) {
+            if (Objects.nonNull(snapshotStream)) {
+                cassandraConfigs = ChangeLogSnapshot.read(snapshotStream, classLoader);
+                configLoadEvent.source = "snapshot";
+                log.info("Changelog loaded from precompiled snapshot. [{}]", ChangeLogSnapshot.RESOURCE);
+            }
+        } catch (StaleSnapshotException e) {
+            log.warn("Precompiled snapshot is stale, loading the XML changelogs instead. Rebuild to refresh it. [{}]", e.getMessage());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        if (Objects.isNull(cassandraConfigs)) {
+            try {
+                cassandraConfigs = ChangeLogLoader.load(classLoader);
+            } catch (SAXException e) {
+                throw new CassandrabaseException(e);
+            }
+            configLoadEvent.source = "xml";
+        }
+        ChangeLogLoader.setProperties(cassandraConfigs, properties);
+        final int changeSets = loadedChangeSets(cassandraConfigs.getPreChangeLog()) + loadedChangeSets(cassandraConfigs.getChangeLog());
+        configLoadEvent.end();
+        if (configLoadEvent.shouldCommit()) {
+            configLoadEvent.majorVersion = cassandraConfigs.getMajorVersion();
+            configLoadEvent.changeSets = changeSets;
+            configLoadEvent.commit();
+        }
+        return new LoadedConfigs(cassandraConfigs, classLoader, properties, Duration.ofNanos(System.nanoTime() - start), changeSets);
+    }
+
+    // a streamed changeLog is not read until it is applied, templates count their expansions without rendering them
+    private static int loadedChangeSets(ChangeLog changeLog) {
+        if (changeLog instanceof StreamingChangeLog) {
+            return 0;
+        }
+        return changeLog.getChangeSets().stream()
+                .mapToInt(changeSet -> changeSet instanceof TemplateChangeSet templateChangeSet && templateChangeSet.isResolved() ? templateChangeSet.size() : 1)
+                .sum();
+    }
+
+    CassandraConfigs getCassandraConfigs() {
+        return cassandraConfigs;
+    }
+
+    ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * The properties the placeholders were replaced with, also applied to dynamic changeLogs.
+     */
+    Properties getProperties() {
+        return properties;
+    }
+
+    Duration getDuration() {
+        return duration;
+    }
+
+    int getChangeSets() {
+        return changeSets;
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.cassandrabase.lite;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import io.github.cassandrabase.lite.event.MigrationEvent;
+import io.github.cassandrabase.lite.event.MigrationEvents;
+import io.github.cassandrabase.lite.event.MigrationListener;
+import io.github.cassandrabase.lite.exception.CassandrabaseException;
+import io.github.cassandrabase.lite.exception.KeyspaceMigrationException;
+import io.github.cassandrabase.lite.loader.StreamingChangeLog;
+import io.github.cassandrabase.lite.model.CassandraConfigs;
+import io.github.cassandrabase.lite.model.ExecutionOptions;
+import io.github.cassandrabase.lite.types.ExecutionMode;
+import io.github.cassandrabase.lite.xml.ChangeLog;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Migrates many keyspaces, e.g. one per tenant, with the same changelogs. They are loaded and validated once; each
+ * keyspace then gets its own lock, history and checkpoint in its own changelog tables, and unqualified names in the
+ * statements are qualified with the keyspace. At most {@link ExecutionOptions#getMaxConcurrentKeyspaces()} keyspaces
+ * are migrated at a time, over the one session.
+ * <p>
+ * The keyspaces must exist. A keyspace that fails does not stop the others; the failures are reported together at the
+ * end.
+ * <p>
+ * Digests are taken before qualification, so a keyspace migrated on its own before is recognized as up to date.
+ * Dynamic changeLogs, runnables and java changeSets belong to a single {@link Cassandrabase} and are not part of
+ * these migrations.
+ */
+public final class MultiKeyspaceCassandrabase implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(MultiKeyspaceCassandrabase.class);
+    private final CqlSession cqlSession;
+    private final String identifier;
+    private final LoadedConfigs loadedConfigs;
+    private final MigrationEvents migrationEvents;
+    private ExecutionOptions executionOptions = new ExecutionOptions();
+
+    public MultiKeyspaceCassandrabase(CqlSession cqlSession, String identifier, Object classObject) throws CassandrabaseException {
+        this(cqlSession, identifier, classObject, new Properties());
+    }
+
+    public MultiKeyspaceCassandrabase(CqlSession cqlSession, String identifier, Object classObject, Properties properties) throws CassandrabaseException {
+        this.cqlSession = cqlSession;
+        this.identifier = identifier;
+        this.loadedConfigs = LoadedConfigs.load(classObject.getClass().getClassLoader(), properties);
+        this.migrationEvents = new MigrationEvents(this.loadedConfigs.getClassLoader());
+        // digests are cached on the changeSets, computed here they are not raced for by the keyspaces
+        final CassandraConfigs cassandraConfigs = this.loadedConfigs.getCassandraConfigs();
+        warmUp(cassandraConfigs.getPreChangeLog());
+        warmUp(cassandraConfigs.getChangeLog());
+    }
+
+    private static void warmUp(ChangeLog changeLog) {
+        if (!(changeLog instanceof StreamingChangeLog)) {
+            changeLog.getChangeSets().forEach(ChangeSet::getMd5Sum);
+        }
+    }
+
+    public void setExecutionOptions(ExecutionOptions executionOptions) {
+        this.executionOptions = Objects.requireNonNull(executionOptions);
+    }
+
+    /**
+     * Registers a listener in addition to the ones found through {@code META-INF/services}. Events of all keyspaces
+     * are delivered, {@link MigrationEvent#getKeyspace()} tells them apart.
+     */
+    public void addMigrationListener(MigrationListener migrationListener) {
+        this.migrationEvents.addListener(Objects.requireNonNull(migrationListener));
+    }
+
+    public Flow.Publisher<MigrationEvent> getProgressPublisher() {
+        return this.migrationEvents.getPublisher();
+    }
+
+    public void validate(Collection<String> keyspaces) {
+        this.validate(keyspaces, ExecutionMode.SERIAL);
+    }
+
+    /**
+     * Migrates every keyspace and waits for all of them.
+     *
+     * @param keyspaces keyspace names as stored in the schema, i.e. case sensitive and unquoted
+     * @throws KeyspaceMigrationException if some keyspaces failed
+     */
+    public void validate(Collection<String> keyspaces, ExecutionMode executionMode) {
+        final List<String> orderedKeyspaces = new ArrayList<>(new LinkedHashSet<>(keyspaces));
+        final ExecutionOptions options = this.executionOptions;
+        log.info("Start migrating keyspaces... [Keyspaces : {}, Concurrency : {}, ExecutionMode : {}]", orderedKeyspaces.size(), options.getMaxConcurrentKeyspaces(), executionMode);
+        final AtomicInteger threads = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(options.getMaxConcurrentKeyspaces(), Math.max(1, orderedKeyspaces.size())), runnable -> {
+            final Thread thread = new Thread(runnable, "cassandrabase-keyspace-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final Map<String, CompletableFuture<Void>> migrations = new LinkedHashMap<>();
+        final Map<String, Throwable> failures = new LinkedHashMap<>();
+        try {
+            for (String keyspace : orderedKeyspaces) {
+                migrations.put(keyspace, CompletableFuture.runAsync(() -> this.migrate(keyspace, executionMode, options), executor));
+            }
+            migrations.forEach((keyspace, migration) -> {
+                try {
+                    migration.join();
+                } catch (CompletionException e) {
+                    failures.put(keyspace, Objects.nonNull(e.getCause()) ? e.getCause() : e);
+                }
+            });
+        } finally {
+            executor.shutdown();
+        }
+        if (!failures.isEmpty()) {
+            log.error("Migrated {} of {} keyspaces. [Failed : {}]", orderedKeyspaces.size() - failures.size(), orderedKeyspaces.size(), failures.keySet());
+            throw new KeyspaceMigrationException(failures.size() + " of " + orderedKeyspaces.size() + " keyspaces failed : " + failures.keySet(), failures);
+        }
+        log.info("Migrated {} keyspaces.", orderedKeyspaces.size());
+    }
+
+    private void migrate(String keyspace, ExecutionMode executionMode, ExecutionOptions options) {
+        log.info("Migrating keyspace. [Keyspace : {}]", keyspace);
+        try (Cassandrabase cassandrabase = new Cassandrabase(this.cqlSession, this.identifier, keyspace, this.loadedConfigs, this.migrationEvents)) {
+            cassandrabase.setExecutionOptions(options);
+            cassandrabase.validate(executionMode);
+        }
+    }
+
+    /**
+     * Completes the subscriptions of the progress publisher.
+     */
+    @Override
+    public void close() {
+        this.migrationEvents.close();
+    }
+}
@@ -0,0 +1,333 @@
+package io.github.cassandrabase.lite.cql;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Reads which keyspace, table, column, index, type or view a DDL statement creates, alters or drops. Like
+ * {@link CqlDmlParser}, anything it cannot read with certainty (renames, option changes, functions, ...) yields an
+ * empty result.
+ */
+public final class CqlDdlParser {
+
+    private CqlDdlParser() {
+    }
+
+    public static Optional<DdlStatement> parse(String statement) {
+        if (Objects.isNull(statement) || statement.isBlank()) {
+            return Optional.empty();
+        }
+        final List<String> tokens = new ArrayList<>(CqlTokenizer.tokenize(statement));
+        while (!tokens.isEmpty() && CqlDmlParser.is(tokens, tokens.size() - 1, ";")) {
+            tokens.remove(tokens.size() - 1);
+        }
+        if (CqlDmlParser.isKeyword(tokens, 0, "CREATE")) {
+            return parseCreate(tokens);
+        }
+        if (CqlDmlParser.isKeyword(tokens, 0, "DROP")) {
+            return parseDrop(tokens);
+        }
+        if (CqlDmlParser.isKeyword(tokens, 0, "ALTER") && isTable(tokens, 1)) {
+            return parseAlterTable(tokens);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<DdlStatement> parseCreate(List<String> tokens) {
+        if (CqlDmlParser.isKeyword(tokens, 1, "KEYSPACE") || CqlDmlParser.isKeyword(tokens, 1, "SCHEMA")) {
+            return simple(DdlStatement.Kind.CREATE_KEYSPACE, tokens, 2, true);
+        }
+        if (CqlDmlParser.isKeyword(tokens, 1, "TYPE")) {
+            return simple(DdlStatement.Kind.CREATE_TYPE, tokens, 2, false);
+        }
+        if (isTable(tokens, 1)) {
+            return parseCreateTable(tokens);
+        }
+        if (CqlDmlParser.isKeyword(tokens, 1, "MATERIALIZED") && CqlDmlParser.isKeyword(tokens, 2, "VIEW")) {
+            return parseCreateView(tokens);
+        }
+        if (CqlDmlParser.isKeyword(tokens, 1, "INDEX") || (CqlDmlParser.isKeyword(tokens, 1, "CUSTOM") && CqlDmlParser.isKeyword(tokens, 2, "INDEX"))) {
+            return parseCreateIndex(tokens, CqlDmlParser.isKeyword(tokens, 1, "CUSTOM") ? 3 : 2);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<DdlStatement> parseDrop(List<String> tokens) {
+        if (CqlDmlParser.isKeyword(tokens, 1, "KEYSPACE") || CqlDmlParser.isKeyword(tokens, 1, "SCHEMA")) {
+            return simple(DdlStatement.Kind.DROP_KEYSPACE, tokens, 2, true);
+        }
+        if (CqlDmlParser.isKeyword(tokens, 1, "TYPE")) {
+            return simple(DdlStatement.Kind.DROP_TYPE, tokens, 2, false);
+        }
+        if (isTable(tokens, 1)) {
+            return simple(DdlStatement.Kind.DROP_TABLE, tokens, 2, false);
+        }
+        if (CqlDmlParser.isKeyword(tokens, 1, "INDEX")) {
+            return simple(DdlStatement.Kind.DROP_INDEX, tokens, 2, false);
+        }
+        if (CqlDmlParser.isKeyword(tokens, 1, "MATERIALIZED") && CqlDmlParser.isKeyword(tokens, 2, "VIEW")) {
+            return simple(DdlStatement.Kind.DROP_VIEW, tokens, 3, false);
+        }
+        return Optional.empty();
+    }
+
+    // <kind> [IF [NOT] EXISTS] <name> ...; anything after the name (keyspace options, type fields) is not needed
+    private static Optional<DdlStatement> simple(DdlStatement.Kind kind, List<String> tokens, int index, boolean keyspace) {
+        final int start = skipCondition(tokens, index);
+        final List<String> name = new ArrayList<>();
+        final int end = parseName(tokens, start, name);
+        if (end < 0 || (keyspace && name.size() != 1)) {
+            return Optional.empty();
+        }
+        if (end < tokens.size() && !isCreate(kind)) {
+            return Optional.empty();
+        }
+        return Optional.of(new DdlStatement(kind, keyspace ? name.get(0) : keyspace(name), table(name), null, start != index,
+                Map.of(), List.of(), List.of()));
+    }
+
+    private static Optional<DdlStatement> parseCreateTable(List<String> tokens) {
+        final int start = skipCondition(tokens, 2);
+        final List<String> name = new ArrayList<>();
+        final int i = parseName(tokens, start, name);
+        if (i < 0 || !CqlDmlParser.is(tokens, i, "(")) {
+            return Optional.empty();
+        }
+        final Map<String, String> columns = new LinkedHashMap<>();
+        final List<String> partitionKey = new ArrayList<>();
+        final List<String> clusteringColumns = new ArrayList<>();
+        for (List<String> definition : CqlDmlParser.split(tokens, i + 1, true)) {
+            if (CqlDmlParser.isKeyword(definition, 0, "PRIMARY") && CqlDmlParser.isKeyword(definition, 1, "KEY") && CqlDmlParser.is(definition, 2, "(")) {
+                final List<List<String>> key = CqlDmlParser.split(definition, 3, true);
+                if (key.isEmpty() || key.get(0).isEmpty()) {
+                    return Optional.empty();
+                }
+                if (CqlDmlParser.is(key.get(0), 0, "(")) {
+                    CqlDmlParser.split(key.get(0), 1, false).forEach(column -> partitionKey.add(identifier(column.get(0))));
+                } else {
+                    partitionKey.add(identifier(key.get(0).get(0)));
+                }
+                key.subList(1, key.size()).forEach(column -> clusteringColumns.add(identifier(column.get(0))));
+            } else if (definition.size() > 1) {
+                final int primary = CqlDmlParser.find(definition, 1, "PRIMARY");
+                columns.put(identifier(definition.get(0)), type(definition, 1));
+                if (primary > 0) {
+                    partitionKey.add(identifier(definition.get(0)));
+                }
+            } else {
+                return Optional.empty();
+            }
+        }
+        if (partitionKey.isEmpty() || columns.isEmpty()) {
+            return Optional.empty();
+        }
+        final int end = CqlDmlParser.skipGroup(tokens, i);
+        final Map<String, String> orders = new HashMap<>();
+        boolean tableOptions = false;
+        if (end < tokens.size()) {
+            if (!CqlDmlParser.isKeyword(tokens, end, "WITH")) {
+                return Optional.empty();
+            }
+            for (List<String> option : options(tokens, end + 1)) {
+                if (!CqlDmlParser.isKeyword(option, 0, "CLUSTERING")) {
+                    tableOptions = true;
+                    continue;
+                }
+                if (!CqlDmlParser.isKeyword(option, 1, "ORDER") || !CqlDmlParser.isKeyword(option, 2, "BY") || !CqlDmlParser.is(option, 3, "(")) {
+                    return Optional.empty();
+                }
+                for (List<String> order : CqlDmlParser.split(option, 4, false)) {
+                    if (order.size() != 2 || !(CqlDmlParser.isKeyword(order, 1, "ASC") || CqlDmlParser.isKeyword(order, 1, "DESC"))) {
+                        return Optional.empty();
+                    }
+                    orders.put(identifier(order.get(0)), order.get(1).toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        if (!clusteringColumns.containsAll(orders.keySet())) {
+            return Optional.empty();
+        }
+        return Optional.of(new DdlStatement(DdlStatement.Kind.CREATE_TABLE, keyspace(name), table(name), null, start != 2, columns, partitionKey,
+                clusteringColumns, clusteringColumns.stream().map(column -> orders.getOrDefault(column, "asc")).toList(), tableOptions));
+    }
+
+    // the options of a WITH clause, separated by AND outside of brackets
+    private static List<List<String>> options(List<String> tokens, int start) {
+        final List<List<String>> options = new ArrayList<>();
+        List<String> option = new ArrayList<>();
+        int depth = 0;
+        for (int i = start; i < tokens.size(); i++) {
+            if (depth == 0 && CqlDmlParser.isKeyword(tokens, i, "AND")) {
+                options.add(option);
+                option = new ArrayList<>();
+            } else {
+                option.add(tokens.get(i));
+                depth += CqlDmlParser.depth(tokens.get(i), false);
+            }
+        }
+        options.add(option);
+        return options;
+    }
+
+    private static Optional<DdlStatement> parseCreateView(List<String> tokens) {
+        final int start = skipCondition(tokens, 3);
+        final List<String> name = new ArrayList<>();
+        final int i = parseName(tokens, start, name);
+        final int from = i < 0 ? -1 : CqlDmlParser.find(tokens, i, "FROM");
+        final List<String> base = new ArrayList<>();
+        if (from < 0 || parseName(tokens, from + 1, base) < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new DdlStatement(DdlStatement.Kind.CREATE_VIEW, keyspace(name), table(name), table(base), start != 3,
+                Map.of(), List.of(), List.of()));
+    }
+
+    // CREATE [CUSTOM] INDEX [IF NOT EXISTS] [name] ON <table> (<target>)
+    private static Optional<DdlStatement> parseCreateIndex(List<String> tokens, int index) {
+        final int start = skipCondition(tokens, index);
+        int i = start;
+        String indexName = null;
+        if (i < tokens.size() && !CqlDmlParser.isKeyword(tokens, i, "ON")) {
+            indexName = identifier(tokens.get(i));
+            i++;
+        }
+        if (!CqlDmlParser.isKeyword(tokens, i, "ON")) {
+            return Optional.empty();
+        }
+        final List<String> name = new ArrayList<>();
+        i = parseName(tokens, i + 1, name);
+        if (i < 0 || !CqlDmlParser.is(tokens, i, "(")) {
+            return Optional.empty();
+        }
+        final List<List<String>> targets = CqlDmlParser.split(tokens, i + 1, false);
+        if (targets.size() != 1 || targets.get(0).isEmpty()) {
+            return Optional.empty();
+        }
+        // keys(column), values(column), entries(column), full(column) or column
+        final List<String> target = targets.get(0);
+        final String column = target.size() == 4 && CqlDmlParser.is(target, 1, "(") ? identifier(target.get(2)) : target.size() == 1 ? identifier(target.get(0)) : null;
+        if (Objects.isNull(column)) {
+            return Optional.empty();
+        }
+        if (Objects.isNull(indexName)) {
+            // the name Cassandra gives an unnamed index
+            indexName = table(name) + "_" + column + "_idx";
+        }
+        return Optional.of(new DdlStatement(DdlStatement.Kind.CREATE_INDEX, keyspace(name), indexName, table(name), start != index,
+                Map.of(column, ""), List.of(), List.of()));
+    }
+
+    // ALTER TABLE <name> ADD [IF NOT EXISTS] <column> <type>[, ...] | DROP [IF EXISTS] <column>[, ...]
+    private static Optional<DdlStatement> parseAlterTable(List<String> tokens) {
+        final List<String> name = new ArrayList<>();
+        final int i = parseName(tokens, 2, name);
+        final boolean add = CqlDmlParser.isKeyword(tokens, i, "ADD");
+        if (i < 0 || !(add || CqlDmlParser.isKeyword(tokens, i, "DROP"))) {
+            return Optional.empty();
+        }
+        final int start = skipCondition(tokens, i + 1);
+        final boolean conditional = start != i + 1;
+        final boolean grouped = CqlDmlParser.is(tokens, start, "(");
+        if (grouped && CqlDmlParser.skipGroup(tokens, start) != tokens.size()) {
+            return Optional.empty();
+        }
+        final List<List<String>> definitions = CqlDmlParser.split(tokens, grouped ? start + 1 : start, true);
+        if (definitions.isEmpty()) {
+            return Optional.empty();
+        }
+        final Map<String, String> columns = new LinkedHashMap<>();
+        for (List<String> definition : definitions) {
+            if (definition.isEmpty() || (add && definition.size() < 2) || (!add && definition.size() != 1)
+                    || CqlDmlParser.find(definition, 0, "USING") >= 0 || CqlDmlParser.find(definition, 0, "WITH") >= 0) {
+                return Optional.empty();
+            }
+            columns.put(identifier(definition.get(0)), add ? type(definition, 1) : null);
+        }
+        return Optional.of(new DdlStatement(add ? DdlStatement.Kind.ALTER_TABLE_ADD : DdlStatement.Kind.ALTER_TABLE_DROP,
+                keyspace(name), table(name), null, conditional, columns, List.of(), List.of()));
+    }
+
+    /**
+     * The type as {@code system_schema.columns} spells it: lower case, without spaces, {@code varchar} as
+     * {@code text}.
+     */
+    public static String normalizeType(String type) {
+        final StringBuilder normalized = new StringBuilder();
+        for (String token : CqlTokenizer.tokenize(type)) {
+            normalized.append("varchar".equalsIgnoreCase(token) ? "text" : token.startsWith("\"") ? identifier(token) : token.toLowerCase(Locale.ROOT));
+        }
+        return normalized.toString();
+    }
+
+    private static String type(List<String> definition, int start) {
+        final StringBuilder type = new StringBuilder();
+        for (int i = start; i < definition.size(); i++) {
+            final String token = definition.get(i);
+            if ("STATIC".equalsIgnoreCase(token) || "PRIMARY".equalsIgnoreCase(token)) {
+                break;
+            }
+            type.append(token).append(' ');
+        }
+        return normalizeType(type.toString());
+    }
+
+    private static boolean isTable(List<String> tokens, int index) {
+        return CqlDmlParser.isKeyword(tokens, index, "TABLE") || CqlDmlParser.isKeyword(tokens, index, "COLUMNFAMILY");
+    }
+
+    private static boolean isCreate(DdlStatement.Kind kind) {
+        return kind.name().startsWith("CREATE");
+    }
+
+    // index after IF NOT EXISTS / IF EXISTS, or index itself
+    private static int skipCondition(List<String> tokens, int index) {
+        if (!CqlDmlParser.isKeyword(tokens, index, "IF")) {
+            return index;
+        }
+        return CqlDmlParser.isKeyword(tokens, index + 1, "NOT") ? index + 3 : index + 2;
+    }
+
+    // like CqlDmlParser.parseName, but quoted identifiers keep their case
+    private static int parseName(List<String> tokens, int index, List<String> parts) {
+        int i = index;
+        boolean more = true;
+        while (more && i < tokens.size()) {
+            final String token = tokens.get(i++);
+            if (token.startsWith("\"")) {
+                parts.add(identifier(token));
+            } else if (CqlDmlParser.isWord(token)) {
+                for (String part : token.split("\\.")) {
+                    if (!part.isEmpty()) {
+                        parts.add(identifier(part));
+                    }
+                }
+            } else {
+                return -1;
+            }
+            more = token.endsWith(".") || (i < tokens.size() && tokens.get(i).startsWith("."));
+        }
+        return parts.isEmpty() || parts.size() > 2 ? -1 : i;
+    }
+
+    static String identifier(String token) {
+        final String trimmed = token.trim();
+        if (trimmed.length() > 1 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1).replace("\"\"", "\"");
+        }
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static String keyspace(List<String> name) {
+        return name.size() == 2 ? name.get(0) : null;
+    }
+
+    private static String table(List<String> name) {
+        return name.get(name.size() - 1);
+    }
+}
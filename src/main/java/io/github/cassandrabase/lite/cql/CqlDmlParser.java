@@ -0,0 +1,248 @@
+package io.github.cassandrabase.lite.cql;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Extracts the table and literal key values of single-row INSERT/UPDATE/DELETE statements, and the primary key of
+ * {@code CREATE TABLE} statements. Anything it cannot read with certainty (JSON inserts, conditional statements,
+ * bind markers, ...) yields an empty result, so callers can always fall back to treating the statement as opaque.
+ */
+public final class CqlDmlParser {
+
+    private CqlDmlParser() {
+    }
+
+    public static Optional<DmlTarget> parse(String statement) {
+        if (Objects.isNull(statement) || statement.isBlank()) {
+            return Optional.empty();
+        }
+        final List<String> tokens = CqlTokenizer.tokenize(statement);
+        if (isKeyword(tokens, 0, "INSERT") && isKeyword(tokens, 1, "INTO")) {
+            return parseInsert(tokens);
+        }
+        if (isKeyword(tokens, 0, "UPDATE")) {
+            return parseConditions(tokens, 1);
+        }
+        if (isKeyword(tokens, 0, "DELETE")) {
+            final int from = find(tokens, 1, "FROM");
+            return from < 0 ? Optional.empty() : parseConditions(tokens, from + 1);
+        }
+        return Optional.empty();
+    }
+
+    public static Optional<TableDefinition> parseCreateTable(String statement) {
+        if (Objects.isNull(statement)) {
+            return Optional.empty();
+        }
+        final List<String> tokens = CqlTokenizer.tokenize(statement);
+        if (!isKeyword(tokens, 0, "CREATE") || !(isKeyword(tokens, 1, "TABLE") || isKeyword(tokens, 1, "COLUMNFAMILY"))) {
+            return Optional.empty();
+        }
+        int i = 2;
+        if (isKeyword(tokens, i, "IF")) {
+            i += 3;
+        }
+        final List<String> name = new ArrayList<>();
+        i = parseName(tokens, i, name);
+        if (i < 0 || !is(tokens, i, "(")) {
+            return Optional.empty();
+        }
+        final List<String> partitionKey = new ArrayList<>();
+        final List<String> clusteringColumns = new ArrayList<>();
+        boolean counter = false;
+        for (List<String> definition : split(tokens, i + 1, true)) {
+            if (isKeyword(definition, 0, "PRIMARY") && isKeyword(definition, 1, "KEY") && is(definition, 2, "(")) {
+                final List<List<String>> key = split(definition, 3, true);
+                if (key.isEmpty() || key.get(0).isEmpty()) {
+                    return Optional.empty();
+                }
+                if (is(key.get(0), 0, "(")) {
+                    split(key.get(0), 1, false).forEach(column -> partitionKey.add(CqlStatementAnalyzer.unquote(column.get(0))));
+                } else {
+                    partitionKey.add(CqlStatementAnalyzer.unquote(key.get(0).get(0)));
+                }
+                key.subList(1, key.size()).forEach(column -> clusteringColumns.add(CqlStatementAnalyzer.unquote(column.get(0))));
+            } else if (!definition.isEmpty()) {
+                counter |= definition.stream().anyMatch("counter"::equalsIgnoreCase);
+                if (find(definition, 1, "PRIMARY") > 0) {
+                    partitionKey.add(CqlStatementAnalyzer.unquote(definition.get(0)));
+                }
+            }
+        }
+        if (partitionKey.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new TableDefinition(keyspace(name), table(name), partitionKey, clusteringColumns, counter));
+    }
+
+    private static Optional<DmlTarget> parseInsert(List<String> tokens) {
+        final List<String> name = new ArrayList<>();
+        final int i = parseName(tokens, 2, name);
+        if (i < 0 || !is(tokens, i, "(")) {
+            return Optional.empty();
+        }
+        final List<List<String>> columns = split(tokens, i + 1, false);
+        final int values = skipGroup(tokens, i);
+        if (!isKeyword(tokens, values, "VALUES") || !is(tokens, values + 1, "(")) {
+            return Optional.empty();
+        }
+        final List<List<String>> expressions = split(tokens, values + 2, false);
+        if (columns.size() != expressions.size() || find(tokens, skipGroup(tokens, values + 1), "IF") >= 0) {
+            return Optional.empty();
+        }
+        final Map<String, String> literals = new HashMap<>();
+        for (int column = 0; column < columns.size(); column++) {
+            if (columns.get(column).size() == 1 && isLiteral(expressions.get(column))) {
+                literals.put(CqlStatementAnalyzer.unquote(columns.get(column).get(0)), expressions.get(column).get(0));
+            }
+        }
+        return Optional.of(new DmlTarget(keyspace(name), table(name), literals));
+    }
+
+    // UPDATE <name> ... WHERE ... and DELETE ... FROM <name> ... WHERE ...
+    private static Optional<DmlTarget> parseConditions(List<String> tokens, int nameIndex) {
+        final List<String> name = new ArrayList<>();
+        final int i = parseName(tokens, nameIndex, name);
+        final int where = i < 0 ? -1 : find(tokens, i, "WHERE");
+        if (where < 0) {
+            return Optional.empty();
+        }
+        final Map<String, String> literals = new HashMap<>();
+        int position = where + 1;
+        while (position < tokens.size() && !is(tokens, position, ";")) {
+            if (isKeyword(tokens, position, "IF")) {
+                return Optional.empty();
+            }
+            final int start = position;
+            int depth = 0;
+            while (position < tokens.size() && !(depth == 0 && (isKeyword(tokens, position, "AND") || isKeyword(tokens, position, "IF") || is(tokens, position, ";")))) {
+                depth += depth(tokens.get(position), false);
+                position++;
+            }
+            final List<String> condition = tokens.subList(start, position);
+            if (condition.size() > 2 && is(condition, 1, "=") && isLiteral(condition.subList(2, condition.size()))) {
+                literals.put(CqlStatementAnalyzer.unquote(condition.get(0)), condition.get(2));
+            }
+            if (isKeyword(tokens, position, "AND")) {
+                position++;
+            }
+        }
+        return Optional.of(new DmlTarget(keyspace(name), table(name), literals));
+    }
+
+    // a qualified name may be one word (ks.table) or several tokens ("ks" . "table", ks."Table")
+    private static int parseName(List<String> tokens, int index, List<String> parts) {
+        int i = index;
+        boolean more = true;
+        while (more && i < tokens.size()) {
+            final String token = tokens.get(i++);
+            if (token.startsWith("\"")) {
+                parts.add(CqlStatementAnalyzer.unquote(token));
+            } else if (isWord(token)) {
+                for (String part : token.split("\\.")) {
+                    if (!part.isEmpty()) {
+                        parts.add(CqlStatementAnalyzer.unquote(part));
+                    }
+                }
+            } else {
+                return -1;
+            }
+            more = token.endsWith(".") || (i < tokens.size() && tokens.get(i).startsWith("."));
+        }
+        return parts.isEmpty() || parts.size() > 2 ? -1 : i;
+    }
+
+    private static String keyspace(List<String> name) {
+        return name.size() == 2 ? name.get(0) : null;
+    }
+
+    private static String table(List<String> name) {
+        return name.get(name.size() - 1);
+    }
+
+    /**
+     * Comma separated items from {@code start} up to the bracket closing the group that {@code start} is in.
+     */
+    static List<List<String>> split(List<String> tokens, int start, boolean angleBrackets) {
+        final List<List<String>> items = new ArrayList<>();
+        List<String> item = new ArrayList<>();
+        int depth = 0;
+        for (int i = start; i < tokens.size(); i++) {
+            final String token = tokens.get(i);
+            final int change = depth(token, angleBrackets);
+            if (depth == 0 && change < 0) {
+                break;
+            }
+            if (depth == 0 && ",".equals(token)) {
+                items.add(item);
+                item = new ArrayList<>();
+            } else {
+                item.add(token);
+            }
+            depth += change;
+        }
+        if (!item.isEmpty()) {
+            items.add(item);
+        }
+        return items;
+    }
+
+    // index right after the bracket group opened at openIndex
+    static int skipGroup(List<String> tokens, int openIndex) {
+        int depth = 0;
+        for (int i = openIndex; i < tokens.size(); i++) {
+            depth += depth(tokens.get(i), false);
+            if (depth == 0) {
+                return i + 1;
+            }
+        }
+        return tokens.size();
+    }
+
+    static int depth(String token, boolean angleBrackets) {
+        return switch (token) {
+            case "(", "[", "{" -> 1;
+            case ")", "]", "}" -> -1;
+            case "<" -> angleBrackets ? 1 : 0;
+            case ">" -> angleBrackets ? -1 : 0;
+            default -> 0;
+        };
+    }
+
+    // a single constant: not a bind marker, function call, collection or arithmetic
+    private static boolean isLiteral(List<String> expression) {
+        if (expression.size() != 1) {
+            return false;
+        }
+        final String token = expression.get(0);
+        return token.startsWith("'") || (isWord(token) && !"null".equalsIgnoreCase(token));
+    }
+
+    static boolean isWord(String token) {
+        return !token.isEmpty() && (Character.isLetterOrDigit(token.charAt(0)) || token.charAt(0) == '_' || token.charAt(0) == '-' || token.charAt(0) == '.');
+    }
+
+    static int find(List<String> tokens, int start, String keyword) {
+        int depth = 0;
+        for (int i = start; i < tokens.size(); i++) {
+            if (depth == 0 && keyword.equalsIgnoreCase(tokens.get(i))) {
+                return i;
+            }
+            depth += depth(tokens.get(i), false);
+        }
+        return -1;
+    }
+
+    static boolean isKeyword(List<String> tokens, int index, String keyword) {
+        return index >= 0 && index < tokens.size() && keyword.equalsIgnoreCase(tokens.get(index));
+    }
+
+    static boolean is(List<String> tokens, int index, String token) {
+        return index >= 0 && index < tokens.size() && token.equals(tokens.get(index));
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.cassandrabase.lite.cql;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static io.github.cassandrabase.lite.cql.CqlDmlParser.isKeyword;
+import static io.github.cassandrabase.lite.cql.CqlDmlParser.isWord;
+
+/**
+ * Prefixes the unqualified table, view, index, type, function and aggregate names of a statement with a keyspace, so
+ * one changelog written against the session keyspace can be applied to any keyspace. Names that already have a
+ * keyspace and keyspace statements are left as they are; the rest of the text, literals included, is not touched.
+ */
+public final class CqlKeyspaceQualifier {
+    private static final Set<String> SCHEMA_CHANGES = Set.of("CREATE", "ALTER", "DROP");
+    private final String keyspace;
+
+    /**
+     * @param keyspace keyspace name as stored in the schema, i.e. case sensitive and unquoted
+     */
+    public CqlKeyspaceQualifier(String keyspace) {
+        this.keyspace = CqlIdentifier.fromInternal(keyspace).asCql(true) + ".";
+    }
+
+    public String qualify(String statement) {
+        final List<Integer> offsets = new ArrayList<>();
+        final List<String> tokens = CqlTokenizer.tokenize(statement, offsets);
+        final StringBuilder qualified = new StringBuilder(statement.length() + this.keyspace.length());
+        int copied = 0;
+        // the $$ body of a function is not CQL
+        for (int i = 0; i < tokens.size() && !"$".equals(tokens.get(i)); i++) {
+            final int name = nameIndex(tokens, i);
+            if (name >= 0 && isUnqualifiedName(tokens, name)) {
+                qualified.append(statement, copied, offsets.get(name)).append(this.keyspace);
+                copied = offsets.get(name);
+            }
+        }
+        return copied == 0 ? statement : qualified.append(statement, copied, statement.length()).toString();
+    }
+
+    // index of the name the keyword at i introduces, -1 if it introduces none
+    private static int nameIndex(List<String> tokens, int i) {
+        final String token = tokens.get(i).toUpperCase();
+        // schema changes start the statement, elsewhere TYPE or TABLE may well be a column
+        final boolean schemaChange = i == 1 && SCHEMA_CHANGES.contains(tokens.get(0).toUpperCase());
+        return switch (token) {
+            case "INTO" -> isKeyword(tokens, i - 1, "INSERT") ? i + 1 : -1;
+            // FROM of SELECT and DELETE, also within batches and materialized views
+            case "UPDATE", "FROM" -> i + 1;
+            case "TRUNCATE" -> i == 0 && !isKeyword(tokens, i + 1, "TABLE") ? i + 1 : -1;
+            case "TABLE" -> schemaChange || (i == 1 && isKeyword(tokens, 0, "TRUNCATE")) ? skipCondition(tokens, i + 1) : -1;
+            case "VIEW" -> i == 2 && isKeyword(tokens, 1, "MATERIALIZED") ? skipCondition(tokens, i + 1) : -1;
+            case "INDEX" -> i == 1 && isKeyword(tokens, 0, "DROP") ? skipCondition(tokens, i + 1) : -1;
+            // the table of CREATE INDEX and CREATE TRIGGER, the name of an index cannot be qualified
+            case "ON" -> isKeyword(tokens, 0, "CREATE") && (isKeyword(tokens, 1, "INDEX") || isKeyword(tokens, 2, "INDEX") || isKeyword(tokens, 1, "TRIGGER")) ? i + 1 : -1;
+            case "TYPE", "FUNCTION", "AGGREGATE" -> schemaChange || (i == 3 && isKeyword(tokens, 2, "REPLACE")) ? skipCondition(tokens, i + 1) : -1;
+            default -> -1;
+        };
+    }
+
+    private static int skipCondition(List<String> tokens, int index) {
+        if (!isKeyword(tokens, index, "IF")) {
+            return index;
+        }
+        return isKeyword(tokens, index + 1, "NOT") ? index + 3 : index + 2;
+    }
+
+    // ks.t is one token, "ks"."t" and "ks".t have the dot in front of the second, ks."t" at the end of the first
+    private static boolean isUnqualifiedName(List<String> tokens, int index) {
+        if (index >= tokens.size()) {
+            return false;
+        }
+        final String token = tokens.get(index);
+        final boolean identifier = token.startsWith("\"") || (isWord(token) && !Character.isDigit(token.charAt(0)) && token.charAt(0) != '-');
+        return identifier && token.indexOf('.') < 0 && !(index + 1 < tokens.size() && tokens.get(index + 1).startsWith("."));
+    }
+}
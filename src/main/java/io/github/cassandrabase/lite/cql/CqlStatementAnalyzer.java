@@ -0,0 +1,121 @@
+package io.github.cassandrabase.lite.cql;
+
+import io.github.cassandrabase.lite.types.StatementType;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class CqlStatementAnalyzer {
+    static final String IDENTIFIER = "(?:\"(?:[^\"]|\"\")+\"|[A-Za-z0-9_]+)";
+    static final String NAME = "(" + IDENTIFIER + "(?:\\s*\\.\\s*" + IDENTIFIER + ")?)";
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile(IDENTIFIER);
+    private static final int FLAGS = Pattern.CASE_INSENSITIVE | Pattern.DOTALL;
+
+    private static final Pattern CREATE_TABLE = Pattern.compile("^CREATE\\s+(?:TABLE|COLUMNFAMILY)\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?" + NAME, FLAGS);
+    private static final Pattern ALTER_TABLE = Pattern.compile("^ALTER\\s+(?:TABLE|COLUMNFAMILY)\\s+" + NAME, FLAGS);
+    private static final Pattern DROP_TABLE = Pattern.compile("^DROP\\s+(?:TABLE|COLUMNFAMILY)\\s+(?:IF\\s+EXISTS\\s+)?" + NAME, FLAGS);
+    private static final Pattern CREATE_INDEX = Pattern.compile("^CREATE\\s+(?:CUSTOM\\s+)?INDEX\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?(?:" + NAME + "\\s+)?ON\\s+" + NAME, FLAGS);
+    private static final Pattern CREATE_VIEW = Pattern.compile("^CREATE\\s+MATERIALIZED\\s+VIEW\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?" + NAME + "\\s+AS\\s+SELECT\\s+.*?\\s+FROM\\s+" + NAME, FLAGS);
+    private static final Pattern ALTER_VIEW = Pattern.compile("^ALTER\\s+MATERIALIZED\\s+VIEW\\s+" + NAME, FLAGS);
+    private static final Pattern TRUNCATE = Pattern.compile("^TRUNCATE\\s+(?:TABLE\\s+)?" + NAME, FLAGS);
+    private static final Pattern INSERT = Pattern.compile("^INSERT\\s+INTO\\s+" + NAME, FLAGS);
+    private static final Pattern UPDATE = Pattern.compile("^UPDATE\\s+" + NAME, FLAGS);
+    private static final Pattern DELETE = Pattern.compile("^DELETE\\s+.*?\\bFROM\\s+" + NAME, FLAGS);
+    private static final Pattern SELECT = Pattern.compile("^SELECT\\s+.*?\\bFROM\\s+" + NAME, FLAGS);
+    private static final Pattern SCHEMA_CHANGE = Pattern.compile("^(?:CREATE|ALTER|DROP)\\s+", FLAGS);
+
+    private CqlStatementAnalyzer() {
+    }
+
+    public static CqlStatementInfo analyze(String statement) {
+        if (Objects.isNull(statement) || statement.isBlank()) {
+            return barrier(StatementType.UNKNOWN);
+        }
+        final String cql = statement.trim();
+        Matcher matcher;
+        if ((matcher = CREATE_TABLE.matcher(cql)).find()
+                || (matcher = ALTER_TABLE.matcher(cql)).find()
+                || (matcher = DROP_TABLE.matcher(cql)).find()
+                || (matcher = ALTER_VIEW.matcher(cql)).find()) {
+            return of(StatementType.DDL, table(matcher.group(1)));
+        }
+        if ((matcher = CREATE_INDEX.matcher(cql)).find()) {
+            return Objects.isNull(matcher.group(1))
+                    ? of(StatementType.DDL, table(matcher.group(2)))
+                    : of(StatementType.DDL, table(matcher.group(2)), index(matcher.group(1)));
+        }
+        if ((matcher = CREATE_VIEW.matcher(cql)).find()) {
+            return of(StatementType.DDL, table(matcher.group(1)), table(matcher.group(2)));
+        }
+        if ((matcher = TRUNCATE.matcher(cql)).find()
+                || (matcher = INSERT.matcher(cql)).find()
+                || (matcher = UPDATE.matcher(cql)).find()
+                || (matcher = DELETE.matcher(cql)).find()
+                || (matcher = SELECT.matcher(cql)).find()) {
+            return of(StatementType.DML, table(matcher.group(1)));
+        }
+        // keyspaces, types, functions, DROP INDEX/VIEW (whose base table is not in the text), batches, USE, ...
+        return barrier(SCHEMA_CHANGE.matcher(cql).find() ? StatementType.DDL : StatementType.UNKNOWN);
+    }
+
+    /**
+     * Info of code that declares the tables it touches instead of a statement; none makes it a barrier.
+     */
+    public static CqlStatementInfo touching(Collection<String> tables) {
+        if (tables.isEmpty()) {
+            return barrier(StatementType.UNKNOWN);
+        }
+        return of(StatementType.DML, tables.stream().map(CqlStatementAnalyzer::table).toArray(String[]::new));
+    }
+
+    /**
+     * Info of a statement run for every row of a table, which it reads as well.
+     */
+    public static CqlStatementInfo reading(String table, String statement) {
+        final CqlStatementInfo info = analyze(statement);
+        if (info.isBarrier()) {
+            return info;
+        }
+        final LinkedHashSet<String> objects = new LinkedHashSet<>(info.getObjects());
+        objects.add(table(table));
+        return new CqlStatementInfo(info.getStatementType(), objects, false);
+    }
+
+    static String unqualifiedName(String name) {
+        final Matcher matcher = IDENTIFIER_PATTERN.matcher(name);
+        String last = name;
+        while (matcher.find()) {
+            last = matcher.group();
+        }
+        return unquote(last);
+    }
+
+    static String unquote(String identifier) {
+        final String trimmed = identifier.trim();
+        if (trimmed.length() > 1 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1).replace("\"\"", "\"").toLowerCase(Locale.ROOT);
+        }
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static String table(String name) {
+        return "table:" + unqualifiedName(name);
+    }
+
+    private static String index(String name) {
+        return "index:" + unqualifiedName(name);
+    }
+
+    private static CqlStatementInfo of(StatementType statementType, String... objects) {
+        return new CqlStatementInfo(statementType, new LinkedHashSet<>(Arrays.asList(objects)), false);
+    }
+
+    private static CqlStatementInfo barrier(StatementType statementType) {
+        return new CqlStatementInfo(statementType, new LinkedHashSet<>(), true);
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.cassandrabase.lite.cql;
+
+import io.github.cassandrabase.lite.types.StatementType;
+
+import java.util.Collections;
+import java.util.Set;
+
+public final class CqlStatementInfo {
+    private final StatementType statementType;
+    private final Set<String> objects;
+    private final boolean barrier;
+
+    CqlStatementInfo(StatementType statementType, Set<String> objects, boolean barrier) {
+        this.statementType = statementType;
+        this.objects = Collections.unmodifiableSet(objects);
+        this.barrier = barrier;
+    }
+
+    public StatementType getStatementType() {
+        return statementType;
+    }
+
+    /**
+     * Schema objects (tables, views, indexes) the statement reads or writes, keyed as {@code table:<name>} or
+     * {@code index:<name>}. Keyspace qualifiers are dropped, so two objects only look independent when they really are.
+     */
+    public Set<String> getObjects() {
+        return objects;
+    }
+
+    /**
+     * A barrier statement could not be tied to specific objects and must not run concurrently with anything else.
+     */
+    public boolean isBarrier() {
+        return barrier;
+    }
+
+    public boolean isDdl() {
+        return StatementType.DDL.equals(statementType);
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.cassandrabase.lite.cql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a CQL statement into identifiers/literals, string literals, quoted identifiers and single punctuation
+ * characters. Only as much lexing as the statement parsers of this package need.
+ */
+final class CqlTokenizer {
+
+    private CqlTokenizer() {
+    }
+
+    static List<String> tokenize(String statement) {
+        return tokenize(statement, new ArrayList<>());
+    }
+
+    /**
+     * @param offsets receives the start offset of every token in the statement
+     */
+    static List<String> tokenize(String statement, List<Integer> offsets) {
+        final List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < statement.length()) {
+            final char c = statement.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'' || c == '"') {
+                // '' and "" escape the quote inside
+                int end = i + 1;
+                while (end < statement.length()) {
+                    if (statement.charAt(end) == c) {
+                        if (end + 1 < statement.length() && statement.charAt(end + 1) == c) {
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    end++;
+                }
+                end = Math.min(end + 1, statement.length());
+                offsets.add(i);
+                tokens.add(statement.substring(i, end));
+                i = end;
+            } else if (isWordChar(c)) {
+                int end = i + 1;
+                while (end < statement.length() && isWordChar(statement.charAt(end))) {
+                    end++;
+                }
+                offsets.add(i);
+                tokens.add(statement.substring(i, end));
+                i = end;
+            } else {
+                offsets.add(i);
+                tokens.add(String.valueOf(c));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    // numbers, uuids, blobs and durations are single words; '.' is kept so qualified names stay one token
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '+' || c == '.';
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.cassandrabase.lite.cql;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The schema object a DDL statement creates, alters or drops. Names keep their case when quoted and are lower-cased
+ * otherwise, like in {@code system_schema}.
+ */
+public final class DdlStatement {
+    private final Kind kind;
+    private final String keyspace;
+    private final String name;
+    private final String table;
+    private final boolean conditional;
+    private final Map<String, String> columns;
+    private final List<String> partitionKey;
+    private final List<String> clusteringColumns;
+    private final List<String> clusteringOrder;
+    private final boolean tableOptions;
+
+    DdlStatement(Kind kind, String keyspace, String name, String table, boolean conditional,
+                 Map<String, String> columns, List<String> partitionKey, List<String> clusteringColumns) {
+        this(kind, keyspace, name, table, conditional, columns, partitionKey, clusteringColumns, List.of(), false);
+    }
+
+    DdlStatement(Kind kind, String keyspace, String name, String table, boolean conditional, Map<String, String> columns,
+                 List<String> partitionKey, List<String> clusteringColumns, List<String> clusteringOrder, boolean tableOptions) {
+        this.kind = kind;
+        this.keyspace = keyspace;
+        this.name = name;
+        this.table = table;
+        this.conditional = conditional;
+        this.columns = Collections.unmodifiableMap(columns);
+        this.partitionKey = Collections.unmodifiableList(partitionKey);
+        this.clusteringColumns = Collections.unmodifiableList(clusteringColumns);
+        this.clusteringOrder = Collections.unmodifiableList(clusteringOrder);
+        this.tableOptions = tableOptions;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * {@code null} when the object is not qualified, i.e. in the session keyspace. For a keyspace statement it is the
+     * keyspace itself.
+     */
+    public String getKeyspace() {
+        return keyspace;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The table of an index, or the base table of a view.
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * Whether the statement already has {@code IF NOT EXISTS} or {@code IF EXISTS}.
+     */
+    public boolean isConditional() {
+        return conditional;
+    }
+
+    /**
+     * Column name to normalized type for {@code CREATE TABLE} and {@code ALTER TABLE ... ADD}; the dropped columns,
+     * without type, for {@code ALTER TABLE ... DROP}.
+     */
+    public Map<String, String> getColumns() {
+        return columns;
+    }
+
+    public List<String> getPartitionKey() {
+        return partitionKey;
+    }
+
+    public List<String> getClusteringColumns() {
+        return clusteringColumns;
+    }
+
+    /**
+     * {@code asc} or {@code desc} for each clustering column of a {@code CREATE TABLE}, as {@code system_schema}
+     * spells it.
+     */
+    public List<String> getClusteringOrder() {
+        return clusteringOrder;
+    }
+
+    /**
+     * Whether a {@code CREATE TABLE} sets options besides the clustering order, e.g. compaction or a default TTL.
+     */
+    public boolean hasTableOptions() {
+        return tableOptions;
+    }
+
+    public enum Kind {
+        CREATE_KEYSPACE,
+        DROP_KEYSPACE,
+        CREATE_TABLE,
+        ALTER_TABLE_ADD,
+        ALTER_TABLE_DROP,
+        DROP_TABLE,
+        CREATE_INDEX,
+        DROP_INDEX,
+        CREATE_TYPE,
+        DROP_TYPE,
+        CREATE_VIEW,
+        DROP_VIEW
+    }
+}
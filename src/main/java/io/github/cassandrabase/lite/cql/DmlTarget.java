@@ -0,0 +1,38 @@
+package io.github.cassandrabase.lite.cql;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Table and literal column values (INSERT values, {@code WHERE column = literal}) of a single-row DML statement.
+ */
+public final class DmlTarget {
+    private final String keyspace;
+    private final String table;
+    private final Map<String, String> values;
+
+    DmlTarget(String keyspace, String table, Map<String, String> values) {
+        this.keyspace = keyspace;
+        this.table = table;
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * {@code null} when the table is not qualified, i.e. in the session keyspace.
+     */
+    public String getKeyspace() {
+        return keyspace;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * Literal value text by lower-case column name. Function calls, bind markers and non-equality conditions are
+     * not included.
+     */
+    public Map<String, String> getValues() {
+        return values;
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.cassandrabase.lite.cql;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Primary key of a table, by lower-case column name, either parsed from a {@code CREATE TABLE} statement or read
+ * from the driver metadata.
+ */
+public final class TableDefinition {
+    private final String keyspace;
+    private final String table;
+    private final List<String> partitionKey;
+    private final List<String> clusteringColumns;
+    private final boolean counter;
+
+    TableDefinition(String keyspace, String table, List<String> partitionKey, List<String> clusteringColumns, boolean counter) {
+        this.keyspace = keyspace;
+        this.table = table;
+        this.partitionKey = Collections.unmodifiableList(partitionKey);
+        this.clusteringColumns = Collections.unmodifiableList(clusteringColumns);
+        this.counter = counter;
+    }
+
+    /**
+     * Looks the table up in the schema metadata of the driver; an unqualified table is looked up in the session
+     * keyspace.
+     */
+    public static Optional<TableDefinition> fromMetadata(CqlSession cqlSession, String keyspace, String table) {
+        final Optional<CqlIdentifier> keyspaceId = Objects.nonNull(keyspace) ? Optional.of(CqlIdentifier.fromInternal(keyspace)) : cqlSession.getKeyspace();
+        return keyspaceId.flatMap(id -> cqlSession.getMetadata().getKeyspace(id))
+                .flatMap(keyspaceMetadata -> keyspaceMetadata.getTable(CqlIdentifier.fromInternal(table)))
+                .map(tableMetadata -> of(keyspace, tableMetadata));
+    }
+
+    private static TableDefinition of(String keyspace, TableMetadata tableMetadata) {
+        return new TableDefinition(keyspace, tableMetadata.getName().asInternal(),
+                tableMetadata.getPartitionKey().stream().map(column -> column.getName().asInternal()).toList(),
+                tableMetadata.getClusteringColumns().keySet().stream().map(column -> column.getName().asInternal()).toList(),
+                tableMetadata.getColumns().values().stream().map(ColumnMetadata::getType).anyMatch(DataTypes.COUNTER::equals));
+    }
+
+    /**
+     * {@code null} when the table is not qualified, i.e. in the session keyspace.
+     */
+    public String getKeyspace() {
+        return keyspace;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public List<String> getPartitionKey() {
+        return partitionKey;
+    }
+
+    public List<String> getClusteringColumns() {
+        return clusteringColumns;
+    }
+
+    /**
+     * Counter tables cannot be written in a regular batch.
+     */
+    public boolean isCounter() {
+        return counter;
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.cassandrabase.lite.digest;
+
+import io.github.cassandrabase.lite.util.HashGen;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Binary hash tree over the digests of ordered changeSets. Leaf {@code i} is changeSet {@code i}; the node at
+ * level {@code l}, index {@code i} always covers leaves {@code [i * 2^l, (i + 1) * 2^l)}, an unpaired last node is
+ * carried up unchanged. Two trees built with the same algorithm have equal roots only if every changeSet matches,
+ * and {@link #diff(MerkleTree)} only descends into subtrees whose hashes differ.
+ */
+public final class MerkleTree {
+    private static final String LEAF_PREFIX = "0#";
+    private static final String NODE_PREFIX = "1#";
+    private final HashGen.ALGType algType;
+    // levels.get(0) are the leaves, the last level holds the root
+    private final List<String[]> levels;
+
+    private MerkleTree(HashGen.ALGType algType, List<String[]> levels) {
+        this.algType = algType;
+        this.levels = levels;
+    }
+
+    public static MerkleTree of(Stream<ChangeSet> orderedChangeSets, HashGen.ALGType algType) {
+        return ofDigests(orderedChangeSets.map(changeSet -> changeSet.getDigest(algType)).toList(), algType);
+    }
+
+    public static MerkleTree ofDigests(List<String> digests, HashGen.ALGType algType) {
+        final List<String[]> levels = new ArrayList<>();
+        String[] level = new String[digests.size()];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = HashGen.generateHash(LEAF_PREFIX + digests.get(i), algType);
+        }
+        levels.add(level);
+        while (level.length > 1) {
+            final String[] parent = new String[(level.length + 1) / 2];
+            for (int i = 0; i < parent.length; i++) {
+                final int left = 2 * i;
+                parent[i] = left + 1 < level.length
+                        ? HashGen.generateHash(NODE_PREFIX + level[left] + level[left + 1], algType)
+                        : level[left];
+            }
+            levels.add(parent);
+            level = parent;
+        }
+        return new MerkleTree(algType, levels);
+    }
+
+    public HashGen.ALGType getAlgType() {
+        return algType;
+    }
+
+    public int getLeafCount() {
+        return levels.get(0).length;
+    }
+
+    public int getHeight() {
+        return levels.size();
+    }
+
+    /**
+     * Hash of the whole tree, {@code null} when there are no changeSets.
+     */
+    public String getRootHash() {
+        final String[] root = levels.get(levels.size() - 1);
+        return root.length == 0 ? null : root[0];
+    }
+
+    /**
+     * Hash of the node at the given level (0 = leaves) and index, {@code null} if the tree has no such node. Lets a
+     * peer fetch only the nodes it needs to compare.
+     */
+    public String getHash(int level, int index) {
+        if (level < 0 || level >= levels.size()) {
+            return null;
+        }
+        final String[] hashes = levels.get(level);
+        return index < 0 || index >= hashes.length ? null : hashes[index];
+    }
+
+    /**
+     * Indexes of the changeSets that differ from the other tree, including changeSets only one side has. Costs
+     * O(d log n) hash comparisons for d differing changeSets.
+     */
+    public List<Integer> diff(MerkleTree other) {
+        if (!Objects.equals(this.algType, other.algType)) {
+            throw new RuntimeException("Merkle trees use different hash algorithms. [" + this.algType + ", " + other.algType + "]");
+        }
+        final List<Integer> differences = new ArrayList<>();
+        final int top = Math.max(this.getHeight(), other.getHeight()) - 1;
+        this.diff(other, top, 0, differences);
+        return differences;
+    }
+
+    private void diff(MerkleTree other, int level, int index, List<Integer> differences) {
+        if (Objects.isNull(this.getHash(level, index)) && Objects.isNull(other.getHash(level, index))) {
+            return;
+        }
+        if (Objects.equals(this.nodeHash(level, index), other.nodeHash(level, index))) {
+            return;
+        }
+        if (level == 0) {
+            differences.add(index);
+            return;
+        }
+        this.diff(other, level - 1, 2 * index, differences);
+        this.diff(other, level - 1, 2 * index + 1, differences);
+    }
+
+    // above the root of the shorter tree its root stands for the whole range, so carry it up
+    private String nodeHash(int level, int index) {
+        if (level >= levels.size()) {
+            return index == 0 ? this.getRootHash() : null;
+        }
+        return this.getHash(level, index);
+    }
+}
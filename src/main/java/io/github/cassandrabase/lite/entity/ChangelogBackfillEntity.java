@@ -0,0 +1,96 @@
+package io.github.cassandrabase.lite.entity;
+
+import java.time.Instant;
+
+public class ChangelogBackfillEntity {
+    private Integer majorVersion;
+    private String changeSetId;
+    private Long rangeStart;
+    private Long rangeEnd;
+    private String md5Sum;
+    private Long rowCount;
+    private Instant completedAt;
+    private String completedBy;
+
+    public Integer getMajorVersion() {
+        return majorVersion;
+    }
+
+    public void setMajorVersion(Integer majorVersion) {
+        this.majorVersion = majorVersion;
+    }
+
+    public String getChangeSetId() {
+        return changeSetId;
+    }
+
+    public void setChangeSetId(String changeSetId) {
+        this.changeSetId = changeSetId;
+    }
+
+    /**
+     * Exclusive start token of the range.
+     */
+    public Long getRangeStart() {
+        return rangeStart;
+    }
+
+    public void setRangeStart(Long rangeStart) {
+        this.rangeStart = rangeStart;
+    }
+
+    /**
+     * Inclusive end token of the range.
+     */
+    public Long getRangeEnd() {
+        return rangeEnd;
+    }
+
+    public void setRangeEnd(Long rangeEnd) {
+        this.rangeEnd = rangeEnd;
+    }
+
+    public String getMd5Sum() {
+        return md5Sum;
+    }
+
+    public void setMd5Sum(String md5Sum) {
+        this.md5Sum = md5Sum;
+    }
+
+    public Long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(Long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public String getCompletedBy() {
+        return completedBy;
+    }
+
+    public void setCompletedBy(String completedBy) {
+        this.completedBy = completedBy;
+    }
+
+    public interface Keys {
+        String TABLE_NAME = "changelog_backfill";
+        String MAJOR_VERSION = "major_version";
+        String CHANGE_SET_ID = "change_set_id";
+        String RANGE_START = "range_start";
+        String RANGE_END = "range_end";
+        String MD5_SUM = "md5_sum";
+        String ROW_COUNT = "row_count";
+        String COMPLETED_AT = "completed_at";
+        String COMPLETED_BY = "completed_by";
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.cassandrabase.lite.entity;
+
+import java.time.Instant;
+
+public class ChangelogHistoryEntity {
+    private Integer majorVersion;
+    private String changeSetId;
+    private String md5Sum;
+    private String author;
+    private Integer changeSetOrder;
+    private Instant appliedAt;
+    private String appliedBy;
+
+    public Integer getMajorVersion() {
+        return majorVersion;
+    }
+
+    public void setMajorVersion(Integer majorVersion) {
+        this.majorVersion = majorVersion;
+    }
+
+    public String getChangeSetId() {
+        return changeSetId;
+    }
+
+    public void setChangeSetId(String changeSetId) {
+        this.changeSetId = changeSetId;
+    }
+
+    public String getMd5Sum() {
+        return md5Sum;
+    }
+
+    public void setMd5Sum(String md5Sum) {
+        this.md5Sum = md5Sum;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public Integer getChangeSetOrder() {
+        return changeSetOrder;
+    }
+
+    public void setChangeSetOrder(Integer changeSetOrder) {
+        this.changeSetOrder = changeSetOrder;
+    }
+
+    public Instant getAppliedAt() {
+        return appliedAt;
+    }
+
+    public void setAppliedAt(Instant appliedAt) {
+        this.appliedAt = appliedAt;
+    }
+
+    public String getAppliedBy() {
+        return appliedBy;
+    }
+
+    public void setAppliedBy(String appliedBy) {
+        this.appliedBy = appliedBy;
+    }
+
+    public interface Keys {
+        String TABLE_NAME = "changelog_history";
+        String MAJOR_VERSION = "major_version";
+        String CHANGE_SET_ID = "change_set_id";
+        String MD5_SUM = "md5_sum";
+        String AUTHOR = "author";
+        String CHANGE_SET_ORDER = "change_set_order";
+        String APPLIED_AT = "applied_at";
+        String APPLIED_BY = "applied_by";
+    }
+}
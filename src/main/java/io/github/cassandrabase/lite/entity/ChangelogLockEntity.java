@@ -7,6 +7,9 @@ public class ChangelogLockEntity {
     private Boolean locked;
     private Instant lockTime;
     private String lockedBy;
+    private String checkpointPhase;
+    private Integer checkpointOrder;
+    private Instant checkpointTime;
 
     public String getId() {
         return id;
@@ -40,6 +43,30 @@ public class ChangelogLockEntity {
         this.lockTime = lockTime;
     }
 
+    public String getCheckpointPhase() {
+        return checkpointPhase;
+    }
+
+    public void setCheckpointPhase(String checkpointPhase) {
+        this.checkpointPhase = checkpointPhase;
+    }
+
+    public Integer getCheckpointOrder() {
+        return checkpointOrder;
+    }
+
+    public void setCheckpointOrder(Integer checkpointOrder) {
+        this.checkpointOrder = checkpointOrder;
+    }
+
+    public Instant getCheckpointTime() {
+        return checkpointTime;
+    }
+
+    public void setCheckpointTime(Instant checkpointTime) {
+        this.checkpointTime = checkpointTime;
+    }
+
     public interface Keys {
         String TABLE_NAME = "changelog_lock";
         String ID = "id";
@@ -47,5 +74,8 @@ public class ChangelogLockEntity {
         String LOCKED = "locked";
         String LOCK_TIME = "lock_time";
         String LOCKED_BY = "locked_by";
+        String CHECKPOINT_PHASE = "checkpoint_phase";
+        String CHECKPOINT_ORDER = "checkpoint_order";
+        String CHECKPOINT_TIME = "checkpoint_time";
     }
 }
@@ -0,0 +1,32 @@
+package io.github.cassandrabase.lite.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.github.cassandrabase.ChangeSetExecution")
+@Label("ChangeSet Execution")
+@Category("Cassandrabase")
+public class ChangeSetExecutionEvent extends Event {
+    @Label("ChangeSet Id")
+    public String changeSetId;
+
+    @Label("Order")
+    public int order;
+
+    @Label("Author")
+    public String author;
+
+    @Label("Kind")
+    public String kind;
+
+    @Label("Statements")
+    public int statements;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Failure")
+    public String failure;
+}
@@ -0,0 +1,23 @@
+package io.github.cassandrabase.lite.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.github.cassandrabase.ConfigLoad")
+@Label("Changelog Load")
+@Category("Cassandrabase")
+@Description("Loading the changelogs, from the precompiled snapshot or the XML")
+public class ConfigLoadEvent extends Event {
+    @Label("Source")
+    public String source;
+
+    @Label("Major Version")
+    public int majorVersion;
+
+    @Label("ChangeSets")
+    @Description("ChangeSets of the pre changeLog and the static changeLog, streamed changeLogs not counted")
+    public int changeSets;
+}
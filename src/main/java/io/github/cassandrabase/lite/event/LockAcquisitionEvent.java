@@ -0,0 +1,27 @@
+package io.github.cassandrabase.lite.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.github.cassandrabase.LockAcquisition")
+@Label("Changelog Lock Acquisition")
+@Category("Cassandrabase")
+@Description("Acquiring the changelog lock, including the time spent waiting for another instance")
+public class LockAcquisitionEvent extends Event {
+    @Label("Lock Id")
+    public String lockId;
+
+    @Label("Major Version")
+    public int majorVersion;
+
+    @Label("Acquired")
+    @Description("False when another instance already migrated the version")
+    public boolean acquired;
+
+    @Label("Polls")
+    @Description("Times the lock was found held by another instance")
+    public int polls;
+}
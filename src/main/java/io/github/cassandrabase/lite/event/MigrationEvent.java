@@ -0,0 +1,114 @@
+package io.github.cassandrabase.lite.event;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Progress of a migration, as delivered to {@link MigrationListener}s and the progress publisher of
+ * {@code Cassandrabase}. Which fields are set depends on the {@link Type}.
+ */
+public final class MigrationEvent {
+    private final Type type;
+    private final Instant time = Instant.now();
+    private final String identifier;
+    private final String keyspace;
+    private final Duration duration;
+    private final String changeSetId;
+    private final Integer order;
+    private final int statements;
+    private final Throwable failure;
+
+    private MigrationEvent(Type type, String identifier, String keyspace, Duration duration, String changeSetId, Integer order, int statements, Throwable failure) {
+        this.type = type;
+        this.identifier = identifier;
+        this.keyspace = keyspace;
+        this.duration = duration;
+        this.changeSetId = changeSetId;
+        this.order = order;
+        this.statements = statements;
+        this.failure = failure;
+    }
+
+    public static MigrationEvent configLoaded(String identifier, String keyspace, Duration duration, int changeSets) {
+        return new MigrationEvent(Type.CONFIG_LOADED, identifier, keyspace, duration, null, null, changeSets, null);
+    }
+
+    /**
+     * @param duration time spent acquiring the lock, including waiting for another instance
+     */
+    public static MigrationEvent lock(Type type, String identifier, String keyspace, Duration duration) {
+        return new MigrationEvent(type, identifier, keyspace, duration, null, null, 0, null);
+    }
+
+    public static MigrationEvent changeSet(String identifier, String keyspace, String changeSetId, Integer order, int statements, Duration duration, Throwable failure) {
+        return new MigrationEvent(Objects.isNull(failure) ? Type.CHANGE_SET_APPLIED : Type.CHANGE_SET_FAILED, identifier, keyspace, duration, changeSetId, order, statements, failure);
+    }
+
+    public static MigrationEvent migration(String identifier, String keyspace, Duration duration, int changeSets, Throwable failure) {
+        return new MigrationEvent(Objects.isNull(failure) ? Type.MIGRATION_COMPLETED : Type.MIGRATION_FAILED, identifier, keyspace, duration, null, null, changeSets, failure);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Instant getTime() {
+        return time;
+    }
+
+    /**
+     * The instance running the migration.
+     */
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    /**
+     * The keyspace being migrated, {@code null} if the session has none.
+     */
+    public String getKeyspace() {
+        return keyspace;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public String getChangeSetId() {
+        return changeSetId;
+    }
+
+    public Integer getOrder() {
+        return order;
+    }
+
+    /**
+     * Statements of a batched changeSet, changeSets loaded or applied for the other types.
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return "MigrationEvent[" + type + ", " + identifier + ", " + keyspace + (Objects.isNull(changeSetId) ? "" : ", " + changeSetId) + ", " + duration + "]";
+    }
+
+    public enum Type {
+        CONFIG_LOADED,
+        LOCK_ACQUIRED,
+        /**
+         * Another instance already migrated this version, nothing is applied.
+         */
+        LOCK_NOT_NEEDED,
+        CHANGE_SET_APPLIED,
+        CHANGE_SET_FAILED,
+        MIGRATION_COMPLETED,
+        MIGRATION_FAILED
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.cassandrabase.lite.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * Delivers {@link MigrationEvent}s to the listeners, synchronously, and to the subscribers of {@link #getPublisher()},
+ * asynchronously with per-subscriber buffers. A failing listener or a slow subscriber never fails or blocks the
+ * migration: subscribers whose buffer is full miss events.
+ */
+public final class MigrationEvents implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(MigrationEvents.class);
+    private final List<MigrationListener> listeners = new CopyOnWriteArrayList<>();
+    private final SubmissionPublisher<MigrationEvent> publisher = new SubmissionPublisher<>();
+
+    public MigrationEvents(ClassLoader classLoader) {
+        ServiceLoader.load(MigrationListener.class, classLoader).forEach(listener -> {
+            log.debug("MigrationListener found : {}", listener.getClass().getName());
+            this.listeners.add(listener);
+        });
+    }
+
+    public void addListener(MigrationListener listener) {
+        this.listeners.add(listener);
+    }
+
+    public Flow.Publisher<MigrationEvent> getPublisher() {
+        return publisher;
+    }
+
+    public void emit(MigrationEvent event) {
+        for (MigrationListener listener : this.listeners) {
+            try {
+                listener.onEvent(event);
+            } catch (RuntimeException e) {
+                log.warn("MigrationListener failed. [{}, {}]", listener.getClass().getName(), event, e);
+            }
+        }
+        if (this.publisher.hasSubscribers()) {
+            this.publisher.offer(event, (subscriber, dropped) -> {
+                log.debug("Progress subscriber is behind, event dropped. [{}]", dropped);
+                return false;
+            });
+        }
+    }
+
+    /**
+     * Completes the subscriptions.
+     */
+    @Override
+    public void close() {
+        this.publisher.close();
+    }
+}
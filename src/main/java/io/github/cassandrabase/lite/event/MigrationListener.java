@@ -0,0 +1,12 @@
+package io.github.cassandrabase.lite.event;
+
+/**
+ * Receives the progress of migrations, e.g. to record latency histograms. Implementations are found with
+ * {@link java.util.ServiceLoader} on the classpath of the changelogs or registered with
+ * {@code Cassandrabase.addMigrationListener}. Events of parallel changeSets arrive concurrently from driver threads,
+ * so implementations must be thread-safe and must not block.
+ */
+public interface MigrationListener {
+
+    void onEvent(MigrationEvent event);
+}
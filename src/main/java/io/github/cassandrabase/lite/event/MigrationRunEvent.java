@@ -0,0 +1,23 @@
+package io.github.cassandrabase.lite.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.github.cassandrabase.Migration")
+@Label("Migration")
+@Category("Cassandrabase")
+public class MigrationRunEvent extends Event {
+    @Label("Identifier")
+    public String identifier;
+
+    @Label("Execution Mode")
+    public String executionMode;
+
+    @Label("Applied ChangeSets")
+    public int changeSets;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,24 @@
+package io.github.cassandrabase.lite.exception;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Some keyspaces of a multi-keyspace migration failed. The others have been migrated.
+ */
+public class KeyspaceMigrationException extends RuntimeException {
+    private final Map<String, Throwable> failures;
+
+    public KeyspaceMigrationException(String message, Map<String, Throwable> failures) {
+        super(message);
+        this.failures = Collections.unmodifiableMap(failures);
+        failures.values().forEach(this::addSuppressed);
+    }
+
+    /**
+     * Failure by keyspace, in the order the keyspaces were given.
+     */
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+}
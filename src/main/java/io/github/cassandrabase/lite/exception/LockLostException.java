@@ -0,0 +1,22 @@
+package io.github.cassandrabase.lite.exception;
+
+public class LockLostException extends RuntimeException {
+    public LockLostException() {
+    }
+
+    public LockLostException(Throwable cause) {
+        super(cause);
+    }
+
+    public LockLostException(String message) {
+        super(message);
+    }
+
+    public LockLostException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public LockLostException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.cassandrabase.lite.execution;
+
+import io.github.cassandrabase.lite.xml.ChangeSet;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Consecutive DML changeSets on the same partition that are sent as one unlogged batch. It takes the id, author,
+ * order and execution options of its first changeSet; the statements and history stay those of its members.
+ */
+public final class BatchChangeSet extends ChangeSet {
+    private final List<ChangeSet> changeSets;
+
+    BatchChangeSet(List<ChangeSet> changeSets) {
+        this.changeSets = Collections.unmodifiableList(changeSets);
+        final ChangeSet first = changeSets.get(0);
+        this.setId(first.getId());
+        this.setAuthor(first.getAuthor());
+        this.setOrder(first.getOrder());
+        this.setConsistencyLevel(first.getConsistencyLevel());
+        this.setExecutionProfile(first.getExecutionProfile());
+        this.setTimeout(first.getTimeout());
+        this.setIdempotent(first.getIdempotent());
+    }
+
+    public List<ChangeSet> getChangeSets() {
+        return changeSets;
+    }
+}
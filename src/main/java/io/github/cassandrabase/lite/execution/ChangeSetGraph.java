@@ -0,0 +1,183 @@
+package io.github.cassandrabase.lite.execution;
+
+import io.github.cassandrabase.lite.cql.CqlStatementAnalyzer;
+import io.github.cassandrabase.lite.cql.CqlStatementInfo;
+import io.github.cassandrabase.lite.xml.BackfillChangeSet;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+
+import java.util.*;
+
+/**
+ * Dependency graph over the changeSets of one changeLog. Edges come from the explicit {@code dependsOn} attribute and
+ * from the objects each statement touches: a changeSet waits for the previous changeSet that touched any of its
+ * tables/indexes, and statements that cannot be analyzed act as barriers.
+ */
+public final class ChangeSetGraph {
+    private final List<ChangeSet> changeSets;
+    private final List<CqlStatementInfo> statementInfos;
+    private final List<Set<Integer>> dependencies;
+    private final List<Integer> topologicalOrder;
+    private final int[] levels;
+
+    private ChangeSetGraph(List<ChangeSet> changeSets, List<CqlStatementInfo> statementInfos, List<Set<Integer>> dependencies) {
+        this.changeSets = changeSets;
+        this.statementInfos = statementInfos;
+        this.dependencies = dependencies;
+        this.levels = new int[changeSets.size()];
+        this.topologicalOrder = this.sort();
+    }
+
+    /**
+     * @param orderedChangeSets changeSets sorted by {@code order}
+     * @param completedIds      ids of changeSets that are already applied and may be referenced by {@code dependsOn}
+     */
+    public static ChangeSetGraph of(List<ChangeSet> orderedChangeSets, Set<String> completedIds) {
+        final List<ChangeSet> changeSets = List.copyOf(orderedChangeSets);
+        final List<CqlStatementInfo> statementInfos = new ArrayList<>(changeSets.size());
+        final List<Set<Integer>> dependencies = new ArrayList<>(changeSets.size());
+        final Map<String, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < changeSets.size(); i++) {
+            indexById.put(changeSets.get(i).getId(), i);
+        }
+
+        final Map<String, Integer> lastTouchByObject = new HashMap<>();
+        final List<Integer> sinceBarrier = new ArrayList<>();
+        int lastBarrier = -1;
+        for (int i = 0; i < changeSets.size(); i++) {
+            final ChangeSet changeSet = changeSets.get(i);
+            // every statement of a batch touches the same table
+            final ChangeSet analyzed = changeSet instanceof BatchChangeSet batchChangeSet ? batchChangeSet.getChangeSets().get(0) : changeSet;
+            // the rollback of a java changeSet touches the tables of the changeSet
+            final ChangeSet source = analyzed instanceof RollbackChangeSet rollbackChangeSet ? rollbackChangeSet.getChangeSet() : analyzed;
+            final CqlStatementInfo info;
+            if (source instanceof JavaChangeSetAdapter javaChangeSetAdapter) {
+                info = CqlStatementAnalyzer.touching(javaChangeSetAdapter.getJavaChangeSet().getTables());
+            } else if (analyzed instanceof BackfillChangeSet backfillChangeSet) {
+                // a backfill also reads the table it scans
+                info = CqlStatementAnalyzer.reading(backfillChangeSet.getTable(), backfillChangeSet.getStatement());
+            } else {
+                info = CqlStatementAnalyzer.analyze(analyzed.getStatement());
+            }
+            final Set<Integer> deps = new TreeSet<>();
+            if (info.isBarrier()) {
+                deps.addAll(sinceBarrier);
+                if (lastBarrier >= 0) {
+                    deps.add(lastBarrier);
+                }
+                lastBarrier = i;
+                sinceBarrier.clear();
+                lastTouchByObject.clear();
+            } else {
+                if (lastBarrier >= 0) {
+                    deps.add(lastBarrier);
+                }
+                for (String object : info.getObjects()) {
+                    final Integer previous = lastTouchByObject.put(object, i);
+                    if (Objects.nonNull(previous)) {
+                        deps.add(previous);
+                    }
+                }
+                sinceBarrier.add(i);
+            }
+            for (String dependsOn : changeSet.getDependsOn()) {
+                final Integer dependency = indexById.get(dependsOn);
+                if (Objects.nonNull(dependency)) {
+                    if (dependency == i) {
+                        throw new RuntimeException("ChangeSet depends on itself. [ChangeSetId : " + changeSet.getId() + "]");
+                    }
+                    deps.add(dependency);
+                } else if (!completedIds.contains(dependsOn)) {
+                    throw new RuntimeException("Unknown dependsOn reference. [ChangeSetId : " + changeSet.getId() + ", DependsOn : " + dependsOn + "]");
+                }
+            }
+            statementInfos.add(info);
+            dependencies.add(deps);
+        }
+        return new ChangeSetGraph(changeSets, statementInfos, dependencies);
+    }
+
+    private List<Integer> sort() {
+        final int size = this.changeSets.size();
+        final int[] inDegree = new int[size];
+        final List<List<Integer>> dependents = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            for (Integer dependency : this.dependencies.get(i)) {
+                dependents.get(dependency).add(i);
+                inDegree[i]++;
+            }
+        }
+        // ties are broken by position, so a graph without explicit dependsOn keeps the declared order
+        final PriorityQueue<Integer> ready = new PriorityQueue<>();
+        for (int i = 0; i < size; i++) {
+            if (inDegree[i] == 0) {
+                ready.add(i);
+            }
+        }
+        final List<Integer> order = new ArrayList<>(size);
+        while (!ready.isEmpty()) {
+            final int current = ready.poll();
+            order.add(current);
+            for (Integer dependent : dependents.get(current)) {
+                this.levels[dependent] = Math.max(this.levels[dependent], this.levels[current] + 1);
+                if (--inDegree[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() != size) {
+            final StringJoiner cycle = new StringJoiner(", ");
+            for (int i = 0; i < size; i++) {
+                if (inDegree[i] > 0) {
+                    cycle.add(this.changeSets.get(i).getId());
+                }
+            }
+            throw new RuntimeException("Cyclic changeSet dependencies found. [ChangeSetIds : " + cycle + "]");
+        }
+        return Collections.unmodifiableList(order);
+    }
+
+    public int size() {
+        return this.changeSets.size();
+    }
+
+    public ChangeSet getChangeSet(int index) {
+        return this.changeSets.get(index);
+    }
+
+    public CqlStatementInfo getStatementInfo(int index) {
+        return this.statementInfos.get(index);
+    }
+
+    public Set<Integer> getDependencies(int index) {
+        return Collections.unmodifiableSet(this.dependencies.get(index));
+    }
+
+    public int getLevel(int index) {
+        return this.levels[index];
+    }
+
+    /**
+     * Node indexes in an order that satisfies every dependency.
+     */
+    public List<Integer> getTopologicalOrder() {
+        return this.topologicalOrder;
+    }
+
+    /**
+     * Groups of mutually independent changeSets; every changeSet of a wave only depends on earlier waves.
+     */
+    public List<List<ChangeSet>> waves() {
+        final List<List<ChangeSet>> waves = new ArrayList<>();
+        for (Integer index : this.topologicalOrder) {
+            final int level = this.levels[index];
+            while (waves.size() <= level) {
+                waves.add(new ArrayList<>());
+            }
+            waves.get(level).add(this.changeSets.get(index));
+        }
+        return waves;
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.cassandrabase.lite.execution;
+
+import io.github.cassandrabase.lite.xml.ChangeSet;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * Starts every changeSet as soon as the changeSets it depends on have completed, so independent branches of the
+ * graph never wait for each other.
+ * <p>
+ * With a {@link SchemaAgreementAwaiter}, the DDL statements of each dependency level are pipelined in groups of
+ * {@code ddlGroupSize}: the group is sent concurrently and schema agreement is awaited once for the whole group before
+ * anything depending on it starts. DML that does not depend on a pending group keeps flowing in the meantime.
+ */
+public final class ChangeSetGraphExecutor {
+    private final Function<ChangeSet, CompletionStage<?>> action;
+    private final SchemaAgreementAwaiter schemaAgreementAwaiter;
+    private final int ddlGroupSize;
+
+    public ChangeSetGraphExecutor(Function<ChangeSet, CompletionStage<?>> action) {
+        this(action, null, 1);
+    }
+
+    public ChangeSetGraphExecutor(Function<ChangeSet, CompletionStage<?>> action, SchemaAgreementAwaiter schemaAgreementAwaiter, int ddlGroupSize) {
+        this.action = action;
+        this.schemaAgreementAwaiter = schemaAgreementAwaiter;
+        this.ddlGroupSize = ddlGroupSize;
+    }
+
+    public CompletableFuture<Void> execute(ChangeSetGraph graph) {
+        final CompletableFuture<?>[] executions = new CompletableFuture<?>[graph.size()];
+        // what dependents wait for: the execution itself, or the schema agreement of the DDL group it belongs to
+        final CompletableFuture<?>[] completions = new CompletableFuture<?>[graph.size()];
+        final List<Integer> byLevel = new ArrayList<>(graph.getTopologicalOrder());
+        byLevel.sort(Comparator.comparingInt(graph::getLevel));
+
+        int from = 0;
+        while (from < byLevel.size()) {
+            final int level = graph.getLevel(byLevel.get(from));
+            int to = from;
+            while (to < byLevel.size() && graph.getLevel(byLevel.get(to)) == level) {
+                to++;
+            }
+            final List<Integer> ddlGroup = new ArrayList<>();
+            for (Integer index : byLevel.subList(from, to)) {
+                executions[index] = this.start(graph.getChangeSet(index), graph.getDependencies(index), completions);
+                if (Objects.nonNull(this.schemaAgreementAwaiter) && graph.getStatementInfo(index).isDdl()) {
+                    ddlGroup.add(index);
+                    if (ddlGroup.size() == this.ddlGroupSize) {
+                        this.awaitAgreement(ddlGroup, executions, completions);
+                        ddlGroup.clear();
+                    }
+                } else {
+                    completions[index] = executions[index];
+                }
+            }
+            if (!ddlGroup.isEmpty()) {
+                this.awaitAgreement(ddlGroup, executions, completions);
+            }
+            from = to;
+        }
+        return CompletableFuture.allOf(completions);
+    }
+
+    private CompletableFuture<?> start(ChangeSet changeSet, Set<Integer> dependencies, CompletableFuture<?>[] completions) {
+        if (dependencies.isEmpty()) {
+            return this.start(changeSet);
+        }
+        final CompletableFuture<?>[] upstream = dependencies.stream().map(dependency -> completions[dependency]).toArray(CompletableFuture<?>[]::new);
+        return CompletableFuture.allOf(upstream).thenCompose(unused -> this.start(changeSet));
+    }
+
+    private CompletableFuture<?> start(ChangeSet changeSet) {
+        try {
+            return this.action.apply(changeSet).toCompletableFuture();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void awaitAgreement(List<Integer> ddlGroup, CompletableFuture<?>[] executions, CompletableFuture<?>[] completions) {
+        final CompletableFuture<?>[] group = ddlGroup.stream().map(index -> executions[index]).toArray(CompletableFuture<?>[]::new);
+        final CompletableFuture<Boolean> agreement = CompletableFuture.allOf(group).thenCompose(unused -> this.schemaAgreementAwaiter.await());
+        ddlGroup.forEach(index -> completions[index] = agreement);
+    }
+}
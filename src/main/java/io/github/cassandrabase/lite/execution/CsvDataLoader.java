@@ -0,0 +1,157 @@
+package io.github.cassandrabase.lite.execution;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.querybuilder.QueryBuilder;
+import com.datastax.oss.driver.api.querybuilder.insert.InsertInto;
+import com.datastax.oss.driver.api.querybuilder.insert.RegularInsert;
+import io.github.cassandrabase.lite.util.CsvReader;
+import io.github.cassandrabase.lite.xml.LoadDataChangeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Streams the rows of a {@link LoadDataChangeSet} through one prepared INSERT with at most {@code maxInFlight}
+ * asynchronous writes outstanding, all passing the {@link ExecutionThrottle}, so neither the file nor the pending writes are ever held in memory as a whole.
+ * Values are parsed as CQL literals of the column type; text columns take the value as is and empty unquoted fields
+ * are left unset.
+ */
+public final class CsvDataLoader {
+    private static final Logger log = LoggerFactory.getLogger(CsvDataLoader.class);
+    private final CqlSession cqlSession;
+    private final String keyspace;
+    private final int maxInFlight;
+    private final ExecutionThrottle executionThrottle;
+
+    public CsvDataLoader(CqlSession cqlSession, int maxInFlight, ExecutionThrottle executionThrottle) {
+        this(cqlSession, null, maxInFlight, executionThrottle);
+    }
+
+    /**
+     * @param keyspace keyspace of unqualified tables, {@code null} for the session keyspace
+     */
+    public CsvDataLoader(CqlSession cqlSession, String keyspace, int maxInFlight, ExecutionThrottle executionThrottle) {
+        this.cqlSession = cqlSession;
+        this.keyspace = keyspace;
+        this.maxInFlight = maxInFlight;
+        this.executionThrottle = executionThrottle;
+    }
+
+    /**
+     * Reads and writes on the given executor, never on a driver thread.
+     */
+    public CompletableFuture<Long> loadAsync(LoadDataChangeSet changeSet, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> this.load(changeSet), executor);
+    }
+
+    public long load(LoadDataChangeSet changeSet) {
+        if (Objects.isNull(changeSet.getSeparator()) || changeSet.getSeparator().length() != 1) {
+            throw new RuntimeException("separator must be a single character. [ChangeSetId : " + changeSet.getId() + "]");
+        }
+        try (CsvReader csvReader = new CsvReader(new InputStreamReader(changeSet.openResource(), StandardCharsets.UTF_8), changeSet.getSeparator().charAt(0))) {
+            if (!csvReader.hasNext()) {
+                log.warn("No header found in {}. Nothing to load. [ChangeSetId : {}]", changeSet.getResource(), changeSet.getId());
+                return 0;
+            }
+            final List<String> columns = csvReader.next();
+            final PreparedStatement preparedStatement = this.cqlSession.prepare(this.insertQuery(changeSet.getTable(), columns));
+            final List<Function<String, Object>> parsers = new ArrayList<>(columns.size());
+            final List<TypeCodec<Object>> codecs = new ArrayList<>(columns.size());
+            for (ColumnDefinition column : preparedStatement.getVariableDefinitions()) {
+                final TypeCodec<Object> codec = this.cqlSession.getContext().getCodecRegistry().codecFor(column.getType());
+                codecs.add(codec);
+                parsers.add(parser(column, codec));
+            }
+
+            // rows are plain INSERTs, idempotent unless the changeSet says otherwise
+            final BoundStatement template = StatementFactory.applyOptions(preparedStatement.bind(), changeSet)
+                    .setIdempotent(Objects.isNull(changeSet.getIdempotent()) || changeSet.getIdempotent());
+            final Semaphore inFlight = new Semaphore(this.maxInFlight);
+            final AtomicReference<Throwable> failure = new AtomicReference<>();
+            long rows = 0;
+            while (csvReader.hasNext() && Objects.isNull(failure.get())) {
+                final List<String> record = csvReader.next();
+                if (record.size() != columns.size()) {
+                    throw new RuntimeException("Expected " + columns.size() + " values but found " + record.size() + " in "
+                            + changeSet.getResource() + " at line " + csvReader.getLineNumber() + ". [ChangeSetId : " + changeSet.getId() + "]");
+                }
+                BoundStatementBuilder builder = new BoundStatementBuilder(template);
+                for (int i = 0; i < record.size(); i++) {
+                    if (Objects.nonNull(record.get(i))) {
+                        builder = builder.set(i, parsers.get(i).apply(record.get(i)), codecs.get(i));
+                    }
+                }
+                inFlight.acquire();
+                final BoundStatement boundStatement = builder.build();
+                this.executionThrottle.submit(() -> this.cqlSession.executeAsync(boundStatement)).whenComplete((asyncResultSet, throwable) -> {
+                    if (Objects.nonNull(throwable)) {
+                        failure.compareAndSet(null, throwable);
+                    }
+                    inFlight.release();
+                });
+                rows++;
+            }
+            inFlight.acquire(this.maxInFlight);
+            if (Objects.nonNull(failure.get())) {
+                throw new RuntimeException("Loading " + changeSet.getResource() + " into " + changeSet.getTable() + " failed. [ChangeSetId : " + changeSet.getId() + "]", failure.get());
+            }
+            log.info("{} rows loaded from {} into {}. [ChangeSetId : {}]", rows, changeSet.getResource(), changeSet.getTable(), changeSet.getId());
+            return rows;
+        } catch (IOException e) {
+            throw new RuntimeException("Data resource could not be read : " + changeSet.getResource(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private String insertQuery(String table, List<String> columns) {
+        final int dot = table.indexOf('.');
+        final InsertInto insertInto = dot < 0
+                ? QueryBuilder.insertInto(Optional.ofNullable(this.keyspace).map(CqlIdentifier::fromInternal).orElse(null), CqlIdentifier.fromCql(table))
+                : QueryBuilder.insertInto(table.substring(0, dot), table.substring(dot + 1));
+        RegularInsert insert = null;
+        for (String column : columns) {
+            insert = Objects.isNull(insert)
+                    ? insertInto.value(column, QueryBuilder.bindMarker())
+                    : insert.value(column, QueryBuilder.bindMarker());
+        }
+        if (Objects.isNull(insert)) {
+            throw new RuntimeException("No columns found in the header of the data resource for " + table);
+        }
+        return insert.asCql();
+    }
+
+    private static Function<String, Object> parser(ColumnDefinition column, TypeCodec<Object> codec) {
+        if (DataTypes.TEXT.equals(column.getType()) || DataTypes.ASCII.equals(column.getType())) {
+            return value -> value;
+        }
+        return value -> {
+            try {
+                return codec.parse(value);
+            } catch (RuntimeException e) {
+                // dates, times, inets, ... are quoted literals in CQL
+                return codec.parse("'" + value.replace("'", "''") + "'");
+            }
+        };
+    }
+}
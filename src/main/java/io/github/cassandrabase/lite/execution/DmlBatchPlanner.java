@@ -0,0 +1,150 @@
+package io.github.cassandrabase.lite.execution;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import io.github.cassandrabase.lite.cql.CqlDmlParser;
+import io.github.cassandrabase.lite.cql.DmlTarget;
+import io.github.cassandrabase.lite.cql.TableDefinition;
+import io.github.cassandrabase.lite.xml.BackfillChangeSet;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Merges runs of consecutive single-row DML changeSets on the same partition into {@link BatchChangeSet}s.
+ * <p>
+ * Partition keys come from a {@code CREATE TABLE} earlier in the same list or from the driver metadata. A changeSet
+ * is only batched when its full primary key is given as literals, it is not conditional, its table has no counters,
+ * it neither declares nor is the target of a {@code dependsOn}, and its execution attributes match the ones of the
+ * rest of the batch. A batch never holds two writes to the same row, since statements of one batch share a timestamp
+ * and would not be applied in order. Everything else is left as is.
+ */
+public final class DmlBatchPlanner {
+    private static final Logger log = LoggerFactory.getLogger(DmlBatchPlanner.class);
+    private final CqlSession cqlSession;
+    private final String keyspace;
+    private final int maxStatements;
+    private final int maxBytes;
+
+    public DmlBatchPlanner(CqlSession cqlSession, int maxStatements, int maxBytes) {
+        this(cqlSession, null, maxStatements, maxBytes);
+    }
+
+    /**
+     * @param keyspace keyspace of unqualified tables, {@code null} for the session keyspace
+     */
+    public DmlBatchPlanner(CqlSession cqlSession, String keyspace, int maxStatements, int maxBytes) {
+        this.cqlSession = cqlSession;
+        this.keyspace = keyspace;
+        this.maxStatements = maxStatements;
+        this.maxBytes = maxBytes;
+    }
+
+    public List<ChangeSet> plan(List<ChangeSet> orderedChangeSets) {
+        final Set<String> referencedIds = new HashSet<>();
+        orderedChangeSets.forEach(changeSet -> referencedIds.addAll(changeSet.getDependsOn()));
+        final Map<String, TableDefinition> createdTables = new HashMap<>();
+        final List<ChangeSet> planned = new ArrayList<>(orderedChangeSets.size());
+        final Batch batch = new Batch();
+        for (ChangeSet changeSet : orderedChangeSets) {
+            CqlDmlParser.parseCreateTable(changeSet.getStatement())
+                    .ifPresent(tableDefinition -> createdTables.put(tableKey(tableDefinition.getKeyspace(), tableDefinition.getTable()), tableDefinition));
+            // a backfill writes a row for every row it scans
+            final Row row = changeSet.getDependsOn().isEmpty() && !referencedIds.contains(changeSet.getId()) && !(changeSet instanceof BackfillChangeSet)
+                    ? this.row(changeSet, createdTables)
+                    : null;
+            if (Objects.isNull(row) || !batch.accepts(changeSet, row)) {
+                batch.flushTo(planned);
+            }
+            if (Objects.isNull(row)) {
+                planned.add(changeSet);
+            } else {
+                batch.add(changeSet, row);
+            }
+        }
+        batch.flushTo(planned);
+        if (planned.size() < orderedChangeSets.size()) {
+            log.info("{} changeSets merged into {} statements by partition batching.", orderedChangeSets.size(), planned.size());
+        }
+        return planned;
+    }
+
+    private Row row(ChangeSet changeSet, Map<String, TableDefinition> createdTables) {
+        final Optional<DmlTarget> target = CqlDmlParser.parse(changeSet.getStatement());
+        if (target.isEmpty()) {
+            return null;
+        }
+        final DmlTarget dmlTarget = target.get();
+        final TableDefinition tableDefinition = Optional.ofNullable(createdTables.get(tableKey(dmlTarget.getKeyspace(), dmlTarget.getTable())))
+                .or(() -> TableDefinition.fromMetadata(this.cqlSession, Optional.ofNullable(dmlTarget.getKeyspace()).orElse(this.keyspace), dmlTarget.getTable()))
+                .orElse(null);
+        if (Objects.isNull(tableDefinition) || tableDefinition.isCounter()) {
+            return null;
+        }
+        final StringJoiner partition = new StringJoiner("\u0000").add(tableKey(dmlTarget.getKeyspace(), dmlTarget.getTable()));
+        for (String column : tableDefinition.getPartitionKey()) {
+            final String value = dmlTarget.getValues().get(column);
+            if (Objects.isNull(value)) {
+                return null;
+            }
+            partition.add(value);
+        }
+        final StringJoiner clustering = new StringJoiner("\u0000");
+        for (String column : tableDefinition.getClusteringColumns()) {
+            final String value = dmlTarget.getValues().get(column);
+            if (Objects.isNull(value)) {
+                return null;
+            }
+            clustering.add(value);
+        }
+        return new Row(partition.toString(), clustering.toString());
+    }
+
+    private static String tableKey(String keyspace, String table) {
+        return Objects.isNull(keyspace) ? table : keyspace + "." + table;
+    }
+
+    private record Row(String partition, String clustering) {
+    }
+
+    private final class Batch {
+        private final List<ChangeSet> changeSets = new ArrayList<>();
+        private final Set<String> clusterings = new HashSet<>();
+        private String partition;
+        private int bytes;
+
+        private boolean accepts(ChangeSet changeSet, Row row) {
+            return changeSets.isEmpty()
+                    || (partition.equals(row.partition())
+                    && StatementFactory.sameOptions(changeSets.get(0), changeSet)
+                    && !clusterings.contains(row.clustering())
+                    && changeSets.size() < maxStatements
+                    && bytes + size(changeSet) <= maxBytes);
+        }
+
+        private void add(ChangeSet changeSet, Row row) {
+            changeSets.add(changeSet);
+            clusterings.add(row.clustering());
+            partition = row.partition();
+            bytes += size(changeSet);
+        }
+
+        private void flushTo(List<ChangeSet> planned) {
+            if (changeSets.size() == 1) {
+                planned.add(changeSets.get(0));
+            } else if (changeSets.size() > 1) {
+                planned.add(new BatchChangeSet(new ArrayList<>(changeSets)));
+            }
+            changeSets.clear();
+            clusterings.clear();
+            partition = null;
+            bytes = 0;
+        }
+
+        private int size(ChangeSet changeSet) {
+            return changeSet.getStatement().getBytes(StandardCharsets.UTF_8).length;
+        }
+    }
+}
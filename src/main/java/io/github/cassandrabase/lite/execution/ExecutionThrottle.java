@@ -0,0 +1,195 @@
+package io.github.cassandrabase.lite.execution;
+
+import com.datastax.oss.driver.api.core.AllNodesFailedException;
+import com.datastax.oss.driver.api.core.RequestThrottlingException;
+import com.datastax.oss.driver.api.core.connection.BusyConnectionException;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking admission control for asynchronous requests: at most a window of requests is in flight, requests may
+ * be spaced to a fixed rate, and overload reported by the cluster or the driver shrinks the window and retries the
+ * request after an exponential backoff.
+ * <p>
+ * The window is adjusted AIMD style: it is halved on overload and grows by one after a window's worth of successful
+ * requests, up to {@code maxInFlight}. Only requests that were rejected before being executed (overloaded
+ * coordinator, busy connection, driver throttling) are retried, so non-idempotent statements are never applied twice.
+ */
+public final class ExecutionThrottle {
+    private static final Logger log = LoggerFactory.getLogger(ExecutionThrottle.class);
+    private final int maxInFlight;
+    private final long intervalNanos;
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Deque<Request<?>> queue = new ArrayDeque<>();
+    private int inFlight;
+    private int window;
+    private int successes;
+    private long nextSlotNanos = System.nanoTime();
+    private boolean draining;
+
+    /**
+     * @param statementsPerSecond 0 for no rate limit
+     */
+    public ExecutionThrottle(int maxInFlight, double statementsPerSecond, int maxRetries, Duration initialBackoff, Duration maxBackoff) {
+        this.maxInFlight = maxInFlight;
+        this.intervalNanos = statementsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / statementsPerSecond) : 0;
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.window = maxInFlight;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<? extends CompletionStage<T>> supplier) {
+        final Request<T> request = new Request<>(supplier);
+        synchronized (this) {
+            this.queue.addLast(request);
+        }
+        this.drain();
+        return request.result;
+    }
+
+    /**
+     * Current size of the in-flight window.
+     */
+    public synchronized int getWindow() {
+        return window;
+    }
+
+    /**
+     * Admits queued requests until the window is full or the queue is empty. Stages that are already complete finish
+     * inline and call back into {@code drain}; such a nested call, or one from another thread while a drain is running,
+     * only returns, and the running drain admits again until its re-check under the lock finds nothing to admit, so the
+     * stack does not grow with the queue.
+     */
+    private void drain() {
+        synchronized (this) {
+            if (this.draining) {
+                return;
+            }
+            this.draining = true;
+        }
+        while (true) {
+            final List<Request<?>> admitted = new ArrayList<>();
+            final List<Long> delays = new ArrayList<>();
+            synchronized (this) {
+                while (this.inFlight < this.window && !this.queue.isEmpty()) {
+                    this.inFlight++;
+                    admitted.add(this.queue.pollFirst());
+                    long delay = 0;
+                    if (this.intervalNanos > 0) {
+                        final long now = System.nanoTime();
+                        final long slot = Math.max(now, this.nextSlotNanos);
+                        this.nextSlotNanos = slot + this.intervalNanos;
+                        delay = slot - now;
+                    }
+                    delays.add(delay);
+                }
+                if (admitted.isEmpty()) {
+                    this.draining = false;
+                    return;
+                }
+            }
+            for (int i = 0; i < admitted.size(); i++) {
+                final Request<?> request = admitted.get(i);
+                if (delays.get(i) > 0) {
+                    CompletableFuture.delayedExecutor(delays.get(i), TimeUnit.NANOSECONDS).execute(() -> this.run(request));
+                } else {
+                    this.run(request);
+                }
+            }
+        }
+    }
+
+    private <T> void run(Request<T> request) {
+        CompletionStage<T> stage;
+        try {
+            stage = request.supplier.get();
+        } catch (RuntimeException e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+        stage.whenComplete((result, throwable) -> this.complete(request, result, throwable));
+    }
+
+    private <T> void complete(Request<T> request, T result, Throwable throwable) {
+        final boolean overloaded = Objects.nonNull(throwable) && isOverload(unwrap(throwable));
+        synchronized (this) {
+            this.inFlight--;
+            if (overloaded) {
+                this.window = Math.max(1, this.window / 2);
+                this.successes = 0;
+            } else if (Objects.isNull(throwable) && this.window < this.maxInFlight && ++this.successes >= this.window) {
+                this.window++;
+                this.successes = 0;
+            }
+        }
+        if (overloaded && request.attempts < this.maxRetries) {
+            request.attempts++;
+            final long backoff = this.backoffMillis(request.attempts);
+            log.warn("Cluster overloaded. Retrying in {} ms. [Attempt : {}, Window : {}, Cause : {}]", backoff, request.attempts, this.getWindow(), unwrap(throwable).getMessage());
+            CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS).execute(() -> {
+                synchronized (this) {
+                    this.queue.addFirst(request);
+                }
+                this.drain();
+            });
+        } else if (Objects.nonNull(throwable)) {
+            request.result.completeExceptionally(throwable);
+        } else {
+            request.result.complete(result);
+        }
+        this.drain();
+    }
+
+    // exponential with jitter, so retries of a whole window do not hit the cluster at the same moment
+    private long backoffMillis(int attempt) {
+        final long exponential = this.initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        final long capped = Math.min(exponential, this.maxBackoff.toMillis());
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && Objects.nonNull(cause.getCause())) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static boolean isOverload(Throwable throwable) {
+        if (throwable instanceof AllNodesFailedException allNodesFailedException) {
+            final Collection<List<Throwable>> errors = allNodesFailedException.getAllErrors().values();
+            return !errors.isEmpty() && errors.stream().flatMap(List::stream).allMatch(ExecutionThrottle::isOverload);
+        }
+        return throwable instanceof OverloadedException
+                || throwable instanceof BusyConnectionException
+                || throwable instanceof RequestThrottlingException;
+    }
+
+    private static final class Request<T> {
+        private final Supplier<? extends CompletionStage<T>> supplier;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private int attempts;
+
+        private Request(Supplier<? extends CompletionStage<T>> supplier) {
+            this.supplier = supplier;
+        }
+    }
+}
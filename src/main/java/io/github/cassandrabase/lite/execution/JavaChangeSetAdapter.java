@@ -0,0 +1,44 @@
+package io.github.cassandrabase.lite.execution;
+
+import io.github.cassandrabase.lite.JavaChangeSet;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+
+import java.util.ArrayList;
+import java.util.Objects;
+
+/**
+ * A {@link JavaChangeSet} in a changeLog. Its statement only names the implementation; its digests cover the
+ * checksum instead.
+ */
+public final class JavaChangeSetAdapter extends ChangeSet {
+    private final JavaChangeSet javaChangeSet;
+
+    public JavaChangeSetAdapter(JavaChangeSet javaChangeSet) {
+        if (Objects.isNull(javaChangeSet.getId()) || Objects.isNull(javaChangeSet.getOrder()) || Objects.isNull(javaChangeSet.getChecksum())) {
+            throw new RuntimeException("Incomplete java changeSet. [Class : " + javaChangeSet.getClass().getName() + ", ChangeSetId : " + javaChangeSet.getId() + "]");
+        }
+        this.javaChangeSet = javaChangeSet;
+        this.setId(javaChangeSet.getId());
+        this.setAuthor(javaChangeSet.getAuthor());
+        this.setOrder(javaChangeSet.getOrder());
+        this.setDependsOn(new ArrayList<>(javaChangeSet.getDependsOn()));
+    }
+
+    public JavaChangeSet getJavaChangeSet() {
+        return javaChangeSet;
+    }
+
+    @Override
+    public String getStatement() {
+        return "JAVA " + javaChangeSet.getClass().getName();
+    }
+
+    @Override
+    public void setStatement(String statement) {
+    }
+
+    @Override
+    protected String getDigestContent() {
+        return this.getStatement() + "#" + javaChangeSet.getChecksum();
+    }
+}
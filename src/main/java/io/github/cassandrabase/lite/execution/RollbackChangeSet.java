@@ -0,0 +1,83 @@
+package io.github.cassandrabase.lite.execution;
+
+import io.github.cassandrabase.lite.xml.ChangeSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * The undo of an applied changeSet: its {@code rollbackStatement} with its execution attributes. Rollbacks run in
+ * the reverse of the execution order, so a {@code dependsOn} of the changeSet becomes a dependency of the changeSet it
+ * referenced on this one. An empty {@code rollbackStatement} means there is nothing to undo.
+ */
+public final class RollbackChangeSet extends ChangeSet {
+    private final ChangeSet changeSet;
+
+    private RollbackChangeSet(ChangeSet changeSet) {
+        this.changeSet = changeSet;
+        this.setId(changeSet.getId());
+        this.setAuthor(changeSet.getAuthor());
+        this.setOrder(changeSet.getOrder());
+        this.setConsistencyLevel(changeSet.getConsistencyLevel());
+        this.setStatement(changeSet instanceof JavaChangeSetAdapter ? changeSet.getStatement() : changeSet.getRollbackStatement());
+        this.setExecutionProfile(changeSet.getExecutionProfile());
+        this.setTimeout(changeSet.getTimeout());
+        this.setIdempotent(changeSet.getIdempotent());
+        this.setDependsOn(new ArrayList<>());
+    }
+
+    /**
+     * @param executedChangeSets applied changeSets in execution order
+     * @return their rollbacks in reverse order, with reversed {@code dependsOn}
+     * @throws RuntimeException if some of them cannot be rolled back, before anything ran
+     */
+    public static List<RollbackChangeSet> plan(List<ChangeSet> executedChangeSets) {
+        final StringJoiner irreversible = new StringJoiner(", ");
+        for (ChangeSet changeSet : executedChangeSets) {
+            if (!isReversible(changeSet)) {
+                irreversible.add(changeSet.getId());
+            }
+        }
+        if (irreversible.length() > 0) {
+            throw new RuntimeException("ChangeSets without rollback cannot be rolled back. [ChangeSetIds : " + irreversible + "]");
+        }
+        final Map<String, RollbackChangeSet> rollbacks = new HashMap<>();
+        final List<RollbackChangeSet> reversed = new ArrayList<>(executedChangeSets.size());
+        for (int i = executedChangeSets.size() - 1; i >= 0; i--) {
+            final RollbackChangeSet rollbackChangeSet = new RollbackChangeSet(executedChangeSets.get(i));
+            rollbacks.put(rollbackChangeSet.getId(), rollbackChangeSet);
+            reversed.add(rollbackChangeSet);
+        }
+        for (ChangeSet changeSet : executedChangeSets) {
+            for (String dependsOn : changeSet.getDependsOn()) {
+                final RollbackChangeSet dependency = rollbacks.get(dependsOn);
+                if (Objects.nonNull(dependency)) {
+                    dependency.getDependsOn().add(changeSet.getId());
+                }
+            }
+        }
+        return reversed;
+    }
+
+    private static boolean isReversible(ChangeSet changeSet) {
+        if (changeSet instanceof JavaChangeSetAdapter javaChangeSetAdapter) {
+            return javaChangeSetAdapter.getJavaChangeSet().isReversible();
+        }
+        return Objects.nonNull(changeSet.getRollbackStatement());
+    }
+
+    /**
+     * The changeSet this one undoes.
+     */
+    public ChangeSet getChangeSet() {
+        return changeSet;
+    }
+
+    public boolean isNoOp() {
+        return !(this.changeSet instanceof JavaChangeSetAdapter) && this.getStatement().isEmpty();
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.cassandrabase.lite.execution;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls {@link CqlSession#checkSchemaAgreementAsync()} without blocking a thread between attempts.
+ */
+public final class SchemaAgreementAwaiter {
+    private static final Logger log = LoggerFactory.getLogger(SchemaAgreementAwaiter.class);
+    private final CqlSession cqlSession;
+    private final Duration timeout;
+    private final Executor pollDelay;
+
+    public SchemaAgreementAwaiter(CqlSession cqlSession, Duration timeout, Duration interval) {
+        this.cqlSession = cqlSession;
+        this.timeout = timeout;
+        this.pollDelay = CompletableFuture.delayedExecutor(interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Completes once all nodes report the same schema version. Like the driver itself, a timeout is logged and the
+     * returned stage still completes normally (with {@code false}).
+     */
+    public CompletableFuture<Boolean> await() {
+        return this.poll(System.nanoTime() + this.timeout.toNanos());
+    }
+
+    private CompletableFuture<Boolean> poll(long deadline) {
+        return this.cqlSession.checkSchemaAgreementAsync().toCompletableFuture().thenCompose(inAgreement -> {
+            if (inAgreement) {
+                return CompletableFuture.completedFuture(true);
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                log.warn("Schema agreement not reached within {}. Proceeding anyway.", this.timeout);
+                return CompletableFuture.completedFuture(false);
+            }
+            return CompletableFuture.supplyAsync(() -> deadline, this.pollDelay).thenCompose(this::poll);
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.cassandrabase.lite.execution;
+
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+
+import java.util.Objects;
+
+/**
+ * Builds the driver statements of changeSets, applying the execution attributes of the changeSet: consistency
+ * level, execution profile, timeout, page size and idempotence. Unset attributes keep the driver defaults.
+ */
+public final class StatementFactory {
+
+    private StatementFactory() {
+    }
+
+    public static SimpleStatement statement(ChangeSet changeSet) {
+        return statement(changeSet, changeSet.getStatement());
+    }
+
+    /**
+     * The given query, e.g. a rewritten statement, with the options of the changeSet.
+     */
+    public static SimpleStatement statement(ChangeSet changeSet, String query) {
+        return applyOptions(SimpleStatement.newInstance(query), changeSet);
+    }
+
+    public static <S extends Statement<S>> S applyOptions(S statement, ChangeSet changeSet) {
+        S result = statement.setConsistencyLevel(changeSet.getConsistencyLevel());
+        if (Objects.nonNull(changeSet.getExecutionProfile())) {
+            result = result.setExecutionProfileName(changeSet.getExecutionProfile());
+        }
+        if (Objects.nonNull(changeSet.getTimeout())) {
+            result = result.setTimeout(changeSet.getTimeout());
+        }
+        if (Objects.nonNull(changeSet.getPageSize())) {
+            result = result.setPageSize(changeSet.getPageSize());
+        }
+        if (Objects.nonNull(changeSet.getIdempotent())) {
+            result = result.setIdempotent(changeSet.getIdempotent());
+        }
+        return result;
+    }
+
+    /**
+     * Whether two changeSets are executed with the same options, so their statements may share a batch.
+     */
+    public static boolean sameOptions(ChangeSet first, ChangeSet second) {
+        return Objects.equals(first.getConsistencyLevel(), second.getConsistencyLevel())
+                && Objects.equals(first.getExecutionProfile(), second.getExecutionProfile())
+                && Objects.equals(first.getTimeout(), second.getTimeout())
+                && Objects.equals(first.getIdempotent(), second.getIdempotent());
+    }
+}
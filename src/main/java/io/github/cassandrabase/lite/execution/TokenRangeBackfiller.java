@@ -0,0 +1,313 @@
+package io.github.cassandrabase.lite.execution;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.api.querybuilder.QueryBuilder;
+import com.datastax.oss.driver.api.querybuilder.select.Select;
+import com.datastax.oss.driver.api.querybuilder.select.SelectFrom;
+import io.github.cassandrabase.lite.BackfillMapper;
+import io.github.cassandrabase.lite.entity.ChangelogBackfillEntity;
+import io.github.cassandrabase.lite.lock.ChangelogLockLease;
+import io.github.cassandrabase.lite.model.ExecutionOptions;
+import io.github.cassandrabase.lite.repository.ChangelogBackfillRepository;
+import io.github.cassandrabase.lite.repository.SystemSchemaRepository;
+import io.github.cassandrabase.lite.xml.BackfillChangeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a {@link BackfillChangeSet} over the token ranges of its table. The ranges of the driver token map are split
+ * further up to the configured number of splits; without a token map the ring is split evenly. Ranges are scanned
+ * concurrently, a few per node of the cluster, each with one paged {@code SELECT ... WHERE token(...) > ? AND
+ * token(...) <= ?}, and every row is written with the prepared statement of the changeSet, at most
+ * {@code writesPerRange} writes per range in flight, all passing the {@link ExecutionThrottle}. A range is
+ * checkpointed once all its writes succeeded, and ranges already checkpointed with the same digest are skipped, so a
+ * restarted backfill only scans what is left. Ranges are keyed by their bounds, so after a change of the statement or
+ * of the topology everything is scanned again; the checkpoints are removed once the changeSet is applied. Tokens are
+ * the ones of the Murmur3Partitioner.
+ */
+public final class TokenRangeBackfiller {
+    private static final Logger log = LoggerFactory.getLogger(TokenRangeBackfiller.class);
+    private static final String MURMUR3_PARTITIONER = "Murmur3Partitioner";
+    private final CqlSession cqlSession;
+    private final String keyspace;
+    private final ChangelogBackfillRepository changelogBackfillRepository;
+    private final Integer majorVersion;
+    private final String identifier;
+    private final int splits;
+    private final int concurrencyPerNode;
+    private final int writesPerRange;
+    private final ExecutionThrottle executionThrottle;
+    private final ChangelogLockLease changelogLockLease;
+
+    /**
+     * @param keyspace keyspace of unqualified tables, {@code null} for the session keyspace
+     */
+    public TokenRangeBackfiller(CqlSession cqlSession, String keyspace, ChangelogBackfillRepository changelogBackfillRepository, Integer majorVersion,
+                                String identifier, ExecutionOptions executionOptions, ExecutionThrottle executionThrottle, ChangelogLockLease changelogLockLease) {
+        this.cqlSession = cqlSession;
+        this.keyspace = keyspace;
+        this.changelogBackfillRepository = changelogBackfillRepository;
+        this.majorVersion = majorVersion;
+        this.identifier = identifier;
+        this.splits = executionOptions.getBackfillSplits();
+        this.concurrencyPerNode = executionOptions.getBackfillConcurrencyPerNode();
+        this.writesPerRange = executionOptions.getBackfillWritesPerRange();
+        this.executionThrottle = executionThrottle;
+        this.changelogLockLease = changelogLockLease;
+    }
+
+    /**
+     * Scans on the given executor, never on a driver thread.
+     */
+    public CompletableFuture<Long> backfillAsync(BackfillChangeSet changeSet, String statement, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> this.backfill(changeSet, statement, executor), executor);
+    }
+
+    /**
+     * @param statement the statement of the changeSet, qualified with the keyspace of the changeLog
+     * @param executor  runs the scans of the ranges
+     * @return the number of rows written
+     */
+    public long backfill(BackfillChangeSet changeSet, String statement, Executor executor) {
+        final int dot = changeSet.getTable().indexOf('.');
+        final String tableKeyspace = dot < 0 ? this.keyspace : CqlIdentifier.fromCql(changeSet.getTable().substring(0, dot).trim()).asInternal();
+        final String table = CqlIdentifier.fromCql(changeSet.getTable().substring(dot + 1).trim()).asInternal();
+        final List<String> partitionKey = new SystemSchemaRepository(this.cqlSession, tableKeyspace).partitionKey(table);
+        if (partitionKey.isEmpty()) {
+            throw new RuntimeException("Table to backfill not found : " + changeSet.getTable() + " [ChangeSetId : " + changeSet.getId() + "]");
+        }
+        final PreparedStatement write = this.cqlSession.prepare(statement);
+        final BackfillMapper mapper = changeSet.newMapper();
+        final PreparedStatement scan = this.cqlSession.prepare(scanQuery(tableKeyspace, table, partitionKey, columns(changeSet, write, mapper)));
+
+        this.changelogBackfillRepository.createTableIfNotExists();
+        final Set<Split> completed = this.changelogBackfillRepository.findAll(this.majorVersion, changeSet.getId()).stream()
+                .filter(entity -> Objects.equals(entity.getMd5Sum(), changeSet.getMd5Sum()))
+                .map(entity -> new Split(entity.getRangeStart(), entity.getRangeEnd()))
+                .collect(Collectors.toSet());
+        final List<Split> ranges = this.ranges(Objects.nonNull(changeSet.getSplits()) ? changeSet.getSplits() : this.splits);
+        final List<Split> pending = ranges.stream().filter(range -> !completed.contains(range)).toList();
+        final int concurrency = this.concurrencyPerNode * Math.max(1, this.cqlSession.getMetadata().getNodes().size());
+        log.info("Backfilling {} by token ranges. [ChangeSetId : {}, Ranges : {}, Completed : {}, Concurrency : {}]",
+                changeSet.getTable(), changeSet.getId(), ranges.size(), ranges.size() - pending.size(), concurrency);
+
+        final Semaphore scans = new Semaphore(concurrency);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final AtomicLong rows = new AtomicLong();
+        try {
+            for (Split range : pending) {
+                if (Objects.nonNull(failure.get())) {
+                    break;
+                }
+                this.changelogLockLease.ensureHeld();
+                scans.acquire();
+                CompletableFuture.runAsync(() -> rows.addAndGet(this.scan(changeSet, scan, write, mapper, range)), executor)
+                        .whenComplete((result, throwable) -> {
+                            if (Objects.nonNull(throwable)) {
+                                failure.compareAndSet(null, throwable);
+                            }
+                            scans.release();
+                        });
+            }
+            scans.acquire(concurrency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        if (Objects.nonNull(failure.get())) {
+            throw new RuntimeException("Backfilling " + changeSet.getTable() + " failed, completed ranges are kept. [ChangeSetId : " + changeSet.getId() + "]", failure.get());
+        }
+        this.changelogBackfillRepository.deleteAll(this.majorVersion, changeSet.getId());
+        log.info("{} rows of {} backfilled. [ChangeSetId : {}]", rows.get(), changeSet.getTable(), changeSet.getId());
+        return rows.get();
+    }
+
+    private long scan(BackfillChangeSet changeSet, PreparedStatement scan, PreparedStatement write, BackfillMapper mapper, Split range) {
+        final BoundStatement select = StatementFactory.applyOptions(scan.bind(range.start(), range.end()), changeSet).setIdempotent(true);
+        // rows are written as the statement says, idempotent unless the changeSet says otherwise
+        final BoundStatement template = StatementFactory.applyOptions(write.bind(), changeSet)
+                .setIdempotent(Objects.isNull(changeSet.getIdempotent()) || changeSet.getIdempotent());
+        final ColumnDefinitions variables = write.getVariableDefinitions();
+        final CodecRegistry codecRegistry = this.cqlSession.getContext().getCodecRegistry();
+        final Semaphore inFlight = new Semaphore(this.writesPerRange);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        long rows = 0;
+        try {
+            for (Row row : this.cqlSession.execute(select)) {
+                if (Objects.nonNull(failure.get())) {
+                    break;
+                }
+                final BoundStatement boundStatement = bind(template, variables, row, mapper, codecRegistry);
+                if (Objects.isNull(boundStatement)) {
+                    continue;
+                }
+                inFlight.acquire();
+                this.executionThrottle.submit(() -> this.cqlSession.executeAsync(boundStatement)).whenComplete((asyncResultSet, throwable) -> {
+                    if (Objects.nonNull(throwable)) {
+                        failure.compareAndSet(null, throwable);
+                    }
+                    inFlight.release();
+                });
+                rows++;
+            }
+            inFlight.acquire(this.writesPerRange);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        if (Objects.nonNull(failure.get())) {
+            throw new RuntimeException("Backfilling the token range " + range + " failed. [ChangeSetId : " + changeSet.getId() + "]", failure.get());
+        }
+        final ChangelogBackfillEntity changelogBackfillEntity = new ChangelogBackfillEntity();
+        changelogBackfillEntity.setMajorVersion(this.majorVersion);
+        changelogBackfillEntity.setChangeSetId(changeSet.getId());
+        changelogBackfillEntity.setRangeStart(range.start());
+        changelogBackfillEntity.setRangeEnd(range.end());
+        changelogBackfillEntity.setMd5Sum(changeSet.getMd5Sum());
+        changelogBackfillEntity.setRowCount(rows);
+        changelogBackfillEntity.setCompletedAt(Instant.now());
+        changelogBackfillEntity.setCompletedBy(this.identifier);
+        this.changelogBackfillRepository.save(changelogBackfillEntity);
+        log.debug("Token range backfilled. [ChangeSetId : {}, Range : {}, Rows : {}]", changeSet.getId(), range, rows);
+        return rows;
+    }
+
+    // the columns of the row by marker name, null values left unset so no tombstones are written
+    private static BoundStatement bind(BoundStatement template, ColumnDefinitions variables, Row row, BackfillMapper mapper, CodecRegistry codecRegistry) {
+        BoundStatementBuilder builder = new BoundStatementBuilder(template);
+        if (Objects.isNull(mapper)) {
+            for (int i = 0; i < variables.size(); i++) {
+                final ByteBuffer value = row.getBytesUnsafe(variables.get(i).getName());
+                if (Objects.nonNull(value)) {
+                    builder = builder.setBytesUnsafe(i, value);
+                }
+            }
+            return builder.build();
+        }
+        final Map<String, Object> values = mapper.map(row);
+        if (Objects.isNull(values)) {
+            return null;
+        }
+        for (int i = 0; i < variables.size(); i++) {
+            final String name = variables.get(i).getName().asInternal();
+            if (!values.containsKey(name)) {
+                continue;
+            }
+            final Object value = values.get(name);
+            if (Objects.isNull(value)) {
+                builder = builder.setToNull(i);
+            } else {
+                final TypeCodec<Object> codec = codecRegistry.codecFor(variables.get(i).getType(), value);
+                builder = builder.set(i, value, codec);
+            }
+        }
+        return builder.build();
+    }
+
+    private static List<CqlIdentifier> columns(BackfillChangeSet changeSet, PreparedStatement write, BackfillMapper mapper) {
+        if (!changeSet.getColumnList().isEmpty()) {
+            return changeSet.getColumnList().stream().map(CqlIdentifier::fromCql).toList();
+        }
+        if (Objects.nonNull(mapper)) {
+            return List.of();
+        }
+        final Set<CqlIdentifier> columns = new LinkedHashSet<>();
+        write.getVariableDefinitions().forEach(variable -> columns.add(variable.getName()));
+        return List.copyOf(columns);
+    }
+
+    private static String scanQuery(String keyspace, String table, List<String> partitionKey, List<CqlIdentifier> columns) {
+        final SelectFrom selectFrom = QueryBuilder.selectFrom(Optional.ofNullable(keyspace).map(CqlIdentifier::fromInternal).orElse(null), CqlIdentifier.fromInternal(table));
+        final Select select = columns.isEmpty() ? selectFrom.all() : selectFrom.columnsIds(columns);
+        final List<CqlIdentifier> key = partitionKey.stream().map(CqlIdentifier::fromInternal).toList();
+        return select.whereTokenFromIds(key).isGreaterThan(QueryBuilder.bindMarker())
+                .whereTokenFromIds(key).isLessThanOrEqualTo(QueryBuilder.bindMarker())
+                .asCql();
+    }
+
+    private List<Split> ranges(int minimumSplits) {
+        final Optional<TokenMap> tokenMap = this.cqlSession.getMetadata().getTokenMap();
+        if (tokenMap.isEmpty()) {
+            log.info("No token map available, splitting the ring evenly. [Splits : {}]", minimumSplits);
+            return split(List.of(new Split(Long.MIN_VALUE, Long.MAX_VALUE)), minimumSplits);
+        }
+        if (!tokenMap.get().getPartitionerName().endsWith(MURMUR3_PARTITIONER)) {
+            throw new RuntimeException("Backfills need the Murmur3Partitioner : " + tokenMap.get().getPartitionerName());
+        }
+        final List<Split> ranges = new ArrayList<>();
+        for (TokenRange tokenRange : tokenMap.get().getTokenRanges()) {
+            final long start = Long.parseLong(tokenMap.get().format(tokenRange.getStart()));
+            final long end = Long.parseLong(tokenMap.get().format(tokenRange.getEnd()));
+            if (start < end) {
+                ranges.add(new Split(start, end));
+                continue;
+            }
+            // wraps around the end of the ring, or is the whole ring with a single token
+            if (start != Long.MAX_VALUE) {
+                ranges.add(new Split(start, Long.MAX_VALUE));
+            }
+            if (end != Long.MIN_VALUE) {
+                ranges.add(new Split(Long.MIN_VALUE, end));
+            }
+        }
+        return split(ranges, minimumSplits);
+    }
+
+    // every range in the same number of even pieces, so the splits only change with the ring
+    private static List<Split> split(List<Split> ranges, int minimumSplits) {
+        final int pieces = Math.max(1, (minimumSplits + ranges.size() - 1) / ranges.size());
+        final List<Split> splits = new ArrayList<>();
+        for (Split range : ranges) {
+            final BigInteger start = BigInteger.valueOf(range.start());
+            final BigInteger width = BigInteger.valueOf(range.end()).subtract(start);
+            final int count = width.min(BigInteger.valueOf(pieces)).intValueExact();
+            long previous = range.start();
+            for (int i = 1; i <= count; i++) {
+                final long next = i == count ? range.end() : start.add(width.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(count))).longValueExact();
+                splits.add(new Split(previous, next));
+                previous = next;
+            }
+        }
+        splits.sort(Comparator.comparingLong(Split::start));
+        return splits;
+    }
+
+    /**
+     * The tokens greater than {@code start} and up to {@code end}.
+     */
+    private record Split(long start, long end) {
+
+        @Override
+        public String toString() {
+            return "(" + start + ", " + end + "]";
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package io.github.cassandrabase.lite.loader;
+
+import io.github.cassandrabase.lite.model.CassandraConfigs;
+import io.github.cassandrabase.lite.util.StatementTemplate;
+import io.github.cassandrabase.lite.xml.BackfillChangeSet;
+import io.github.cassandrabase.lite.xml.CassandraBaseConfig;
+import io.github.cassandrabase.lite.xml.ChangeLog;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import io.github.cassandrabase.lite.xml.Include;
+import io.github.cassandrabase.lite.xml.LoadDataChangeSet;
+import io.github.cassandrabase.lite.xml.TemplateChangeSet;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.UnmarshalException;
+import jakarta.xml.bind.Unmarshaller;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public final class ChangeLogLoader {
+    private static final Logger log = LoggerFactory.getLogger(ChangeLogLoader.class);
+    public static final String CONFIG_FILE = "db/changeset-config.xml";
+    private static final String CONFIG_XSD = "CassandraBaseConfig.xsd";
+    static final String CHANGE_LOG_XSD = "changeLog.xsd";
+
+    private ChangeLogLoader() {
+    }
+
+    public static CassandraConfigs load(ClassLoader resourceClassLoader) throws SAXException {
+        try {
+            final CassandraConfigs cassandraConfigs = new CassandraConfigs();
+            final CassandraBaseConfig config = unmarshal(resourceClassLoader, CONFIG_FILE, CassandraBaseConfig.class, CONFIG_XSD);
+            cassandraConfigs.setMajorVersion(config.getMajorVersion());
+            cassandraConfigs.setPreChangeLog(loadChangeLog(resourceClassLoader, config.getPreChangeLog(), "preChangeLog"));
+            cassandraConfigs.setChangeLog(loadChangeLog(resourceClassLoader, config.getChangeLog(), "post changeLog"));
+            validate(cassandraConfigs);
+            final List<String> sourcePaths = new ArrayList<>();
+            for (Include include : List.of(config.getPreChangeLog(), config.getChangeLog())) {
+                if (!include.isStreaming()) {
+                    sourcePaths.addAll(include.getPaths());
+                }
+            }
+            cassandraConfigs.setSourcePaths(sourcePaths);
+            cassandraConfigs.setSourceDigest(digestSources(resourceClassLoader, sourcePaths));
+            return cassandraConfigs;
+        } catch (JAXBException | IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * SHA-256 over the name and content of the config file and of every file the paths resolve to, so editing, adding
+     * or removing one of them changes it. Reads bytes only, nothing is parsed.
+     */
+    public static String digestSources(ClassLoader resourceClassLoader, List<String> paths) {
+        final List<String> resources = new ArrayList<>();
+        resources.add(CONFIG_FILE);
+        if (!paths.isEmpty()) {
+            resources.addAll(ChangeLogResources.resolve(resourceClassLoader, paths));
+        }
+        final MessageDigest messageDigest = DigestUtils.getSha256Digest();
+        for (String resource : resources) {
+            messageDigest.update(resource.getBytes(StandardCharsets.UTF_8));
+            try (InputStream inputStream = resourceClassLoader.getResourceAsStream(resource)) {
+                // a missing file only has its name in the digest, loading the XML reports it
+                if (Objects.nonNull(inputStream)) {
+                    messageDigest.update((byte) 1);
+                    DigestUtils.updateDigest(messageDigest, inputStream);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            messageDigest.update((byte) 0);
+        }
+        return Hex.encodeHexString(messageDigest.digest());
+    }
+
+    private static ChangeLog loadChangeLog(ClassLoader resourceClassLoader, Include include, String name) throws JAXBException, SAXException, IOException {
+        final List<String> resources = ChangeLogResources.resolve(resourceClassLoader, include);
+        if (include.isStreaming()) {
+            if (resources.size() > 1) {
+                throw new RuntimeException("A streamed " + name + " must be a single file. " + resources);
+            }
+            log.debug("{} will be streamed.", resources.get(0));
+            return new StreamingChangeLog(resourceClassLoader, resources.get(0));
+        }
+        if (resources.size() == 1) {
+            return loadChangeLog(resourceClassLoader, resources.get(0));
+        }
+        // compiled once before the files are parsed in parallel
+        JaxbContextCache.getContext(ChangeLog.class);
+        JaxbContextCache.getSchema(CHANGE_LOG_XSD);
+        final List<ChangeLog> changeLogs = resources.parallelStream().map(resource -> {
+            try {
+                return loadChangeLog(resourceClassLoader, resource);
+            } catch (JAXBException | SAXException | IOException e) {
+                throw new RuntimeException(e);
+            }
+        }).toList();
+        log.debug("{} files of the {} parsed. [Parallelism : {}]", resources.size(), name, ForkJoinPool.getCommonPoolParallelism());
+        return merge(resources, changeLogs, name);
+    }
+
+    private static ChangeLog loadChangeLog(ClassLoader resourceClassLoader, String resource) throws JAXBException, SAXException, IOException {
+        final ChangeLog changeLog = unmarshal(resourceClassLoader, resource, ChangeLog.class, CHANGE_LOG_XSD);
+        changeLog.getChangeSets().forEach(changeSet -> setResourceClassLoader(changeSet, resourceClassLoader));
+        return changeLog;
+    }
+
+    // a single pass over the changeSets of all files, remembering the file that declared each order and id
+    private static ChangeLog merge(List<String> resources, List<ChangeLog> changeLogs, String name) {
+        final Map<Integer, String> orders = new HashMap<>();
+        final Map<String, String> ids = new HashMap<>();
+        final List<ChangeSet> changeSets = new ArrayList<>();
+        for (int i = 0; i < changeLogs.size(); i++) {
+            final String resource = resources.get(i);
+            for (ChangeSet changeSet : changeLogs.get(i).getChangeSets()) {
+                final String orderResource = orders.putIfAbsent(changeSet.getOrder(), resource);
+                if (Objects.nonNull(orderResource)) {
+                    throw new RuntimeException("Duplicate changeSet found in " + name + ". [Order : " + changeSet.getOrder() + ", Files : " + orderResource + ", " + resource + "]");
+                }
+                final String idResource = ids.putIfAbsent(changeSet.getId(), resource);
+                if (Objects.nonNull(idResource)) {
+                    throw new RuntimeException("Duplicate changeSet found in " + name + ". [ChangeSetId : " + changeSet.getId() + ", Files : " + idResource + ", " + resource + "]");
+                }
+                changeSets.add(changeSet);
+            }
+        }
+        changeSets.sort(Comparator.comparing(ChangeSet::getOrder));
+        final ChangeLog changeLog = new ChangeLog();
+        changeLog.setChangeSets(changeSets);
+        return changeLog;
+    }
+
+    static ChangeSet setResourceClassLoader(ChangeSet changeSet, ClassLoader resourceClassLoader) {
+        if (changeSet instanceof LoadDataChangeSet loadDataChangeSet) {
+            loadDataChangeSet.setResourceClassLoader(resourceClassLoader);
+        }
+        if (changeSet instanceof BackfillChangeSet backfillChangeSet) {
+            backfillChangeSet.setResourceClassLoader(resourceClassLoader);
+        }
+        return changeSet;
+    }
+
+    private static <T> T unmarshal(ClassLoader resourceClassLoader, String resource, Class<T> type, String xsdResource) throws JAXBException, SAXException, IOException {
+        try (InputStream inputStream = resourceClassLoader.getResourceAsStream(resource)) {
+            if (Objects.isNull(inputStream)) {
+                throw new RuntimeException("Changelog resource not found : " + resource);
+            }
+            final Unmarshaller unmarshaller = JaxbContextCache.createUnmarshaller(type, xsdResource);
+            log.debug("Loading {}", resource);
+            return type.cast(unmarshaller.unmarshal(inputStream));
+        } catch (UnmarshalException e) {
+            throw new RuntimeException("Invalid changelog resource : " + resource, e);
+        }
+    }
+
+    /**
+     * Streamed changeLogs are validated incrementally while they are read. Templates are validated with their
+     * expansions once their values are resolved. The history is keyed by changeSet id alone, so ids must also be unique
+     * across the preChangeLog and the post changeLog.
+     */
+    public static void validate(CassandraConfigs cassandraConfigs) {
+        validate(cassandraConfigs.getPreChangeLog(), "preChangeLog");
+        validate(cassandraConfigs.getChangeLog(), "post changeLog");
+        final Map<String, String> declaredIn = new HashMap<>();
+        collectIds(cassandraConfigs.getPreChangeLog(), "preChangeLog", declaredIn);
+        collectIds(cassandraConfigs.getChangeLog(), "post changeLog", declaredIn);
+    }
+
+    /**
+     * Adds the ids of a changeLog to {@code declaredIn}, the name of the changeLog declaring each id, and fails on an
+     * id another changeLog already declares. Streamed changeLogs are skipped, their ids are checked when the snapshot
+     * is written and window by window while they are applied.
+     */
+    public static void collectIds(ChangeLog changeLog, String name, Map<String, String> declaredIn) {
+        if (Objects.isNull(changeLog) || changeLog instanceof StreamingChangeLog) {
+            return;
+        }
+        changeLog.getChangeSets().stream().flatMap(ChangeLogLoader::expandResolved).forEach(changeSet -> {
+            final String declaringChangeLog = declaredIn.putIfAbsent(changeSet.getId(), name);
+            if (Objects.nonNull(declaringChangeLog)) {
+                throw new RuntimeException("Duplicate changeSet found in " + declaringChangeLog + (declaringChangeLog.equals(name) ? "" : " and " + name)
+                        + ". [ChangeSetId : " + changeSet.getId() + "]");
+            }
+        });
+    }
+
+    private static void validate(ChangeLog changeLog, String name) {
+        if (changeLog instanceof StreamingChangeLog) {
+            return;
+        }
+        final Set<Integer> orders = new HashSet<>();
+        final Set<String> ids = new HashSet<>();
+        changeLog.getChangeSets().stream().flatMap(ChangeLogLoader::expandResolved).forEach(changeSet -> {
+            if (!orders.add(changeSet.getOrder())) {
+                throw new RuntimeException("Duplicate changeSet found in " + name + ". [Order : " + changeSet.getOrder() + "]");
+            }
+            if (!ids.add(changeSet.getId())) {
+                throw new RuntimeException("Duplicate changeSet found in " + name + ". [ChangeSetId : " + changeSet.getId() + "]");
+            }
+        });
+    }
+
+    static Stream<ChangeSet> expandResolved(ChangeSet changeSet) {
+        return changeSet instanceof TemplateChangeSet templateChangeSet && !templateChangeSet.isResolved() ? Stream.of(changeSet) : changeSet.expand();
+    }
+
+    /**
+     * Replaces the placeholders of both changeLogs, once, with the build-time properties of the configs and the given
+     * ones.
+     */
+    public static void setProperties(CassandraConfigs cassandraConfigs, Properties properties) {
+        final Properties merged = new Properties();
+        merged.putAll(properties);
+        merged.putAll(cassandraConfigs.getBuildProperties());
+        setProperties(cassandraConfigs.getChangeLog(), merged);
+        setProperties(cassandraConfigs.getPreChangeLog(), merged);
+        // the values of templates may come from the properties, so their expansions are only known now
+        if (hasTemplates(cassandraConfigs.getPreChangeLog()) || hasTemplates(cassandraConfigs.getChangeLog())) {
+            validate(cassandraConfigs);
+        }
+    }
+
+    /**
+     * Replaces the placeholders of every statement, each parsed once. Templates keep the placeholders of their
+     * {@code forEach} variable.
+     */
+    public static void setProperties(ChangeLog changeLog, Properties properties) {
+        if (changeLog instanceof StreamingChangeLog streamingChangeLog) {
+            streamingChangeLog.setProperties(properties);
+            return;
+        }
+        final Function<String, String> variables = variables(properties);
+        changeLog.getChangeSets().forEach(changeSet -> setProperties(changeSet, variables));
+    }
+
+    static Function<String, String> variables(Properties properties) {
+        return name -> Objects.toString(properties.get(name), null);
+    }
+
+    static void setProperties(ChangeSet changeSet, Function<String, String> variables) {
+        if (changeSet instanceof TemplateChangeSet templateChangeSet) {
+            templateChangeSet.resolve(variables);
+        } else {
+            changeSet.setStatement(StatementTemplate.compile(changeSet.getStatement()).render(variables));
+            changeSet.setRollbackStatement(StatementTemplate.compile(changeSet.getRollbackStatement()).render(variables));
+        }
+    }
+
+    private static boolean hasTemplates(ChangeLog changeLog) {
+        return !(changeLog instanceof StreamingChangeLog) && changeLog.getChangeSets().stream().anyMatch(TemplateChangeSet.class::isInstance);
+    }
+}
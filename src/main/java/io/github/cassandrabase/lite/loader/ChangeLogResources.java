@@ -0,0 +1,123 @@
+package io.github.cassandrabase.lite.loader;
+
+import io.github.cassandrabase.lite.xml.Include;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Resolves the paths of an {@link Include} to classpath resources. A glob is matched against the resources below its
+ * directory part, in class directories and jars; the matches of one glob are sorted by name, so the files of a
+ * directory are read in a stable order on every node.
+ */
+final class ChangeLogResources {
+    private static final String ROOT = "db/";
+
+    private ChangeLogResources() {
+    }
+
+    static List<String> resolve(ClassLoader resourceClassLoader, Include include) {
+        return resolve(resourceClassLoader, include.getPaths());
+    }
+
+    static List<String> resolve(ClassLoader resourceClassLoader, List<String> paths) {
+        final Set<String> resources = new LinkedHashSet<>();
+        for (String path : paths) {
+            if (!isGlob(path)) {
+                resources.add(ROOT + path);
+                continue;
+            }
+            final List<String> matches = match(resourceClassLoader, path);
+            if (matches.isEmpty()) {
+                throw new RuntimeException("Changelog resource not found : " + ROOT + path);
+            }
+            resources.addAll(matches);
+        }
+        if (resources.isEmpty()) {
+            throw new RuntimeException("ChangeLog without path or include.");
+        }
+        return new ArrayList<>(resources);
+    }
+
+    private static boolean isGlob(String path) {
+        return path.chars().anyMatch(c -> c == '*' || c == '?' || c == '[' || c == '{');
+    }
+
+    private static List<String> match(ClassLoader resourceClassLoader, String glob) {
+        // the directory part ends before the first glob character
+        final int separator = glob.lastIndexOf('/', glob.replaceFirst("[*?\\[{].*", "").length());
+        final String directory = ROOT + (separator < 0 ? "" : glob.substring(0, separator + 1));
+        final PathMatcher pathMatcher = FileSystems.getDefault().getPathMatcher("glob:" + glob.substring(separator + 1));
+        final Set<String> matches = new LinkedHashSet<>();
+        try {
+            final Map<String, URL> locations = new LinkedHashMap<>();
+            for (URL url : Collections.list(resourceClassLoader.getResources(directory.substring(0, directory.length() - 1)))) {
+                locations.putIfAbsent(location(url), url);
+            }
+            // jars without directory entries are only found through a file, the config is next to the changelogs
+            for (URL url : Collections.list(resourceClassLoader.getResources(ChangeLogLoader.CONFIG_FILE))) {
+                if ("jar".equals(url.getProtocol())) {
+                    locations.putIfAbsent(location(url), url);
+                }
+            }
+            for (URL url : locations.values()) {
+                for (String relative : list(url, directory)) {
+                    if (pathMatcher.matches(Path.of(relative))) {
+                        matches.add(directory + relative);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return matches.stream().sorted().toList();
+    }
+
+    private static String location(URL url) {
+        final String location = url.toString();
+        return "jar".equals(url.getProtocol()) ? location.substring(0, location.indexOf("!/")) : location;
+    }
+
+    // paths of the files below the directory, relative to it and separated by /
+    private static List<String> list(URL url, String directory) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            final Path root;
+            try {
+                root = Path.of(url.toURI());
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                return files.filter(Files::isRegularFile).map(file -> root.relativize(file).toString().replace('\\', '/')).toList();
+            }
+        }
+        if (url.openConnection() instanceof JarURLConnection jarURLConnection) {
+            jarURLConnection.setUseCaches(false);
+            try (JarFile jarFile = jarURLConnection.getJarFile()) {
+                return jarFile.stream()
+                        .filter(entry -> !entry.isDirectory() && entry.getName().startsWith(directory))
+                        .map(JarEntry::getName)
+                        .map(name -> name.substring(directory.length()))
+                        .toList();
+            }
+        }
+        throw new RuntimeException("Changelog globs are not supported for " + url);
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.cassandrabase.lite.loader;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import java.net.URL;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of {@link JAXBContext}s and compiled XSD {@link Schema}s. Both are thread-safe and expensive to
+ * build, so every {@code Cassandrabase} in the JVM shares them; only the cheap {@link Unmarshaller} is created per use.
+ * Schemas are compiled straight from the classpath.
+ */
+public final class JaxbContextCache {
+    private static final Map<Class<?>, JAXBContext> CONTEXTS = new ConcurrentHashMap<>();
+    private static final Map<String, Schema> SCHEMAS = new ConcurrentHashMap<>();
+
+    private JaxbContextCache() {
+    }
+
+    public static Unmarshaller createUnmarshaller(Class<?> type, String xsdResource) throws JAXBException, SAXException {
+        final Unmarshaller unmarshaller = getContext(type).createUnmarshaller();
+        unmarshaller.setSchema(getSchema(xsdResource));
+        return unmarshaller;
+    }
+
+    public static JAXBContext getContext(Class<?> type) throws JAXBException {
+        try {
+            return CONTEXTS.computeIfAbsent(type, key -> {
+                try {
+                    return JAXBContext.newInstance(key);
+                } catch (JAXBException e) {
+                    throw new CacheLoadException(e);
+                }
+            });
+        } catch (CacheLoadException e) {
+            throw (JAXBException) e.getCause();
+        }
+    }
+
+    public static Schema getSchema(String xsdResource) throws SAXException {
+        try {
+            return SCHEMAS.computeIfAbsent(xsdResource, key -> {
+                final URL url = JaxbContextCache.class.getClassLoader().getResource(key);
+                if (Objects.isNull(url)) {
+                    throw new IllegalStateException("XSD not found on classpath : " + key);
+                }
+                try {
+                    // SchemaFactory is not thread-safe, the compiled Schema is
+                    return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(url);
+                } catch (SAXException e) {
+                    throw new CacheLoadException(e);
+                }
+            });
+        } catch (CacheLoadException e) {
+            throw (SAXException) e.getCause();
+        }
+    }
+
+    private static final class CacheLoadException extends RuntimeException {
+        private CacheLoadException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.cassandrabase.lite.loader;
+
+import io.github.cassandrabase.lite.xml.ChangeLog;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A changelog that is never held in memory: every {@link #streamChangeSets()} re-reads the resource with a
+ * {@link StreamingChangeLogReader}, resolves placeholders per changeSet and expands templates as they are read.
+ */
+public class StreamingChangeLog extends ChangeLog {
+    private final ClassLoader resourceClassLoader;
+    private final String resource;
+    private Properties properties = new Properties();
+    private volatile boolean validated;
+
+    public StreamingChangeLog(ClassLoader resourceClassLoader, String resource) {
+        this.resourceClassLoader = resourceClassLoader;
+        this.resource = resource;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public void setProperties(Properties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public List<ChangeSet> getChangeSets() {
+        throw new UnsupportedOperationException("A streamed changeLog can only be read with streamChangeSets(). [" + this.resource + "]");
+    }
+
+    @Override
+    public void setChangeSets(List<ChangeSet> changeSets) {
+        throw new UnsupportedOperationException("A streamed changeLog is read only. [" + this.resource + "]");
+    }
+
+    @Override
+    public Stream<ChangeSet> streamChangeSets() {
+        // the reader only sees the declared orders, an expansion may run into the next changeSet
+        final AtomicReference<Integer> lastOrder = new AtomicReference<>();
+        return this.streamDeclaredChangeSets()
+                .flatMap(ChangeSet::expand)
+                .peek(changeSet -> {
+                    final Integer previous = lastOrder.getAndSet(changeSet.getOrder());
+                    if (Objects.nonNull(previous) && changeSet.getOrder() <= previous) {
+                        throw new RuntimeException("ChangeSets of a streamed changeLog must be in ascending order. [" + this.resource + ", Order : " + changeSet.getOrder() + " after " + previous + "]");
+                    }
+                });
+    }
+
+    /**
+     * The changeSets as declared, with placeholders resolved but templates not expanded.
+     */
+    public Stream<ChangeSet> streamDeclaredChangeSets() {
+        // one extra pass on the first read, the resource does not change while it is loaded
+        if (!this.validated) {
+            try (InputStream inputStream = this.open()) {
+                StreamingChangeLogReader.validate(inputStream, this.resource);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.validated = true;
+        }
+        final InputStream inputStream = this.open();
+        final StreamingChangeLogReader reader = new StreamingChangeLogReader(inputStream, this.resource);
+        final Function<String, String> variables = ChangeLogLoader.variables(this.properties);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .map(changeSet -> {
+                    ChangeLogLoader.setProperties(changeSet, variables);
+                    return ChangeLogLoader.setResourceClassLoader(changeSet, this.resourceClassLoader);
+                })
+                .onClose(reader::close);
+    }
+
+    private InputStream open() {
+        final InputStream inputStream = this.resourceClassLoader.getResourceAsStream(this.resource);
+        if (Objects.isNull(inputStream)) {
+            throw new RuntimeException("Changelog resource not found : " + this.resource);
+        }
+        return inputStream;
+    }
+}
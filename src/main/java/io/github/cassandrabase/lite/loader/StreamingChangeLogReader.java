@@ -0,0 +1,136 @@
+package io.github.cassandrabase.lite.loader;
+
+import io.github.cassandrabase.lite.xml.BackfillChangeSet;
+import io.github.cassandrabase.lite.xml.ChangeLog;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import io.github.cassandrabase.lite.xml.LoadDataChangeSet;
+import io.github.cassandrabase.lite.xml.TemplateChangeSet;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stax.StAXSource;
+import javax.xml.validation.Validator;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Reads the changeSets of a changelog one at a time with StAX; only the current changeSet is unmarshalled.
+ * Validation is incremental: changeSets must appear in strictly ascending order, so only the last order is kept and
+ * orders are unique without remembering them. The file is checked against {@code changeLog.xsd} by
+ * {@link #validate(InputStream, String)}. Templates are returned as declared.
+ */
+public final class StreamingChangeLogReader implements Iterator<ChangeSet>, Closeable {
+    private static final String CHANGE_SET = "changeSet";
+    private static final String LOAD_DATA = "loadData";
+    private static final String TEMPLATE = "template";
+    private static final String BACKFILL = "backfill";
+    private final String resource;
+    private final InputStream inputStream;
+    private final XMLStreamReader xmlStreamReader;
+    private final Unmarshaller unmarshaller;
+    private Integer lastOrder;
+
+    public StreamingChangeLogReader(InputStream inputStream, String resource) {
+        this.resource = resource;
+        this.inputStream = inputStream;
+        try {
+            this.xmlStreamReader = newXmlInputFactory().createXMLStreamReader(inputStream);
+            this.unmarshaller = JaxbContextCache.getContext(ChangeLog.class).createUnmarshaller();
+        } catch (XMLStreamException | JAXBException e) {
+            throw new RuntimeException("Invalid changelog resource : " + resource, e);
+        }
+    }
+
+    /**
+     * Validates a whole changelog against {@code changeLog.xsd} with a {@link Validator} over a {@link StAXSource}, so
+     * the file is checked without being held in memory.
+     */
+    public static void validate(InputStream inputStream, String resource) {
+        try {
+            final XMLStreamReader xmlStreamReader = newXmlInputFactory().createXMLStreamReader(inputStream);
+            try {
+                final Validator validator = JaxbContextCache.getSchema(ChangeLogLoader.CHANGE_LOG_XSD).newValidator();
+                validator.validate(new StAXSource(xmlStreamReader));
+            } finally {
+                xmlStreamReader.close();
+            }
+        } catch (XMLStreamException | SAXException | IOException e) {
+            throw new RuntimeException("Invalid changelog resource : " + resource, e);
+        }
+    }
+
+    private static XMLInputFactory newXmlInputFactory() {
+        final XMLInputFactory xmlInputFactory = XMLInputFactory.newFactory();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return xmlInputFactory;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (true) {
+                if (this.xmlStreamReader.isStartElement()
+                        && (CHANGE_SET.equals(this.xmlStreamReader.getLocalName()) || LOAD_DATA.equals(this.xmlStreamReader.getLocalName())
+                        || TEMPLATE.equals(this.xmlStreamReader.getLocalName()) || BACKFILL.equals(this.xmlStreamReader.getLocalName()))) {
+                    return true;
+                }
+                if (!this.xmlStreamReader.hasNext()) {
+                    return false;
+                }
+                this.xmlStreamReader.next();
+            }
+        } catch (XMLStreamException e) {
+            throw new RuntimeException("Invalid changelog resource : " + this.resource, e);
+        }
+    }
+
+    @Override
+    public ChangeSet next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            final Class<? extends ChangeSet> type = switch (this.xmlStreamReader.getLocalName()) {
+                case LOAD_DATA -> LoadDataChangeSet.class;
+                case TEMPLATE -> TemplateChangeSet.class;
+                case BACKFILL -> BackfillChangeSet.class;
+                default -> ChangeSet.class;
+            };
+            final ChangeSet changeSet = this.unmarshaller.unmarshal(this.xmlStreamReader, type).getValue();
+            this.validate(changeSet);
+            return changeSet;
+        } catch (JAXBException e) {
+            throw new RuntimeException("Invalid changelog resource : " + this.resource, e);
+        }
+    }
+
+    private void validate(ChangeSet changeSet) {
+        if (Objects.isNull(changeSet.getId()) || Objects.isNull(changeSet.getAuthor()) || Objects.isNull(changeSet.getOrder())
+                || Objects.isNull(changeSet.getConsistencyLevel()) || Objects.isNull(changeSet.getStatement())) {
+            throw new RuntimeException("Incomplete changeSet found in " + this.resource + ". [ChangeSetId : " + changeSet.getId() + ", Order : " + changeSet.getOrder() + "]");
+        }
+        if (Objects.nonNull(this.lastOrder) && changeSet.getOrder() <= this.lastOrder) {
+            throw new RuntimeException("ChangeSets of a streamed changeLog must be in ascending order. [" + this.resource + ", Order : " + changeSet.getOrder() + " after " + this.lastOrder + "]");
+        }
+        this.lastOrder = changeSet.getOrder();
+    }
+
+    @Override
+    public void close() {
+        try {
+            this.xmlStreamReader.close();
+            this.inputStream.close();
+        } catch (XMLStreamException | IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
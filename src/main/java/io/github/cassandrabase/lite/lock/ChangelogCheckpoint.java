@@ -0,0 +1,142 @@
+package io.github.cassandrabase.lite.lock;
+
+import io.github.cassandrabase.lite.entity.ChangelogLockEntity;
+import io.github.cassandrabase.lite.repository.ChangelogLockRepository;
+import io.github.cassandrabase.lite.types.MigrationPhase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Low-water mark of a migration, kept in the lock row: every phase before {@code phase} is done, and so is every
+ * changeSet of {@code phase} up to {@code order}. ChangeSets may complete out of order in parallel modes, so the
+ * mark only advances over orders whose predecessors have all completed. Mark changes are written asynchronously, at
+ * most one write in flight, always with the latest mark; the end of a phase is written synchronously.
+ * <p>
+ * An instance taking the lock over after a crash skips the completed phases, runnables included, and the changeSets
+ * of the current phase up to the mark without looking them up in {@code changelog_history}.
+ */
+public final class ChangelogCheckpoint {
+    private static final Logger log = LoggerFactory.getLogger(ChangelogCheckpoint.class);
+    private final ChangelogLockRepository changelogLockRepository;
+    private final String lockId;
+    private final Integer majorVersion;
+    private final TreeSet<Integer> outstanding = new TreeSet<>();
+    private final TreeSet<Integer> completed = new TreeSet<>();
+    private MigrationPhase phase;
+    private Integer order;
+    private boolean writing;
+    private boolean dirty;
+    private long version;
+    private long writtenVersion;
+
+    public ChangelogCheckpoint(ChangelogLockRepository changelogLockRepository, String lockId, Integer majorVersion, ChangelogLockEntity lockEntity) {
+        this.changelogLockRepository = changelogLockRepository;
+        this.lockId = lockId;
+        this.majorVersion = majorVersion;
+        if (Objects.nonNull(lockEntity) && Objects.nonNull(lockEntity.getCheckpointPhase())) {
+            this.phase = MigrationPhase.valueOf(lockEntity.getCheckpointPhase());
+            this.order = lockEntity.getCheckpointOrder();
+            log.info("Resuming from checkpoint. [Phase : {}, Order : {}, CheckpointTime : {}]", this.phase, this.order, lockEntity.getCheckpointTime());
+        }
+    }
+
+    public synchronized boolean isDone(MigrationPhase migrationPhase) {
+        return Objects.nonNull(this.phase) && migrationPhase.ordinal() < this.phase.ordinal();
+    }
+
+    public synchronized boolean isDone(MigrationPhase migrationPhase, Integer changeSetOrder) {
+        return this.isDone(migrationPhase)
+                || (migrationPhase.equals(this.phase) && Objects.nonNull(this.order) && changeSetOrder <= this.order);
+    }
+
+    /**
+     * Registers the orders of the changeSets about to be executed in the given phase.
+     */
+    public synchronized void track(MigrationPhase migrationPhase, Collection<Integer> orders) {
+        if (!migrationPhase.equals(this.phase)) {
+            this.phase = migrationPhase;
+            this.order = null;
+            this.outstanding.clear();
+            this.completed.clear();
+        }
+        this.outstanding.addAll(orders);
+    }
+
+    public void completed(Collection<Integer> orders) {
+        synchronized (this) {
+            for (Integer completedOrder : orders) {
+                if (this.outstanding.remove(completedOrder)) {
+                    this.completed.add(completedOrder);
+                }
+            }
+            final Integer mark = this.outstanding.isEmpty()
+                    ? (this.completed.isEmpty() ? null : this.completed.last())
+                    : this.completed.lower(this.outstanding.first());
+            if (Objects.isNull(mark)) {
+                return;
+            }
+            this.completed.headSet(mark, true).clear();
+            this.order = Objects.isNull(this.order) ? mark : Math.max(this.order, mark);
+            this.requestWrite();
+        }
+    }
+
+    /**
+     * Marks the phase done and waits until the checkpoint is written.
+     */
+    public synchronized void completed(MigrationPhase migrationPhase) {
+        this.phase = MigrationPhase.values()[migrationPhase.ordinal() + 1];
+        this.order = null;
+        this.outstanding.clear();
+        this.completed.clear();
+        this.requestWrite();
+        final long target = this.version;
+        try {
+            while (this.writtenVersion < target) {
+                this.wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    // called with the monitor held; writes are never concurrent, so a stale mark cannot overwrite a newer one
+    private void requestWrite() {
+        this.version++;
+        if (this.writing) {
+            this.dirty = true;
+        } else {
+            this.write();
+        }
+    }
+
+    private void write() {
+        this.writing = true;
+        final MigrationPhase writtenPhase = this.phase;
+        final Integer writtenOrder = this.order;
+        final long writtenVersion = this.version;
+        this.changelogLockRepository.saveCheckpointAsync(this.lockId, this.majorVersion, writtenPhase.name(), writtenOrder)
+                .whenComplete((asyncResultSet, throwable) -> {
+                    if (Objects.nonNull(throwable)) {
+                        // the history still records every applied changeSet, a lost checkpoint only costs lookups
+                        log.warn("Checkpoint could not be written. [Phase : {}, Order : {}]", writtenPhase, writtenOrder, throwable);
+                    } else {
+                        log.debug("Checkpoint written. [Phase : {}, Order : {}]", writtenPhase, writtenOrder);
+                    }
+                    synchronized (this) {
+                        this.writing = false;
+                        this.writtenVersion = writtenVersion;
+                        if (this.dirty) {
+                            this.dirty = false;
+                            this.write();
+                        }
+                        this.notifyAll();
+                    }
+                });
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.cassandrabase.lite.lock;
+
+import io.github.cassandrabase.lite.exception.LockLostException;
+import io.github.cassandrabase.lite.repository.ChangelogLockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps an acquired changelog lock alive by renewing its TTL from a background daemon thread. If a renewal is rejected,
+ * or no renewal succeeded for a whole lease, the lease counts as lost and {@link #ensureHeld()} fails.
+ */
+public final class ChangelogLockLease implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ChangelogLockLease.class);
+    private final ChangelogLockRepository changelogLockRepository;
+    private final String lockId;
+    private final Integer majorVersion;
+    private final String identifier;
+    private final Duration lease;
+    private final ScheduledExecutorService heartbeat;
+    private final AtomicBoolean lost = new AtomicBoolean(false);
+    private final AtomicLong lastRenewed = new AtomicLong(System.nanoTime());
+
+    public ChangelogLockLease(ChangelogLockRepository changelogLockRepository, String lockId, Integer majorVersion, String identifier, Duration lease, Duration heartbeatInterval) {
+        this.changelogLockRepository = changelogLockRepository;
+        this.lockId = lockId;
+        this.majorVersion = majorVersion;
+        this.identifier = identifier;
+        this.lease = lease;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "cassandrabase-lock-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat.scheduleWithFixedDelay(this::renew, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void renew() {
+        if (this.lost.get()) {
+            return;
+        }
+        try {
+            if (this.changelogLockRepository.renewLock(this.lockId, this.majorVersion, this.identifier, this.lease)) {
+                this.lastRenewed.set(System.nanoTime());
+                log.debug("Lock lease renewed. [{}]", this.lockId);
+            } else {
+                log.error("Lock lease has been taken over by another instance. [{}]", this.lockId);
+                this.lost.set(true);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Lock lease renewal failed. [{}]", this.lockId, e);
+            if (System.nanoTime() - this.lastRenewed.get() >= this.lease.toNanos()) {
+                log.error("Lock lease expired without a successful renewal. [{}]", this.lockId);
+                this.lost.set(true);
+            }
+        }
+    }
+
+    public boolean isLost() {
+        return this.lost.get();
+    }
+
+    public void ensureHeld() {
+        if (this.lost.get()) {
+            throw new LockLostException("Changelog lock lease lost. [LockId : " + this.lockId + ", Identifier : " + this.identifier + "]");
+        }
+    }
+
+    /**
+     * Stops the renewals and waits for one in progress, so the lock can be released right after.
+     */
+    @Override
+    public void close() {
+        this.heartbeat.shutdown();
+        try {
+            if (!this.heartbeat.awaitTermination(this.lease.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Lock lease renewal still running after close. [{}]", this.lockId);
+                this.heartbeat.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.heartbeat.shutdownNow();
+        }
+    }
+}
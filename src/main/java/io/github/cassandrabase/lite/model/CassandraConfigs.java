@@ -2,10 +2,17 @@ package io.github.cassandrabase.lite.model;
 
 import io.github.cassandrabase.lite.xml.ChangeLog;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
 public class CassandraConfigs {
     private ChangeLog preChangeLog;
     private ChangeLog changeLog;
     private Integer majorVersion;
+    private List<String> sourcePaths = new ArrayList<>();
+    private String sourceDigest;
+    private Properties buildProperties = new Properties();
 
     public ChangeLog getChangeLog() {
         return changeLog;
@@ -30,4 +37,39 @@ public class CassandraConfigs {
     public void setPreChangeLog(ChangeLog preChangeLog) {
         this.preChangeLog = preChangeLog;
     }
+
+    /**
+     * Paths, relative to {@code db/}, of the changelogs that are read as a whole. Streamed changelogs are read from
+     * their file on every run.
+     */
+    public List<String> getSourcePaths() {
+        return sourcePaths;
+    }
+
+    public void setSourcePaths(List<String> sourcePaths) {
+        this.sourcePaths = sourcePaths;
+    }
+
+    /**
+     * Digest of the config file and the files of {@link #getSourcePaths()} the changelogs were loaded from,
+     * {@code null} if unknown.
+     */
+    public String getSourceDigest() {
+        return sourceDigest;
+    }
+
+    public void setSourceDigest(String sourceDigest) {
+        this.sourceDigest = sourceDigest;
+    }
+
+    /**
+     * Placeholder values given at build time, applied with the runtime properties; a build-time value wins.
+     */
+    public Properties getBuildProperties() {
+        return buildProperties;
+    }
+
+    public void setBuildProperties(Properties buildProperties) {
+        this.buildProperties = buildProperties;
+    }
 }
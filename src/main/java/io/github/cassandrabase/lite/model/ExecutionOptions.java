@@ -0,0 +1,276 @@
+package io.github.cassandrabase.lite.model;
+
+import java.time.Duration;
+import java.util.Objects;
+
+public class ExecutionOptions {
+    private int ddlGroupSize = 10;
+    private Duration schemaAgreementTimeout = Duration.ofSeconds(30);
+    private Duration schemaAgreementInterval = Duration.ofMillis(200);
+    private Duration lockLease = Duration.ofSeconds(60);
+    private Duration lockHeartbeatInterval;
+    private Duration lockPollInterval = Duration.ofSeconds(1);
+    private int streamingWindowSize = 1_000;
+    private boolean batching;
+    private boolean skipAppliedDdl;
+    private int maxBatchStatements = 50;
+    // batch_size_warn_threshold of Cassandra, measured on the statement text
+    private int maxBatchBytes = 5 * 1024;
+    private int loadDataConcurrency = 64;
+    private int backfillSplits = 256;
+    private int backfillConcurrencyPerNode = 4;
+    private int backfillWritesPerRange = 32;
+    private int maxInFlight = 128;
+    private double statementsPerSecond;
+    private int overloadRetries = 5;
+    private Duration overloadBackoff = Duration.ofMillis(100);
+    private Duration maxOverloadBackoff = Duration.ofSeconds(10);
+    private int maxConcurrentKeyspaces = 8;
+
+    public int getDdlGroupSize() {
+        return ddlGroupSize;
+    }
+
+    public void setDdlGroupSize(int ddlGroupSize) {
+        if (ddlGroupSize < 1) {
+            throw new IllegalArgumentException("ddlGroupSize must be positive : " + ddlGroupSize);
+        }
+        this.ddlGroupSize = ddlGroupSize;
+    }
+
+    public Duration getSchemaAgreementTimeout() {
+        return schemaAgreementTimeout;
+    }
+
+    public void setSchemaAgreementTimeout(Duration schemaAgreementTimeout) {
+        this.schemaAgreementTimeout = schemaAgreementTimeout;
+    }
+
+    public Duration getSchemaAgreementInterval() {
+        return schemaAgreementInterval;
+    }
+
+    public void setSchemaAgreementInterval(Duration schemaAgreementInterval) {
+        this.schemaAgreementInterval = schemaAgreementInterval;
+    }
+
+    /**
+     * TTL of the lock row. Waiting instances take the lock over once the lease of a holder that stopped renewing it
+     * has expired.
+     */
+    public Duration getLockLease() {
+        return lockLease;
+    }
+
+    public void setLockLease(Duration lockLease) {
+        this.lockLease = lockLease;
+    }
+
+    /**
+     * Defaults to a third of the lock lease, so two renewals may fail before the lease runs out.
+     */
+    public Duration getLockHeartbeatInterval() {
+        return Objects.isNull(lockHeartbeatInterval) ? lockLease.dividedBy(3) : lockHeartbeatInterval;
+    }
+
+    public void setLockHeartbeatInterval(Duration lockHeartbeatInterval) {
+        this.lockHeartbeatInterval = lockHeartbeatInterval;
+    }
+
+    public Duration getLockPollInterval() {
+        return lockPollInterval;
+    }
+
+    public void setLockPollInterval(Duration lockPollInterval) {
+        this.lockPollInterval = lockPollInterval;
+    }
+
+    /**
+     * ChangeSets of a streamed changeLog applied at a time. Each window looks its changeSets and their dependencies up
+     * in the history by id and checks their ids for duplicates, so memory does not grow with the file or the history.
+     */
+    public int getStreamingWindowSize() {
+        return streamingWindowSize;
+    }
+
+    public void setStreamingWindowSize(int streamingWindowSize) {
+        if (streamingWindowSize < 1) {
+            throw new IllegalArgumentException("streamingWindowSize must be positive : " + streamingWindowSize);
+        }
+        this.streamingWindowSize = streamingWindowSize;
+    }
+
+    /**
+     * Sends consecutive single-row DML changeSets on the same partition as unlogged batches.
+     */
+    public boolean isBatching() {
+        return batching;
+    }
+
+    public void setBatching(boolean batching) {
+        this.batching = batching;
+    }
+
+    /**
+     * Reads {@code system_schema} once before applying changes and skips DDL whose effect is already in the schema.
+     * The schema is read once the lock is held, so a previous holder that died half way cannot change it afterwards,
+     * and only for the migrated keyspace (one partition per {@code system_schema} table); DDL on other keyspaces is
+     * always sent. Skipped changeSets are recorded as applied.
+     */
+    public boolean isSkipAppliedDdl() {
+        return skipAppliedDdl;
+    }
+
+    public void setSkipAppliedDdl(boolean skipAppliedDdl) {
+        this.skipAppliedDdl = skipAppliedDdl;
+    }
+
+    public int getMaxBatchStatements() {
+        return maxBatchStatements;
+    }
+
+    public void setMaxBatchStatements(int maxBatchStatements) {
+        if (maxBatchStatements < 1) {
+            throw new IllegalArgumentException("maxBatchStatements must be positive : " + maxBatchStatements);
+        }
+        this.maxBatchStatements = maxBatchStatements;
+    }
+
+    public int getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    public void setMaxBatchBytes(int maxBatchBytes) {
+        if (maxBatchBytes < 1) {
+            throw new IllegalArgumentException("maxBatchBytes must be positive : " + maxBatchBytes);
+        }
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    /**
+     * Maximum number of asynchronous writes in flight while a {@code loadData} changeSet is loaded.
+     */
+    public int getLoadDataConcurrency() {
+        return loadDataConcurrency;
+    }
+
+    public void setLoadDataConcurrency(int loadDataConcurrency) {
+        if (loadDataConcurrency < 1) {
+            throw new IllegalArgumentException("loadDataConcurrency must be positive : " + loadDataConcurrency);
+        }
+        this.loadDataConcurrency = loadDataConcurrency;
+    }
+
+    /**
+     * Minimum number of token ranges a {@code backfill} changeSet splits the ring into; the ranges of the token map are
+     * split further until there are at least as many.
+     */
+    public int getBackfillSplits() {
+        return backfillSplits;
+    }
+
+    public void setBackfillSplits(int backfillSplits) {
+        if (backfillSplits < 1) {
+            throw new IllegalArgumentException("backfillSplits must be positive : " + backfillSplits);
+        }
+        this.backfillSplits = backfillSplits;
+    }
+
+    /**
+     * Token ranges of a {@code backfill} changeSet scanned at once per node of the cluster, so a backfill gets faster as
+     * the cluster grows.
+     */
+    public int getBackfillConcurrencyPerNode() {
+        return backfillConcurrencyPerNode;
+    }
+
+    public void setBackfillConcurrencyPerNode(int backfillConcurrencyPerNode) {
+        if (backfillConcurrencyPerNode < 1) {
+            throw new IllegalArgumentException("backfillConcurrencyPerNode must be positive : " + backfillConcurrencyPerNode);
+        }
+        this.backfillConcurrencyPerNode = backfillConcurrencyPerNode;
+    }
+
+    /**
+     * Maximum number of asynchronous writes in flight for each token range scanned by a {@code backfill} changeSet.
+     */
+    public int getBackfillWritesPerRange() {
+        return backfillWritesPerRange;
+    }
+
+    public void setBackfillWritesPerRange(int backfillWritesPerRange) {
+        if (backfillWritesPerRange < 1) {
+            throw new IllegalArgumentException("backfillWritesPerRange must be positive : " + backfillWritesPerRange);
+        }
+        this.backfillWritesPerRange = backfillWritesPerRange;
+    }
+
+    /**
+     * Upper bound of asynchronous statements in flight; the actual window shrinks while the cluster reports overload.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive : " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Rate limit of asynchronous statements, 0 for none.
+     */
+    public double getStatementsPerSecond() {
+        return statementsPerSecond;
+    }
+
+    public void setStatementsPerSecond(double statementsPerSecond) {
+        if (statementsPerSecond < 0) {
+            throw new IllegalArgumentException("statementsPerSecond must not be negative : " + statementsPerSecond);
+        }
+        this.statementsPerSecond = statementsPerSecond;
+    }
+
+    public int getOverloadRetries() {
+        return overloadRetries;
+    }
+
+    public void setOverloadRetries(int overloadRetries) {
+        if (overloadRetries < 0) {
+            throw new IllegalArgumentException("overloadRetries must not be negative : " + overloadRetries);
+        }
+        this.overloadRetries = overloadRetries;
+    }
+
+    public Duration getOverloadBackoff() {
+        return overloadBackoff;
+    }
+
+    public void setOverloadBackoff(Duration overloadBackoff) {
+        this.overloadBackoff = overloadBackoff;
+    }
+
+    public Duration getMaxOverloadBackoff() {
+        return maxOverloadBackoff;
+    }
+
+    public void setMaxOverloadBackoff(Duration maxOverloadBackoff) {
+        this.maxOverloadBackoff = maxOverloadBackoff;
+    }
+
+    /**
+     * Keyspaces a {@code MultiKeyspaceCassandrabase} migrates at the same time. Each has its own {@link #getMaxInFlight()}.
+     */
+    public int getMaxConcurrentKeyspaces() {
+        return maxConcurrentKeyspaces;
+    }
+
+    public void setMaxConcurrentKeyspaces(int maxConcurrentKeyspaces) {
+        if (maxConcurrentKeyspaces < 1) {
+            throw new IllegalArgumentException("maxConcurrentKeyspaces must be positive : " + maxConcurrentKeyspaces);
+        }
+        this.maxConcurrentKeyspaces = maxConcurrentKeyspaces;
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.cassandrabase.lite.repository;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.querybuilder.QueryBuilder;
+import com.datastax.oss.driver.api.querybuilder.SchemaBuilder;
+import io.github.cassandrabase.lite.entity.ChangelogBackfillEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The token ranges completed by the backfill changeSets that are still running, one partition per changeSet.
+ */
+public class ChangelogBackfillRepository implements ChangelogBackfillEntity.Keys {
+    private static final Logger log = LoggerFactory.getLogger(ChangelogBackfillRepository.class);
+    private final CqlSession cqlSession;
+    private final SystemSchemaRepository systemSchemaRepository;
+    private final String keyspace;
+
+    public ChangelogBackfillRepository(CqlSession cqlSession) {
+        this(cqlSession, null);
+    }
+
+    /**
+     * @param keyspace keyspace of the table, {@code null} for the session keyspace
+     */
+    public ChangelogBackfillRepository(CqlSession cqlSession, String keyspace) {
+        this.cqlSession = cqlSession;
+        this.systemSchemaRepository = new SystemSchemaRepository(cqlSession, keyspace);
+        this.keyspace = Objects.isNull(keyspace) ? null : CqlIdentifier.fromInternal(keyspace).asCql(true);
+    }
+
+    public void createTableIfNotExists() {
+        if (this.systemSchemaRepository.tableExists(TABLE_NAME)) {
+            return;
+        }
+        SimpleStatement createTableQuery = SchemaBuilder
+                .createTable(this.keyspace, TABLE_NAME)
+                .ifNotExists()
+                .withPartitionKey(MAJOR_VERSION, DataTypes.INT)
+                .withPartitionKey(CHANGE_SET_ID, DataTypes.TEXT)
+                .withClusteringColumn(RANGE_START, DataTypes.BIGINT)
+                .withClusteringColumn(RANGE_END, DataTypes.BIGINT)
+                .withColumn(MD5_SUM, DataTypes.TEXT)
+                .withColumn(ROW_COUNT, DataTypes.BIGINT)
+                .withColumn(COMPLETED_AT, DataTypes.TIMESTAMP)
+                .withColumn(COMPLETED_BY, DataTypes.TEXT)
+                .build();
+        log.debug("ChangelogBackfillRepository:createTableIfNotExists:{}", createTableQuery.getQuery());
+        cqlSession.execute(createTableQuery);
+    }
+
+    public List<ChangelogBackfillEntity> findAll(Integer majorVersion, String changeSetId) {
+        SimpleStatement simpleStatement = QueryBuilder.selectFrom(this.keyspace, TABLE_NAME)
+                .all()
+                .whereColumn(MAJOR_VERSION)
+                .isEqualTo(QueryBuilder.literal(majorVersion))
+                .whereColumn(CHANGE_SET_ID)
+                .isEqualTo(QueryBuilder.literal(changeSetId))
+                .build()
+                .setConsistencyLevel(DefaultConsistencyLevel.LOCAL_QUORUM);
+        log.debug("ChangelogBackfillRepository:findAll:{}", simpleStatement.getQuery());
+        final List<ChangelogBackfillEntity> ranges = new ArrayList<>();
+        for (Row row : cqlSession.execute(simpleStatement)) {
+            ranges.add(map(row));
+        }
+        return ranges;
+    }
+
+    public void save(ChangelogBackfillEntity entity) {
+        SimpleStatement insertQuery = QueryBuilder
+                .insertInto(this.keyspace, TABLE_NAME)
+                .value(MAJOR_VERSION, QueryBuilder.literal(entity.getMajorVersion()))
+                .value(CHANGE_SET_ID, QueryBuilder.literal(entity.getChangeSetId()))
+                .value(RANGE_START, QueryBuilder.literal(entity.getRangeStart()))
+                .value(RANGE_END, QueryBuilder.literal(entity.getRangeEnd()))
+                .value(MD5_SUM, QueryBuilder.literal(entity.getMd5Sum()))
+                .value(ROW_COUNT, QueryBuilder.literal(entity.getRowCount()))
+                .value(COMPLETED_AT, QueryBuilder.literal(entity.getCompletedAt()))
+                .value(COMPLETED_BY, QueryBuilder.literal(entity.getCompletedBy()))
+                .build()
+                .setConsistencyLevel(DefaultConsistencyLevel.LOCAL_QUORUM);
+        log.debug("ChangelogBackfillRepository:save:{}", insertQuery.getQuery());
+        cqlSession.execute(insertQuery);
+    }
+
+    /**
+     * Forgets the ranges of a changeSet, once it is recorded in the history.
+     */
+    public void deleteAll(Integer majorVersion, String changeSetId) {
+        SimpleStatement deleteQuery = QueryBuilder
+                .deleteFrom(this.keyspace, TABLE_NAME)
+                .whereColumn(MAJOR_VERSION)
+                .isEqualTo(QueryBuilder.literal(majorVersion))
+                .whereColumn(CHANGE_SET_ID)
+                .isEqualTo(QueryBuilder.literal(changeSetId))
+                .build()
+                .setConsistencyLevel(DefaultConsistencyLevel.LOCAL_QUORUM);
+        log.debug("ChangelogBackfillRepository:deleteAll:{}", deleteQuery.getQuery());
+        cqlSession.execute(deleteQuery);
+    }
+
+    public static ChangelogBackfillEntity map(Row row) {
+        ChangelogBackfillEntity changelogBackfillEntity = new ChangelogBackfillEntity();
+        if (row.getColumnDefinitions().contains(MAJOR_VERSION)) {
+            changelogBackfillEntity.setMajorVersion(row.getInt(MAJOR_VERSION));
+        }
+        if (row.getColumnDefinitions().contains(CHANGE_SET_ID)) {
+            changelogBackfillEntity.setChangeSetId(row.getString(CHANGE_SET_ID));
+        }
+        if (row.getColumnDefinitions().contains(RANGE_START)) {
+            changelogBackfillEntity.setRangeStart(row.getLong(RANGE_START));
+        }
+        if (row.getColumnDefinitions().contains(RANGE_END)) {
+            changelogBackfillEntity.setRangeEnd(row.getLong(RANGE_END));
+        }
+        if (row.getColumnDefinitions().contains(MD5_SUM)) {
+            changelogBackfillEntity.setMd5Sum(row.getString(MD5_SUM));
+        }
+        if (row.getColumnDefinitions().contains(ROW_COUNT)) {
+            changelogBackfillEntity.setRowCount(row.getLong(ROW_COUNT));
+        }
+        if (row.getColumnDefinitions().contains(COMPLETED_AT)) {
+            changelogBackfillEntity.setCompletedAt(row.getInstant(COMPLETED_AT));
+        }
+        if (row.getColumnDefinitions().contains(COMPLETED_BY)) {
+            changelogBackfillEntity.setCompletedBy(row.getString(COMPLETED_BY));
+        }
+        return changelogBackfillEntity;
+    }
+}
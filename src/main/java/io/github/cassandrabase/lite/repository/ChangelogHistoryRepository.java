@@ -0,0 +1,218 @@
+package io.github.cassandrabase.lite.repository;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.querybuilder.QueryBuilder;
+import com.datastax.oss.driver.api.querybuilder.SchemaBuilder;
+import com.datastax.oss.driver.api.querybuilder.term.Term;
+import io.github.cassandrabase.lite.entity.ChangelogHistoryEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+public class ChangelogHistoryRepository implements ChangelogHistoryEntity.Keys {
+    private static final Logger log = LoggerFactory.getLogger(ChangelogHistoryRepository.class);
+    private static final int MAX_IDS_PER_QUERY = 100;
+    private final CqlSession cqlSession;
+    private final SystemSchemaRepository systemSchemaRepository;
+    private final String keyspace;
+
+    public ChangelogHistoryRepository(CqlSession cqlSession) {
+        this(cqlSession, null);
+    }
+
+    /**
+     * @param keyspace keyspace of the table, {@code null} for the session keyspace
+     */
+    public ChangelogHistoryRepository(CqlSession cqlSession, String keyspace) {
+        this.cqlSession = cqlSession;
+        this.systemSchemaRepository = new SystemSchemaRepository(cqlSession, keyspace);
+        this.keyspace = Objects.isNull(keyspace) ? null : CqlIdentifier.fromInternal(keyspace).asCql(true);
+    }
+
+    public void createTableIfNotExists() {
+        if (this.systemSchemaRepository.tableExists(TABLE_NAME)) {
+            return;
+        }
+        SimpleStatement createTableQuery = SchemaBuilder
+                .createTable(this.keyspace, TABLE_NAME)
+                .ifNotExists()
+                .withPartitionKey(MAJOR_VERSION, DataTypes.INT)
+                .withClusteringColumn(CHANGE_SET_ID, DataTypes.TEXT)
+                .withColumn(MD5_SUM, DataTypes.TEXT)
+                .withColumn(AUTHOR, DataTypes.TEXT)
+                .withColumn(CHANGE_SET_ORDER, DataTypes.INT)
+                .withColumn(APPLIED_AT, DataTypes.TIMESTAMP)
+                .withColumn(APPLIED_BY, DataTypes.TEXT)
+                .build();
+        log.debug("ChangelogHistoryRepository:createTableIfNotExists:{}", createTableQuery.getQuery());
+        cqlSession.execute(createTableQuery);
+    }
+
+    /**
+     * Loads the whole history of a major version with a single partition read, keyed by changeSet id.
+     */
+    public Map<String, ChangelogHistoryEntity> findAll(Integer majorVersion) {
+        return this.findAll(majorVersion, changeSetId -> true);
+    }
+
+    /**
+     * Reads the partition of a major version page by page and keeps the entries of the accepted changeSets only.
+     */
+    public Map<String, ChangelogHistoryEntity> findAll(Integer majorVersion, Predicate<String> changeSetIds) {
+        SimpleStatement simpleStatement = QueryBuilder.selectFrom(this.keyspace, TABLE_NAME)
+                .all()
+                .whereColumn(MAJOR_VERSION)
+                .isEqualTo(QueryBuilder.literal(majorVersion))
+                .build()
+                .setConsistencyLevel(DefaultConsistencyLevel.LOCAL_QUORUM);
+        log.debug("ChangelogHistoryRepository:findAll:{}", simpleStatement.getQuery());
+        final Map<String, ChangelogHistoryEntity> history = new HashMap<>();
+        for (Row row : cqlSession.execute(simpleStatement)) {
+            if (changeSetIds.test(row.getString(CHANGE_SET_ID))) {
+                final ChangelogHistoryEntity entity = map(row);
+                history.put(entity.getChangeSetId(), entity);
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Loads the entries of the given changeSets by clustering key, {@value #MAX_IDS_PER_QUERY} ids per concurrent
+     * query, so what is read and held is bounded by the ids rather than by the whole history.
+     */
+    public Map<String, ChangelogHistoryEntity> findByIds(Integer majorVersion, Collection<String> changeSetIds) {
+        final List<String> ids = List.copyOf(changeSetIds);
+        final Map<String, ChangelogHistoryEntity> history = new ConcurrentHashMap<>();
+        final List<CompletableFuture<Void>> queries = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            SimpleStatement simpleStatement = QueryBuilder.selectFrom(this.keyspace, TABLE_NAME)
+                    .all()
+                    .whereColumn(MAJOR_VERSION)
+                    .isEqualTo(QueryBuilder.literal(majorVersion))
+                    .whereColumn(CHANGE_SET_ID)
+                    .in(ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size())).stream().map(QueryBuilder::literal).toArray(Term[]::new))
+                    .build()
+                    .setConsistencyLevel(DefaultConsistencyLevel.LOCAL_QUORUM);
+            log.debug("ChangelogHistoryRepository:findByIds:{}", simpleStatement.getQuery());
+            queries.add(this.collect(cqlSession.executeAsync(simpleStatement), history).toCompletableFuture());
+        }
+        CompletableFuture.allOf(queries.toArray(CompletableFuture[]::new)).join();
+        return history;
+    }
+
+    private CompletionStage<Void> collect(CompletionStage<AsyncResultSet> resultSetStage, Map<String, ChangelogHistoryEntity> history) {
+        return resultSetStage.thenCompose(resultSet -> {
+            for (Row row : resultSet.currentPage()) {
+                final ChangelogHistoryEntity entity = map(row);
+                history.put(entity.getChangeSetId(), entity);
+            }
+            return resultSet.hasMorePages() ? this.collect(resultSet.fetchNextPage(), history) : CompletableFuture.completedFuture(null);
+        });
+    }
+
+    public void save(ChangelogHistoryEntity entity) {
+        cqlSession.execute(this.insertQuery(entity));
+    }
+
+    public CompletionStage<AsyncResultSet> saveAsync(ChangelogHistoryEntity entity) {
+        return cqlSession.executeAsync(this.insertQuery(entity));
+    }
+
+    /**
+     * Saves several entries of one major version, i.e. one partition, with a single unlogged batch.
+     */
+    public void saveAll(List<ChangelogHistoryEntity> entities) {
+        cqlSession.execute(this.insertBatch(entities));
+    }
+
+    public CompletionStage<AsyncResultSet> saveAllAsync(List<ChangelogHistoryEntity> entities) {
+        return cqlSession.executeAsync(this.insertBatch(entities));
+    }
+
+    public void delete(Integer majorVersion, String changeSetId) {
+        cqlSession.execute(this.deleteQuery(majorVersion, changeSetId));
+    }
+
+    public CompletionStage<AsyncResultSet> deleteAsync(Integer majorVersion, String changeSetId) {
+        return cqlSession.executeAsync(this.deleteQuery(majorVersion, changeSetId));
+    }
+
+    private SimpleStatement deleteQuery(Integer majorVersion, String changeSetId) {
+        SimpleStatement deleteQuery = QueryBuilder
+                .deleteFrom(this.keyspace, TABLE_NAME)
+                .whereColumn(MAJOR_VERSION)
+                .isEqualTo(QueryBuilder.literal(majorVersion))
+                .whereColumn(CHANGE_SET_ID)
+                .isEqualTo(QueryBuilder.literal(changeSetId))
+                .build()
+                .setConsistencyLevel(DefaultConsistencyLevel.LOCAL_QUORUM);
+        log.debug("ChangelogHistoryRepository:delete:{}", deleteQuery.getQuery());
+        return deleteQuery;
+    }
+
+    private BatchStatement insertBatch(List<ChangelogHistoryEntity> entities) {
+        return BatchStatement.newInstance(DefaultBatchType.UNLOGGED)
+                .addAll(entities.stream().map(this::insertQuery).toList())
+                .setConsistencyLevel(DefaultConsistencyLevel.LOCAL_QUORUM);
+    }
+
+    private SimpleStatement insertQuery(ChangelogHistoryEntity entity) {
+        SimpleStatement insertQuery = QueryBuilder
+                .insertInto(this.keyspace, TABLE_NAME)
+                .value(MAJOR_VERSION, QueryBuilder.literal(entity.getMajorVersion()))
+                .value(CHANGE_SET_ID, QueryBuilder.literal(entity.getChangeSetId()))
+                .value(MD5_SUM, QueryBuilder.literal(entity.getMd5Sum()))
+                .value(AUTHOR, QueryBuilder.literal(entity.getAuthor()))
+                .value(CHANGE_SET_ORDER, QueryBuilder.literal(entity.getChangeSetOrder()))
+                .value(APPLIED_AT, QueryBuilder.literal(entity.getAppliedAt()))
+                .value(APPLIED_BY, QueryBuilder.literal(entity.getAppliedBy()))
+                .build()
+                .setConsistencyLevel(DefaultConsistencyLevel.LOCAL_QUORUM);
+        log.debug("ChangelogHistoryRepository:save:{}", insertQuery.getQuery());
+        return insertQuery;
+    }
+
+    public static ChangelogHistoryEntity map(Row row) {
+        ChangelogHistoryEntity changelogHistoryEntity = new ChangelogHistoryEntity();
+        if (row.getColumnDefinitions().contains(MAJOR_VERSION)) {
+            changelogHistoryEntity.setMajorVersion(row.getInt(MAJOR_VERSION));
+        }
+        if (row.getColumnDefinitions().contains(CHANGE_SET_ID)) {
+            changelogHistoryEntity.setChangeSetId(row.getString(CHANGE_SET_ID));
+        }
+        if (row.getColumnDefinitions().contains(MD5_SUM)) {
+            changelogHistoryEntity.setMd5Sum(row.getString(MD5_SUM));
+        }
+        if (row.getColumnDefinitions().contains(AUTHOR)) {
+            changelogHistoryEntity.setAuthor(row.getString(AUTHOR));
+        }
+        if (row.getColumnDefinitions().contains(CHANGE_SET_ORDER)) {
+            changelogHistoryEntity.setChangeSetOrder(row.getInt(CHANGE_SET_ORDER));
+        }
+        if (row.getColumnDefinitions().contains(APPLIED_AT)) {
+            changelogHistoryEntity.setAppliedAt(row.getInstant(APPLIED_AT));
+        }
+        if (row.getColumnDefinitions().contains(APPLIED_BY)) {
+            changelogHistoryEntity.setAppliedBy(row.getString(APPLIED_BY));
+        }
+        return changelogHistoryEntity;
+    }
+}
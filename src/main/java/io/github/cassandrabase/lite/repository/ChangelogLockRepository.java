@@ -1,90 +1,345 @@
 package io.github.cassandrabase.lite.repository;
 
 
+import com.datastax.oss.driver.api.core.CqlIdentifier;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
+import com.datastax.oss.driver.api.core.type.DataTypes;
 import com.datastax.oss.driver.api.querybuilder.QueryBuilder;
+import com.datastax.oss.driver.api.querybuilder.SchemaBuilder;
+import com.datastax.oss.driver.api.querybuilder.update.Update;
+import com.datastax.oss.driver.api.querybuilder.update.UpdateWithAssignments;
 import io.github.cassandrabase.lite.entity.ChangelogLockEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 public class ChangelogLockRepository implements ChangelogLockEntity.Keys {
     private static final Logger log = LoggerFactory.getLogger(ChangelogLockRepository.class);
     private final CqlSession cqlSession;
+    private final SystemSchemaRepository systemSchemaRepository;
+    private final String keyspace;
 
     public ChangelogLockRepository(CqlSession cqlSession) {
+        this(cqlSession, null);
+    }
+
+    /**
+     * @param keyspace keyspace of the table, {@code null} for the session keyspace
+     */
+    public ChangelogLockRepository(CqlSession cqlSession, String keyspace) {
         this.cqlSession = cqlSession;
+        this.systemSchemaRepository = new SystemSchemaRepository(cqlSession, keyspace);
+        this.keyspace = Objects.isNull(keyspace) ? null : CqlIdentifier.fromInternal(keyspace).asCql(true);
+    }
+
+    /**
+     * Acquires the lock as a lease that expires after {@code lease} unless it is renewed. A lock row whose lease
+     * already expired is taken over, see {@link #isExpired}.
+     */
+    public boolean acquireLock(String lockId, Integer majorVersion, String identifier, Duration lease) {
+        final ResultSet resultSet = cqlSession.execute(this.acquireLockQuery(lockId, majorVersion, identifier, lease));
+        if (resultSet.wasApplied()) {
+            return true;
+        }
+        final ChangelogLockEntity current = Optional.ofNullable(resultSet.one()).map(ChangelogLockRepository::map).orElse(null);
+        if (isExpired(current, lease)) {
+            return this.takeOverLock(lockId, majorVersion, identifier, lease, current);
+        }
+        return false;
+    }
+
+    /**
+     * {@link #acquireLock} without blocking.
+     */
+    public CompletionStage<Boolean> acquireLockAsync(String lockId, Integer majorVersion, String identifier, Duration lease) {
+        return cqlSession.executeAsync(this.acquireLockQuery(lockId, majorVersion, identifier, lease)).thenCompose(asyncResultSet -> {
+            if (asyncResultSet.wasApplied()) {
+                return CompletableFuture.completedFuture(true);
+            }
+            final ChangelogLockEntity current = Optional.ofNullable(asyncResultSet.one()).map(ChangelogLockRepository::map).orElse(null);
+            if (isExpired(current, lease)) {
+                return cqlSession.executeAsync(this.takeOverLockQuery(lockId, majorVersion, identifier, lease, current)).thenApply(AsyncResultSet::wasApplied);
+            }
+            return CompletableFuture.completedFuture(false);
+        });
+    }
+
+    /**
+     * Whether a lock row can be taken over: its lease expired and only non-expiring cells are left, or it is locked
+     * but was not renewed for a whole lease. The latter are the rows written without TTL by the releases before the
+     * lease, which never unlocked, or the rows of a holder that died before its TTL was set.
+     */
+    public static boolean isExpired(ChangelogLockEntity current, Duration lease) {
+        if (Objects.isNull(current)) {
+            return false;
+        }
+        if (Objects.isNull(current.getLocked())) {
+            return true;
+        }
+        return current.getLocked()
+                && (Objects.isNull(current.getLockTime()) || current.getLockTime().plus(lease).isBefore(Instant.now()));
     }
 
-    public boolean acquireLock(String lockId, Integer majorVersion, String identifier) {
+    private SimpleStatement acquireLockQuery(String lockId, Integer majorVersion, String identifier, Duration lease) {
         SimpleStatement acquireLockQuery = QueryBuilder
-                .insertInto(TABLE_NAME)
+                .insertInto(this.keyspace, TABLE_NAME)
                 .value(ID, QueryBuilder.literal(lockId))
                 .value(MAJOR_VERSION, QueryBuilder.literal(majorVersion))
                 .value(LOCKED, QueryBuilder.literal(true))
                 .value(LOCK_TIME, QueryBuilder.literal(Instant.now()))
                 .value(LOCKED_BY, QueryBuilder.literal(identifier))
+                .ifNotExists()
+                .usingTtl(ttl(lease))
                 .build();
         log.debug("ChangelogLockRepository:acquireLock:{}", acquireLockQuery.getQuery());
+        return acquireLockQuery;
+    }
+
+    private boolean takeOverLock(String lockId, Integer majorVersion, String identifier, Duration lease, ChangelogLockEntity current) {
         return cqlSession
-                .execute(acquireLockQuery)
+                .execute(this.takeOverLockQuery(lockId, majorVersion, identifier, lease, current))
                 .wasApplied();
     }
 
+    // conditional on what was seen expired, so only one of the instances taking over at once wins
+    private SimpleStatement takeOverLockQuery(String lockId, Integer majorVersion, String identifier, Duration lease, ChangelogLockEntity current) {
+        final UpdateWithAssignments update = QueryBuilder
+                .update(this.keyspace, TABLE_NAME)
+                .usingTtl(ttl(lease))
+                .setColumn(LOCKED, QueryBuilder.literal(true))
+                .setColumn(LOCK_TIME, QueryBuilder.literal(Instant.now()))
+                .setColumn(LOCKED_BY, QueryBuilder.literal(identifier));
+        final Update where = update
+                .whereColumn(ID)
+                .isEqualTo(QueryBuilder.literal(lockId))
+                .whereColumn(MAJOR_VERSION)
+                .isEqualTo(QueryBuilder.literal(majorVersion));
+        SimpleStatement takeOverLockQuery = (Objects.isNull(current.getLocked())
+                ? where.ifColumn(LOCKED).isEqualTo(QueryBuilder.literal(null))
+                : where.ifColumn(LOCKED).isEqualTo(QueryBuilder.literal(true))
+                .ifColumn(LOCK_TIME).isEqualTo(QueryBuilder.literal(current.getLockTime())))
+                .build();
+        log.debug("ChangelogLockRepository:takeOverLock:{}", takeOverLockQuery.getQuery());
+        return takeOverLockQuery;
+    }
+
+    /**
+     * Extends the lease of its holder. Never applied once the version is marked as done, so a late renewal cannot
+     * lock a released version again.
+     */
+    public boolean renewLock(String lockId, Integer majorVersion, String identifier, Duration lease) {
+        SimpleStatement renewLockQuery = QueryBuilder
+                .update(this.keyspace, TABLE_NAME)
+                .usingTtl(ttl(lease))
+                .setColumn(LOCKED, QueryBuilder.literal(true))
+                .setColumn(LOCK_TIME, QueryBuilder.literal(Instant.now()))
+                .setColumn(LOCKED_BY, QueryBuilder.literal(identifier))
+                .whereColumn(ID)
+                .isEqualTo(QueryBuilder.literal(lockId))
+                .whereColumn(MAJOR_VERSION)
+                .isEqualTo(QueryBuilder.literal(majorVersion))
+                .ifColumn(LOCKED_BY)
+                .isEqualTo(QueryBuilder.literal(identifier))
+                .ifColumn(LOCKED)
+                .isEqualTo(QueryBuilder.literal(true))
+                .build();
+        log.debug("ChangelogLockRepository:renewLock:{}", renewLockQuery.getQuery());
+        return cqlSession
+                .execute(renewLockQuery)
+                .wasApplied();
+    }
 
+    /**
+     * Marks the version as done. The written cells do not expire, so later instances see {@code locked = false}.
+     */
     public boolean releaseLock(String lockId, Integer majorVersion, String identifier) {
-//        SimpleStatement acquireLockQuery = QueryBuilder
-//                .update(TABLE_NAME)
-//                .setColumn(LOCKED, QueryBuilder.literal(false))
-//                .whereColumn(ID)
-//                .isEqualTo(QueryBuilder.literal(lockId))
-//                .whereColumn(MAJOR_VERSION)
-//                .isEqualTo(QueryBuilder.literal(majorVersion))
-//                .whereColumn(LOCKED)
-//                .isEqualTo(QueryBuilder.literal(true))
-//                .build();
-        //todo: 2/3/2026 4:00 PM temporally disabled
-//        log.debug("ChangelogLockRepository:releaseLock:{}", acquireLockQuery.getQuery());
-//        return cqlSession
-//                .execute(acquireLockQuery)
-//                .wasApplied();
-        return true;
+        SimpleStatement releaseLockQuery = QueryBuilder
+                .update(this.keyspace, TABLE_NAME)
+                .setColumn(LOCKED, QueryBuilder.literal(false))
+                .setColumn(LOCK_TIME, QueryBuilder.literal(Instant.now()))
+                .setColumn(LOCKED_BY, QueryBuilder.literal(identifier))
+                .whereColumn(ID)
+                .isEqualTo(QueryBuilder.literal(lockId))
+                .whereColumn(MAJOR_VERSION)
+                .isEqualTo(QueryBuilder.literal(majorVersion))
+                .ifColumn(LOCKED_BY)
+                .isEqualTo(QueryBuilder.literal(identifier))
+                .build();
+        log.debug("ChangelogLockRepository:releaseLock:{}", releaseLockQuery.getQuery());
+        return cqlSession
+                .execute(releaseLockQuery)
+                .wasApplied();
     }
 
-    public ChangelogLockEntity getByLockId(String md5Key, Integer majorVersion) {
+    /**
+     * Gives the lease up without marking the version as done, so another instance can take over right away.
+     */
+    public boolean abandonLock(String lockId, Integer majorVersion, String identifier) {
+        SimpleStatement abandonLockQuery = QueryBuilder
+                .deleteFrom(this.keyspace, TABLE_NAME)
+                .column(LOCKED)
+                .column(LOCK_TIME)
+                .column(LOCKED_BY)
+                .whereColumn(ID)
+                .isEqualTo(QueryBuilder.literal(lockId))
+                .whereColumn(MAJOR_VERSION)
+                .isEqualTo(QueryBuilder.literal(majorVersion))
+                .ifColumn(LOCKED_BY)
+                .isEqualTo(QueryBuilder.literal(identifier))
+                .build();
+        log.debug("ChangelogLockRepository:abandonLock:{}", abandonLockQuery.getQuery());
+        return cqlSession
+                .execute(abandonLockQuery)
+                .wasApplied();
+    }
 
-        SimpleStatement simpleStatement = QueryBuilder.selectFrom(TABLE_NAME)
-                .all()
+    /**
+     * Locks a version marked as done again, e.g. to roll it back, as a lease like {@link #acquireLock}.
+     */
+    public boolean reopenLock(String lockId, Integer majorVersion, String identifier, Duration lease) {
+        SimpleStatement reopenLockQuery = QueryBuilder
+                .update(this.keyspace, TABLE_NAME)
+                .usingTtl(ttl(lease))
+                .setColumn(LOCKED, QueryBuilder.literal(true))
+                .setColumn(LOCK_TIME, QueryBuilder.literal(Instant.now()))
+                .setColumn(LOCKED_BY, QueryBuilder.literal(identifier))
                 .whereColumn(ID)
-                .isEqualTo(QueryBuilder.literal(md5Key))
+                .isEqualTo(QueryBuilder.literal(lockId))
+                .whereColumn(MAJOR_VERSION)
+                .isEqualTo(QueryBuilder.literal(majorVersion))
+                .ifColumn(LOCKED)
+                .isEqualTo(QueryBuilder.literal(false))
+                .build();
+        log.debug("ChangelogLockRepository:reopenLock:{}", reopenLockQuery.getQuery());
+        return cqlSession
+                .execute(reopenLockQuery)
+                .wasApplied();
+    }
+
+    /**
+     * Removes the lock row with its done marker and checkpoint, so the next run of the version checks every
+     * changeSet against the history again.
+     */
+    public boolean deleteLock(String lockId, Integer majorVersion, String identifier) {
+        SimpleStatement deleteLockQuery = QueryBuilder
+                .deleteFrom(this.keyspace, TABLE_NAME)
+                .whereColumn(ID)
+                .isEqualTo(QueryBuilder.literal(lockId))
+                .whereColumn(MAJOR_VERSION)
+                .isEqualTo(QueryBuilder.literal(majorVersion))
+                .ifColumn(LOCKED_BY)
+                .isEqualTo(QueryBuilder.literal(identifier))
+                .build();
+        log.debug("ChangelogLockRepository:deleteLock:{}", deleteLockQuery.getQuery());
+        return cqlSession
+                .execute(deleteLockQuery)
+                .wasApplied();
+    }
+
+    /**
+     * Adds the checkpoint columns to a lock table created by an older pre changeLog.
+     */
+    public void addCheckpointColumnsIfNotExists() {
+        if (this.systemSchemaRepository.columnExists(TABLE_NAME, CHECKPOINT_PHASE)) {
+            return;
+        }
+        SimpleStatement alterTableQuery = SchemaBuilder
+                .alterTable(this.keyspace, TABLE_NAME)
+                .addColumn(CHECKPOINT_PHASE, DataTypes.TEXT)
+                .addColumn(CHECKPOINT_ORDER, DataTypes.INT)
+                .addColumn(CHECKPOINT_TIME, DataTypes.TIMESTAMP)
+                .build();
+        log.debug("ChangelogLockRepository:addCheckpointColumnsIfNotExists:{}", alterTableQuery.getQuery());
+        cqlSession.execute(alterTableQuery);
+    }
+
+    /**
+     * Records how far the migration of a version got. Written without TTL, so it survives the lease of the holder
+     * and is read by whoever takes the lock over.
+     */
+    public CompletionStage<AsyncResultSet> saveCheckpointAsync(String lockId, Integer majorVersion, String phase, Integer order) {
+        SimpleStatement saveCheckpointQuery = QueryBuilder
+                .update(this.keyspace, TABLE_NAME)
+                .setColumn(CHECKPOINT_PHASE, QueryBuilder.literal(phase))
+                .setColumn(CHECKPOINT_ORDER, QueryBuilder.literal(order))
+                .setColumn(CHECKPOINT_TIME, QueryBuilder.literal(Instant.now()))
+                .whereColumn(ID)
+                .isEqualTo(QueryBuilder.literal(lockId))
                 .whereColumn(MAJOR_VERSION)
                 .isEqualTo(QueryBuilder.literal(majorVersion))
                 .build()
                 .setConsistencyLevel(DefaultConsistencyLevel.LOCAL_QUORUM);
-        log.debug("ChangelogLockRepository:getByLockId:{}", simpleStatement.getQuery());
+        log.debug("ChangelogLockRepository:saveCheckpoint:{}", saveCheckpointQuery.getQuery());
+        return cqlSession.executeAsync(saveCheckpointQuery);
+    }
+
+    private static int ttl(Duration lease) {
+        return (int) Math.max(1, lease.toSeconds());
+    }
+
+    public ChangelogLockEntity getByLockId(String md5Key, Integer majorVersion) {
         return Optional
                 .ofNullable(cqlSession
-                        .execute(simpleStatement)
+                        .execute(this.getByLockIdQuery(md5Key, majorVersion))
                         .one()
                 )
                 .map(ChangelogLockRepository::map)
                 .orElse(null);
+    }
+
+    /**
+     * {@link #getByLockId} without blocking.
+     */
+    public CompletionStage<ChangelogLockEntity> getByLockIdAsync(String md5Key, Integer majorVersion) {
+        return cqlSession
+                .executeAsync(this.getByLockIdQuery(md5Key, majorVersion))
+                .thenApply(asyncResultSet -> Optional.ofNullable(asyncResultSet.one()).map(ChangelogLockRepository::map).orElse(null));
+    }
 
+    private SimpleStatement getByLockIdQuery(String md5Key, Integer majorVersion) {
+        SimpleStatement simpleStatement = QueryBuilder.selectFrom(this.keyspace, TABLE_NAME)
+                .all()
+                .whereColumn(ID)
+                .isEqualTo(QueryBuilder.literal(md5Key))
+                .whereColumn(MAJOR_VERSION)
+                .isEqualTo(QueryBuilder.literal(majorVersion))
+                .build()
+                .setConsistencyLevel(DefaultConsistencyLevel.LOCAL_QUORUM);
+        log.debug("ChangelogLockRepository:getByLockId:{}", simpleStatement.getQuery());
+        return simpleStatement;
     }
 
 
+    /**
+     * Same read as {@link #getByLockId}, empty also when the table does not exist yet, so it needs no schema lookup.
+     */
+    public Optional<ChangelogLockEntity> findByLockId(String md5Key, Integer majorVersion) {
+        try {
+            return Optional.ofNullable(this.getByLockId(md5Key, majorVersion));
+        } catch (InvalidQueryException e) {
+            log.debug("ChangelogLockRepository:findByLockId:{}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     public static ChangelogLockEntity map(Row row) {
         ChangelogLockEntity changelogLockEntity = new ChangelogLockEntity();
         if (row.getColumnDefinitions().contains(ID)) {
             changelogLockEntity.setId(row.getString(ID));
         }
-        if (row.getColumnDefinitions().contains(LOCKED)) {
+        if (row.getColumnDefinitions().contains(LOCKED) && !row.isNull(LOCKED)) {
             changelogLockEntity.setLocked(row.getBoolean(LOCKED));
         }
         if (row.getColumnDefinitions().contains(LOCK_TIME)) {
@@ -93,20 +348,19 @@ public class ChangelogLockRepository implements ChangelogLockEntity.Keys {
         if (row.getColumnDefinitions().contains(LOCKED_BY)) {
             changelogLockEntity.setLockedBy(row.getString(LOCKED_BY));
         }
+        if (row.getColumnDefinitions().contains(CHECKPOINT_PHASE)) {
+            changelogLockEntity.setCheckpointPhase(row.getString(CHECKPOINT_PHASE));
+        }
+        if (row.getColumnDefinitions().contains(CHECKPOINT_ORDER) && !row.isNull(CHECKPOINT_ORDER)) {
+            changelogLockEntity.setCheckpointOrder(row.getInt(CHECKPOINT_ORDER));
+        }
+        if (row.getColumnDefinitions().contains(CHECKPOINT_TIME)) {
+            changelogLockEntity.setCheckpointTime(row.getInstant(CHECKPOINT_TIME));
+        }
         return changelogLockEntity;
     }
 
     public boolean tableExists() {
-        SimpleStatement simpleStatement = QueryBuilder
-                .selectFrom("system_schema", "tables")
-                .column("table_name")
-                .whereColumn("keyspace_name").isEqualTo(QueryBuilder.literal(cqlSession.getKeyspace().orElseThrow().asInternal()))
-                .whereColumn("table_name").isEqualTo(QueryBuilder.literal(TABLE_NAME))
-                .build();
-        log.debug("ChangeLogEntity:tableExists:{}", simpleStatement.getQuery());
-        return Objects.nonNull(cqlSession
-                .execute(simpleStatement)
-                .one());
-
+        return this.systemSchemaRepository.tableExists(TABLE_NAME);
     }
 }
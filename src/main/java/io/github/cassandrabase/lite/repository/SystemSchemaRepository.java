@@ -0,0 +1,128 @@
+package io.github.cassandrabase.lite.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.querybuilder.QueryBuilder;
+import com.datastax.oss.driver.api.querybuilder.select.Select;
+import io.github.cassandrabase.lite.schema.SchemaModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+public class SystemSchemaRepository {
+    private static final Logger log = LoggerFactory.getLogger(SystemSchemaRepository.class);
+    private final CqlSession cqlSession;
+    private final String keyspace;
+
+    public SystemSchemaRepository(CqlSession cqlSession) {
+        this(cqlSession, null);
+    }
+
+    /**
+     * @param keyspace keyspace of {@link #tableExists}, {@link #columnExists} and {@link #partitionKey}, {@code null} for the session keyspace
+     */
+    public SystemSchemaRepository(CqlSession cqlSession, String keyspace) {
+        this.cqlSession = cqlSession;
+        this.keyspace = keyspace;
+    }
+
+    public boolean tableExists(String tableName) {
+        SimpleStatement simpleStatement = QueryBuilder
+                .selectFrom("system_schema", "tables")
+                .column("table_name")
+                .whereColumn("keyspace_name").isEqualTo(QueryBuilder.literal(this.keyspace()))
+                .whereColumn("table_name").isEqualTo(QueryBuilder.literal(tableName))
+                .build();
+        log.debug("SystemSchemaRepository:tableExists:{}", simpleStatement.getQuery());
+        return Objects.nonNull(cqlSession
+                .execute(simpleStatement)
+                .one());
+    }
+
+    public boolean columnExists(String tableName, String columnName) {
+        SimpleStatement simpleStatement = QueryBuilder
+                .selectFrom("system_schema", "columns")
+                .column("column_name")
+                .whereColumn("keyspace_name").isEqualTo(QueryBuilder.literal(this.keyspace()))
+                .whereColumn("table_name").isEqualTo(QueryBuilder.literal(tableName))
+                .whereColumn("column_name").isEqualTo(QueryBuilder.literal(columnName))
+                .build();
+        log.debug("SystemSchemaRepository:columnExists:{}", simpleStatement.getQuery());
+        return Objects.nonNull(cqlSession
+                .execute(simpleStatement)
+                .one());
+    }
+
+    /**
+     * The partition key columns of a table in key order, empty when the table does not exist.
+     */
+    public List<String> partitionKey(String tableName) {
+        SimpleStatement simpleStatement = QueryBuilder
+                .selectFrom("system_schema", "columns")
+                .columns("column_name", "kind", "position")
+                .whereColumn("keyspace_name").isEqualTo(QueryBuilder.literal(this.keyspace()))
+                .whereColumn("table_name").isEqualTo(QueryBuilder.literal(tableName))
+                .build();
+        log.debug("SystemSchemaRepository:partitionKey:{}", simpleStatement.getQuery());
+        final List<Row> columns = new ArrayList<>();
+        for (Row row : cqlSession.execute(simpleStatement)) {
+            if ("partition_key".equals(row.getString("kind"))) {
+                columns.add(row);
+            }
+        }
+        columns.sort(Comparator.comparingInt(row -> row.getInt("position")));
+        return columns.stream().map(row -> row.getString("column_name")).toList();
+    }
+
+    private String keyspace() {
+        return Objects.nonNull(this.keyspace) ? this.keyspace : cqlSession.getKeyspace().orElseThrow().asInternal();
+    }
+
+    /**
+     * Reads the whole schema in one query per {@code system_schema} table.
+     */
+    public SchemaModel loadSchemaModel() {
+        return this.loadSchemaModel(new SchemaModel(), null);
+    }
+
+    /**
+     * Reads the schema of one keyspace, one partition per {@code system_schema} table.
+     */
+    public SchemaModel loadSchemaModel(String keyspace) {
+        return this.loadSchemaModel(new SchemaModel(List.of(keyspace)), keyspace);
+    }
+
+    private SchemaModel loadSchemaModel(SchemaModel schemaModel, String keyspace) {
+        this.selectAll(keyspace, "keyspaces", "keyspace_name")
+                .forEach(row -> schemaModel.addKeyspace(row.getString("keyspace_name")));
+        this.selectAll(keyspace, "tables", "keyspace_name", "table_name")
+                .forEach(row -> schemaModel.addTable(row.getString("keyspace_name"), row.getString("table_name")));
+        this.selectAll(keyspace, "views", "keyspace_name", "view_name")
+                .forEach(row -> schemaModel.addView(row.getString("keyspace_name"), row.getString("view_name")));
+        this.selectAll(keyspace, "types", "keyspace_name", "type_name")
+                .forEach(row -> schemaModel.addType(row.getString("keyspace_name"), row.getString("type_name")));
+        this.selectAll(keyspace, "indexes", "keyspace_name", "table_name", "index_name")
+                .forEach(row -> schemaModel.addIndex(row.getString("keyspace_name"), row.getString("table_name"), row.getString("index_name")));
+        this.selectAll(keyspace, "columns", "keyspace_name", "table_name", "column_name", "kind", "position", "type", "clustering_order")
+                .forEach(row -> schemaModel.addColumn(row.getString("keyspace_name"), row.getString("table_name"), row.getString("column_name"),
+                        row.getString("kind"), row.getInt("position"), row.getString("type"), row.getString("clustering_order")));
+        return schemaModel;
+    }
+
+    // keyspace_name is the partition key of every system_schema table
+    private ResultSet selectAll(String keyspace, String table, String... columns) {
+        final Select select = QueryBuilder
+                .selectFrom("system_schema", table)
+                .columns(columns);
+        SimpleStatement simpleStatement = (Objects.isNull(keyspace) ? select : select.whereColumn("keyspace_name").isEqualTo(QueryBuilder.literal(keyspace)))
+                .build();
+        log.debug("SystemSchemaRepository:loadSchemaModel:{}", simpleStatement.getQuery());
+        return cqlSession.execute(simpleStatement);
+    }
+}
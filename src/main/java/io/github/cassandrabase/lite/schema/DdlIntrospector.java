@@ -0,0 +1,149 @@
+package io.github.cassandrabase.lite.schema;
+
+import io.github.cassandrabase.lite.cql.CqlDdlParser;
+import io.github.cassandrabase.lite.cql.DdlStatement;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Decides, from a {@link SchemaModel} read once the lock is held, whether a DDL statement still has to be sent. A
+ * statement whose effect the model proves (same table, column types, primary key and clustering order, existing index
+ * on the same table, dropped object absent) is skipped; {@code CREATE KEYSPACE/TYPE/MATERIALIZED VIEW} of an existing object, whose
+ * definition is not compared, is rewritten to {@code IF NOT EXISTS}. Everything else is sent as is.
+ * <p>
+ * Table options other than the clustering order (compaction, compression, caching, TTL, ...) are not read from the
+ * schema: a {@code CREATE TABLE} that sets any of them is always sent, so an existing table is reported by Cassandra
+ * rather than taken as applied. Index options, keyspace replication and the definitions of types and views are not
+ * compared either.
+ * <p>
+ * The model is not refreshed during the run: once a statement is sent, the objects it touches are no longer trusted,
+ * and a schema change that cannot be parsed stops all skipping. Keyspaces the model was not read for are never
+ * trusted.
+ */
+public final class DdlIntrospector {
+    private static final Pattern SCHEMA_CHANGE = Pattern.compile("^\\s*(?:CREATE|ALTER|DROP)\\s", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CREATE_OBJECT = Pattern.compile("^(\\s*CREATE\\s+(?:KEYSPACE|SCHEMA|TYPE|MATERIALIZED\\s+VIEW))\\s+", Pattern.CASE_INSENSITIVE);
+    private final SchemaModel schemaModel;
+    private final String sessionKeyspace;
+    private final Set<String> changed = new HashSet<>();
+    private boolean stale;
+
+    /**
+     * @param sessionKeyspace keyspace of unqualified names, {@code null} if the session has none
+     */
+    public DdlIntrospector(SchemaModel schemaModel, String sessionKeyspace) {
+        this.schemaModel = schemaModel;
+        this.sessionKeyspace = sessionKeyspace;
+    }
+
+    /**
+     * The statement to send, possibly rewritten, or empty if the schema already has its effect.
+     */
+    public synchronized Optional<String> resolve(String statement) {
+        if (Objects.isNull(statement) || !SCHEMA_CHANGE.matcher(statement).find()) {
+            return Optional.ofNullable(statement);
+        }
+        final Optional<DdlStatement> parsed = CqlDdlParser.parse(statement);
+        if (parsed.isEmpty()) {
+            this.stale = true;
+            return Optional.of(statement);
+        }
+        final DdlStatement ddl = parsed.get();
+        final String keyspace = Objects.nonNull(ddl.getKeyspace()) ? ddl.getKeyspace() : this.sessionKeyspace;
+        if (Objects.isNull(keyspace) || !this.isTrusted(ddl, keyspace)) {
+            this.touch(ddl, keyspace);
+            return Optional.of(statement);
+        }
+        final Decision decision = this.decide(ddl, keyspace);
+        if (Decision.SKIP.equals(decision)) {
+            return Optional.empty();
+        }
+        if (Decision.IF_NOT_EXISTS.equals(decision)) {
+            return Optional.of(CREATE_OBJECT.matcher(statement).replaceFirst("$1 IF NOT EXISTS "));
+        }
+        this.touch(ddl, keyspace);
+        return Optional.of(statement);
+    }
+
+    /**
+     * Stops all skipping, e.g. after code changed the schema in ways that cannot be tracked.
+     */
+    public synchronized void invalidate() {
+        this.stale = true;
+    }
+
+    private Decision decide(DdlStatement ddl, String keyspace) {
+        final String name = ddl.getName();
+        return switch (ddl.getKind()) {
+            case CREATE_KEYSPACE -> this.schemaModel.hasKeyspace(keyspace) ? this.ifNotExists(ddl) : Decision.EXECUTE;
+            case DROP_KEYSPACE -> this.schemaModel.hasKeyspace(keyspace) ? Decision.EXECUTE : Decision.SKIP;
+            case CREATE_TYPE -> this.schemaModel.hasType(keyspace, name) ? this.ifNotExists(ddl) : Decision.EXECUTE;
+            case DROP_TYPE -> !this.schemaModel.hasKeyspace(keyspace) || this.schemaModel.hasType(keyspace, name) ? Decision.EXECUTE : Decision.SKIP;
+            case CREATE_VIEW -> this.schemaModel.hasView(keyspace, name) ? this.ifNotExists(ddl) : Decision.EXECUTE;
+            case DROP_VIEW -> !this.schemaModel.hasKeyspace(keyspace) || this.schemaModel.hasView(keyspace, name) ? Decision.EXECUTE : Decision.SKIP;
+            // options are not in the model, a table that may differ by them is left to Cassandra to report
+            case CREATE_TABLE -> this.schemaModel.hasTable(keyspace, name) && !ddl.hasTableOptions()
+                    && this.schemaModel.getColumns(keyspace, name).equals(ddl.getColumns())
+                    && this.schemaModel.getPartitionKey(keyspace, name).equals(ddl.getPartitionKey())
+                    && this.schemaModel.getClusteringColumns(keyspace, name).equals(ddl.getClusteringColumns())
+                    && this.schemaModel.getClusteringOrder(keyspace, name).equals(ddl.getClusteringOrder()) ? Decision.SKIP : Decision.EXECUTE;
+            case DROP_TABLE -> !this.schemaModel.hasKeyspace(keyspace) || this.schemaModel.hasTable(keyspace, name) ? Decision.EXECUTE : Decision.SKIP;
+            case ALTER_TABLE_ADD -> this.hasColumns(keyspace, name, ddl.getColumns()) ? Decision.SKIP : Decision.EXECUTE;
+            case ALTER_TABLE_DROP -> this.schemaModel.hasTable(keyspace, name)
+                    && ddl.getColumns().keySet().stream().noneMatch(this.schemaModel.getColumns(keyspace, name)::containsKey) ? Decision.SKIP : Decision.EXECUTE;
+            case CREATE_INDEX -> this.schemaModel.getIndexTable(keyspace, name).filter(ddl.getTable()::equals).isPresent() ? Decision.SKIP : Decision.EXECUTE;
+            case DROP_INDEX -> !this.schemaModel.hasKeyspace(keyspace) || this.schemaModel.getIndexTable(keyspace, name).isPresent() ? Decision.EXECUTE : Decision.SKIP;
+        };
+    }
+
+    private Decision ifNotExists(DdlStatement ddl) {
+        // already conditional: sending it is a no-op without a schema mutation
+        return ddl.isConditional() ? Decision.SKIP : Decision.IF_NOT_EXISTS;
+    }
+
+    private boolean hasColumns(String keyspace, String table, Map<String, String> columns) {
+        final Map<String, String> existing = this.schemaModel.getColumns(keyspace, table);
+        return this.schemaModel.hasTable(keyspace, table)
+                && columns.entrySet().stream().allMatch(column -> Objects.equals(existing.get(column.getKey()), column.getValue()));
+    }
+
+    private boolean isTrusted(DdlStatement ddl, String keyspace) {
+        return !this.stale && this.schemaModel.covers(keyspace) && !this.changed.contains(keyspace)
+                && this.objectKeys(ddl, keyspace).stream().noneMatch(this.changed::contains);
+    }
+
+    private void touch(DdlStatement ddl, String keyspace) {
+        if (Objects.isNull(keyspace)) {
+            this.stale = true;
+        } else if (ddl.getKind().equals(DdlStatement.Kind.DROP_TABLE) || ddl.getKind().equals(DdlStatement.Kind.DROP_KEYSPACE)
+                || ddl.getKind().equals(DdlStatement.Kind.CREATE_KEYSPACE)) {
+            // also takes the indexes and views of the table along
+            this.changed.add(keyspace);
+        } else {
+            this.changed.addAll(this.objectKeys(ddl, keyspace));
+        }
+    }
+
+    // tables and views share a namespace, indexes and types have their own
+    private Set<String> objectKeys(DdlStatement ddl, String keyspace) {
+        return switch (ddl.getKind()) {
+            case CREATE_KEYSPACE, DROP_KEYSPACE -> Set.of();
+            case CREATE_TYPE, DROP_TYPE -> Set.of("type:" + keyspace + "." + ddl.getName());
+            case CREATE_TABLE, ALTER_TABLE_ADD, ALTER_TABLE_DROP, DROP_TABLE, DROP_VIEW -> Set.of("table:" + keyspace + "." + ddl.getName());
+            case CREATE_VIEW -> Set.of("table:" + keyspace + "." + ddl.getName(), "table:" + keyspace + "." + ddl.getTable());
+            case CREATE_INDEX -> Set.of("index:" + keyspace + "." + ddl.getName(), "table:" + keyspace + "." + ddl.getTable());
+            case DROP_INDEX -> Set.of("index:" + keyspace + "." + ddl.getName());
+        };
+    }
+
+    private enum Decision {
+        EXECUTE,
+        SKIP,
+        IF_NOT_EXISTS
+    }
+}
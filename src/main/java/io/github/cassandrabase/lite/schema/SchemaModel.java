@@ -0,0 +1,136 @@
+package io.github.cassandrabase.lite.schema;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory copy of the keyspaces, tables, views, columns, indexes and types of {@code system_schema}, read once per
+ * run. Objects are keyed by their internal (case-sensitive) names.
+ */
+public final class SchemaModel {
+    private final Set<String> coveredKeyspaces;
+    private final Set<String> keyspaces = new HashSet<>();
+    private final Set<String> tables = new HashSet<>();
+    private final Set<String> views = new HashSet<>();
+    private final Set<String> types = new HashSet<>();
+    private final Map<String, String> indexTables = new HashMap<>();
+    private final Map<String, Map<String, String>> columns = new HashMap<>();
+    private final Map<String, TreeMap<Integer, String>> partitionKeys = new HashMap<>();
+    private final Map<String, TreeMap<Integer, String>> clusteringColumns = new HashMap<>();
+    private final Map<String, TreeMap<Integer, String>> clusteringOrders = new HashMap<>();
+
+    /**
+     * A model of the whole schema.
+     */
+    public SchemaModel() {
+        this.coveredKeyspaces = null;
+    }
+
+    /**
+     * A model of some keyspaces only, knowing nothing about the others.
+     */
+    public SchemaModel(Collection<String> coveredKeyspaces) {
+        this.coveredKeyspaces = Set.copyOf(coveredKeyspaces);
+    }
+
+    /**
+     * Whether the model was read for this keyspace, i.e. an object missing from it is missing from the schema.
+     */
+    public boolean covers(String keyspace) {
+        return Objects.isNull(coveredKeyspaces) || coveredKeyspaces.contains(keyspace);
+    }
+
+    public void addKeyspace(String keyspace) {
+        keyspaces.add(keyspace);
+    }
+
+    public void addTable(String keyspace, String table) {
+        tables.add(key(keyspace, table));
+    }
+
+    public void addView(String keyspace, String view) {
+        views.add(key(keyspace, view));
+    }
+
+    public void addType(String keyspace, String type) {
+        types.add(key(keyspace, type));
+    }
+
+    public void addIndex(String keyspace, String table, String index) {
+        indexTables.put(key(keyspace, index), table);
+    }
+
+    /**
+     * @param kind     {@code partition_key}, {@code clustering}, {@code regular} or {@code static}
+     * @param position        position in the partition key or among the clustering columns
+     * @param clusteringOrder {@code asc} or {@code desc} for a clustering column
+     */
+    public void addColumn(String keyspace, String table, String column, String kind, int position, String type, String clusteringOrder) {
+        final String key = key(keyspace, table);
+        columns.computeIfAbsent(key, k -> new LinkedHashMap<>()).put(column, type);
+        if ("partition_key".equals(kind)) {
+            partitionKeys.computeIfAbsent(key, k -> new TreeMap<>()).put(position, column);
+        } else if ("clustering".equals(kind)) {
+            clusteringColumns.computeIfAbsent(key, k -> new TreeMap<>()).put(position, column);
+            clusteringOrders.computeIfAbsent(key, k -> new TreeMap<>()).put(position, clusteringOrder);
+        }
+    }
+
+    public boolean hasKeyspace(String keyspace) {
+        return keyspaces.contains(keyspace);
+    }
+
+    public boolean hasTable(String keyspace, String table) {
+        return tables.contains(key(keyspace, table));
+    }
+
+    public boolean hasView(String keyspace, String view) {
+        return views.contains(key(keyspace, view));
+    }
+
+    public boolean hasType(String keyspace, String type) {
+        return types.contains(key(keyspace, type));
+    }
+
+    /**
+     * The table of an index of the keyspace; index names are unique per keyspace.
+     */
+    public Optional<String> getIndexTable(String keyspace, String index) {
+        return Optional.ofNullable(indexTables.get(key(keyspace, index)));
+    }
+
+    /**
+     * Column name to type, as {@code system_schema.columns} spells it, of a table or view.
+     */
+    public Map<String, String> getColumns(String keyspace, String table) {
+        return Collections.unmodifiableMap(columns.getOrDefault(key(keyspace, table), Map.of()));
+    }
+
+    public List<String> getPartitionKey(String keyspace, String table) {
+        return List.copyOf(partitionKeys.getOrDefault(key(keyspace, table), new TreeMap<>()).values());
+    }
+
+    public List<String> getClusteringColumns(String keyspace, String table) {
+        return List.copyOf(clusteringColumns.getOrDefault(key(keyspace, table), new TreeMap<>()).values());
+    }
+
+    /**
+     * {@code asc} or {@code desc} for each clustering column.
+     */
+    public List<String> getClusteringOrder(String keyspace, String table) {
+        return List.copyOf(clusteringOrders.getOrDefault(key(keyspace, table), new TreeMap<>()).values());
+    }
+
+    private static String key(String keyspace, String name) {
+        return keyspace + "." + name;
+    }
+}
@@ -0,0 +1,291 @@
+package io.github.cassandrabase.lite.snapshot;
+
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import io.github.cassandrabase.lite.loader.ChangeLogLoader;
+import io.github.cassandrabase.lite.loader.StreamingChangeLog;
+import io.github.cassandrabase.lite.model.CassandraConfigs;
+import io.github.cassandrabase.lite.xml.BackfillChangeSet;
+import io.github.cassandrabase.lite.xml.ChangeLog;
+import io.github.cassandrabase.lite.xml.ChangeSet;
+import io.github.cassandrabase.lite.xml.LoadDataChangeSet;
+import io.github.cassandrabase.lite.xml.TemplateChangeSet;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Compact binary form of a parsed and validated {@link CassandraConfigs}, written at build time by the
+ * {@code cassandrabase-lite-maven-plugin} and read at startup instead of the XML changelogs. ChangeSets are stored
+ * sorted by order with their normalized statement, placeholders not rendered; the MD5 is stored for every statement
+ * without placeholders, the others are rendered and hashed at runtime, once, with the build-time properties stored in
+ * the header and the runtime ones, so they come out as from the XML. {@code loadData} changeSets keep their
+ * attributes and the checksum of their CSV resource with its size and modification time, so the file is only read again
+ * at startup if it changed; the data stays in the resource. Templates are stored as declared and expanded at runtime, their
+ * values may come from the runtime properties. {@code backfill} changeSets keep their attributes and load their mapper
+ * at runtime. Streamed changeLogs are only referenced.
+ * <p>
+ * The header keeps the digest of the files the snapshot was built from; {@link #read(InputStream, ClassLoader)}
+ * recomputes it from the files on the classpath and rejects a snapshot they no longer match.
+ */
+public final class ChangeLogSnapshot {
+    public static final String RESOURCE = "db/changeset-config.snapshot";
+    private static final int MAGIC = 0x43425353;
+    private static final int FORMAT_VERSION = 9;
+    private static final byte INLINE = 0;
+    private static final byte STREAMED = 1;
+    private static final byte STATEMENT_CHANGE_SET = 0;
+    private static final byte LOAD_DATA_CHANGE_SET = 1;
+    private static final byte TEMPLATE_CHANGE_SET = 2;
+    private static final byte BACKFILL_CHANGE_SET = 3;
+
+    private ChangeLogSnapshot() {
+    }
+
+    public static void write(CassandraConfigs cassandraConfigs, OutputStream outputStream) throws IOException {
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(cassandraConfigs.getMajorVersion());
+        out.writeInt(cassandraConfigs.getSourcePaths().size());
+        for (String sourcePath : cassandraConfigs.getSourcePaths()) {
+            writeString(sourcePath, out);
+        }
+        writeString(cassandraConfigs.getSourceDigest(), out);
+        final List<String> names = cassandraConfigs.getBuildProperties().stringPropertyNames().stream().sorted().toList();
+        out.writeInt(names.size());
+        for (String name : names) {
+            writeString(name, out);
+            writeString(cassandraConfigs.getBuildProperties().getProperty(name), out);
+        }
+        // the inline changeLogs are validated when they are loaded, a streamed one is checked against them here
+        final Map<String, String> declaredIn = new HashMap<>();
+        ChangeLogLoader.collectIds(cassandraConfigs.getPreChangeLog(), "preChangeLog", declaredIn);
+        ChangeLogLoader.collectIds(cassandraConfigs.getChangeLog(), "post changeLog", declaredIn);
+        writeChangeLog(cassandraConfigs.getPreChangeLog(), declaredIn, out);
+        writeChangeLog(cassandraConfigs.getChangeLog(), declaredIn, out);
+        out.flush();
+    }
+
+    /**
+     * @throws StaleSnapshotException if the changelog files on the classpath are not the ones the snapshot was built
+     *                                from
+     */
+    public static CassandraConfigs read(InputStream inputStream, ClassLoader resourceClassLoader) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a changelog snapshot. [" + RESOURCE + "]");
+        }
+        final int formatVersion = in.readInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported changelog snapshot version : " + formatVersion);
+        }
+        final CassandraConfigs cassandraConfigs = new CassandraConfigs();
+        cassandraConfigs.setMajorVersion(in.readInt());
+        final int sourcePathsSize = in.readInt();
+        final List<String> sourcePaths = new ArrayList<>(sourcePathsSize);
+        for (int i = 0; i < sourcePathsSize; i++) {
+            sourcePaths.add(readString(in));
+        }
+        cassandraConfigs.setSourcePaths(sourcePaths);
+        cassandraConfigs.setSourceDigest(readString(in));
+        final int buildPropertiesSize = in.readInt();
+        final Properties buildProperties = new Properties();
+        for (int i = 0; i < buildPropertiesSize; i++) {
+            buildProperties.setProperty(readString(in), readString(in));
+        }
+        cassandraConfigs.setBuildProperties(buildProperties);
+        verifySources(cassandraConfigs, resourceClassLoader);
+        cassandraConfigs.setPreChangeLog(readChangeLog(in, resourceClassLoader));
+        cassandraConfigs.setChangeLog(readChangeLog(in, resourceClassLoader));
+        return cassandraConfigs;
+    }
+
+    private static void verifySources(CassandraConfigs cassandraConfigs, ClassLoader resourceClassLoader) throws StaleSnapshotException {
+        if (Objects.isNull(cassandraConfigs.getSourceDigest())) {
+            return;
+        }
+        final String sourceDigest;
+        try {
+            sourceDigest = ChangeLogLoader.digestSources(resourceClassLoader, cassandraConfigs.getSourcePaths());
+        } catch (RuntimeException e) {
+            throw new StaleSnapshotException("Changelog files of the snapshot cannot be read. [" + RESOURCE + "]", e);
+        }
+        if (!cassandraConfigs.getSourceDigest().equals(sourceDigest)) {
+            throw new StaleSnapshotException("Changelog files changed since the snapshot was written. [" + RESOURCE + ", Snapshot : "
+                    + cassandraConfigs.getSourceDigest() + ", Files : " + sourceDigest + "]");
+        }
+    }
+
+    private static void writeChangeLog(ChangeLog changeLog, Map<String, String> declaredIn, DataOutputStream out) throws IOException {
+        if (changeLog instanceof StreamingChangeLog streamingChangeLog) {
+            // read once so it is validated at build time, but still streamed from the XML at runtime; the run only
+            // checks the ids of one window at a time, the build checks them all
+            try (Stream<ChangeSet> changeSets = streamingChangeLog.streamDeclaredChangeSets()) {
+                changeSets.forEach(changeSet -> {
+                    final String declaringChangeLog = declaredIn.putIfAbsent(changeSet.getId(), streamingChangeLog.getResource());
+                    if (Objects.nonNull(declaringChangeLog)) {
+                        throw new RuntimeException("Duplicate changeSet found in " + streamingChangeLog.getResource() + ". [ChangeSetId : " + changeSet.getId()
+                                + ", DeclaredIn : " + declaringChangeLog + "]");
+                    }
+                });
+            }
+            out.writeByte(STREAMED);
+            writeString(streamingChangeLog.getResource(), out);
+            return;
+        }
+        final List<ChangeSet> changeSets = changeLog.getChangeSets().stream().sorted(Comparator.comparing(ChangeSet::getOrder)).toList();
+        out.writeByte(INLINE);
+        out.writeInt(changeSets.size());
+        for (ChangeSet changeSet : changeSets) {
+            final String statement = changeSet.getStatement();
+            if (changeSet instanceof LoadDataChangeSet loadDataChangeSet) {
+                out.writeByte(LOAD_DATA_CHANGE_SET);
+                writeString(loadDataChangeSet.getFile(), out);
+                writeString(loadDataChangeSet.getTable(), out);
+                writeString(loadDataChangeSet.getSeparator(), out);
+                writeString(loadDataChangeSet.getFileChecksum(), out);
+                out.writeLong(loadDataChangeSet.getFileSize());
+                out.writeLong(loadDataChangeSet.getFileLastModified());
+            } else if (changeSet instanceof TemplateChangeSet templateChangeSet) {
+                out.writeByte(TEMPLATE_CHANGE_SET);
+                writeString(templateChangeSet.getForEach(), out);
+                writeString(templateChangeSet.getIn(), out);
+                writeInteger(templateChangeSet.getFrom(), out);
+                writeInteger(templateChangeSet.getTo(), out);
+            } else if (changeSet instanceof BackfillChangeSet backfillChangeSet) {
+                out.writeByte(BACKFILL_CHANGE_SET);
+                writeString(backfillChangeSet.getTable(), out);
+                writeString(backfillChangeSet.getColumns(), out);
+                writeString(backfillChangeSet.getMapper(), out);
+                writeInteger(backfillChangeSet.getSplits(), out);
+            } else {
+                out.writeByte(STATEMENT_CHANGE_SET);
+            }
+            writeString(changeSet.getId(), out);
+            writeString(changeSet.getAuthor(), out);
+            out.writeInt(changeSet.getOrder());
+            writeString(Objects.isNull(changeSet.getConsistencyLevel()) ? null : changeSet.getConsistencyLevel().name(), out);
+            writeString(statement, out);
+            writeString(changeSet.getRollbackStatement(), out);
+            out.writeInt(changeSet.getDependsOn().size());
+            for (String dependsOn : changeSet.getDependsOn()) {
+                writeString(dependsOn, out);
+            }
+            writeString(changeSet.getExecutionProfile(), out);
+            writeString(Objects.isNull(changeSet.getTimeout()) ? null : changeSet.getTimeout().toString(), out);
+            out.writeInt(Objects.isNull(changeSet.getPageSize()) ? -1 : changeSet.getPageSize());
+            out.writeByte(Objects.isNull(changeSet.getIdempotent()) ? -1 : changeSet.getIdempotent() ? 1 : 0);
+            // the digest of loadData covers the CSV, which may change without rebuilding the snapshot; its checksum is
+            // checked against the file at runtime
+            // the digests of a template are the ones of its expansions
+            writeString(isResolved(statement) && !(changeSet instanceof LoadDataChangeSet) && !(changeSet instanceof TemplateChangeSet) ? changeSet.getMd5Sum() : null, out);
+        }
+    }
+
+    private static ChangeLog readChangeLog(DataInputStream in, ClassLoader resourceClassLoader) throws IOException {
+        if (in.readByte() == STREAMED) {
+            return new StreamingChangeLog(resourceClassLoader, readString(in));
+        }
+        final int size = in.readInt();
+        final List<ChangeSet> changeSets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final ChangeSet changeSet;
+            final byte type = in.readByte();
+            if (type == LOAD_DATA_CHANGE_SET) {
+                final LoadDataChangeSet loadDataChangeSet = new LoadDataChangeSet();
+                loadDataChangeSet.setFile(readString(in));
+                loadDataChangeSet.setTable(readString(in));
+                loadDataChangeSet.setSeparator(readString(in));
+                loadDataChangeSet.setResourceClassLoader(resourceClassLoader);
+                loadDataChangeSet.setFileChecksum(readString(in), in.readLong(), in.readLong());
+                changeSet = loadDataChangeSet;
+            } else if (type == TEMPLATE_CHANGE_SET) {
+                final TemplateChangeSet templateChangeSet = new TemplateChangeSet();
+                templateChangeSet.setForEach(readString(in));
+                templateChangeSet.setIn(readString(in));
+                templateChangeSet.setFrom(readInteger(in));
+                templateChangeSet.setTo(readInteger(in));
+                changeSet = templateChangeSet;
+            } else if (type == BACKFILL_CHANGE_SET) {
+                final BackfillChangeSet backfillChangeSet = new BackfillChangeSet();
+                backfillChangeSet.setTable(readString(in));
+                backfillChangeSet.setColumns(readString(in));
+                backfillChangeSet.setMapper(readString(in));
+                backfillChangeSet.setSplits(readInteger(in));
+                backfillChangeSet.setResourceClassLoader(resourceClassLoader);
+                changeSet = backfillChangeSet;
+            } else {
+                changeSet = new ChangeSet();
+            }
+            changeSet.setId(readString(in));
+            changeSet.setAuthor(readString(in));
+            changeSet.setOrder(in.readInt());
+            final String consistencyLevel = readString(in);
+            changeSet.setConsistencyLevel(Objects.isNull(consistencyLevel) ? null : DefaultConsistencyLevel.valueOf(consistencyLevel));
+            changeSet.setStatement(readString(in));
+            changeSet.setRollbackStatement(readString(in));
+            final int dependsOnSize = in.readInt();
+            final List<String> dependsOn = new ArrayList<>(dependsOnSize);
+            for (int j = 0; j < dependsOnSize; j++) {
+                dependsOn.add(readString(in));
+            }
+            changeSet.setDependsOn(dependsOn);
+            changeSet.setExecutionProfile(readString(in));
+            final String timeout = readString(in);
+            changeSet.setTimeout(Objects.isNull(timeout) ? null : Duration.parse(timeout));
+            final int pageSize = in.readInt();
+            changeSet.setPageSize(pageSize < 0 ? null : pageSize);
+            final byte idempotent = in.readByte();
+            changeSet.setIdempotent(idempotent < 0 ? null : idempotent == 1);
+            changeSet.setMd5Sum(readString(in));
+            changeSets.add(changeSet);
+        }
+        final ChangeLog changeLog = new ChangeLog();
+        changeLog.setChangeSets(changeSets);
+        return changeLog;
+    }
+
+    private static boolean isResolved(String statement) {
+        return Objects.isNull(statement) || !statement.contains("${");
+    }
+
+    private static void writeString(String value, DataOutputStream out) throws IOException {
+        if (Objects.isNull(value)) {
+            out.writeInt(-1);
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static void writeInteger(Integer value, DataOutputStream out) throws IOException {
+        out.writeBoolean(Objects.nonNull(value));
+        out.writeInt(Objects.isNull(value) ? 0 : value);
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        final boolean present = in.readBoolean();
+        final int value = in.readInt();
+        return present ? value : null;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.cassandrabase.lite.snapshot;
+
+import java.io.IOException;
+
+/**
+ * The changelog files changed since the snapshot was written; the snapshot must not be used.
+ */
+public class StaleSnapshotException extends IOException {
+    public StaleSnapshotException(String message) {
+        super(message);
+    }
+
+    public StaleSnapshotException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
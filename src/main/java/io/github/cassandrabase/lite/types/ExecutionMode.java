@@ -0,0 +1,7 @@
+package io.github.cassandrabase.lite.types;
+
+public enum ExecutionMode {
+    SERIAL,
+    PARALLEL,
+    SCHEMA_AGREEMENT_PIPELINED,
+}
@@ -0,0 +1,13 @@
+package io.github.cassandrabase.lite.types;
+
+/**
+ * The steps of a migration in execution order; checkpoints record how far a migration got.
+ */
+public enum MigrationPhase {
+    DYNAMIC_BEFORE_CHANGE_LOG,
+    RUNNABLE_BEFORE,
+    STATIC_CHANGE_LOG,
+    DYNAMIC_AFTER_CHANGE_LOG,
+    RUNNABLE_AFTER,
+    COMPLETED
+}
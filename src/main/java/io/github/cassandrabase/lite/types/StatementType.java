@@ -0,0 +1,7 @@
+package io.github.cassandrabase.lite.types;
+
+public enum StatementType {
+    DDL,
+    DML,
+    UNKNOWN,
+}
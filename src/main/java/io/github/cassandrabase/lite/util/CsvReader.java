@@ -0,0 +1,128 @@
+package io.github.cassandrabase.lite.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Reads RFC 4180 style CSV one record at a time: fields may be quoted with {@code "}, a doubled quote escapes it and
+ * quoted fields may span lines. Blank lines are skipped. A quoted empty field is an empty string, an unquoted empty
+ * field is {@code null}.
+ */
+public final class CsvReader implements Iterator<List<String>>, Closeable {
+    private static final char QUOTE = '"';
+    private final BufferedReader reader;
+    private final char separator;
+    private List<String> next;
+    private long lineNumber;
+
+    public CsvReader(Reader reader, char separator) {
+        this.reader = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader, 64 * 1024);
+        this.separator = separator;
+    }
+
+    /**
+     * Line the last returned record ended on, for error messages.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (Objects.isNull(this.next)) {
+            try {
+                this.next = this.read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return Objects.nonNull(this.next);
+    }
+
+    @Override
+    public List<String> next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final List<String> record = this.next;
+        this.next = null;
+        return record;
+    }
+
+    private List<String> read() throws IOException {
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean inQuotes = false;
+        boolean any = false;
+        int c;
+        while ((c = this.reader.read()) != -1) {
+            any = true;
+            if (inQuotes) {
+                if (c == QUOTE) {
+                    this.reader.mark(1);
+                    if (this.reader.read() == QUOTE) {
+                        field.append(QUOTE);
+                    } else {
+                        this.reader.reset();
+                        inQuotes = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        this.lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == QUOTE && field.length() == 0 && !quoted) {
+                quoted = true;
+                inQuotes = true;
+            } else if (c == this.separator) {
+                fields.add(toField(field, quoted));
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    this.reader.mark(1);
+                    if (this.reader.read() != '\n') {
+                        this.reader.reset();
+                    }
+                }
+                this.lineNumber++;
+                if (fields.isEmpty() && field.length() == 0 && !quoted) {
+                    // blank line
+                    continue;
+                }
+                fields.add(toField(field, quoted));
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (inQuotes) {
+            throw new IOException("Unterminated quoted field at line " + (this.lineNumber + 1));
+        }
+        if (!any || (fields.isEmpty() && field.length() == 0 && !quoted)) {
+            return null;
+        }
+        this.lineNumber++;
+        fields.add(toField(field, quoted));
+        return fields;
+    }
+
+    private static String toField(StringBuilder field, boolean quoted) {
+        return field.length() == 0 && !quoted ? null : field.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+}
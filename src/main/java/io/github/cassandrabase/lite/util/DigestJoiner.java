@@ -0,0 +1,41 @@
+package io.github.cassandrabase.lite.util;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Hashes values joined by a delimiter without building the joined string. The result equals
+ * {@code HashGen.generateHash(String.join(delimiter, values), algType)}.
+ */
+public final class DigestJoiner {
+    private final MessageDigest messageDigest;
+    private final byte[] delimiter;
+    private boolean first = true;
+
+    public DigestJoiner(String delimiter, HashGen.ALGType algType) {
+        this.delimiter = delimiter.getBytes(StandardCharsets.UTF_8);
+        if (algType.equals(HashGen.ALGType.MD5)) {
+            this.messageDigest = DigestUtils.getMd5Digest();
+        } else if (algType.equals(HashGen.ALGType.SHA256)) {
+            this.messageDigest = DigestUtils.getSha256Digest();
+        } else {
+            throw new RuntimeException("Invalid alg type : " + algType);
+        }
+    }
+
+    public DigestJoiner add(String value) {
+        if (!this.first) {
+            this.messageDigest.update(this.delimiter);
+        }
+        this.first = false;
+        this.messageDigest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    public String toHex() {
+        return Hex.encodeHexString(this.messageDigest.digest());
+    }
+}
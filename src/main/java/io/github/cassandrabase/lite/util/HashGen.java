@@ -1,6 +1,9 @@
 package io.github.cassandrabase.lite.util;
 
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.codec.digest.MurmurHash3;
+
+import java.nio.charset.StandardCharsets;
 
 public class HashGen {
     public static String generateHash(String input, ALGType algType) {
@@ -8,12 +11,17 @@ public class HashGen {
             return DigestUtils.md5Hex(input);
         } else if (algType.equals(ALGType.SHA256)) {
             return DigestUtils.sha256Hex(input);
+        } else if (algType.equals(ALGType.MURMUR3_128)) {
+            final long[] hash = MurmurHash3.hash128x64(input.getBytes(StandardCharsets.UTF_8));
+            return String.format("%016x%016x", hash[0], hash[1]);
         } else {
             throw new RuntimeException("Invalid alg type : " + algType);
         }
     }
     public enum ALGType {
         SHA256,
-        MD5
+        MD5,
+        // non-cryptographic, for comparing digests that are not stored
+        MURMUR3_128
     }
 }
@@ -0,0 +1,138 @@
+package io.github.cassandrabase.lite.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A text with {@code ${name}} and {@code ${name:-default}} placeholders, parsed once and rendered any number of times.
+ * {@code $${} escapes a placeholder. Values are rendered again when they contain placeholders themselves; a
+ * placeholder without a value and without a default stays in the text. Rendering matches
+ * {@code org.apache.commons.text.StringSubstitutor} with its default settings.
+ */
+public final class StatementTemplate {
+    private static final String PREFIX = "${";
+    private static final String DEFAULT_DELIMITER = ":-";
+    private final String text;
+    // literal text and placeholders alternating, starting and ending with a literal
+    private final List<String> literals;
+    private final List<Placeholder> placeholders;
+
+    private StatementTemplate(String text, List<String> literals, List<Placeholder> placeholders) {
+        this.text = text;
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    public static StatementTemplate compile(String text) {
+        final List<String> literals = new ArrayList<>();
+        final List<Placeholder> placeholders = new ArrayList<>();
+        if (Objects.isNull(text) || !text.contains(PREFIX)) {
+            literals.add(text);
+            return new StatementTemplate(text, literals, placeholders);
+        }
+        final StringBuilder literal = new StringBuilder();
+        int index = 0;
+        while (index < text.length()) {
+            final int start = text.indexOf(PREFIX, index);
+            if (start < 0) {
+                break;
+            }
+            if (start > 0 && text.charAt(start - 1) == '$') {
+                // $${ is the escaped prefix, one $ is dropped
+                literal.append(text, index, start - 1).append(PREFIX);
+                index = start + PREFIX.length();
+                continue;
+            }
+            final int end = text.indexOf('}', start + PREFIX.length());
+            if (end < 0) {
+                break;
+            }
+            literal.append(text, index, start);
+            literals.add(literal.toString());
+            literal.setLength(0);
+            placeholders.add(Placeholder.parse(text.substring(start + PREFIX.length(), end), text.substring(start, end + 1)));
+            index = end + 1;
+        }
+        literals.add(literal.append(text, index, text.length()).toString());
+        return new StatementTemplate(text, literals, placeholders);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean hasPlaceholders() {
+        return !this.placeholders.isEmpty();
+    }
+
+    /**
+     * Whether a placeholder of this text names the variable.
+     */
+    public boolean references(String variable) {
+        return this.placeholders.stream().anyMatch(placeholder -> placeholder.name.equals(variable));
+    }
+
+    /**
+     * @param variables value of a variable, {@code null} if it has none
+     */
+    public String render(Function<String, String> variables) {
+        return this.render(variables, variable -> false);
+    }
+
+    /**
+     * Renders the text, leaving the placeholders of the kept variables as they are, defaults included, so they can be
+     * rendered later.
+     */
+    public String render(Function<String, String> variables, Predicate<String> kept) {
+        if (this.placeholders.isEmpty()) {
+            return this.literals.get(0);
+        }
+        final StringBuilder builder = new StringBuilder(this.text.length());
+        this.renderTo(builder, variables, kept, new LinkedHashSet<>());
+        return builder.toString();
+    }
+
+    private void renderTo(StringBuilder builder, Function<String, String> variables, Predicate<String> kept, Set<String> resolving) {
+        builder.append(this.literals.get(0));
+        for (int i = 0; i < this.placeholders.size(); i++) {
+            this.placeholders.get(i).renderTo(builder, variables, kept, resolving);
+            builder.append(this.literals.get(i + 1));
+        }
+    }
+
+    private record Placeholder(String name, String defaultValue, String source) {
+
+        static Placeholder parse(String content, String source) {
+            final int delimiter = content.indexOf(DEFAULT_DELIMITER);
+            return delimiter < 0 ? new Placeholder(content, null, source)
+                    : new Placeholder(content.substring(0, delimiter), content.substring(delimiter + DEFAULT_DELIMITER.length()), source);
+        }
+
+        void renderTo(StringBuilder builder, Function<String, String> variables, Predicate<String> kept, Set<String> resolving) {
+            if (kept.test(this.name)) {
+                builder.append(this.source);
+                return;
+            }
+            final String variable = variables.apply(this.name);
+            final String value = Objects.nonNull(variable) ? variable : this.defaultValue;
+            if (Objects.isNull(value)) {
+                builder.append(this.source);
+                return;
+            }
+            if (!value.contains(PREFIX)) {
+                builder.append(value);
+                return;
+            }
+            if (!resolving.add(this.name)) {
+                throw new RuntimeException("Infinite loop in property interpolation of " + this.source + " : " + String.join("->", resolving) + "->" + this.name);
+            }
+            compile(value).renderTo(builder, variables, kept, resolving);
+            resolving.remove(this.name);
+        }
+    }
+}
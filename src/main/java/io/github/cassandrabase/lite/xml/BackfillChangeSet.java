@@ -0,0 +1,120 @@
+package io.github.cassandrabase.lite.xml;
+
+import io.github.cassandrabase.lite.BackfillMapper;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlTransient;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Runs its statement once for every row of a table. The table is scanned by token ranges, concurrently and with
+ * paging, and every completed range is checkpointed, so an interrupted backfill resumes with the ranges left. The
+ * bind markers of the statement take the columns of the scanned row with the same name, or the values returned by
+ * the {@link BackfillMapper} named by {@code mapper}.
+ */
+@XmlRootElement(name = "backfill")
+public class BackfillChangeSet extends ChangeSet {
+    private String table;
+    private String columns;
+    private String mapper;
+    private Integer splits;
+    private ClassLoader resourceClassLoader;
+
+    /**
+     * The table scanned, qualified or in the keyspace of the changeLog.
+     */
+    @XmlAttribute(name = "table", required = true)
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        if (!Objects.equals(this.table, table)) {
+            this.table = table;
+            this.invalidateDigests();
+        }
+    }
+
+    /**
+     * Comma separated columns read from the table. Defaults to the bind markers of the statement, or to every column
+     * with a mapper.
+     */
+    @XmlAttribute(name = "columns")
+    public String getColumns() {
+        return columns;
+    }
+
+    public void setColumns(String columns) {
+        if (!Objects.equals(this.columns, columns)) {
+            this.columns = columns;
+            this.invalidateDigests();
+        }
+    }
+
+    @XmlAttribute(name = "mapper")
+    public String getMapper() {
+        return mapper;
+    }
+
+    public void setMapper(String mapper) {
+        if (!Objects.equals(this.mapper, mapper)) {
+            this.mapper = mapper;
+            this.invalidateDigests();
+        }
+    }
+
+    /**
+     * Minimum number of token ranges the ring is split into, {@code null} for the execution options default.
+     */
+    @XmlAttribute(name = "splits")
+    public Integer getSplits() {
+        return splits;
+    }
+
+    public void setSplits(Integer splits) {
+        this.splits = splits;
+    }
+
+    @XmlTransient
+    public ClassLoader getResourceClassLoader() {
+        return Objects.nonNull(resourceClassLoader) ? resourceClassLoader : Thread.currentThread().getContextClassLoader();
+    }
+
+    public void setResourceClassLoader(ClassLoader resourceClassLoader) {
+        this.resourceClassLoader = resourceClassLoader;
+    }
+
+    @XmlTransient
+    public List<String> getColumnList() {
+        if (Objects.isNull(columns) || columns.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(columns.split(",")).map(String::trim).filter(column -> !column.isEmpty()).toList();
+    }
+
+    /**
+     * A new instance of the mapper, {@code null} without one.
+     */
+    public BackfillMapper newMapper() {
+        if (Objects.isNull(mapper) || mapper.isBlank()) {
+            return null;
+        }
+        try {
+            final Class<?> mapperClass = Class.forName(mapper.trim(), true, this.getResourceClassLoader());
+            if (!BackfillMapper.class.isAssignableFrom(mapperClass)) {
+                throw new RuntimeException("Mapper does not implement " + BackfillMapper.class.getName() + " : " + mapper + " [ChangeSetId : " + this.getId() + "]");
+            }
+            return (BackfillMapper) mapperClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Mapper could not be instantiated : " + mapper + " [ChangeSetId : " + this.getId() + "]", e);
+        }
+    }
+
+    @Override
+    protected String getDigestContent() {
+        return this.getStatement() + "#" + table + "#" + Objects.toString(columns, "") + "#" + Objects.toString(mapper, "");
+    }
+}
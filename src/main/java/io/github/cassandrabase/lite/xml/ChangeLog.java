@@ -1,10 +1,13 @@
 package io.github.cassandrabase.lite.xml;
 
 import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElements;
 import jakarta.xml.bind.annotation.XmlRootElement;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @XmlRootElement(name = "changeLog")
 public class ChangeLog {
@@ -15,8 +18,22 @@ public class ChangeLog {
         return changeSets;
     }
 
-    @XmlElement(name = "changeSet", type = ChangeSet.class)
+    @XmlElements({
+            @XmlElement(name = "changeSet", type = ChangeSet.class),
+            @XmlElement(name = "loadData", type = LoadDataChangeSet.class),
+            @XmlElement(name = "backfill", type = BackfillChangeSet.class),
+            @XmlElement(name = "template", type = TemplateChangeSet.class)
+    })
     public void setChangeSets(List<ChangeSet> changeSets) {
         this.changeSets = changeSets;
     }
+
+    /**
+     * The changeSets sorted by order, templates expanded as they are reached. Streams of a streamed changeLog hold an
+     * open resource and must be closed.
+     */
+    public Stream<ChangeSet> streamChangeSets() {
+        // the orders of an expansion are consecutive and validated not to collide, so expanding keeps the order
+        return this.getChangeSets().stream().sorted(Comparator.comparing(ChangeSet::getOrder)).flatMap(ChangeSet::expand);
+    }
 }
@@ -3,12 +3,19 @@ package io.github.cassandrabase.lite.xml;
 import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
 import jakarta.xml.bind.annotation.XmlAttribute;
 import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlList;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import jakarta.xml.bind.annotation.XmlTransient;
+import jakarta.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 import io.github.cassandrabase.lite.util.HashGen;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.stream.Stream;
 
 @XmlRootElement(name = "changeSet")
 public class ChangeSet {
@@ -19,6 +26,13 @@ public class ChangeSet {
     private String rollbackStatement;
     private DefaultConsistencyLevel consistencyLevel;
     private String md5Sum;
+    private List<String> dependsOn = new ArrayList<>();
+    private String executionProfile;
+    private Duration timeout;
+    private Integer pageSize;
+    private Boolean idempotent;
+    // digests of id, author, order and statement, indexed by HashGen.ALGType ordinal; cleared whenever one changes
+    private final String[] digests = new String[HashGen.ALGType.values().length];
 
 
     @XmlAttribute(name = "author", required = true)
@@ -27,7 +41,10 @@ public class ChangeSet {
     }
 
     public void setAuthor(String author) {
-        this.author = author;
+        if (!Objects.equals(this.author, author)) {
+            this.author = author;
+            this.invalidateDigests();
+        }
     }
 
     @XmlAttribute(name = "consistencyLevel", required = true)
@@ -45,21 +62,49 @@ public class ChangeSet {
     }
 
     public void setId(String id) {
-        this.id = id;
+        if (!Objects.equals(this.id, id)) {
+            this.id = id;
+            this.invalidateDigests();
+        }
     }
 
     @XmlTransient
     public String getMd5Sum() {
         if (Objects.isNull(md5Sum)) {
+            md5Sum = this.getDigest(HashGen.ALGType.MD5);
+        }
+        return md5Sum;
+    }
+
+    /**
+     * Digest of the id, author, order and normalized statement with the given algorithm, computed once and cached
+     * until one of them changes. {@link #getMd5Sum()} is the MD5 variant.
+     */
+    public String getDigest(HashGen.ALGType algType) {
+        String digest = digests[algType.ordinal()];
+        if (Objects.isNull(digest)) {
             String row = new StringJoiner("#")
                     .add(this.getId())
                     .add(this.getAuthor())
                     .add(String.valueOf(this.getOrder()))
-                    .add(this.getStatement())
+                    .add(this.getDigestContent())
                     .toString();
-            return HashGen.generateHash(row, HashGen.ALGType.MD5);
+            digest = HashGen.generateHash(row, algType);
+            digests[algType.ordinal()] = digest;
         }
-        return md5Sum;
+        return digest;
+    }
+
+    /**
+     * What the digests cover besides id, author and order.
+     */
+    protected String getDigestContent() {
+        return this.getStatement();
+    }
+
+    protected void invalidateDigests() {
+        this.md5Sum = null;
+        Arrays.fill(this.digests, null);
     }
 
     public void setMd5Sum(String md5Sum) {
@@ -72,21 +117,104 @@ public class ChangeSet {
     }
 
     public void setOrder(Integer order) {
-        this.order = order;
+        if (!Objects.equals(this.order, order)) {
+            this.order = order;
+            this.invalidateDigests();
+        }
     }
 
+    /**
+     * The statement with every whitespace run collapsed to a single space and trimmed; normalized once when set.
+     */
     public String getStatement() {
-        if (Objects.nonNull(statement)) {
-            return statement.replaceAll("[\\n\\r]+", " ")
-                    .replaceAll("\\s+", " ")
-                    .trim();
-        }
-        return null;
+        return statement;
     }
 
     @XmlElement(name = "statement", required = true)
     public void setStatement(String statement) {
-        this.statement = statement;
+        final String normalized = normalize(statement);
+        if (!Objects.equals(this.statement, normalized)) {
+            this.statement = normalized;
+            this.invalidateDigests();
+        }
+    }
+
+    private static String normalize(String statement) {
+        if (Objects.isNull(statement)) {
+            return null;
+        }
+        final StringBuilder builder = new StringBuilder(statement.length());
+        boolean whitespace = false;
+        for (int i = 0; i < statement.length(); i++) {
+            final char c = statement.charAt(i);
+            // same set as the regex \s
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\013' || c == '\f' || c == '\r') {
+                whitespace = true;
+            } else {
+                if (whitespace && builder.length() > 0) {
+                    builder.append(' ');
+                }
+                whitespace = false;
+                builder.append(c);
+            }
+        }
+        return builder.toString().trim();
+    }
+
+    @XmlList
+    @XmlAttribute(name = "dependsOn")
+    public List<String> getDependsOn() {
+        return dependsOn;
+    }
+
+    public void setDependsOn(List<String> dependsOn) {
+        this.dependsOn = dependsOn;
+    }
+
+    /**
+     * Name of a driver execution profile, e.g. one with a longer timeout or speculative execution.
+     */
+    @XmlAttribute(name = "executionProfile")
+    public String getExecutionProfile() {
+        return executionProfile;
+    }
+
+    public void setExecutionProfile(String executionProfile) {
+        this.executionProfile = executionProfile;
+    }
+
+    /**
+     * Request timeout of the statement, overriding the one of the execution profile.
+     */
+    @XmlAttribute(name = "timeout")
+    @XmlJavaTypeAdapter(DurationAdapter.class)
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @XmlAttribute(name = "pageSize")
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Marks the statement safe to retry and to execute speculatively.
+     */
+    @XmlAttribute(name = "idempotent")
+    public Boolean getIdempotent() {
+        return idempotent;
+    }
+
+    public void setIdempotent(Boolean idempotent) {
+        this.idempotent = idempotent;
     }
 
     public String getRollbackStatement() {
@@ -97,6 +225,14 @@ public class ChangeSet {
     public void setRollbackStatement(String rollbackStatement) {
         this.rollbackStatement = rollbackStatement;
     }
+
+    /**
+     * The changeSets applied for this one: itself, or the expansions of a {@link TemplateChangeSet}.
+     */
+    public Stream<ChangeSet> expand() {
+        return Stream.of(this);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(order);
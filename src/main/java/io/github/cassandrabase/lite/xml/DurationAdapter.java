@@ -0,0 +1,41 @@
+package io.github.cassandrabase.lite.xml;
+
+import jakarta.xml.bind.annotation.adapters.XmlAdapter;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads durations either in ISO-8601 ({@code PT30S}) or as a number with a unit ({@code 500ms}, {@code 30s},
+ * {@code 2m}, {@code 1h}).
+ */
+public class DurationAdapter extends XmlAdapter<String, Duration> {
+    private static final Pattern SHORT_FORM = Pattern.compile("(\\d+)\\s*(ms|s|m|h)");
+
+    @Override
+    public Duration unmarshal(String value) {
+        if (Objects.isNull(value) || value.isBlank()) {
+            return null;
+        }
+        final String trimmed = value.trim().toLowerCase(Locale.ROOT);
+        final Matcher matcher = SHORT_FORM.matcher(trimmed);
+        if (matcher.matches()) {
+            final long amount = Long.parseLong(matcher.group(1));
+            return switch (matcher.group(2)) {
+                case "ms" -> Duration.ofMillis(amount);
+                case "s" -> Duration.ofSeconds(amount);
+                case "m" -> Duration.ofMinutes(amount);
+                default -> Duration.ofHours(amount);
+            };
+        }
+        return Duration.parse(value.trim());
+    }
+
+    @Override
+    public String marshal(Duration value) {
+        return Objects.isNull(value) ? null : value.toString();
+    }
+}
@@ -1,13 +1,29 @@
 package io.github.cassandrabase.lite.xml;
 
 import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlTransient;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The files of a changeLog: a {@code path} and any number of nested {@code include}s. Paths are relative to
+ * {@code db/} and may be globs like {@code changelog/*.xml}.
+ * <p>
+ * The files are parsed in parallel on the common fork-join pool and merged into one changeLog sorted by
+ * {@code order}. Orders and ids must be unique across all files; a duplicate is reported with the two files declaring
+ * it. A streamed changeLog must be a single file.
+ */
 @XmlRootElement(name = "include")
 public class Include {
     private String path;
+    private Boolean streaming;
+    private List<Include> includes = new ArrayList<>();
 
-    @XmlAttribute(name = "path", required = true)
+    @XmlAttribute(name = "path")
     public String getPath() {
         return path;
     }
@@ -15,4 +31,40 @@ public class Include {
     public void setPath(String path) {
         this.path = path;
     }
+
+    @XmlAttribute(name = "streaming")
+    public Boolean getStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(Boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    @XmlElement(name = "include")
+    public List<Include> getIncludes() {
+        return includes;
+    }
+
+    public void setIncludes(List<Include> includes) {
+        this.includes = includes;
+    }
+
+    @XmlTransient
+    public boolean isStreaming() {
+        return Boolean.TRUE.equals(streaming);
+    }
+
+    /**
+     * The path followed by the paths of the nested includes, in declaration order.
+     */
+    @XmlTransient
+    public List<String> getPaths() {
+        final List<String> paths = new ArrayList<>();
+        if (Objects.nonNull(this.path)) {
+            paths.add(this.path);
+        }
+        this.includes.forEach(include -> paths.addAll(include.getPaths()));
+        return paths;
+    }
 }
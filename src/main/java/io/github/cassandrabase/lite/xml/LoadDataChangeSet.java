@@ -0,0 +1,206 @@
+package io.github.cassandrabase.lite.xml;
+
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlTransient;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+
+/**
+ * Loads the rows of a CSV resource into a table. The first line of the file names the columns; every row is written
+ * with one prepared INSERT. The statement of this changeSet only describes the load, its digests also cover the
+ * content of the file, so a changed file is loaded again. The SHA-256 of the file can come precomputed from the
+ * changelog snapshot, it is then trusted as long as the file keeps its size and is not modified after it was hashed.
+ * Checksums are also kept process-wide by resource, size and modification time, so loading the XML again, e.g. for
+ * another keyspace, does not read the file again.
+ */
+@XmlRootElement(name = "loadData")
+public class LoadDataChangeSet extends ChangeSet {
+    private static final Map<FileStamp, String> FILE_CHECKSUMS = new ConcurrentHashMap<>();
+    private String file;
+    private String table;
+    private String separator = ",";
+    private ClassLoader resourceClassLoader;
+    private String fileChecksum;
+    private long fileSize = -1;
+    private long fileLastModified;
+    private boolean fileChecksumVerified;
+
+    /**
+     * Relative to {@code db/}, like the changeLog includes.
+     */
+    @XmlAttribute(name = "file", required = true)
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        if (!Objects.equals(this.file, file)) {
+            this.file = file;
+            this.fileChecksum = null;
+            this.fileChecksumVerified = false;
+            this.invalidateDigests();
+        }
+    }
+
+    @XmlAttribute(name = "table", required = true)
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        if (!Objects.equals(this.table, table)) {
+            this.table = table;
+            this.invalidateDigests();
+        }
+    }
+
+    @XmlAttribute(name = "separator")
+    public String getSeparator() {
+        return separator;
+    }
+
+    public void setSeparator(String separator) {
+        this.separator = separator;
+    }
+
+    @XmlTransient
+    public ClassLoader getResourceClassLoader() {
+        return Objects.nonNull(resourceClassLoader) ? resourceClassLoader : Thread.currentThread().getContextClassLoader();
+    }
+
+    public void setResourceClassLoader(ClassLoader resourceClassLoader) {
+        if (!Objects.equals(this.resourceClassLoader, resourceClassLoader)) {
+            this.resourceClassLoader = resourceClassLoader;
+            this.fileChecksum = null;
+            this.fileChecksumVerified = false;
+            this.invalidateDigests();
+        }
+    }
+
+    @XmlTransient
+    public String getResource() {
+        return "db/" + file;
+    }
+
+    public InputStream openResource() {
+        final InputStream inputStream = this.getResourceClassLoader().getResourceAsStream(this.getResource());
+        if (Objects.isNull(inputStream)) {
+            throw new RuntimeException("Data resource not found : " + this.getResource() + " [ChangeSetId : " + this.getId() + "]");
+        }
+        return inputStream;
+    }
+
+    /**
+     * SHA-256 of the file, read once; a precomputed checksum is only used if the file still matches it.
+     */
+    @XmlTransient
+    public String getFileChecksum() {
+        if (!this.fileChecksumVerified) {
+            final FileStamp fileStamp = this.stampFile();
+            // a jar entry keeps the time of the file it was packaged from, to the even second
+            if (Objects.isNull(this.fileChecksum) || fileStamp.size() != this.fileSize || fileStamp.lastModified() <= 0
+                    || fileStamp.lastModified() > this.fileLastModified) {
+                this.fileChecksum = fileStamp.isKnown() ? FILE_CHECKSUMS.computeIfAbsent(fileStamp, key -> this.hashFile()) : this.hashFile();
+                this.fileSize = fileStamp.size();
+                this.fileLastModified = fileStamp.lastModified();
+            }
+            this.fileChecksumVerified = true;
+        }
+        return this.fileChecksum;
+    }
+
+    /**
+     * Size of the file when {@link #getFileChecksum()} was computed.
+     */
+    @XmlTransient
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Modification time of the file when {@link #getFileChecksum()} was computed, 0 if unknown.
+     */
+    @XmlTransient
+    public long getFileLastModified() {
+        return fileLastModified;
+    }
+
+    /**
+     * A checksum computed earlier, e.g. at build time, of the file as it was with the given size and modification
+     * time.
+     */
+    public void setFileChecksum(String fileChecksum, long fileSize, long fileLastModified) {
+        this.fileChecksum = fileChecksum;
+        this.fileSize = fileSize;
+        this.fileLastModified = fileLastModified;
+        this.fileChecksumVerified = false;
+        this.invalidateDigests();
+    }
+
+    private String hashFile() {
+        try (InputStream inputStream = this.openResource()) {
+            return DigestUtils.sha256Hex(inputStream);
+        } catch (IOException e) {
+            throw new RuntimeException("Data resource could not be read : " + this.getResource(), e);
+        }
+    }
+
+    // size and modification time of the resource without opening it; unknown for other than files and jar entries
+    private FileStamp stampFile() {
+        final URL url = this.getResourceClassLoader().getResource(this.getResource());
+        if (Objects.isNull(url)) {
+            throw new RuntimeException("Data resource not found : " + this.getResource() + " [ChangeSetId : " + this.getId() + "]");
+        }
+        try {
+            if ("file".equals(url.getProtocol())) {
+                final Path path = Path.of(url.toURI());
+                return new FileStamp(url.toString(), Files.size(path), Files.getLastModifiedTime(path).toMillis());
+            }
+            final URLConnection connection = url.openConnection();
+            if (connection instanceof JarURLConnection jarURLConnection) {
+                // the connection reports the modification time of the jar, not of the entry
+                final JarEntry jarEntry = jarURLConnection.getJarEntry();
+                return new FileStamp(url.toString(), jarEntry.getSize(), jarEntry.getTime());
+            }
+            return new FileStamp(url.toString(), -1, 0);
+        } catch (IOException | URISyntaxException e) {
+            throw new RuntimeException("Data resource could not be read : " + this.getResource(), e);
+        }
+    }
+
+    @Override
+    public String getStatement() {
+        return "INSERT INTO " + table + " FROM '" + file + "'";
+    }
+
+    /**
+     * The statement is derived from the table and the file.
+     */
+    @Override
+    public void setStatement(String statement) {
+    }
+
+    @Override
+    protected String getDigestContent() {
+        return this.getStatement() + "#" + separator + "#" + this.getFileChecksum();
+    }
+
+    private record FileStamp(String url, long size, long lastModified) {
+        boolean isKnown() {
+            return size >= 0 && lastModified > 0;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.cassandrabase.lite.xml;
+
+import io.github.cassandrabase.lite.util.StatementTemplate;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A changeSet repeated for every value of a list or a range, e.g. one table per tenant or per time bucket. The
+ * variable named by {@code forEach} is a placeholder of the id, the statements and the dependencies. Expansion
+ * {@code i} gets the order {@code order + i} and the id with the value, so its digest is stable as long as the
+ * template and the value are. The orders of the expansions must not collide with other changeSets.
+ * <p>
+ * Expansions are rendered from the statements compiled once, each time the changeLog is streamed; they are never
+ * held in the changeLog.
+ */
+@XmlRootElement(name = "template")
+public class TemplateChangeSet extends ChangeSet {
+    private String forEach;
+    private String in;
+    private Integer from;
+    private Integer to;
+    private volatile Compiled compiled;
+
+    @XmlAttribute(name = "forEach", required = true)
+    public String getForEach() {
+        return forEach;
+    }
+
+    public void setForEach(String forEach) {
+        this.forEach = forEach;
+    }
+
+    /**
+     * Comma separated values, usually a single property like {@code ${tenants}}.
+     */
+    @XmlAttribute(name = "in")
+    public String getIn() {
+        return in;
+    }
+
+    public void setIn(String in) {
+        this.in = in;
+    }
+
+    /**
+     * First value of a numeric range, with {@link #getTo()} instead of {@link #getIn()}.
+     */
+    @XmlAttribute(name = "from")
+    public Integer getFrom() {
+        return from;
+    }
+
+    public void setFrom(Integer from) {
+        this.from = from;
+    }
+
+    /**
+     * Last value of the range, inclusive.
+     */
+    @XmlAttribute(name = "to")
+    public Integer getTo() {
+        return to;
+    }
+
+    public void setTo(Integer to) {
+        this.to = to;
+    }
+
+    /**
+     * Whether the values are known, i.e. {@link #getIn()} has no placeholder left.
+     */
+    public boolean isResolved() {
+        return Objects.isNull(this.in) || !this.in.contains("${");
+    }
+
+    public int size() {
+        return this.compile().size();
+    }
+
+    /**
+     * Replaces the placeholders of properties; the ones of the {@code forEach} variable are kept for the expansion.
+     */
+    public void resolve(Function<String, String> properties) {
+        final Predicate<String> kept = variable -> variable.equals(this.forEach);
+        this.setId(render(this.getId(), properties, kept));
+        this.setStatement(render(this.getStatement(), properties, kept));
+        this.setRollbackStatement(render(this.getRollbackStatement(), properties, kept));
+        this.setDependsOn(this.getDependsOn().stream().map(dependsOn -> render(dependsOn, properties, kept)).toList());
+        this.setIn(render(this.in, properties, kept));
+    }
+
+    private static String render(String text, Function<String, String> properties, Predicate<String> kept) {
+        return StatementTemplate.compile(text).render(properties, kept);
+    }
+
+    @Override
+    public Stream<ChangeSet> expand() {
+        if (!this.isResolved()) {
+            throw new RuntimeException("Unresolved values of template. [ChangeSetId : " + this.getId() + ", In : " + this.in + "]");
+        }
+        final Compiled template = this.compile();
+        return IntStream.range(0, template.size()).mapToObj(index -> this.expansion(template, index));
+    }
+
+    private ChangeSet expansion(Compiled template, int index) {
+        final String value = template.value(index);
+        final Function<String, String> variables = name -> template.forEach.equals(name) ? value : null;
+        final ChangeSet changeSet = new ChangeSet();
+        changeSet.setId(template.id.render(variables));
+        changeSet.setAuthor(this.getAuthor());
+        changeSet.setOrder(this.getOrder() + index);
+        changeSet.setConsistencyLevel(this.getConsistencyLevel());
+        changeSet.setStatement(template.statement.render(variables));
+        changeSet.setRollbackStatement(template.rollbackStatement.render(variables));
+        changeSet.setDependsOn(template.dependsOn.stream().map(dependsOn -> dependsOn.render(variables)).toList());
+        changeSet.setExecutionProfile(this.getExecutionProfile());
+        changeSet.setTimeout(this.getTimeout());
+        changeSet.setPageSize(this.getPageSize());
+        changeSet.setIdempotent(this.getIdempotent());
+        return changeSet;
+    }
+
+    // compiled again only when the template changed, e.g. once properties are resolved
+    private Compiled compile() {
+        Compiled template = this.compiled;
+        if (Objects.isNull(template) || !template.isCompiledFrom(this)) {
+            template = new Compiled(this);
+            this.compiled = template;
+        }
+        return template;
+    }
+
+    private static final class Compiled {
+        private final String forEach;
+        private final String in;
+        private final Integer from;
+        private final Integer to;
+        private final List<String> dependsOnSources;
+        private final StatementTemplate id;
+        private final StatementTemplate statement;
+        private final StatementTemplate rollbackStatement;
+        private final List<StatementTemplate> dependsOn;
+        private final List<String> values;
+
+        private Compiled(TemplateChangeSet templateChangeSet) {
+            this.forEach = templateChangeSet.forEach;
+            this.in = templateChangeSet.in;
+            this.from = templateChangeSet.from;
+            this.to = templateChangeSet.to;
+            this.dependsOnSources = List.copyOf(templateChangeSet.getDependsOn());
+            this.id = StatementTemplate.compile(templateChangeSet.getId());
+            this.statement = StatementTemplate.compile(templateChangeSet.getStatement());
+            this.rollbackStatement = StatementTemplate.compile(templateChangeSet.getRollbackStatement());
+            this.dependsOn = this.dependsOnSources.stream().map(StatementTemplate::compile).toList();
+            final String description = " [ChangeSetId : " + templateChangeSet.getId() + "]";
+            if (Objects.isNull(this.forEach) || this.forEach.isBlank()) {
+                throw new RuntimeException("Template without forEach variable." + description);
+            }
+            if (Objects.isNull(this.in) == (Objects.isNull(this.from) || Objects.isNull(this.to))) {
+                throw new RuntimeException("Template needs either in or from and to." + description);
+            }
+            if (Objects.nonNull(this.in)) {
+                this.values = Arrays.stream(this.in.split(",")).map(String::trim).filter(value -> !value.isEmpty()).toList();
+                final Set<String> distinct = new HashSet<>();
+                this.values.stream().filter(value -> !distinct.add(value)).findFirst().ifPresent(value -> {
+                    throw new RuntimeException("Duplicate template value " + value + "." + description);
+                });
+            } else if (this.from > this.to) {
+                throw new RuntimeException("Template range is empty. [ChangeSetId : " + templateChangeSet.getId() + ", From : " + this.from + ", To : " + this.to + "]");
+            } else {
+                this.values = null;
+            }
+            if (!this.id.references(this.forEach)) {
+                throw new RuntimeException("Template id must contain ${" + this.forEach + "}." + description);
+            }
+        }
+
+        private boolean isCompiledFrom(TemplateChangeSet templateChangeSet) {
+            return Objects.equals(this.forEach, templateChangeSet.forEach) && Objects.equals(this.in, templateChangeSet.in)
+                    && Objects.equals(this.from, templateChangeSet.from) && Objects.equals(this.to, templateChangeSet.to)
+                    && Objects.equals(this.id.getText(), templateChangeSet.getId())
+                    && Objects.equals(this.statement.getText(), templateChangeSet.getStatement())
+                    && Objects.equals(this.rollbackStatement.getText(), templateChangeSet.getRollbackStatement())
+                    && Objects.equals(this.dependsOnSources, templateChangeSet.getDependsOn());
+        }
+
+        private int size() {
+            return Objects.nonNull(this.values) ? this.values.size() : this.to - this.from + 1;
+        }
+
+        // values of a range are not materialized
+        private String value(int index) {
+            return Objects.nonNull(this.values) ? this.values.get(index) : String.valueOf(this.from + index);
+        }
+    }
+}